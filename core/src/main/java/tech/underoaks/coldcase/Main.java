@@ -2,8 +2,10 @@ package tech.underoaks.coldcase;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import tech.underoaks.coldcase.game.GameController;
 import tech.underoaks.coldcase.game.PlayerController;
+import tech.underoaks.coldcase.game.RenderStatistics;
 import tech.underoaks.coldcase.game.TextureController;
 import tech.underoaks.coldcase.game.TextureFactory;
 import tech.underoaks.coldcase.game.UITextureController;
@@ -21,8 +23,20 @@ import java.util.Properties;
 public class Main extends Game {
     private static final String propertiesPath = ".properties";
     private static final Properties properties = new Properties();
+    private static final RenderStatistics renderStatistics = new RenderStatistics();
     private float fixedUpdateClock = 0f;
 
+    /**
+     * Counts the draw calls and texture binds of every frame; {@code null} unless enabled by the properties
+     */
+    private GLProfiler profiler = null;
+    private float renderStatisticsClock = 0f;
+
+    /**
+     * Whether the previous frame has been the last one before waiting for an event, if rendering isn't continuous
+     */
+    private boolean idle = false;
+
     @Override
     public void create() {
         //load properties from file
@@ -40,15 +54,82 @@ public class Main extends Game {
             UITextureController.create(new TextureFactory());
         }
 
+        // Render Statistics
+        if (Boolean.parseBoolean(properties.getProperty("render_statistics", "false"))) {
+            profiler = new GLProfiler(Gdx.graphics);
+            profiler.enable();
+        }
+
+        // Frames are only rendered on input, posted tasks or requests, unless enabled by the properties
+        Gdx.graphics.setContinuousRendering(Boolean.parseBoolean(properties.getProperty("continuous_rendering", "true")));
+
         // Stage Management
         StageManager.create(this);
         StageManager.getInstance().showScreen(Stages.MAIN_MENU);
     }
 
     public void render() {
+        if (idle) {
+            // The delta of the first frame after waiting spans the whole wait, don't let it trigger a held key again
+            fixedUpdateClock = 0f;
+        }
+        GameController.processCommands();
         super.render();
         float delta = Gdx.graphics.getDeltaTime();
         fixedUpdate(delta);
+        recordRenderStatistics(delta);
+
+        if (!Gdx.graphics.isContinuousRendering()) {
+            idle = !hasPendingWork();
+            if (!idle) {
+                Gdx.graphics.requestRendering();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the following frames have to be rendered even without an event, because updates, a held key
+     * or a stage change are processed by the fixed updates.
+     *
+     * @return True if another frame is needed, false if the game can wait for the next event.
+     */
+    private boolean hasPendingWork() {
+        return !GameController.getInstance().isPendingGSUQueueEmpty()
+            || PlayerController.getInstance().isMoving()
+            || StageManager.getInstance().isStageChangePending();
+    }
+
+    /**
+     * Requests a frame to be rendered, e.g. after a change that doesn't originate from input or an action.
+     * <p>
+     * Only necessary if rendering isn't continuous. Can be called from any thread, and does nothing without an
+     * application.
+     * </p>
+     */
+    public static void requestRendering() {
+        if (Gdx.graphics != null) {
+            Gdx.graphics.requestRendering();
+        }
+    }
+
+    /**
+     * Records the draw calls and texture binds of the rendered frame and logs them once per second.
+     *
+     * @param delta time since last frame
+     */
+    private void recordRenderStatistics(float delta) {
+        if (profiler == null) {
+            return;
+        }
+        renderStatistics.record(profiler.getDrawCalls(), profiler.getTextureBindings());
+        profiler.reset();
+
+        renderStatisticsClock += delta;
+        if (renderStatisticsClock >= 1f) {
+            renderStatisticsClock = 0f;
+            System.out.println(renderStatistics);
+            renderStatistics.reset();
+        }
     }
 
     /**
@@ -78,6 +159,15 @@ public class Main extends Game {
         return properties;
     }
 
+    /**
+     * Gets the statistics about the draw calls and texture binds of the rendered frames.
+     * Frames are only recorded if {@code render_statistics} is enabled in the {@link Properties}.
+     * @return The render statistics of the frames since they have been logged last
+     */
+    public static RenderStatistics getRenderStatistics() {
+        return renderStatistics;
+    }
+
     public void dispose() {
         WebSocketClient.getInstance().closeSession();
         super.dispose();
@@ -1,9 +1,16 @@
 package tech.underoaks.coldcase.game;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector2;
+import tech.underoaks.coldcase.Main;
+import tech.underoaks.coldcase.remote.Messages;
 import tech.underoaks.coldcase.remote.RemoteGameController;
+import tech.underoaks.coldcase.remote.WebSocketClient;
+import tech.underoaks.coldcase.remote.WebSocketMessagesManager;
 import tech.underoaks.coldcase.state.InteractionChain;
 import tech.underoaks.coldcase.state.Map;
 import tech.underoaks.coldcase.state.Snapshot;
+import tech.underoaks.coldcase.state.tileContent.Player;
 import tech.underoaks.coldcase.state.tileContent.TileContent;
 import tech.underoaks.coldcase.state.tileContent.UpdateTileContentException;
 import tech.underoaks.coldcase.state.tileContent.VisibilityStates;
@@ -11,10 +18,13 @@ import tech.underoaks.coldcase.state.tiles.Tile;
 import tech.underoaks.coldcase.state.updates.GameStateUpdate;
 import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
 import java.util.Queue;
 import java.util.LinkedList;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -31,6 +41,11 @@ public class GameController {
      */
     private static GameController instance;
 
+    /**
+     * Commands posted to the game thread
+     */
+    private static final GameStateMailbox mailbox = new GameStateMailbox();
+
     /**
      * Active game map
      */
@@ -46,6 +61,32 @@ public class GameController {
      */
     private final Queue<GameStateUpdate> pendingUpdates = new LinkedList<>();
 
+    /**
+     * Transcendent state hash of the remote interaction chain after its last simulated interaction
+     */
+    private long remoteChainStateHash;
+
+    /**
+     * Undo/redo history of the updates applied to the current map
+     */
+    private final UndoHistory history = new UndoHistory();
+
+    /**
+     * The player's inventory when the remote interaction chain has been created
+     */
+    private TileContent remoteChainInventory;
+
+    /**
+     * Precomputed outcomes of the interactions the player is able to trigger next
+     */
+    private final SpeculationCache speculations = new SpeculationCache();
+
+    /**
+     * Version of the state of the current map; advanced on every modification, so that speculations can cheaply
+     * check whether they are still valid
+     */
+    private long stateVersion;
+
     private GameController() {
         this.uuid = UUID.randomUUID();
     }
@@ -70,84 +111,99 @@ public class GameController {
     }
 
     /**
-     * Triggers an action at the specified position in the given direction.
+     * Triggers an action at the specified position in the given direction without blocking the calling thread.
+     * <p>
+     * Local interactions are simulated right away. If the interaction has to be simulated on the other client as
+     * well, the simulation continues on the game thread once the other client has responded, so the game keeps
+     * rendering in the meantime. The resulting updates are enqueued once the whole interaction chain has been
+     * simulated. Only one interaction can be running at a time, and none is started while the connection to the
+     * other client is {@link WebSocketClient#isBackpressured() backpressured}.
+     * </p>
      *
      * @param interaction The interaction to trigger.
-     * @return True if the action was successfully triggered, false otherwise.
+     * @return A future completed with true if the action was successfully triggered, false otherwise.
      */
-    public boolean triggerAction(Interaction interaction) {
+    public CompletableFuture<Boolean> triggerActionAsync(Interaction interaction) {
+        if (!interactions.isEmpty() || WebSocketClient.getInstance().isBackpressured()) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        SpeculationCache.Speculation speculation = takeSpeculation(interaction);
+        if (speculation != null) {
+            return CompletableFuture.completedFuture(commitSpeculation(speculation));
+        }
+
         InteractionChain chain = createInteractionChain();
+        TileContent inventoryBefore = PlayerController.getInstance().getInventory();
+        interactions.push(chain);
 
-        // Trigger local action
+        CompletableFuture<Boolean> result;
         try {
-            interactions.push(chain);
-            boolean result = GameController.triggerAction(chain, interaction);
-            if (!result) {
-                return false;
-            }
-
-            GameController.triggerQueuedLocalActions(interactions, chain);
-            GameController.triggerQueuedRemoteActions(chain);
-        } catch (TimeoutException e) {
-            System.err.println("TIMEOUT in triggerAction");
-            return false;
-        } finally {
-            interactions.pop();
+            result = GameController.triggerActionAsync(chain, interaction).thenCompose(handled -> {
+                if (!handled) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                return GameController.triggerQueuedLocalActionsAsync(interactions, chain)
+                    .thenCompose(ignored -> GameController.triggerQueuedRemoteActionsAsync(interactions, chain))
+                    .thenApply(ignored -> true);
+            });
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
         }
 
-        //applyGSUQueue(currentMap, chain.getGSUQueue());
-        pendingUpdates.addAll(chain.getGSUQueue());
-        return true;
-    }
+        return result.handle((handled, e) -> {
+            interactions.remove(chain);
+            chain.getSnapshot().release();
+            if (e != null) {
+                if (e instanceof TimeoutException || e.getCause() instanceof TimeoutException) {
+                    System.err.println("TIMEOUT in triggerAction");
+                } else {
+                    System.err.println("Interaction failed: " + e.getMessage());
+                }
+                return false;
+            }
+            if (!handled) {
+                return false;
+            }
 
-    /**
-     * Triggers an action using the provided interaction chain, target position, and direction.
-     *
-     * @param testChain       The interaction chain to use.
-     * @param interaction     The interaction to trigger.
-     * @return True if the action was successfully triggered, false otherwise.
-     */
-    public static boolean triggerAction(InteractionChain testChain, Interaction interaction) {
-        return triggerAction(testChain, interaction, false);
+            history.beginStep(chain.getGSUQueue(), inventoryBefore, PlayerController.getInstance().getInventory());
+            pendingUpdates.addAll(chain.getGSUQueue());
+            return true;
+        });
     }
 
     /**
-     * Triggers an action using the provided interaction chain, target position, and direction,
-     * with an option to suppress transcendent follow-up actions.
+     * Triggers an action using the provided interaction chain without blocking the calling thread.
+     * <p>
+     * Transcendent actions are triggered on the remote client as well; the returned future is completed on the
+     * game thread once it has responded.
+     * </p>
      *
-     * @param testChain                    The interaction chain to use.
-     * @param interaction     The interaction to trigger.
-     * @param suppressTranscendentFollowUp If true, suppresses triggering of transcendent follow-up actions.
-     * @return True if the action was successfully triggered, false otherwise.
+     * @param chain       The interaction chain to use.
+     * @param interaction The interaction to trigger.
+     * @return A future completed with true if the action was successfully triggered, false otherwise.
      */
-    public static boolean triggerAction(InteractionChain testChain, Interaction interaction, boolean suppressTranscendentFollowUp) {
-        RemoteGameController remote = null;
-        try {
-            TileContent handler = GameController.triggerLocalAction(testChain, interaction);
-            if (handler == null) {
-                return false;
-            }
+    public static CompletableFuture<Boolean> triggerActionAsync(InteractionChain chain, Interaction interaction) {
+        TileContent handler = GameController.triggerLocalAction(chain, interaction);
+        if (handler == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!handler.getVisibilityState().equals(VisibilityStates.TRANSCENDENT)) {
+            return CompletableFuture.completedFuture(true);
+        }
 
-            // If local action was transcendent, trigger the same action on the remote client
-            if (!suppressTranscendentFollowUp && handler.getVisibilityState().equals(VisibilityStates.TRANSCENDENT)) {
-                remote = new RemoteGameController();
-                Queue<Interaction> newRemoteActions = remote.triggerAction(interaction, true); // Suppress Transcended Trigger
-                if (newRemoteActions != null) {
-                    testChain.getPendingRemoteActions().addAll(newRemoteActions);
-                } else {
+        // Trigger and commit the same action on the remote client in a single round trip
+        Queue<Interaction> remoteInteractions = new LinkedList<>();
+        remoteInteractions.add(interaction);
+        long expectedStateHash = chain.getSnapshot().getSnapshotMap().getTranscendentHash();
+        return onGameThread(RemoteGameController.executeTransactionAsync(remoteInteractions, true, expectedStateHash))
+            .thenApply(response -> {
+                if (response == null) {
                     return false;
                 }
-            }
-
-            return true;
-        } catch (TimeoutException e) {
-            System.err.println("TIMEOUT");
-            return false;
-        } finally {
-            if (remote != null) {
-                remote.close();
-            }
-        }
+                chain.getPendingRemoteActions().addAll(response.getInteractions());
+                return true;
+            });
     }
 
     /**
@@ -164,22 +220,24 @@ public class GameController {
         if (snapshotMap.isOutOfBounds(interaction.getTargetPos())) {
             return null;
         }
-        Tile targetTile = snapshotMap.getTile(interaction.getTargetPos());
+        // The contents of the target look themselves up by identity while acting, and the handler keeps being
+        // looked up by the updates, so its row has to be owned by the snapshot before any update copies it
+        Tile targetTile = snapshotMap.getWritableTile(interaction.getTargetPos());
         if (targetTile == null) {
             return null;
         }
 
-        TileContent targetTileContent = targetTile.getTileContent();
-        if (targetTileContent == null) {
+        if (targetTile.getTileContent() == null) {
             return null;
         }
 
         // Actions will be handled inside a secured body to ensure only valid actions will be
         // applied to the running instance
         TileContent handler;
+        int savepoint = chain.savepoint();
         try {
             // Trigger initial action
-            handler = targetTileContent.handleAction(chain, interaction);
+            handler = targetTile.handleAction(chain, interaction);
             if (handler == null) {
                 return null;
             }
@@ -189,6 +247,7 @@ public class GameController {
         } catch (UpdateTileContentException e) {
             System.err.println("Update tile content failed");
             System.err.println(e.getMessage());
+            chain.rollbackTo(savepoint);
             return null;
         } catch (GameStateUpdateException e) {
             throw new RuntimeException("Couldn't handle action", e);
@@ -199,22 +258,110 @@ public class GameController {
 
 
     /**
-     * Triggers a remote action at the specified position and direction.
+     * Triggers a batch of remote actions within a single remote interaction chain without blocking the calling thread.
+     * <p>
+     * The whole batch costs a single round trip; the follow-up actions of all remote actions are added to the chain.
+     * Remote actions handled by transcendent content are handed back by the remote client and triggered locally
+     * once it has committed them, since the remote client must not wait for this one while it is waiting itself.
+     * </p>
      *
-     * @param chain           The interaction chain to use.
-     * @param interaction     The interaction to trigger.
-     * @throws TimeoutException When the remote client is not responding
+     * @param chain   The interaction chain to use.
+     * @param actions The remote actions to trigger in order.
+     * @return A future completed on the game thread once the remote client has responded, or completed
+     * exceptionally with a {@link TimeoutException} if it is not responding or with an
+     * {@link IllegalStateException} if a transcendent action couldn't be triggered locally.
      */
-    public static void triggerRemoteAction(InteractionChain chain, Interaction interaction) throws TimeoutException {
-        try (RemoteGameController remote = new RemoteGameController()) {
-            Queue<Interaction> newRemoteActions = remote.triggerAction(interaction);
-            if (newRemoteActions == null) {
+    public static CompletableFuture<Void> triggerRemoteActionsAsync(InteractionChain chain, Queue<Interaction> actions) {
+        return onGameThread(dispatchRemoteActions(actions)).thenAccept(response -> {
+            if (response == null) {
                 return;
             }
-            chain.getPendingRemoteActions().addAll(newRemoteActions);
+            chain.getPendingRemoteActions().addAll(response.getInteractions());
+            if (response.getTranscendentInteractions() == null) {
+                return;
+            }
+            for (Interaction interaction : response.getTranscendentInteractions()) {
+                if (GameController.triggerLocalAction(chain, interaction) == null) {
+                    // The other client has already committed the interaction, so both states differ from now on
+                    System.err.println("Transcendent interaction of the other client couldn't be triggered locally");
+                    postToGameThread(() -> LevelManager.getInstance().resyncLevel());
+                    throw new IllegalStateException("Transcendent state desync");
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends a batch of remote actions as a single remote transaction and records its size and latency.
+     *
+     * @param actions The remote actions to trigger in order.
+     * @return A future completed with the response of the other client, or with {@code null} if the batch has been
+     * aborted.
+     * @see RemoteGameController#getBatchStatistics()
+     */
+    private static CompletableFuture<Messages.ExecuteRemoteTransactionResponseMessage> dispatchRemoteActions(Queue<Interaction> actions) {
+        int size = actions.size();
+        long start = System.nanoTime();
+        return RemoteGameController.executeTransactionAsync(actions, false, null)
+            .whenComplete((response, e) -> RemoteGameController.getBatchStatistics().record(size, System.nanoTime() - start));
+    }
+
+    /**
+     * Continues a future on the game thread.
+     * <p>
+     * Futures that are already done are returned as they are, so their continuations run on the current thread.
+     * </p>
+     *
+     * @param future The future to continue.
+     * @param <T>    The result type of the future.
+     * @return A future completed on the game thread with the result of the given one.
+     */
+    private static <T> CompletableFuture<T> onGameThread(CompletableFuture<T> future) {
+        if (future.isDone()) {
+            return future;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, e) -> postToGameThread(() -> {
+            if (e != null) {
+                result.completeExceptionally(e);
+            } else {
+                result.complete(value);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Posts a task to the {@link GameStateMailbox} to be run on the game thread, or runs it right away if no
+     * application is running.
+     * <p>
+     * Every mutation of the game state that doesn't originate from the game thread itself has to go through here.
+     * </p>
+     *
+     * @param task The task to run.
+     * @see #processCommands()
+     */
+    public static void postToGameThread(Runnable task) {
+        if (Gdx.app == null) {
+            task.run();
+        } else {
+            mailbox.post(task);
+            Main.requestRendering();
         }
     }
 
+    /**
+     * Runs every task posted to the game thread so far, in order.
+     * <p>
+     * Meant to be called by the game thread once per frame, before rendering.
+     * </p>
+     *
+     * @return The number of tasks that have been run.
+     */
+    public static int processCommands() {
+        return mailbox.drain();
+    }
+
     /**
      * Applies the next pending GameStateUpdate to the current map.
      */
@@ -223,7 +370,75 @@ public class GameController {
             return;
         }
         GameStateUpdate gsu = pendingUpdates.remove();
+        onStateChanged();
+        history.recordBeforeApply(currentMap);
+        GameStateUpdate inverse = gsu.createInverse(currentMap);
         gsu.apply(currentMap);
+        history.recordApplied(currentMap, inverse);
+        // The update is applied after the map has been drawn, so it needs another frame to be seen
+        Main.requestRendering();
+    }
+
+    /**
+     * Reverts the most recent step applied to the current map.
+     * <p>
+     * If the step changed the state shared with the other client, the other client is asked to undo its steps
+     * until both are back in the same state.
+     * </p>
+     *
+     * @return True if a step has been undone, false if there was nothing to undo or updates or messages are still
+     * pending.
+     */
+    public boolean undo() {
+        if (!pendingUpdates.isEmpty() || !interactions.isEmpty() || WebSocketClient.getInstance().isBackpressured()) {
+            return false;
+        }
+        UndoHistory.Step step = history.undo(currentMap);
+        if (step == null) {
+            return false;
+        }
+        onStateChanged();
+        updatePlayerPosition();
+        if (step.isTranscendent()) {
+            WebSocketMessagesManager.undoStep(step.getHashBefore());
+        }
+        return true;
+    }
+
+    /**
+     * Re-applies the most recently undone step to the current map.
+     * <p>
+     * If the step changed the state shared with the other client, the other client is asked to redo its steps
+     * until both are back in the same state.
+     * </p>
+     *
+     * @return True if a step has been redone, false if there was nothing to redo or updates or messages are still
+     * pending.
+     */
+    public boolean redo() {
+        if (!pendingUpdates.isEmpty() || !interactions.isEmpty() || WebSocketClient.getInstance().isBackpressured()) {
+            return false;
+        }
+        UndoHistory.Step step = history.redo(currentMap);
+        if (step == null) {
+            return false;
+        }
+        onStateChanged();
+        updatePlayerPosition();
+        if (step.isTranscendent()) {
+            WebSocketMessagesManager.redoStep(step.getHashAfter());
+        }
+        return true;
+    }
+
+    /**
+     * Moves the {@link PlayerController} to the position of the {@link Player} on the current map.
+     */
+    private void updatePlayerPosition() {
+        Vector2 playerPosition = currentMap.getTileContentByType(Player.class);
+        if (playerPosition != null) {
+            PlayerController.getInstance().setPlayerPosition(playerPosition);
+        }
     }
 
     /**
@@ -235,6 +450,145 @@ public class GameController {
         return pendingUpdates.isEmpty();
     }
 
+    /**
+     * Checks if an interaction chain is currently being simulated.
+     *
+     * @return True if an interaction is running, false otherwise.
+     */
+    public boolean isInteractionRunning() {
+        return !interactions.isEmpty();
+    }
+
+    // SPECULATION
+
+    /**
+     * Precomputes the outcome of the next interaction the player might trigger.
+     * <p>
+     * Meant to be called once per frame. While the game is idle, every call evaluates one of the four moves and
+     * the interactions with the four neighbouring tiles against a snapshot of the current map. If the player
+     * triggers one of them before the state changes, {@link #triggerActionAsync(Interaction)} commits the precomputed
+     * updates instead of simulating the interaction again.
+     * </p>
+     * <p>
+     * Interactions involving the other client or further queued interactions are not speculated and will be
+     * simulated as usual.
+     * </p>
+     *
+     * @return True if there are interactions left to speculate for the current state, false otherwise.
+     */
+    public boolean speculate() {
+        Vector2 playerPosition = PlayerController.getInstance().getPlayerPosition();
+        if (currentMap == null || playerPosition == null || !pendingUpdates.isEmpty() || !interactions.isEmpty()) {
+            return false;
+        }
+
+        if (!speculations.isActive()) {
+            List<Interaction> candidates = new ArrayList<>();
+            for (Direction direction : Direction.values()) {
+                candidates.add(new Interaction(playerPosition, direction, Player.class));
+                candidates.add(new Interaction(playerPosition.cpy().add(direction.getVector()), direction, Player.class));
+            }
+            speculations.begin(stateVersion, playerPosition, PlayerController.getInstance().getInventory(), candidates);
+        }
+
+        Interaction candidate = speculations.nextCandidate();
+        if (candidate == null) {
+            return false;
+        }
+        SpeculationCache.Speculation speculation = speculateAction(candidate);
+        if (speculation != null) {
+            speculations.store(candidate, speculation);
+        }
+        return speculations.hasCandidates();
+    }
+
+    /**
+     * Simulates an interaction on a snapshot of the current map and a copy of the player's state, so that neither the
+     * map nor the player are affected.
+     *
+     * @param interaction The interaction to simulate.
+     * @return The outcome of the interaction, or {@code null} if it cannot be speculated.
+     */
+    private SpeculationCache.Speculation speculateAction(Interaction interaction) {
+        PlayerController actualPlayer = PlayerController.beginSimulation();
+        PlayerController player = PlayerController.getInstance();
+
+        InteractionChain chain = createInteractionChain();
+        try {
+            // The player always looks towards the direction of its interactions
+            player.setPlayerDirection(interaction.getActionDirection());
+            TileContent handler = triggerLocalAction(chain, interaction);
+            if (handler != null && (handler.getVisibilityState().equals(VisibilityStates.TRANSCENDENT)
+                || !chain.getPendingActions().isEmpty() || !chain.getPendingRemoteActions().isEmpty())) {
+                return null;
+            }
+            return new SpeculationCache.Speculation(handler != null, chain.getGSUQueue(),
+                player.getPlayerPosition(), player.getPlayerDirection(), player.getInventory());
+        } catch (RuntimeException e) {
+            return null;
+        } finally {
+            chain.getSnapshot().release();
+            PlayerController.endSimulation(actualPlayer);
+        }
+    }
+
+    /**
+     * Removes the speculated outcome of an interaction from the cache, if it has been computed in the current state.
+     *
+     * @param interaction The interaction that is about to be triggered.
+     * @return The speculated outcome, or {@code null} if there is no valid speculation.
+     */
+    private SpeculationCache.Speculation takeSpeculation(Interaction interaction) {
+        if (!interactions.isEmpty() || !pendingUpdates.isEmpty()) {
+            return null;
+        }
+        SpeculationCache.Speculation speculation = speculations.take(interaction);
+        if (speculation == null) {
+            return null;
+        }
+
+        PlayerController player = PlayerController.getInstance();
+        if (!speculations.isValidFor(stateVersion, player.getPlayerPosition(), player.getInventory())) {
+            speculations.invalidate();
+            return null;
+        }
+        return speculation;
+    }
+
+    /**
+     * Commits a speculated outcome as if the interaction had just been simulated.
+     *
+     * @param speculation The speculated outcome.
+     * @return True if the interaction has been handled, false otherwise.
+     */
+    private boolean commitSpeculation(SpeculationCache.Speculation speculation) {
+        PlayerController player = PlayerController.getInstance();
+        TileContent inventoryBefore = player.getInventory();
+        player.setPlayerPosition(speculation.getPlayerPosition());
+        player.setPlayerDirection(speculation.getPlayerDirection());
+        if (speculation.getInventory() != inventoryBefore) {
+            player.setInventory(speculation.getInventory());
+        }
+        if (!speculation.isAccepted()) {
+            return false;
+        }
+
+        history.beginStep(speculation.getUpdates(), inventoryBefore, speculation.getInventory());
+        pendingUpdates.addAll(speculation.getUpdates());
+        return true;
+    }
+
+    /**
+     * Advances the version of the map state and discards the speculations computed in the previous one.
+     * <p>
+     * Has to be called whenever the current map is modified or replaced.
+     * </p>
+     */
+    private void onStateChanged() {
+        stateVersion++;
+        speculations.invalidate();
+    }
+
     /**
      * Gets the current 'live'-Map
      * @return {@link Map}
@@ -249,6 +603,8 @@ public class GameController {
      */
     public void setCurrentMap(Map map) {
         this.currentMap = map;
+        history.clear();
+        onStateChanged();
     }
 
     /**
@@ -277,30 +633,87 @@ public class GameController {
 
     /**
      * Handles triggering of a remote interaction.
+     * <p>
+     * The other client is waiting for the response and can't trigger anything itself in the meantime. If the
+     * interaction is handled by transcendent content, it is therefore not triggered on the other client right away
+     * but handed back to it, so that it triggers the interaction locally once this one has responded.
+     * </p>
      *
-     * @param interaction     The interaction to trigger.
-     * @param suppressTranscendentFollowUp If true, suppresses triggering of transcendent follow-up actions.
+     * @param interaction                  The interaction to trigger.
+     * @param suppressTranscendentFollowUp If true, the interaction has already been triggered on the other client.
+     * @param transcendentInteractions     Queue the interactions the other client has to trigger locally are added to.
      * @return A queue of pending actions, or null if the action was unsuccessful.
      */
-    public Queue<Interaction> handleTriggerRemoteInteraction(Interaction interaction, boolean suppressTranscendentFollowUp) {
+    public Queue<Interaction> handleTriggerRemoteInteraction(Interaction interaction, boolean suppressTranscendentFollowUp, Queue<Interaction> transcendentInteractions) {
 
         InteractionChain currentChain = interactions.peek();
         InteractionChain chain = createInteractionChain(currentChain);
         try {
             interactions.push(chain);
-            boolean result = triggerAction(chain, interaction, suppressTranscendentFollowUp);
-            if (!result) {
+            TileContent handler = triggerLocalAction(chain, interaction);
+            if (handler == null) {
                 return null;
             }
-
+            if (!suppressTranscendentFollowUp && handler.getVisibilityState().equals(VisibilityStates.TRANSCENDENT)) {
+                transcendentInteractions.add(interaction);
+            }
+            remoteChainStateHash = chain.getSnapshot().getSnapshotMap().getTranscendentHash();
         } finally {
-            interactions.pop();
+            popChain(interactions);
         }
 
         currentChain.getGSUQueue().addAll(chain.getGSUQueue());
         return chain.getPendingActions();
     }
 
+    /**
+     * Handles a remote transaction by creating a remote interaction chain, triggering every interaction and
+     * applying or aborting the resulting GameStateUpdates in one go.
+     * <p>
+     * Like separately triggered remote actions, an unsuccessful interaction doesn't affect the other ones of the
+     * same transaction. The transaction is aborted if none of its interactions was successful.
+     * </p>
+     *
+     * @param remoteInteractions           The interactions to trigger in order.
+     * @param suppressTranscendentFollowUp If true, suppresses triggering of transcendent follow-up actions.
+     * @param commit                       Whether to apply the updates if every interaction succeeds.
+     * @param expectedStateHash            Hexadecimal transcendent state hash expected by the other client, or null if unknown.
+     * @param transcendentInteractions     Queue the interactions the other client has to trigger locally are added to.
+     * @return The queued follow-up actions of all successful interactions, or null if no interaction was
+     * successful or another interaction is currently running.
+     * @see Messages.ExecuteRemoteTransactionMessage
+     * @see #handleTriggerRemoteInteraction(Interaction, boolean, Queue)
+     */
+    public Queue<Interaction> handleExecuteRemoteTransaction(Queue<Interaction> remoteInteractions, boolean suppressTranscendentFollowUp, boolean commit, String expectedStateHash, Queue<Interaction> transcendentInteractions) {
+        try {
+            handleCreateRemoteInteractionChain();
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            return null;
+        }
+
+        Queue<Interaction> followUps = new LinkedList<>();
+        boolean successful = false;
+        for (Interaction interaction : remoteInteractions) {
+            Queue<Interaction> result = handleTriggerRemoteInteraction(interaction, suppressTranscendentFollowUp, transcendentInteractions);
+            if (result != null) {
+                followUps.addAll(result);
+                successful = true;
+            }
+        }
+        if (!successful) {
+            handleAbortRemoteGSUsMessage();
+            return null;
+        }
+
+        if (commit) {
+            handleApplyRemoteGSUsMessage(expectedStateHash);
+        } else {
+            handleAbortRemoteGSUsMessage();
+        }
+        return followUps;
+    }
+
     /**
      * Handles the creation of a remote interaction chain.
      *
@@ -310,7 +723,10 @@ public class GameController {
         if (!interactions.isEmpty()) {
             throw new RuntimeException("Another Interaction is currently running");
         }
-        interactions.push(createInteractionChain());
+        InteractionChain chain = createInteractionChain();
+        remoteChainStateHash = chain.getSnapshot().getSnapshotMap().getTranscendentHash();
+        remoteChainInventory = PlayerController.getInstance().getInventory();
+        interactions.push(chain);
     }
 
     /**
@@ -324,47 +740,252 @@ public class GameController {
             throw new RuntimeException("Only one Chain is allowed in the Stack");
         }
         //dapplyGSUQueue(currentMap, interactions.pop().getGSUQueue());
-        pendingUpdates.addAll(interactions.pop().getGSUQueue());
+        Queue<GameStateUpdate> updates = popChain(interactions).getGSUQueue();
+        history.beginStep(updates, remoteChainInventory, PlayerController.getInstance().getInventory());
+        pendingUpdates.addAll(updates);
     }
 
     /**
-     * Aborts the remote GameStateUpdates.
+     * Applies the remote GameStateUpdates and verifies that both clients reach the same transcendent state.
+     * <p>
+     * If the hash expected by the other client differs from the one simulated here, the clients have diverged
+     * and a resync is requested.
+     * </p>
+     *
+     * @param expectedStateHash Hexadecimal transcendent state hash expected by the other client, or null if unknown.
+     * @throws RuntimeException if there is not exactly one chain in the interaction stack.
+     * @see Map#getTranscendentHash()
+     */
+    public void handleApplyRemoteGSUsMessage(String expectedStateHash) {
+        handleApplyRemoteGSUsMessage();
+        if (expectedStateHash == null) {
+            return;
+        }
+
+        long expected = Long.parseUnsignedLong(expectedStateHash, 16);
+        if (expected != remoteChainStateHash) {
+            System.err.println("Transcendent state desync detected (expected " + expectedStateHash
+                + ", was " + Long.toHexString(remoteChainStateHash) + ")");
+            LevelManager.getInstance().resyncLevel();
+        }
+    }
+
+    /**
+     * Undoes steps until the transcendent state matches the one of the other client.
+     *
+     * @param stateHash Hexadecimal transcendent state hash the other client has returned to.
+     * @see #undo()
+     */
+    public void handleUndoMessage(String stateHash) {
+        long target = Long.parseUnsignedLong(stateHash, 16);
+        while (!pendingUpdates.isEmpty()) {
+            applyNextPendingGSU();
+        }
+        while (currentMap.getTranscendentHash() != target && history.undo(currentMap) != null) {
+            updatePlayerPosition();
+        }
+        onStateChanged();
+        verifyTranscendentHash(target);
+    }
+
+    /**
+     * Redoes steps until the transcendent state matches the one of the other client.
+     *
+     * @param stateHash Hexadecimal transcendent state hash the other client has advanced to.
+     * @see #redo()
+     */
+    public void handleRedoMessage(String stateHash) {
+        long target = Long.parseUnsignedLong(stateHash, 16);
+        while (currentMap.getTranscendentHash() != target && history.redo(currentMap) != null) {
+            updatePlayerPosition();
+        }
+        onStateChanged();
+        verifyTranscendentHash(target);
+    }
+
+    /**
+     * Applies every pending update and collects the transcendent state hashes the current map can return to.
+     * <p>
+     * Sent to the other client when resuming the session after a reconnect.
+     * </p>
+     *
+     * @return The current transcendent state hash, followed by the ones reachable by undoing steps, most recent first.
+     * @see UndoHistory#getTranscendentHashes()
+     */
+    public List<Long> getTranscendentHashHistory() {
+        while (!pendingUpdates.isEmpty()) {
+            applyNextPendingGSU();
+        }
+        List<Long> hashes = new ArrayList<>();
+        hashes.add(currentMap.getTranscendentHash());
+        hashes.addAll(history.getTranscendentHashes());
+        return hashes;
+    }
+
+    /**
+     * Handles the request of the other client to resume the session after it has reconnected.
+     * <p>
+     * If the other client has only moved ahead, it can undo its divergent steps on its own, so only the hash is
+     * returned. Otherwise it has to adopt the compact transcendent state of the current map, whose size only
+     * depends on the number of transcendent contents.
+     * </p>
+     *
+     * @param stateHash    Hexadecimal transcendent state hash of the other client.
+     * @param stateHistory Hexadecimal transcendent state hashes the other client can undo to.
+     * @return The transcendent state the other client has to adopt, or null if both states match or the other client
+     * can undo its way back.
+     * @see Map#getTranscendentState()
+     */
+    public int[] handleResumeSession(String stateHash, String[] stateHistory) {
+        while (!pendingUpdates.isEmpty()) {
+            applyNextPendingGSU();
+        }
+        long hash = currentMap.getTranscendentHash();
+        if (Long.parseUnsignedLong(stateHash, 16) == hash) {
+            return null;
+        }
+        for (int i = 0; stateHistory != null && i < stateHistory.length; i++) {
+            if (Long.parseUnsignedLong(stateHistory[i], 16) == hash) {
+                return null;
+            }
+        }
+        return currentMap.getTranscendentState();
+    }
+
+    /**
+     * Brings the transcendent state in line with the other client after the session has been resumed.
+     * <p>
+     * Without a transcendent state, the divergent steps are undone; otherwise the given state is adopted and the
+     * history is cleared, since its steps no longer lead to the current state. A state that doesn't fit onto the
+     * current map requests a resync of the level.
+     * </p>
+     *
+     * @param stateHash         Hexadecimal transcendent state hash of the other client.
+     * @param transcendentState The transcendent state to adopt, or null to undo the divergent steps.
+     * @see #handleResumeSession(String, String[])
+     */
+    public void handleResumeSessionResponse(String stateHash, int[] transcendentState) {
+        long target = Long.parseUnsignedLong(stateHash, 16);
+        while (!pendingUpdates.isEmpty()) {
+            applyNextPendingGSU();
+        }
+        if (currentMap.getTranscendentHash() == target) {
+            return;
+        }
+        if (transcendentState == null) {
+            handleUndoMessage(stateHash);
+            return;
+        }
+
+        try {
+            currentMap.setTranscendentState(transcendentState);
+        } catch (IllegalArgumentException e) {
+            // The maps differ in more than their transcendent contents, so only reloading the level brings them together
+            System.err.println("Transcendent state desync detected: " + e.getMessage());
+            LevelManager.getInstance().resyncLevel();
+            return;
+        }
+        history.clear();
+        onStateChanged();
+        verifyTranscendentHash(target);
+    }
+
+    /**
+     * Requests a resync if the transcendent state of the current map differs from the expected one.
+     *
+     * @param expected The transcendent state hash expected by the other client.
+     */
+    private void verifyTranscendentHash(long expected) {
+        if (currentMap.getTranscendentHash() != expected) {
+            System.err.println("Transcendent state desync detected (expected " + Long.toHexString(expected)
+                + ", was " + Long.toHexString(currentMap.getTranscendentHash()) + ")");
+            LevelManager.getInstance().resyncLevel();
+        }
+    }
+
+    /**
+     * Aborts the remote GameStateUpdates and rolls back every running chain.
      */
     public void handleAbortRemoteGSUsMessage() {
-        interactions.clear();
+        while (!interactions.isEmpty()) {
+            popChain(interactions).rollback();
+        }
+    }
+
+    /**
+     * Removes the most recent chain from the interaction stack and releases its snapshot, so that the current map
+     * doesn't copy the rows it modifies into the snapshot anymore.
+     *
+     * @param interactions The stack of interaction chains.
+     * @return The removed chain; its updates remain valid.
+     * @see tech.underoaks.coldcase.state.Snapshot#release()
+     */
+    private static InteractionChain popChain(Stack<InteractionChain> interactions) {
+        InteractionChain chain = interactions.pop();
+        chain.getSnapshot().release();
+        return chain;
     }
 
     /**
-     * Triggers queued local actions from the interaction chain.
+     * Triggers queued local actions from the interaction chain without blocking the calling thread.
      *
      * @param interactions The stack of interaction chains.
      * @param chain        The current interaction chain.
+     * @return A future completed once every queued local action has been triggered.
      */
-    private static void triggerQueuedLocalActions(Stack<InteractionChain> interactions, InteractionChain chain) {
-        // Trigger locally queued actions
-        Interaction action;
-        while ((action = chain.getPendingActions().poll()) != null) {
-            try {
-                InteractionChain testChain = GameController.createInteractionChain(chain);
-                interactions.add(testChain);
-                triggerAction(chain, action);
-            } finally {
-                interactions.pop();
-            }
+    private static CompletableFuture<Void> triggerQueuedLocalActionsAsync(Stack<InteractionChain> interactions, InteractionChain chain) {
+        Interaction action = chain.getPendingActions().poll();
+        if (action == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        InteractionChain testChain = GameController.createInteractionChain(chain);
+        interactions.add(testChain);
+        CompletableFuture<Boolean> result;
+        try {
+            result = triggerActionAsync(chain, action);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result
+            .whenComplete((handled, e) -> popChain(interactions))
+            .thenCompose(handled -> triggerQueuedLocalActionsAsync(interactions, chain));
+    }
+
+    /**
+     * Triggers queued remote actions from the interaction chain without blocking the calling thread.
+     * <p>
+     * All queued remote actions are sent as one batch; their follow-up actions form the next batch. Local actions
+     * queued by the transcendent actions handed back by the remote client are triggered in between.
+     * </p>
+     *
+     * @param interactions The stack of interaction chains.
+     * @param chain        The current interaction chain.
+     * @return A future completed once every queued remote action has been triggered.
+     */
+    private static CompletableFuture<Void> triggerQueuedRemoteActionsAsync(Stack<InteractionChain> interactions, InteractionChain chain) {
+        Queue<Interaction> batch = pollRemoteActionBatch(chain);
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
         }
+        return GameController.triggerRemoteActionsAsync(chain, batch)
+            .thenCompose(ignored -> triggerQueuedLocalActionsAsync(interactions, chain))
+            .thenCompose(ignored -> triggerQueuedRemoteActionsAsync(interactions, chain));
     }
 
     /**
-     * Triggers queued remote actions from the interaction chain.
+     * Removes every queued remote action from the interaction chain.
      *
      * @param chain The current interaction chain.
+     * @return The removed remote actions in their original order.
      */
-    private static void triggerQueuedRemoteActions(InteractionChain chain) throws TimeoutException {
-        // Trigger locally queued remote actions
+    private static Queue<Interaction> pollRemoteActionBatch(InteractionChain chain) {
+        Queue<Interaction> batch = new LinkedList<>();
         Interaction action;
         while ((action = chain.getPendingRemoteActions().poll()) != null) {
             System.out.println("Triggering remote action: " + action.getTargetPos() + " " + action.getActionDirection());
-            GameController.triggerRemoteAction(chain, action);
+            batch.add(action);
         }
+        return batch;
     }
 }
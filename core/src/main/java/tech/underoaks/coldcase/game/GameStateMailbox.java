@@ -0,0 +1,76 @@
+package tech.underoaks.coldcase.game;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Mailbox of the commands that mutate the game state.
+ * <p>
+ * Any thread may post commands, e.g. the network threads for incoming messages. They are executed in the order they
+ * have been posted by a single consumer, the game thread, which {@link #drain() drains} the mailbox once per frame.
+ * Since the game state is only ever mutated by that thread, the {@link GameController} doesn't need any locking and
+ * rendering always sees the state between two commands.
+ * </p>
+ * <p>
+ * The mailbox is backed by a lock-free queue, so posting never blocks the producer.
+ * </p>
+ */
+public class GameStateMailbox {
+    /**
+     * Commands waiting to be executed
+     */
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The thread executing the commands, {@code null} until the mailbox has been drained for the first time
+     */
+    private volatile Thread consumer = null;
+
+    /**
+     * Posts a command to be executed by the consumer.
+     *
+     * @param command The command to execute.
+     */
+    public void post(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * Executes every command that has been posted so far, in order.
+     * <p>
+     * A failing command is logged and doesn't affect the following ones.
+     * </p>
+     *
+     * @return The number of executed commands.
+     * @throws IllegalStateException If the mailbox is drained by another thread than before.
+     */
+    public int drain() {
+        Thread current = Thread.currentThread();
+        if (consumer == null) {
+            consumer = current;
+        } else if (consumer != current) {
+            throw new IllegalStateException("The mailbox is already consumed by " + consumer.getName());
+        }
+
+        int executed = 0;
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error processing command: " + e.getMessage());
+                e.printStackTrace();
+            }
+            executed++;
+        }
+        return executed;
+    }
+
+    /**
+     * Checks if there are any commands waiting to be executed.
+     *
+     * @return True if there are no waiting commands, false otherwise.
+     */
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+}
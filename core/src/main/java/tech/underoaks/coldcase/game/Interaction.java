@@ -34,6 +34,23 @@ public class Interaction {
     public Interaction() {
     }
 
+    /**
+     * Constructs an Interaction from its serialized values, e.g. when decoding a message of the other client.
+     *
+     * @param targetPos       the target position for the interaction
+     * @param actionDirection the direction in which the action should be performed
+     * @param caller          the fully-qualified class name of the object that initiated the interaction
+     * @param uuid            the UUID of the GameController that created the interaction
+     * @param parameters      additional parameters for the interaction
+     */
+    public Interaction(Vector2 targetPos, Direction actionDirection, String caller, String uuid, int[] parameters) {
+        this.targetPos = targetPos == null ? null : targetPos.cpy();
+        this.actionDirection = actionDirection;
+        this.caller = caller;
+        this.uuid = uuid;
+        this.parameters = parameters;
+    }
+
     /**
      * Constructs an Interaction with the specified target position, action direction, caller, and additional parameters.
      * <p>
@@ -1,6 +1,7 @@
 package tech.underoaks.coldcase.game;
 
 import tech.underoaks.coldcase.remote.WebSocketClient;
+import tech.underoaks.coldcase.remote.WebSocketMessagesManager;
 import tech.underoaks.coldcase.stages.StageManager;
 import tech.underoaks.coldcase.stages.Stages;
 
@@ -61,4 +62,13 @@ public class LevelManager {
         PlayerController.getInstance().setInventory(null);
         StageManager.getInstance().setNextStage(Stages.GAME, level);
     }
+
+    /**
+     * Reloads the current level on both clients to bring them back into a shared state
+     * after their transcendent states have diverged.
+     */
+    public void resyncLevel() {
+        WebSocketMessagesManager.startGame(currentLevelIndex);
+        loadLevel(Levels.values()[currentLevelIndex]);
+    }
 }
@@ -40,13 +40,44 @@ public class PlayerController implements InputProcessor {
         this.inventory = inventory;
 
         //debug
-        if (inventory != null) {
+        if (inventory != null && !simulated) {
             System.out.println("Inventory:" + this.inventory);
         }
     }
 
     private TileContent inventory;
 
+    /**
+     * Whether this instance only stands in for the player while an interaction is being simulated
+     */
+    private boolean simulated = false;
+
+    /**
+     * Replaces the singleton instance with a copy of the player's state, so that interactions can be simulated
+     * without affecting the actual player.
+     *
+     * @return the replaced instance, to be handed to {@link #endSimulation(PlayerController)} afterwards
+     */
+    static PlayerController beginSimulation() {
+        PlayerController player = getInstance();
+        PlayerController copy = new PlayerController();
+        copy.playerPosition = player.playerPosition == null ? null : player.playerPosition.cpy();
+        copy.lookDirection = player.lookDirection;
+        copy.inventory = player.inventory;
+        copy.simulated = true;
+        instance = copy;
+        return player;
+    }
+
+    /**
+     * Reinstates the singleton instance replaced by {@link #beginSimulation()}, discarding the simulated state.
+     *
+     * @param player the instance returned by {@link #beginSimulation()}
+     */
+    static void endSimulation(PlayerController player) {
+        instance = player;
+    }
+
     /**
      * Returns the singleton instance of {@code PlayerController}.
      * If the instance does not exist yet, it is created.
@@ -106,7 +137,7 @@ public class PlayerController implements InputProcessor {
 
     @Override
     public boolean keyDown(int keycode) {
-        if (!GameController.getInstance().isPendingGSUQueueEmpty()) {
+        if (!GameController.getInstance().isPendingGSUQueueEmpty() || GameController.getInstance().isInteractionRunning()) {
             return false;
         }
 
@@ -124,9 +155,17 @@ public class PlayerController implements InputProcessor {
 
         // Interact
         if (keycode == Input.Keys.E) {
-            GameController.getInstance().triggerAction(new Interaction(playerPosition.cpy().add(lookDirection.getVector()), lookDirection, Player.class));
+            GameController.getInstance().triggerActionAsync(new Interaction(playerPosition.cpy().add(lookDirection.getVector()), lookDirection, Player.class));
             return true;
         }
+
+        // Undo / Redo
+        if (keycode == Input.Keys.Z) {
+            return GameController.getInstance().undo();
+        }
+        if (keycode == Input.Keys.Y) {
+            return GameController.getInstance().redo();
+        }
         return false;
     }
 
@@ -152,7 +191,7 @@ public class PlayerController implements InputProcessor {
 
     private void movePlayer(Direction direction) {
         if (lookDirection == direction) {
-            GameController.getInstance().triggerAction(new Interaction(playerPosition, direction, Player.class));
+            GameController.getInstance().triggerActionAsync(new Interaction(playerPosition, direction, Player.class));
         } else {
             lookDirection = direction;
             Player.updateTexture(lookDirection);
@@ -173,6 +212,15 @@ public class PlayerController implements InputProcessor {
         return false;
     }
 
+    /**
+     * Checks whether a movement key is held, so the player keeps moving on the following updates.
+     *
+     * @return {@code true} if the player is moving, {@code false} otherwise
+     */
+    public boolean isMoving() {
+        return isMoving;
+    }
+
     /**
      * Resets the player's movement state, stopping any auto-move and resetting the key hold time.
      */
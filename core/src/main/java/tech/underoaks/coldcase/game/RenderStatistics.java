@@ -0,0 +1,113 @@
+package tech.underoaks.coldcase.game;
+
+/**
+ * Statistics about the draw calls and texture binds of the rendered frames.
+ * <p>
+ * The numbers are taken from a {@link com.badlogic.gdx.graphics.profiling.GLProfiler} once per frame, see
+ * {@link tech.underoaks.coldcase.Main}. Every texture switch flushes the batch, so the draw calls of a level show
+ * whether its textures are drawn from the atlas.
+ * </p>
+ */
+public class RenderStatistics {
+    private long frameCount = 0;
+    private long totalDrawCalls = 0;
+    private long totalTextureBindings = 0;
+    private int lastDrawCalls = 0;
+    private int lastTextureBindings = 0;
+    private int maxDrawCalls = 0;
+    private int maxTextureBindings = 0;
+
+    /**
+     * Records a rendered frame.
+     *
+     * @param drawCalls       Number of draw calls issued for the frame.
+     * @param textureBindings Number of textures bound for the frame.
+     */
+    public synchronized void record(int drawCalls, int textureBindings) {
+        frameCount++;
+        totalDrawCalls += drawCalls;
+        totalTextureBindings += textureBindings;
+        lastDrawCalls = drawCalls;
+        lastTextureBindings = textureBindings;
+        maxDrawCalls = Math.max(maxDrawCalls, drawCalls);
+        maxTextureBindings = Math.max(maxTextureBindings, textureBindings);
+    }
+
+    /**
+     * Gets the number of recorded frames.
+     * @return The number of frames.
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Gets the number of draw calls of the most recent frame.
+     * @return The number of draw calls.
+     */
+    public synchronized int getLastDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    /**
+     * Gets the number of texture binds of the most recent frame.
+     * @return The number of texture binds.
+     */
+    public synchronized int getLastTextureBindings() {
+        return lastTextureBindings;
+    }
+
+    /**
+     * Gets the highest number of draw calls of a single frame.
+     * @return The number of draw calls.
+     */
+    public synchronized int getMaxDrawCalls() {
+        return maxDrawCalls;
+    }
+
+    /**
+     * Gets the highest number of texture binds of a single frame.
+     * @return The number of texture binds.
+     */
+    public synchronized int getMaxTextureBindings() {
+        return maxTextureBindings;
+    }
+
+    /**
+     * Gets the average number of draw calls per frame.
+     * @return The average, or {@code 0} if no frame has been recorded.
+     */
+    public synchronized double getAverageDrawCalls() {
+        return frameCount == 0 ? 0 : (double) totalDrawCalls / frameCount;
+    }
+
+    /**
+     * Gets the average number of texture binds per frame.
+     * @return The average, or {@code 0} if no frame has been recorded.
+     */
+    public synchronized double getAverageTextureBindings() {
+        return frameCount == 0 ? 0 : (double) totalTextureBindings / frameCount;
+    }
+
+    /**
+     * Discards every recorded frame.
+     */
+    public synchronized void reset() {
+        frameCount = 0;
+        totalDrawCalls = 0;
+        totalTextureBindings = 0;
+        lastDrawCalls = 0;
+        lastTextureBindings = 0;
+        maxDrawCalls = 0;
+        maxTextureBindings = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RenderStatistics{frames=" + frameCount + ", drawCalls=" + lastDrawCalls
+            + ", avgDrawCalls=" + String.format("%.1f", getAverageDrawCalls()) + ", maxDrawCalls=" + maxDrawCalls
+            + ", textureBindings=" + lastTextureBindings
+            + ", avgTextureBindings=" + String.format("%.1f", getAverageTextureBindings())
+            + ", maxTextureBindings=" + maxTextureBindings + "}";
+    }
+}
@@ -0,0 +1,228 @@
+package tech.underoaks.coldcase.game;
+
+import com.badlogic.gdx.math.Vector2;
+import tech.underoaks.coldcase.state.tileContent.TileContent;
+import tech.underoaks.coldcase.state.updates.GameStateUpdate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Cache of precomputed outcomes of the interactions the player is able to trigger next.
+ * <p>
+ * While the game is idle, the {@link GameController} evaluates one candidate {@link Interaction} at a time against a
+ * snapshot of the current map and stores the resulting {@link GameStateUpdate}s here. Every speculation belongs to
+ * the state it has been computed in, identified by a state version, the player's position and inventory. Once the
+ * state changes, the cache has to be {@link #invalidate() invalidated}.
+ * </p>
+ */
+public class SpeculationCache {
+    /**
+     * Version of the map state the speculations have been computed in
+     */
+    private long stateVersion;
+
+    /**
+     * Position of the player the speculations have been computed with
+     */
+    private Vector2 playerPosition;
+
+    /**
+     * Inventory of the player the speculations have been computed with
+     */
+    private TileContent inventory;
+
+    /**
+     * Whether a round of speculations has been started for the current state
+     */
+    private boolean active = false;
+
+    /**
+     * Interactions that are still waiting to be speculated
+     */
+    private final Queue<Interaction> candidates = new LinkedList<>();
+
+    /**
+     * Speculated interactions and their outcomes
+     */
+    private final List<Interaction> interactions = new ArrayList<>();
+    private final List<Speculation> speculations = new ArrayList<>();
+
+    /**
+     * Starts a new round of speculations, discarding every previous one.
+     *
+     * @param stateVersion   Version of the current map state.
+     * @param playerPosition Current position of the player.
+     * @param inventory      Current inventory of the player.
+     * @param candidates     Interactions to speculate.
+     */
+    public void begin(long stateVersion, Vector2 playerPosition, TileContent inventory, Collection<Interaction> candidates) {
+        invalidate();
+        this.stateVersion = stateVersion;
+        this.playerPosition = playerPosition.cpy();
+        this.inventory = inventory;
+        this.candidates.addAll(candidates);
+        this.active = true;
+    }
+
+    /**
+     * Checks whether a round of speculations is running or has been completed for the current state.
+     *
+     * @return True if the cache belongs to a state, false if it has been invalidated.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Retrieves the next interaction that still has to be speculated.
+     *
+     * @return The next candidate, or {@code null} if every candidate has been speculated.
+     */
+    public Interaction nextCandidate() {
+        return candidates.poll();
+    }
+
+    /**
+     * Checks whether there are interactions left that still have to be speculated.
+     *
+     * @return True if {@link #nextCandidate()} would return a candidate, false otherwise.
+     */
+    public boolean hasCandidates() {
+        return !candidates.isEmpty();
+    }
+
+    /**
+     * Stores the outcome of a speculated interaction.
+     *
+     * @param interaction The speculated interaction.
+     * @param speculation Its outcome.
+     */
+    public void store(Interaction interaction, Speculation speculation) {
+        interactions.add(interaction);
+        speculations.add(speculation);
+    }
+
+    /**
+     * Removes the speculated outcome of the given interaction from the cache.
+     *
+     * @param interaction The interaction that is about to be triggered.
+     * @return The speculated outcome, or {@code null} if the interaction hasn't been speculated.
+     */
+    public Speculation take(Interaction interaction) {
+        for (int i = 0; i < interactions.size(); i++) {
+            if (isSameInteraction(interactions.get(i), interaction)) {
+                interactions.remove(i);
+                return speculations.remove(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the cached speculations have been computed in the given state.
+     *
+     * @param stateVersion   Version of the current map state.
+     * @param playerPosition Current position of the player.
+     * @param inventory      Current inventory of the player.
+     * @return True if the speculations are still valid, false otherwise.
+     */
+    public boolean isValidFor(long stateVersion, Vector2 playerPosition, TileContent inventory) {
+        return active && this.stateVersion == stateVersion && this.playerPosition.equals(playerPosition) && this.inventory == inventory;
+    }
+
+    /**
+     * Discards every speculation, e.g. after a {@link GameStateUpdate} has been applied.
+     */
+    public void invalidate() {
+        active = false;
+        candidates.clear();
+        interactions.clear();
+        speculations.clear();
+    }
+
+    private static boolean isSameInteraction(Interaction a, Interaction b) {
+        return a.getTargetPos().equals(b.getTargetPos())
+            && a.getActionDirection() == b.getActionDirection()
+            && a.getCaller().equals(b.getCaller())
+            && a.getUuid().equals(b.getUuid())
+            && Arrays.equals(a.getParameters(), b.getParameters());
+    }
+
+    /**
+     * Precomputed outcome of a single interaction.
+     */
+    public static class Speculation {
+        private final boolean accepted;
+        private final List<GameStateUpdate> updates;
+        private final Vector2 playerPosition;
+        private final Direction playerDirection;
+        private final TileContent inventory;
+
+        /**
+         * Constructor
+         *
+         * @param accepted        Whether the interaction has been handled.
+         * @param updates         The updates caused by the interaction.
+         * @param playerPosition  The player's position after the interaction.
+         * @param playerDirection The player's look direction after the interaction.
+         * @param inventory       The player's inventory after the interaction.
+         */
+        public Speculation(boolean accepted, Collection<GameStateUpdate> updates, Vector2 playerPosition, Direction playerDirection, TileContent inventory) {
+            this.accepted = accepted;
+            this.updates = new ArrayList<>(updates);
+            this.playerPosition = playerPosition.cpy();
+            this.playerDirection = playerDirection;
+            this.inventory = inventory;
+        }
+
+        /**
+         * Checks whether the interaction has been handled.
+         *
+         * @return True if the interaction has been handled, false if it has been rejected.
+         */
+        public boolean isAccepted() {
+            return accepted;
+        }
+
+        /**
+         * Gets the updates caused by the interaction.
+         *
+         * @return The updates in the order they have to be applied.
+         */
+        public List<GameStateUpdate> getUpdates() {
+            return updates;
+        }
+
+        /**
+         * Gets the player's position after the interaction.
+         *
+         * @return A copy of the position.
+         */
+        public Vector2 getPlayerPosition() {
+            return playerPosition.cpy();
+        }
+
+        /**
+         * Gets the player's look direction after the interaction.
+         *
+         * @return The look direction.
+         */
+        public Direction getPlayerDirection() {
+            return playerDirection;
+        }
+
+        /**
+         * Gets the player's inventory after the interaction.
+         *
+         * @return The inventory, or {@code null} if empty.
+         */
+        public TileContent getInventory() {
+            return inventory;
+        }
+    }
+}
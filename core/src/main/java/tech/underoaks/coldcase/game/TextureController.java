@@ -1,6 +1,15 @@
 package tech.underoaks.coldcase.game;
 
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 
 /**
  * This class is responsible for providing the textures for the game elements.
@@ -10,6 +19,10 @@ import com.badlogic.gdx.graphics.Texture;
  * The textures are loaded only once and are stored in memory.
  * The textures are accessed through the methods provided by this class.
  * <p>
+ * The textures are handed out as {@link TextureRegion}s of the atlas packed by the {@code packTextures} Gradle task,
+ * so a whole level is drawn from a single texture without flushing the batch on every tile. If the atlas hasn't been
+ * packed, every texture is loaded from its own file instead.
+ * <p>
  * The textures are loaded using the {@link TextureFactory} class.
  *
  * @author mabe.edu, Danmyer
@@ -19,78 +32,250 @@ public class TextureController {
 
     private static boolean isDetective = true;
 
+    /**
+     * Path of the atlas packed from the sprites and the isometric tileset
+     */
+    public static final String ATLAS_PATH = "atlas/game.atlas";
+
+    private final TextureAtlas atlas;
+
+    /**
+     * Textures loaded from their own files, by normalized path
+     */
+    private final HashMap<String, TextureRegion> loadedTextures = new HashMap<>();
+
+    /**
+     * Normalized path of every texture handed out by a controller
+     */
+    private static final IdentityHashMap<TextureRegion, String> textureNames = new IdentityHashMap<>();
+
+    /**
+     * Normalized path of every texture handed out by a controller, in the order they have been handed out first
+     */
+    private static final List<String> textureIds = new ArrayList<>();
+
+    /**
+     * Most recently handed out texture for every normalized path
+     */
+    private static final HashMap<String, TextureRegion> texturesByName = new HashMap<>();
+
     // Texturen
-    private Texture emptyTileTexture;
-    private Texture detectiveGroundTileTexture;
-    private Texture ghostGroundTileTexture;
-    private Texture testItemTexture;
-    private Texture testItem02Texture;
-    private Texture doorTriggerTexture;
-    private Texture testContentTexture;
-    private Texture portalObjectTexture;
-    private Texture detectiveWallTexture;
-    private Texture ghostWallTexture;
-    private Texture movableBlockTextureDetective;
-    private Texture movableBlockTextureGhost;
-    private Texture movableBlockTranscendantTexture;
-    private Texture transcendentTestBlockTexture;
-    private Texture goalObjectTexture;
-    private Texture doorTexture_closed;
-    private Texture doorTexture_open;
-    private Texture gloveTexture;
-    private Texture detectiveTexture;
-    private Texture detectiveTextureNorth;
-    private Texture detectiveTextureSouth;
-    private Texture detectiveTextureEast;
-    private Texture detectiveTextureWest;
-    private Texture ghostTexture;
-    private Texture ghostTextureNorth;
-    private Texture ghostTextureSouth;
-    private Texture ghostTextureEast;
-    private Texture ghostTextureWest;
-    private Texture holeTexture;
-    private Texture trigger_closed;
-    private Texture trigger_opened;
+    private TextureRegion emptyTileTexture;
+    private TextureRegion detectiveGroundTileTexture;
+    private TextureRegion ghostGroundTileTexture;
+    private TextureRegion testItemTexture;
+    private TextureRegion testItem02Texture;
+    private TextureRegion doorTriggerTexture;
+    private TextureRegion testContentTexture;
+    private TextureRegion portalObjectTexture;
+    private TextureRegion detectiveWallTexture;
+    private TextureRegion ghostWallTexture;
+    private TextureRegion movableBlockTextureDetective;
+    private TextureRegion movableBlockTextureGhost;
+    private TextureRegion movableBlockTranscendantTexture;
+    private TextureRegion transcendentTestBlockTexture;
+    private TextureRegion goalObjectTexture;
+    private TextureRegion doorTexture_closed;
+    private TextureRegion doorTexture_open;
+    private TextureRegion gloveTexture;
+    private TextureRegion detectiveTexture;
+    private TextureRegion detectiveTextureNorth;
+    private TextureRegion detectiveTextureSouth;
+    private TextureRegion detectiveTextureEast;
+    private TextureRegion detectiveTextureWest;
+    private TextureRegion ghostTexture;
+    private TextureRegion ghostTextureNorth;
+    private TextureRegion ghostTextureSouth;
+    private TextureRegion ghostTextureEast;
+    private TextureRegion ghostTextureWest;
+    private TextureRegion holeTexture;
+    private TextureRegion trigger_closed;
+    private TextureRegion trigger_opened;
+    private TextureRegion inventoryTexture;
 
 
     private TextureController(TextureFactory factory) {
-        this.emptyTileTexture = factory.create("./isometric tileset/separated images/tile_101.png");
-        this.detectiveGroundTileTexture = factory.create("./sprites/block_detective_2.png");
-        this.ghostGroundTileTexture = factory.create("./sprites/block_ghost_4.png");
-
-        this.testItemTexture = factory.create("./isometric tileset/separated images/TEST_ITEM.png");
-        this.testItem02Texture = factory.create("./isometric tileset/separated images/TEST_ITEM02.png");
-        this.doorTriggerTexture = factory.create("./isometric tileset/separated images/tile_069.png");
-        this.testContentTexture = factory.create("./isometric tileset/separated images/tile_050.png");
-        this.portalObjectTexture = factory.create("./sprites/portal.png");
-        this.detectiveWallTexture = factory.create("./sprites/block_detective.png");
-        this.ghostWallTexture = factory.create("./sprites/block_ghost_3.png");
-        this.movableBlockTextureDetective = factory.create("./sprites/block_detective_4.png");
-        this.movableBlockTextureGhost = factory.create("./sprites/block_ghost.png");
-        this.movableBlockTranscendantTexture = factory.create("sprites/block_transcendent_2.png");
-        this.transcendentTestBlockTexture = factory.create("sprites/block_transcendent_2.png");
-        this.goalObjectTexture = factory.create("./sprites/object_goal_detective_2.png");
-        this.doorTexture_closed = factory.create("./sprites/object_spike_detective_2.png");
-        this.doorTexture_open = factory.create("./sprites/object_spike_retracted_detective_1.png");
-
-        this.gloveTexture = factory.create("./sprites/item_glove_detective_6.png");
-
-        this.detectiveTexture = factory.create("./sprites/player_detective_right.png");
-        this.detectiveTextureNorth = factory.create("./sprites/player_detective_up.png");
-        this.detectiveTextureSouth = factory.create("./sprites/player_detective_down.png");
-        this.detectiveTextureEast = factory.create("./sprites/player_detective_right.png");
-        this.detectiveTextureWest = factory.create("./sprites/player_detective_left.png");
-
-        this.ghostTexture = factory.create("./sprites/Sprite_Ghost_Right.png");
-        this.ghostTextureNorth = factory.create("./sprites/Sprite_Ghost_Up.png");
-        this.ghostTextureWest = factory.create("./sprites/Sprite_Ghost_Left.png");
-        this.ghostTextureSouth = factory.create("./sprites/Sprite_Ghost_Down.png");
-        this.ghostTextureEast = factory.create("./sprites/Sprite_Ghost_Right.png");
-
-        this.trigger_closed = factory.create("./sprites/Trigger_closed.png");
-        this.trigger_opened = factory.create("./sprites/Trigger_opened.png");
-
-        this.holeTexture = factory.create("./sprites/tileContent_hole.png");
+        this.atlas = factory.createAtlas(ATLAS_PATH);
+
+        this.emptyTileTexture = region(factory, "./isometric tileset/separated images/tile_101.png");
+        this.detectiveGroundTileTexture = region(factory, "./sprites/block_detective_2.png");
+        this.ghostGroundTileTexture = region(factory, "./sprites/block_ghost_4.png");
+
+        this.testItemTexture = region(factory, "./isometric tileset/separated images/TEST_ITEM.png");
+        this.testItem02Texture = region(factory, "./isometric tileset/separated images/TEST_ITEM02.png");
+        this.doorTriggerTexture = region(factory, "./isometric tileset/separated images/tile_069.png");
+        this.testContentTexture = region(factory, "./isometric tileset/separated images/tile_050.png");
+        this.portalObjectTexture = region(factory, "./sprites/portal.png");
+        this.detectiveWallTexture = region(factory, "./sprites/block_detective.png");
+        this.ghostWallTexture = region(factory, "./sprites/block_ghost_3.png");
+        this.movableBlockTextureDetective = region(factory, "./sprites/block_detective_4.png");
+        this.movableBlockTextureGhost = region(factory, "./sprites/block_ghost.png");
+        this.movableBlockTranscendantTexture = region(factory, "sprites/block_transcendent_2.png");
+        this.transcendentTestBlockTexture = region(factory, "sprites/block_transcendent_2.png");
+        this.goalObjectTexture = region(factory, "./sprites/object_goal_detective_2.png");
+        this.doorTexture_closed = region(factory, "./sprites/object_spike_detective_2.png");
+        this.doorTexture_open = region(factory, "./sprites/object_spike_retracted_detective_1.png");
+
+        this.gloveTexture = region(factory, "./sprites/item_glove_detective_6.png");
+
+        this.detectiveTexture = region(factory, "./sprites/player_detective_right.png");
+        this.detectiveTextureNorth = region(factory, "./sprites/player_detective_up.png");
+        this.detectiveTextureSouth = region(factory, "./sprites/player_detective_down.png");
+        this.detectiveTextureEast = region(factory, "./sprites/player_detective_right.png");
+        this.detectiveTextureWest = region(factory, "./sprites/player_detective_left.png");
+
+        this.ghostTexture = region(factory, "./sprites/Sprite_Ghost_Right.png");
+        this.ghostTextureNorth = region(factory, "./sprites/Sprite_Ghost_Up.png");
+        this.ghostTextureWest = region(factory, "./sprites/Sprite_Ghost_Left.png");
+        this.ghostTextureSouth = region(factory, "./sprites/Sprite_Ghost_Down.png");
+        this.ghostTextureEast = region(factory, "./sprites/Sprite_Ghost_Right.png");
+
+        this.trigger_closed = region(factory, "./sprites/Trigger_closed.png");
+        this.trigger_opened = region(factory, "./sprites/Trigger_opened.png");
+
+        this.holeTexture = region(factory, "./sprites/tileContent_hole.png");
+
+        this.inventoryTexture = region(factory, "./isometric tileset/separated images/TEST_INVENTORY.png");
+    }
+
+    /**
+     * Finds a texture in the atlas, or loads it from its own file if it hasn't been packed.
+     * @param factory {@link TextureFactory} that is creating textures missing in the atlas.
+     * @param path Path of the texture inside the assets folder.
+     * @return The region of the texture; the same region for the same path.
+     */
+    private TextureRegion region(TextureFactory factory, String path) {
+        String name = path.startsWith("./") ? path.substring(2) : path;
+        TextureRegion region = null;
+        if (atlas != null) {
+            region = atlas.findRegion(name.substring(0, name.lastIndexOf('.')));
+            if (region == null) {
+                System.err.println("Texture is missing in the atlas: " + name);
+            }
+        }
+        if (region == null) {
+            region = loadedTextures.computeIfAbsent(name, key -> new TextureRegion(factory.create(path)));
+        }
+        synchronized (textureNames) {
+            textureNames.put(region, name);
+            if (texturesByName.put(name, region) == null) {
+                textureIds.add(name);
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Retrieves the name of a texture handed out by a controller.
+     * <p>
+     * Both clients load the same textures under the same names, so the name can be used to compare textures
+     * across clients.
+     * </p>
+     * @param region The texture.
+     * @return The normalized path of the texture inside the assets folder, or {@code null} if the texture hasn't
+     * been handed out by a controller.
+     */
+    public static String getTextureName(TextureRegion region) {
+        if (region == null) {
+            return null;
+        }
+        synchronized (textureNames) {
+            return textureNames.get(region);
+        }
+    }
+
+    /**
+     * Retrieves the id of a texture handed out by a controller.
+     * <p>
+     * Ids are assigned in the order the textures are handed out first. Both clients hand out the same textures in the
+     * same order, so the id can be used to send a texture to the other client.
+     * </p>
+     * @param region The texture.
+     * @return The id of the texture, or {@code -1} if the texture hasn't been handed out by a controller.
+     * @see #getTextureById(int)
+     */
+    public static int getTextureId(TextureRegion region) {
+        String name = getTextureName(region);
+        if (name == null) {
+            return -1;
+        }
+        synchronized (textureNames) {
+            return textureIds.indexOf(name);
+        }
+    }
+
+    /**
+     * Retrieves a texture by its id.
+     * @param id The id of the texture.
+     * @return The texture most recently handed out under this id, or {@code null} if the id is unknown.
+     * @see #getTextureId(TextureRegion)
+     */
+    public static TextureRegion getTextureById(int id) {
+        synchronized (textureNames) {
+            if (id < 0 || id >= textureIds.size()) {
+                return null;
+            }
+            return texturesByName.get(textureIds.get(id));
+        }
+    }
+
+    /**
+     * Checks whether the textures are taken from the packed atlas
+     * @return True if the atlas has been loaded; False if every texture has been loaded from its own file
+     */
+    public boolean isAtlasLoaded() {
+        return atlas != null;
+    }
+
+    /**
+     * Creates a {@link Sprite} of a texture handed out by this controller.
+     * <p>
+     * Whitespace is stripped from the textures when packing the atlas, so the sprite of an atlas region is an
+     * {@link TextureAtlas.AtlasSprite} that restores it when positioned and drawn.
+     * </p>
+     * @param region The texture of the sprite.
+     * @return The sprite; draw it by {@link Sprite#draw(Batch)} after setting its position.
+     */
+    public static Sprite createSprite(TextureRegion region) {
+        if (region instanceof TextureAtlas.AtlasRegion atlasRegion) {
+            return new TextureAtlas.AtlasSprite(atlasRegion);
+        }
+        return new Sprite(region);
+    }
+
+    /**
+     * Draws a texture handed out by this controller at its original size.
+     * @param batch The batch to draw with.
+     * @param region The texture to draw.
+     * @param x The x-coordinate of the bottom left corner.
+     * @param y The y-coordinate of the bottom left corner.
+     */
+    public static void draw(Batch batch, TextureRegion region, float x, float y) {
+        if (region instanceof TextureAtlas.AtlasRegion atlasRegion) {
+            draw(batch, region, x, y, atlasRegion.originalWidth, atlasRegion.originalHeight);
+        } else {
+            batch.draw(region, x, y);
+        }
+    }
+
+    /**
+     * Draws a texture handed out by this controller, scaled to the given size.
+     * @param batch The batch to draw with.
+     * @param region The texture to draw.
+     * @param x The x-coordinate of the bottom left corner.
+     * @param y The y-coordinate of the bottom left corner.
+     * @param width The width of the texture including the whitespace stripped from atlas regions.
+     * @param height The height of the texture including the whitespace stripped from atlas regions.
+     */
+    public static void draw(Batch batch, TextureRegion region, float x, float y, float width, float height) {
+        if (region instanceof TextureAtlas.AtlasRegion atlasRegion) {
+            float scaleX = width / atlasRegion.originalWidth;
+            float scaleY = height / atlasRegion.originalHeight;
+            batch.draw(region, x + atlasRegion.offsetX * scaleX, y + atlasRegion.offsetY * scaleY,
+                atlasRegion.packedWidth * scaleX, atlasRegion.packedHeight * scaleY);
+        } else {
+            batch.draw(region, x, y, width, height);
+        }
     }
 
     /**
@@ -157,7 +342,7 @@ public class TextureController {
      * Texture-Getter
      * @return EmptyTileTexture
      */
-    public Texture getEmptyTileTexture() {
+    public TextureRegion getEmptyTileTexture() {
         return emptyTileTexture;
     }
 
@@ -165,7 +350,7 @@ public class TextureController {
      * Texture-Getter
      * @return GroundTileTexture
      */
-    public Texture getGroundTileTexture() {
+    public TextureRegion getGroundTileTexture() {
         return isDetective ? detectiveGroundTileTexture : ghostGroundTileTexture;
     }
 
@@ -173,7 +358,7 @@ public class TextureController {
      * Texture-Getter
      * @return TestItemTexture
      */
-    public Texture getTestItemTexture() {
+    public TextureRegion getTestItemTexture() {
         return testItemTexture;
     }
 
@@ -181,7 +366,7 @@ public class TextureController {
      * Texture-Getter
      * @return TestItem02Texture
      */
-    public Texture getTestItem02Texture() {
+    public TextureRegion getTestItem02Texture() {
         return testItem02Texture;
     }
 
@@ -189,7 +374,7 @@ public class TextureController {
      * Texture-Getter
      * @return DoorTriggerTexture
      */
-    public Texture getDoorTriggerTexture() {
+    public TextureRegion getDoorTriggerTexture() {
         return doorTriggerTexture;
     }
 
@@ -197,7 +382,7 @@ public class TextureController {
      * Texture-Getter
      * @return TestContentTexture
      */
-    public Texture getTestContentTexture() {
+    public TextureRegion getTestContentTexture() {
         return testContentTexture;
     }
 
@@ -205,7 +390,7 @@ public class TextureController {
      * Texture-Getter
      * @return PortalObjectTexture
      */
-    public Texture getPortalObjectTexture() {
+    public TextureRegion getPortalObjectTexture() {
         return portalObjectTexture;
     }
 
@@ -213,7 +398,7 @@ public class TextureController {
      * Texture-Getter
      * @return WallTexture
      */
-    public Texture getWallTexture() {
+    public TextureRegion getWallTexture() {
         return isDetective ? detectiveWallTexture : ghostWallTexture;
     }
 
@@ -221,7 +406,7 @@ public class TextureController {
      * Texture-Getter
      * @return MovableBlockTexture
      */
-    public Texture getMovableBlockTexture() {
+    public TextureRegion getMovableBlockTexture() {
         return isDetective ? movableBlockTextureDetective :movableBlockTextureGhost ;
     }
 
@@ -229,7 +414,7 @@ public class TextureController {
      * Texture-Getter
      * @return MovableBlockTranscendantTexture
      */
-    public Texture getMovableBlockTranscendantTexture() {
+    public TextureRegion getMovableBlockTranscendantTexture() {
         return movableBlockTranscendantTexture;
     }
 
@@ -237,7 +422,7 @@ public class TextureController {
      * Texture-Getter
      * @return TranscendentTestBlockTexture
      */
-    public Texture getTranscendentTestBlockTexture() {
+    public TextureRegion getTranscendentTestBlockTexture() {
         return transcendentTestBlockTexture;
     }
 
@@ -245,7 +430,7 @@ public class TextureController {
      * Texture-Getter
      * @return GoalObjectTexture
      */
-    public Texture getGoalObjectTexture() {
+    public TextureRegion getGoalObjectTexture() {
         return goalObjectTexture;
     }
 
@@ -253,7 +438,7 @@ public class TextureController {
      * Texture-Getter
      * @return DoorTexture_closed
      */
-    public Texture getDoorTexture_closed() {
+    public TextureRegion getDoorTexture_closed() {
         return doorTexture_closed;
     }
 
@@ -261,7 +446,7 @@ public class TextureController {
      * Texture-Getter
      * @return DoorTexture_open
      */
-    public Texture getDoorTexture_open() {
+    public TextureRegion getDoorTexture_open() {
         return doorTexture_open;
     }
 
@@ -269,7 +454,7 @@ public class TextureController {
      * Texture-Getter
      * @return GloveTexture
      */
-    public Texture getGloveTexture() {
+    public TextureRegion getGloveTexture() {
         return gloveTexture;
     }
 
@@ -277,7 +462,7 @@ public class TextureController {
      * Texture-Getter
      * @return PlayerTexture
      */
-    public Texture getPlayerTexture() {
+    public TextureRegion getPlayerTexture() {
         return isDetective ? detectiveTexture : ghostTexture;
     }
 
@@ -285,7 +470,7 @@ public class TextureController {
      * Texture-Getter
      * @return PlayerTextureNorth
      */
-    public Texture getPlayerTextureNorth() {
+    public TextureRegion getPlayerTextureNorth() {
         return isDetective ? detectiveTextureNorth : ghostTextureNorth;
     }
 
@@ -293,7 +478,7 @@ public class TextureController {
      * Texture-Getter
      * @return PlayerTextureSouth
      */
-    public Texture getPlayerTextureSouth() {
+    public TextureRegion getPlayerTextureSouth() {
         return isDetective ? detectiveTextureSouth : ghostTextureSouth;
     }
 
@@ -301,7 +486,7 @@ public class TextureController {
      * Texture-Getter
      * @return PlayerTextureEast
      */
-    public Texture getPlayerTextureEast() {
+    public TextureRegion getPlayerTextureEast() {
         return isDetective ? detectiveTextureEast : ghostTextureEast;
     }
 
@@ -309,7 +494,7 @@ public class TextureController {
      * Texture-Getter
      * @return PlayerTextureWest
      */
-    public Texture getPlayerTextureWest() {
+    public TextureRegion getPlayerTextureWest() {
         return isDetective ? detectiveTextureWest : ghostTextureWest;
     }
 
@@ -317,7 +502,7 @@ public class TextureController {
      * Texture-Getter
      * @return GhostTexture
      */
-    public Texture getGhostTexture() {
+    public TextureRegion getGhostTexture() {
         return ghostTexture;
     }
 
@@ -325,7 +510,7 @@ public class TextureController {
      * Texture-Getter
      * @return DetectiveTexture
      */
-    public Texture getDetectiveTexture() {
+    public TextureRegion getDetectiveTexture() {
         return detectiveTexture;
     }
 
@@ -333,7 +518,7 @@ public class TextureController {
      * Texture-Getter
      * @return Trigger_closed
      */
-    public Texture getTrigger_closed() {
+    public TextureRegion getTrigger_closed() {
         return trigger_closed;
     }
 
@@ -341,7 +526,7 @@ public class TextureController {
      * Texture-Getter
      * @return Trigger_opened
      */
-    public Texture getTrigger_opened() {
+    public TextureRegion getTrigger_opened() {
         return trigger_opened;
     }
 
@@ -349,7 +534,15 @@ public class TextureController {
      * Texture-Getter
      * @return holeTexture
      */
-    public Texture holeTexture() {
+    public TextureRegion holeTexture() {
         return holeTexture;
     }
+
+    /**
+     * Texture-Getter
+     * @return InventoryTexture
+     */
+    public TextureRegion getInventoryTexture() {
+        return inventoryTexture;
+    }
 }
@@ -1,6 +1,9 @@
 package tech.underoaks.coldcase.game;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 
 /**
  * Klasse übernimmt die Erstellung von Texture-Objekten
@@ -15,4 +18,14 @@ public class TextureFactory {
     public Texture create(String path) {
         return new Texture(path);
     }
+
+    /**
+     * Loads a {@link TextureAtlas} packed by the {@code packTextures} Gradle task
+     * @param path ressource identifier for the atlas
+     * @return Initialized {@link TextureAtlas}; {@code null} if the atlas hasn't been packed
+     */
+    public TextureAtlas createAtlas(String path) {
+        FileHandle file = Gdx.files.internal(path);
+        return file.exists() ? new TextureAtlas(file) : null;
+    }
 }
@@ -0,0 +1,250 @@
+package tech.underoaks.coldcase.game;
+
+import tech.underoaks.coldcase.state.Map;
+import tech.underoaks.coldcase.state.tileContent.TileContent;
+import tech.underoaks.coldcase.state.updates.GameStateUpdate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Bounded undo/redo history of the {@link GameStateUpdate}s applied to the live {@link Map}.
+ * <p>
+ * Every approved interaction chain becomes one {@link Step}, which only stores the applied updates, their inverses
+ * and the player's inventory around it. Undoing a step applies its inverses in reverse order; redoing it applies the
+ * updates again. The history keeps at most {@link #capacity} steps and drops the oldest ones beyond that.
+ * </p>
+ */
+public class UndoHistory {
+    /**
+     * Default amount of steps that can be undone
+     */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    /**
+     * Maximum amount of steps kept in the history
+     */
+    private final int capacity;
+
+    /**
+     * Steps whose updates are still waiting to be applied to the live map, oldest first
+     */
+    private final Deque<Step> pendingSteps = new ArrayDeque<>();
+
+    /**
+     * Steps that have been applied and can be undone, most recent last
+     */
+    private final Deque<Step> undoSteps = new ArrayDeque<>();
+
+    /**
+     * Steps that have been undone and can be redone, most recent last
+     */
+    private final Deque<Step> redoSteps = new ArrayDeque<>();
+
+    /**
+     * Default-Constructor using {@link #DEFAULT_CAPACITY}
+     */
+    public UndoHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity Maximum amount of steps that can be undone.
+     */
+    public UndoHistory(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Announces a new step whose updates will be applied to the live map next.
+     *
+     * @param updates         The updates of the step in the order they will be applied.
+     * @param inventoryBefore The player's inventory before the step.
+     * @param inventoryAfter  The player's inventory after the step.
+     */
+    public void beginStep(Collection<GameStateUpdate> updates, TileContent inventoryBefore, TileContent inventoryAfter) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        pendingSteps.addLast(new Step(updates.toArray(new GameStateUpdate[0]), inventoryBefore, inventoryAfter));
+    }
+
+    /**
+     * Records that the next pending update has been applied to the live map.
+     *
+     * @param map     The live map the update has been applied to.
+     * @param inverse The inverse of the applied update, created right before applying it.
+     */
+    public void recordApplied(Map map, GameStateUpdate inverse) {
+        Step step = pendingSteps.peekFirst();
+        if (step == null) {
+            return;
+        }
+
+        step.inverses[step.appliedCount++] = inverse;
+        if (step.appliedCount == step.updates.length) {
+            pendingSteps.removeFirst();
+            step.hashAfter = map.getTranscendentHash();
+            undoSteps.addLast(step);
+            if (undoSteps.size() > capacity) {
+                undoSteps.removeFirst();
+            }
+            redoSteps.clear();
+        }
+    }
+
+    /**
+     * Records the transcendent state hash of the live map right before the first update of the next step.
+     *
+     * @param map The live map.
+     */
+    public void recordBeforeApply(Map map) {
+        Step step = pendingSteps.peekFirst();
+        if (step != null && step.appliedCount == 0) {
+            step.hashBefore = map.getTranscendentHash();
+        }
+    }
+
+    /**
+     * Reverts the most recent step.
+     *
+     * @param map The live map.
+     * @return The reverted step, or {@code null} if there is nothing to undo.
+     */
+    public Step undo(Map map) {
+        Step step = undoSteps.pollLast();
+        if (step == null) {
+            return null;
+        }
+        for (int i = step.inverses.length - 1; i >= 0; i--) {
+            if (step.inverses[i] != null) {
+                step.inverses[i].apply(map);
+            }
+        }
+        PlayerController.getInstance().setInventory(step.inventoryBefore);
+        redoSteps.addLast(step);
+        return step;
+    }
+
+    /**
+     * Re-applies the most recently undone step.
+     *
+     * @param map The live map.
+     * @return The re-applied step, or {@code null} if there is nothing to redo.
+     */
+    public Step redo(Map map) {
+        Step step = redoSteps.pollLast();
+        if (step == null) {
+            return null;
+        }
+        for (int i = 0; i < step.updates.length; i++) {
+            step.inverses[i] = step.updates[i].createInverse(map);
+            step.updates[i].apply(map);
+        }
+        PlayerController.getInstance().setInventory(step.inventoryAfter);
+        undoSteps.addLast(step);
+        return step;
+    }
+
+    /**
+     * Checks whether a step can be undone.
+     *
+     * @return True if there is at least one applied step, false otherwise.
+     */
+    public boolean canUndo() {
+        return !undoSteps.isEmpty();
+    }
+
+    /**
+     * Checks whether a step can be redone.
+     *
+     * @return True if there is at least one undone step, false otherwise.
+     */
+    public boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    /**
+     * Collects the transcendent state hashes the live map can be brought back to by undoing steps.
+     * <p>
+     * Steps that didn't change the transcendent state are skipped.
+     * </p>
+     *
+     * @return The state hashes before each transcendent step, most recent first.
+     * @see Step#isTranscendent()
+     */
+    public List<Long> getTranscendentHashes() {
+        List<Long> hashes = new ArrayList<>();
+        for (Iterator<Step> iterator = undoSteps.descendingIterator(); iterator.hasNext(); ) {
+            Step step = iterator.next();
+            if (step.isTranscendent()) {
+                hashes.add(step.hashBefore);
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Removes every step, e.g. when a new map is loaded.
+     */
+    public void clear() {
+        pendingSteps.clear();
+        undoSteps.clear();
+        redoSteps.clear();
+    }
+
+    /**
+     * A single undoable step consisting of every update of one interaction chain.
+     */
+    public static class Step {
+        private final GameStateUpdate[] updates;
+        private final GameStateUpdate[] inverses;
+        private final TileContent inventoryBefore;
+        private final TileContent inventoryAfter;
+        private int appliedCount = 0;
+        private long hashBefore;
+        private long hashAfter;
+
+        private Step(GameStateUpdate[] updates, TileContent inventoryBefore, TileContent inventoryAfter) {
+            this.updates = updates;
+            this.inverses = new GameStateUpdate[updates.length];
+            this.inventoryBefore = inventoryBefore;
+            this.inventoryAfter = inventoryAfter;
+        }
+
+        /**
+         * Checks whether this step changed the state shared with the other client.
+         *
+         * @return True if the transcendent state hash differs before and after this step.
+         */
+        public boolean isTranscendent() {
+            return hashBefore != hashAfter;
+        }
+
+        /**
+         * Gets the transcendent state hash of the live map before this step.
+         *
+         * @return The state hash.
+         * @see Map#getTranscendentHash()
+         */
+        public long getHashBefore() {
+            return hashBefore;
+        }
+
+        /**
+         * Gets the transcendent state hash of the live map after this step.
+         *
+         * @return The state hash.
+         * @see Map#getTranscendentHash()
+         */
+        public long getHashAfter() {
+            return hashAfter;
+        }
+    }
+}
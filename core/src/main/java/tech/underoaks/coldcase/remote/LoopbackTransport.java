@@ -0,0 +1,239 @@
+package tech.underoaks.coldcase.remote;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link Transport} connecting two game instances inside the same process, without a relay server.
+ * <p>
+ * Every written frame is delivered to the other side after the configured latency plus a random jitter, or lost with
+ * the configured probability. Like a WebSocket, the link never reorders frames: a frame is never delivered before the
+ * frames written before it. Jitter and loss are drawn from a seeded {@link Random}, so the same sequence of frames
+ * always experiences the same link conditions.
+ * </p>
+ * <p>
+ * Both sides only exchange {@code java.util.function.Consumer}s, {@link String}s and {@link ByteBuffer}s, so they can
+ * even be connected across class loaders, e.g. to run a detective and a ghost instance with their own singletons.
+ * A {@code null} frame tells the other side that the connection has been closed.
+ * </p>
+ */
+public class LoopbackTransport implements Transport {
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double lossRate;
+    private final Random random;
+
+    /**
+     * Frames waiting to be delivered to the other side, in the order they have been written
+     */
+    private final LinkedBlockingQueue<Delivery> deliveries = new LinkedBlockingQueue<>();
+
+    /**
+     * Hands frames to the other side, {@code null} until connected
+     */
+    private volatile Consumer<Object> peer = null;
+
+    /**
+     * Handles the frames received from the other side
+     */
+    private volatile Consumer<Object> receiver = null;
+
+    private volatile boolean open = false;
+
+    /**
+     * Point in time the most recent frame will be delivered at
+     */
+    private long lastDeliveryNanos = 0;
+
+    private long sentCount = 0;
+    private long lostCount = 0;
+
+    /**
+     * Constructor for a link without latency or loss
+     */
+    public LoopbackTransport() {
+        this(0, 0, 0, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param latencyMillis One-way latency of every frame in milliseconds.
+     * @param jitterMillis  Upper bound of the random latency added to every frame in milliseconds.
+     * @param lossRate      Probability between {@code 0} and {@code 1} that a frame is lost.
+     * @param seed          Seed of the jitter and the losses.
+     */
+    public LoopbackTransport(long latencyMillis, long jitterMillis, double lossRate, long seed) {
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        this.jitterNanos = TimeUnit.MILLISECONDS.toNanos(jitterMillis);
+        this.lossRate = lossRate;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Connects two transports with each other.
+     *
+     * @param first  One side of the link.
+     * @param second The other side of the link.
+     */
+    public static void connect(LoopbackTransport first, LoopbackTransport second) {
+        first.connect(second.getInbound());
+        second.connect(first.getInbound());
+    }
+
+    /**
+     * Connects this transport with the inbound side of another one.
+     *
+     * @param peer Receives the frames written to this transport, see {@link #getInbound()}.
+     */
+    public synchronized void connect(Consumer<Object> peer) {
+        if (this.peer != null) {
+            throw new IllegalStateException("Loopback transport is already connected");
+        }
+        this.peer = peer;
+        this.open = true;
+        Thread thread = new Thread(this::deliver, "Loopback-Delivery");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gets the inbound side of this transport that the other side delivers its frames to.
+     *
+     * @return Hands received frames to the {@link #setReceiver(Consumer) receiver}.
+     */
+    public Consumer<Object> getInbound() {
+        return frame -> {
+            if (frame == null) {
+                open = false;
+            }
+            Consumer<Object> current = receiver;
+            if (current != null) {
+                current.accept(frame);
+            }
+        };
+    }
+
+    /**
+     * Sets the handler of the frames received from the other side.
+     *
+     * @param receiver Receives {@link String} and {@link ByteBuffer} frames, or {@code null} once the other side has
+     *                 closed the connection.
+     */
+    public void setReceiver(Consumer<Object> receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public Future<Void> sendText(String text) {
+        return transmit(text);
+    }
+
+    @Override
+    public Future<Void> sendBinary(ByteBuffer data) {
+        ByteBuffer copy = ByteBuffer.allocate(data.remaining());
+        copy.put(data.duplicate()).flip();
+        return transmit(copy);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Closes the link and tells the other side once every frame written before has been delivered.
+     * Like a closed WebSocket session, the {@link #setReceiver(Consumer) receiver} of this side is told right away.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            deliveries.add(new Delivery(null, Math.max(lastDeliveryNanos, System.nanoTime())));
+        }
+        Consumer<Object> current = receiver;
+        if (current != null) {
+            current.accept(null);
+        }
+    }
+
+    /**
+     * Gets the number of frames that have been written.
+     *
+     * @return The number of frames, including the lost ones.
+     */
+    public synchronized long getSentCount() {
+        return sentCount;
+    }
+
+    /**
+     * Gets the number of frames that have been lost.
+     *
+     * @return The number of lost frames.
+     */
+    public synchronized long getLostCount() {
+        return lostCount;
+    }
+
+    private synchronized Future<Void> transmit(Object frame) {
+        if (!open) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Loopback transport is closed"));
+        }
+        sentCount++;
+        if (lossRate > 0 && random.nextDouble() < lossRate) {
+            lostCount++;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long delay = latencyNanos + (jitterNanos > 0 ? (long) (random.nextDouble() * jitterNanos) : 0);
+        lastDeliveryNanos = Math.max(lastDeliveryNanos, System.nanoTime() + delay);
+        deliveries.add(new Delivery(frame, lastDeliveryNanos));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Delivers the written frames in order once they are due; runs on the delivery thread until the link is closed.
+     */
+    private void deliver() {
+        try {
+            while (true) {
+                Delivery delivery = deliveries.take();
+                long remaining = delivery.dueNanos - System.nanoTime();
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+                try {
+                    peer.accept(delivery.frame);
+                } catch (RuntimeException e) {
+                    System.err.println("Failed to deliver loopback frame: " + e.getMessage());
+                }
+                if (delivery.frame == null) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A frame on its way to the other side
+     */
+    private static class Delivery {
+        private final Object frame;
+        private final long dueNanos;
+
+        private Delivery(Object frame, long dueNanos) {
+            this.frame = frame;
+            this.dueNanos = dueNanos;
+        }
+    }
+}
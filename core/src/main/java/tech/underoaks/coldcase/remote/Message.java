@@ -10,6 +10,11 @@ package tech.underoaks.coldcase.remote;
 public abstract class Message {
     private String remoteGameControllerInstanceId;
 
+    /**
+     * Identifier of a single request, copied into its response
+     */
+    private String correlationId;
+
     /**
      * Gets the current identifier of the {@link RemoteGameController}
      * @return the id of the associated remote game controller instance
@@ -25,4 +30,21 @@ public abstract class Message {
     public void setRemoteGameControllerInstanceId(String remoteGameControllerInstanceId) {
         this.remoteGameControllerInstanceId = remoteGameControllerInstanceId;
     }
+
+    /**
+     * Gets the identifier of the request this message belongs to
+     * @return the correlation id, or {@code null} if this message is not part of a request
+     */
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    /**
+     * Sets the identifier of the request this message belongs to
+     * @param correlationId The correlation id
+     * @see PendingRequests
+     */
+    public void setCorrelationId(String correlationId) {
+        this.correlationId = correlationId;
+    }
 }
@@ -0,0 +1,571 @@
+package tech.underoaks.coldcase.remote;
+
+import com.badlogic.gdx.math.Vector2;
+import tech.underoaks.coldcase.game.Direction;
+import tech.underoaks.coldcase.game.Interaction;
+import tech.underoaks.coldcase.state.tileContent.TileContents;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of the messages exchanged between the clients.
+ * <p>
+ * Every frame starts with the {@link #VERSION} of the encoding followed by a one byte type tag. Numbers are written as
+ * variable length integers, {@link Direction}s as their ordinal and callers as the index of their
+ * {@link TileContents} entry. Identifiers such as UUIDs, correlation ids and state hashes are written in their binary
+ * form whenever they can be restored exactly, and as text otherwise.
+ * </p>
+ * <p>
+ * Messages that can't be encoded, e.g. an {@link Interaction} with a fractional target position, are rejected with an
+ * {@link IllegalArgumentException} and have to be sent as JSON instead.
+ * </p>
+ * <p>
+ * Several encoded messages can be coalesced into one {@link #encodeBatch(List) batch frame}, which is unpacked by
+ * {@link #decodeAll(ByteBuffer)}.
+ * </p>
+ */
+public final class MessageCodec {
+    /**
+     * Version of the encoding. Has to be increased whenever the layout, the type tags or {@link TileContents} change.
+     */
+    public static final int VERSION = 5;
+
+    // Type tags
+    private static final int EXECUTE_REMOTE_TRANSACTION = 7;
+    private static final int EXECUTE_REMOTE_TRANSACTION_RESPONSE = 8;
+    private static final int LOBBY_ID = 9;
+    private static final int START_GAME = 10;
+    private static final int EXIT_TO_MAIN_MENU = 11;
+    private static final int UNDO = 12;
+    private static final int REDO = 13;
+    private static final int BATCH = 14;
+    private static final int PING = 15;
+    private static final int PONG = 16;
+    private static final int RESUME_SESSION = 17;
+    private static final int RESUME_SESSION_RESPONSE = 18;
+
+    // Identifier encodings
+    private static final int ID_NULL = 0;
+    private static final int ID_UUID = 1;
+    private static final int ID_DECIMAL = 2;
+    private static final int ID_HEX = 3;
+    private static final int ID_TEXT = 4;
+
+    // Caller encodings, every other value is the index of a TileContents entry + 1
+    private static final int CALLER_NULL = 0;
+    private static final int CALLER_TEXT = 1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final HashMap<String, Integer> CALLER_IDS = new HashMap<>();
+    private static final HashMap<Integer, String> CALLER_NAMES = new HashMap<>();
+
+    static {
+        for (TileContents contents : TileContents.values()) {
+            CALLER_IDS.put(contents.getTileClass().getName(), contents.getIndex() + 1);
+            CALLER_NAMES.put(contents.getIndex() + 1, contents.getTileClass().getName());
+        }
+    }
+
+    private MessageCodec() {
+    }
+
+    /**
+     * Encodes a message.
+     *
+     * @param message One of the {@link Messages}.
+     * @return The encoded frame.
+     * @throws IllegalArgumentException If the message can't be encoded.
+     */
+    public static byte[] encode(Object message) {
+        Writer out = new Writer();
+        out.writeByte(VERSION);
+
+        if (message instanceof Messages.ExecuteRemoteTransactionMessage messageObj) {
+            out.writeByte(EXECUTE_REMOTE_TRANSACTION);
+            writeHeader(out, messageObj);
+            out.writeByte((messageObj.getSuppressTranscendentFollowUp() ? 1 : 0) | (messageObj.getCommit() ? 2 : 0));
+            writeId(out, messageObj.getStateHash());
+            writeInteractions(out, messageObj.getInteractions());
+        } else if (message instanceof Messages.ExecuteRemoteTransactionResponseMessage messageObj) {
+            out.writeByte(EXECUTE_REMOTE_TRANSACTION_RESPONSE);
+            writeHeader(out, messageObj);
+            out.writeByte(messageObj.getCommitted() ? 1 : 0);
+            writeInteractions(out, messageObj.getInteractions());
+            writeInteractions(out, messageObj.getTranscendentInteractions());
+        } else if (message instanceof Messages.PingMessage messageObj) {
+            out.writeByte(PING);
+            writeHeader(out, messageObj);
+        } else if (message instanceof Messages.PongMessage messageObj) {
+            out.writeByte(PONG);
+            writeHeader(out, messageObj);
+        } else if (message instanceof Messages.ResumeSessionMessage messageObj) {
+            out.writeByte(RESUME_SESSION);
+            writeHeader(out, messageObj);
+            out.writeZigZag(messageObj.getLevelIndex());
+            writeId(out, messageObj.getStateHash());
+            writeIds(out, messageObj.getStateHistory());
+        } else if (message instanceof Messages.ResumeSessionResponseMessage messageObj) {
+            out.writeByte(RESUME_SESSION_RESPONSE);
+            writeHeader(out, messageObj);
+            out.writeZigZag(messageObj.getLevelIndex());
+            writeId(out, messageObj.getStateHash());
+            writeInts(out, messageObj.getTranscendentState());
+        } else if (message instanceof Messages.lobbyIdMessage messageObj) {
+            out.writeByte(LOBBY_ID);
+            writeId(out, messageObj.getLobbyId());
+        } else if (message instanceof Messages.startGameMessage messageObj) {
+            out.writeByte(START_GAME);
+            out.writeZigZag(messageObj.getLevelIndex());
+        } else if (message instanceof Messages.exitToMainMenuMessage) {
+            out.writeByte(EXIT_TO_MAIN_MENU);
+        } else if (message instanceof Messages.undoMessage messageObj) {
+            out.writeByte(UNDO);
+            writeId(out, messageObj.getStateHash());
+        } else if (message instanceof Messages.redoMessage messageObj) {
+            out.writeByte(REDO);
+            writeId(out, messageObj.getStateHash());
+        } else {
+            throw new IllegalArgumentException("Unsupported message type: " + (message == null ? null : message.getClass().getName()));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Coalesces several encoded messages into one batch frame.
+     *
+     * @param frames Messages encoded by {@link #encode(Object)}, in the order they have to be handled.
+     * @return The batch frame.
+     */
+    public static byte[] encodeBatch(List<byte[]> frames) {
+        Writer out = new Writer();
+        out.writeByte(VERSION);
+        out.writeByte(BATCH);
+        out.writeVarLong(frames.size());
+        for (byte[] frame : frames) {
+            out.writeBytes(frame);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a single message or every message of a batch frame.
+     *
+     * @param frame A frame created by {@link #encode(Object)} or {@link #encodeBatch(List)}.
+     * @return The decoded messages in the order they have to be handled.
+     * @throws IllegalArgumentException If the frame has been encoded with another version or is malformed.
+     */
+    public static List<Object> decodeAll(ByteBuffer frame) {
+        frame.order(ByteOrder.BIG_ENDIAN);
+        int start = frame.position();
+        try {
+            if (readByte(frame) == VERSION && readByte(frame) == BATCH) {
+                int count = readVarInt(frame);
+                List<Object> messages = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    int length = readVarInt(frame);
+                    if (length > frame.remaining()) {
+                        throw new BufferUnderflowException();
+                    }
+                    messages.add(decode(frame.slice(frame.position(), length)));
+                    frame.position(frame.position() + length);
+                }
+                return messages;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated message", e);
+        }
+        frame.position(start);
+        return Collections.singletonList(decode(frame));
+    }
+
+    /**
+     * Decodes a frame created by {@link #encode(Object)}.
+     *
+     * @param frame The encoded frame.
+     * @return The decoded message.
+     * @throws IllegalArgumentException If the frame has been encoded with another version or is malformed.
+     */
+    public static Object decode(byte[] frame) {
+        return decode(ByteBuffer.wrap(frame));
+    }
+
+    /**
+     * Decodes a frame created by {@link #encode(Object)}.
+     *
+     * @param frame The encoded frame. Its position is advanced to the end of the message.
+     * @return The decoded message.
+     * @throws IllegalArgumentException If the frame has been encoded with another version or is malformed.
+     */
+    public static Object decode(ByteBuffer frame) {
+        try {
+            frame.order(ByteOrder.BIG_ENDIAN);
+            int version = readByte(frame);
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported encoding version: " + version);
+            }
+
+            int type = readByte(frame);
+            return switch (type) {
+                case EXECUTE_REMOTE_TRANSACTION -> {
+                    Messages.ExecuteRemoteTransactionMessage messageObj = readHeader(frame, new Messages.ExecuteRemoteTransactionMessage());
+                    int flags = readByte(frame);
+                    messageObj.setSuppressTranscendentFollowUp((flags & 1) != 0);
+                    messageObj.setCommit((flags & 2) != 0);
+                    messageObj.setStateHash(readId(frame));
+                    messageObj.setInteractions(readInteractions(frame));
+                    yield messageObj;
+                }
+                case EXECUTE_REMOTE_TRANSACTION_RESPONSE -> {
+                    Messages.ExecuteRemoteTransactionResponseMessage messageObj = readHeader(frame, new Messages.ExecuteRemoteTransactionResponseMessage());
+                    messageObj.setCommitted(readByte(frame) != 0);
+                    messageObj.setInteractions(readInteractions(frame));
+                    messageObj.setTranscendentInteractions(readInteractions(frame));
+                    yield messageObj;
+                }
+                case PING -> readHeader(frame, new Messages.PingMessage());
+                case PONG -> readHeader(frame, new Messages.PongMessage());
+                case RESUME_SESSION -> {
+                    Messages.ResumeSessionMessage messageObj = readHeader(frame, new Messages.ResumeSessionMessage());
+                    messageObj.setLevelIndex(readZigZag(frame));
+                    messageObj.setStateHash(readId(frame));
+                    messageObj.setStateHistory(readIds(frame));
+                    yield messageObj;
+                }
+                case RESUME_SESSION_RESPONSE -> {
+                    Messages.ResumeSessionResponseMessage messageObj = readHeader(frame, new Messages.ResumeSessionResponseMessage());
+                    messageObj.setLevelIndex(readZigZag(frame));
+                    messageObj.setStateHash(readId(frame));
+                    messageObj.setTranscendentState(readInts(frame));
+                    yield messageObj;
+                }
+                case LOBBY_ID -> new Messages.lobbyIdMessage(readId(frame));
+                case START_GAME -> new Messages.startGameMessage(readZigZag(frame));
+                case EXIT_TO_MAIN_MENU -> new Messages.exitToMainMenuMessage();
+                case UNDO -> new Messages.undoMessage(readId(frame));
+                case REDO -> new Messages.redoMessage(readId(frame));
+                default -> throw new IllegalArgumentException("Unknown message type: " + type);
+            };
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated message", e);
+        }
+    }
+
+    private static void writeHeader(Writer out, Message message) {
+        writeId(out, message.getRemoteGameControllerInstanceId());
+        writeId(out, message.getCorrelationId());
+    }
+
+    private static <T extends Message> T readHeader(ByteBuffer in, T message) {
+        message.setRemoteGameControllerInstanceId(readId(in));
+        message.setCorrelationId(readId(in));
+        return message;
+    }
+
+    private static void writeInteractions(Writer out, Queue<Interaction> interactions) {
+        if (interactions == null) {
+            out.writeVarLong(0);
+            return;
+        }
+        out.writeVarLong(interactions.size() + 1L);
+        for (Interaction interaction : interactions) {
+            writeInteraction(out, interaction);
+        }
+    }
+
+    private static Queue<Interaction> readInteractions(ByteBuffer in) {
+        int size = readVarInt(in);
+        if (size == 0) {
+            return null;
+        }
+        Queue<Interaction> interactions = new LinkedList<>();
+        for (int i = 1; i < size; i++) {
+            interactions.add(readInteraction(in));
+        }
+        return interactions;
+    }
+
+    private static void writeInteraction(Writer out, Interaction interaction) {
+        Direction direction = interaction.getActionDirection();
+        out.writeByte(direction == null ? 0 : direction.ordinal() + 1);
+
+        Vector2 targetPos = interaction.getTargetPos();
+        int x = (int) targetPos.x;
+        int y = (int) targetPos.y;
+        if (x != targetPos.x || y != targetPos.y) {
+            throw new IllegalArgumentException("Target position is not a tile position: " + targetPos);
+        }
+        out.writeZigZag(x);
+        out.writeZigZag(y);
+
+        String caller = interaction.getCaller();
+        Integer callerId = caller == null ? null : CALLER_IDS.get(caller);
+        if (caller == null) {
+            out.writeVarLong(CALLER_NULL);
+        } else if (callerId != null) {
+            out.writeVarLong(callerId);
+        } else {
+            out.writeVarLong(CALLER_TEXT);
+            out.writeString(caller);
+        }
+
+        writeId(out, interaction.getUuid());
+        writeInts(out, interaction.getParameters());
+    }
+
+    private static Interaction readInteraction(ByteBuffer in) {
+        int directionId = readByte(in);
+        if (directionId > DIRECTIONS.length) {
+            throw new IllegalArgumentException("Unknown direction: " + (directionId - 1));
+        }
+        Direction direction = directionId == 0 ? null : DIRECTIONS[directionId - 1];
+
+        int x = readZigZag(in);
+        int y = readZigZag(in);
+        Vector2 targetPos = new Vector2(x, y);
+
+        int callerId = readVarInt(in);
+        String caller;
+        if (callerId == CALLER_NULL) {
+            caller = null;
+        } else if (callerId == CALLER_TEXT) {
+            caller = readString(in);
+        } else {
+            caller = CALLER_NAMES.get(callerId);
+            if (caller == null) {
+                throw new IllegalArgumentException("Unknown caller: " + callerId);
+            }
+        }
+
+        String uuid = readId(in);
+        int[] parameters = readInts(in);
+
+        return new Interaction(targetPos, direction, caller, uuid, parameters);
+    }
+
+    private static void writeInts(Writer out, int[] values) {
+        if (values == null) {
+            out.writeVarLong(0);
+            return;
+        }
+        out.writeVarLong(values.length + 1L);
+        for (int value : values) {
+            out.writeZigZag(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        if (length - 1 > in.remaining()) {
+            throw new IllegalArgumentException("Truncated message");
+        }
+        int[] values = new int[length - 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readZigZag(in);
+        }
+        return values;
+    }
+
+    private static void writeIds(Writer out, String[] ids) {
+        if (ids == null) {
+            out.writeVarLong(0);
+            return;
+        }
+        out.writeVarLong(ids.length + 1L);
+        for (String id : ids) {
+            writeId(out, id);
+        }
+    }
+
+    private static String[] readIds(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        if (length - 1 > in.remaining()) {
+            throw new IllegalArgumentException("Truncated message");
+        }
+        String[] ids = new String[length - 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = readId(in);
+        }
+        return ids;
+    }
+
+    /**
+     * Writes an identifier in its most compact form that restores the exact same string.
+     */
+    private static void writeId(Writer out, String id) {
+        if (id == null) {
+            out.writeByte(ID_NULL);
+        } else if (isCanonicalUuid(id)) {
+            UUID uuid = UUID.fromString(id);
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (isCanonicalNumber(id, 18, 10)) {
+            out.writeByte(ID_DECIMAL);
+            out.writeVarLong(Long.parseLong(id));
+        } else if (isCanonicalNumber(id, 16, 16)) {
+            out.writeByte(ID_HEX);
+            out.writeLong(Long.parseUnsignedLong(id, 16));
+        } else {
+            out.writeByte(ID_TEXT);
+            out.writeString(id);
+        }
+    }
+
+    private static String readId(ByteBuffer in) {
+        int encoding = readByte(in);
+        return switch (encoding) {
+            case ID_NULL -> null;
+            case ID_UUID -> new UUID(in.getLong(), in.getLong()).toString();
+            case ID_DECIMAL -> Long.toString(readVarLong(in));
+            case ID_HEX -> Long.toHexString(in.getLong());
+            case ID_TEXT -> readString(in);
+            default -> throw new IllegalArgumentException("Unknown identifier encoding: " + encoding);
+        };
+    }
+
+    /**
+     * Checks whether the string is a lower case UUID as created by {@link UUID#toString()}.
+     */
+    private static boolean isCanonicalUuid(String id) {
+        if (id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (Character.digit(c, 16) < 0 || Character.isUpperCase(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the string is a non-negative number without leading zeros in lower case digits of the given radix.
+     */
+    private static boolean isCanonicalNumber(String id, int maxLength, int radix) {
+        if (id.isEmpty() || id.length() > maxLength || (id.length() > 1 && id.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (Character.digit(c, radix) < 0 || Character.isUpperCase(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readByte(ByteBuffer in) {
+        return in.get() & 0xFF;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length integer");
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Variable length integer out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static int readZigZag(ByteBuffer in) {
+        long value = readVarLong(in);
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable byte buffer the frames are written to.
+     */
+    private static class Writer {
+        private byte[] buffer = new byte[64];
+        private int size = 0;
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+            }
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeZigZag(int value) {
+            writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+}
@@ -10,12 +10,66 @@ import java.util.Queue;
 public class Messages {
 
     /**
-     * Message used to append an interaction to a remote interaction chain.
-     * Contains an {@link Interaction} and a flag to suppress transcendent follow-up interactions.
+     * Message executing a complete remote transaction in a single round trip.
+     * <p>
+     * The receiver creates a remote interaction chain, triggers every interaction in order and commits the updates of
+     * the successful ones if the sender intends to commit. Otherwise, or if no interaction succeeded, the updates are
+     * aborted.
+     * </p>
      */
-    public static class AppendRemoteInteractionMessage extends Message {
+    public static class ExecuteRemoteTransactionMessage extends Message {
+        private Queue<Interaction> interactions;
+
+        private boolean suppressTranscendentFollowUp;
+
+        private boolean commit;
+
+        /**
+         * Transcendent state hash the sender expects after the updates have been applied, encoded as hexadecimal
+         * string. {@code null} if the sender did not simulate the remote updates.
+         */
+        private String stateHash;
 
-        private Interaction interaction;
+        /**
+         * Constructs an empty {@code ExecuteRemoteTransactionMessage}.
+         */
+        public ExecuteRemoteTransactionMessage() {
+        }
+
+        /**
+         * Constructs an {@code ExecuteRemoteTransactionMessage}.
+         *
+         * @param remoteGameControllerInstanceId the identifier of the remote game controller instance
+         * @param interactions                   the {@link Interaction}s to trigger in order
+         * @param suppressTranscendentFollowUp   flag indicating whether to suppress transcendent follow-up interactions
+         * @param commit                         whether the resulting updates should be applied if all interactions succeed
+         * @param stateHash                      the expected transcendent state hash, or {@code null} if unknown
+         */
+        public ExecuteRemoteTransactionMessage(String remoteGameControllerInstanceId, Queue<Interaction> interactions, boolean suppressTranscendentFollowUp, boolean commit, String stateHash) {
+            this.setRemoteGameControllerInstanceId(remoteGameControllerInstanceId);
+            this.interactions = interactions;
+            this.suppressTranscendentFollowUp = suppressTranscendentFollowUp;
+            this.commit = commit;
+            this.stateHash = stateHash;
+        }
+
+        /**
+         * Returns the interactions to trigger.
+         *
+         * @return the queue of interactions
+         */
+        public Queue<Interaction> getInteractions() {
+            return interactions;
+        }
+
+        /**
+         * Sets the interactions to trigger.
+         *
+         * @param interactions the queue of interactions
+         */
+        public void setInteractions(Queue<Interaction> interactions) {
+            this.interactions = interactions;
+        }
 
         /**
          * Returns whether transcendent follow-up interactions should be suppressed.
@@ -35,197 +89,333 @@ public class Messages {
             this.suppressTranscendentFollowUp = suppressTranscendentFollowUp;
         }
 
-        private boolean suppressTranscendentFollowUp;
-
         /**
-         * Constructs an empty {@code AppendRemoteInteractionMessage}.
+         * Returns whether the resulting updates should be applied if all interactions succeed.
+         *
+         * @return {@code true} to commit, {@code false} to only simulate the interactions
          */
-        public AppendRemoteInteractionMessage() {
+        public boolean getCommit() {
+            return commit;
         }
 
         /**
-         * Constructs an {@code AppendRemoteInteractionMessage} with the specified remote game controller instance identifier,
-         * interaction, and flag indicating whether to suppress transcendent follow-up.
+         * Sets whether the resulting updates should be applied if all interactions succeed.
          *
-         * @param remoteGameControllerInstanceId the identifier of the remote game controller instance
-         * @param interaction                    the {@link Interaction} to be appended
-         * @param suppressTranscendentFollowUp   flag indicating whether to suppress transcendent follow-up interactions
+         * @param commit {@code true} to commit, {@code false} to only simulate the interactions
          */
-        public AppendRemoteInteractionMessage(String remoteGameControllerInstanceId, Interaction interaction, boolean suppressTranscendentFollowUp) {
-            this.setRemoteGameControllerInstanceId(remoteGameControllerInstanceId);
-            this.interaction = interaction;
-            this.suppressTranscendentFollowUp = suppressTranscendentFollowUp;
+        public void setCommit(boolean commit) {
+            this.commit = commit;
         }
 
         /**
-         * Returns the {@link Interaction} associated with this message.
+         * Returns the transcendent state hash the sender expects after the updates have been applied.
          *
-         * @return the {@link Interaction} to be appended remotely
+         * @return the hexadecimal state hash, or {@code null} if unknown
          */
-        public Interaction getInteraction() {
-            return interaction;
+        public String getStateHash() {
+            return stateHash;
         }
 
         /**
-         * Sets the {@link Interaction} for this message.
+         * Sets the transcendent state hash the sender expects after the updates have been applied.
          *
-         * @param interaction the {@link Interaction} to be appended
+         * @param stateHash the hexadecimal state hash, or {@code null} if unknown
          */
-        public void setInteraction(Interaction interaction) {
-            this.interaction = interaction;
+        public void setStateHash(String stateHash) {
+            this.stateHash = stateHash;
         }
     }
 
     /**
-     * Response message for an append remote interaction request.
-     * Contains a queue of {@link Interaction} objects resulting from the append operation.
+     * Response message for an execute remote transaction request.
+     * Contains the follow-up {@link Interaction}s, the transcendent {@link Interaction}s the requesting client has
+     * to trigger locally and whether the updates have been committed.
      */
-    public static class AppendRemoteInteractionResponseMessage extends Message {
+    public static class ExecuteRemoteTransactionResponseMessage extends Message {
         private Queue<Interaction> interactions;
 
+        private Queue<Interaction> transcendentInteractions;
+
+        private boolean committed;
+
         /**
-         * Constructs an empty {@code AppendRemoteInteractionResponseMessage}.
+         * Constructs an empty {@code ExecuteRemoteTransactionResponseMessage}.
          */
-        public AppendRemoteInteractionResponseMessage() {
+        public ExecuteRemoteTransactionResponseMessage() {
         }
 
         /**
-         * Constructs an {@code AppendRemoteInteractionResponseMessage} with the specified remote game controller instance identifier and interactions.
+         * Constructs an {@code ExecuteRemoteTransactionResponseMessage}.
          *
          * @param remoteGameControllerInstanceId the identifier of the remote game controller instance
-         * @param interactions                   the queue of {@link Interaction} objects returned as a response
+         * @param interactions                   the follow-up interactions, or {@code null} if no interaction succeeded
+         * @param transcendentInteractions       the interactions handled by transcendent content, which the
+         *                                       requesting client has to trigger locally
+         * @param committed                      whether the resulting updates have been applied
          */
-        public AppendRemoteInteractionResponseMessage(String remoteGameControllerInstanceId, Queue<Interaction> interactions) {
+        public ExecuteRemoteTransactionResponseMessage(String remoteGameControllerInstanceId, Queue<Interaction> interactions, Queue<Interaction> transcendentInteractions, boolean committed) {
             this.setRemoteGameControllerInstanceId(remoteGameControllerInstanceId);
             this.interactions = interactions;
+            this.transcendentInteractions = transcendentInteractions;
+            this.committed = committed;
         }
 
         /**
-         * Returns the queue of {@link Interaction} objects associated with this response.
+         * Returns the follow-up interactions of the transaction.
          *
-         * @return the queue of interactions
+         * @return the queue of interactions, or {@code null} if no interaction succeeded
          */
         public Queue<Interaction> getInteractions() {
             return interactions;
         }
 
         /**
-         * Sets the queue of {@link Interaction} objects for this response.
+         * Sets the follow-up interactions of the transaction.
          *
-         * @param interactions the queue of interactions to set
+         * @param interactions the queue of interactions
          */
         public void setInteractions(Queue<Interaction> interactions) {
             this.interactions = interactions;
         }
+
+        /**
+         * Returns the interactions handled by transcendent content, which the requesting client has to trigger locally
+         * with transcendent follow-ups suppressed.
+         *
+         * @return the queue of interactions, or {@code null} if there are none
+         */
+        public Queue<Interaction> getTranscendentInteractions() {
+            return transcendentInteractions;
+        }
+
+        /**
+         * Sets the interactions handled by transcendent content, which the requesting client has to trigger locally.
+         *
+         * @param transcendentInteractions the queue of interactions
+         */
+        public void setTranscendentInteractions(Queue<Interaction> transcendentInteractions) {
+            this.transcendentInteractions = transcendentInteractions;
+        }
+
+        /**
+         * Returns whether the resulting updates have been applied.
+         *
+         * @return {@code true} if committed, {@code false} if aborted
+         */
+        public boolean getCommitted() {
+            return committed;
+        }
+
+        /**
+         * Sets whether the resulting updates have been applied.
+         *
+         * @param committed {@code true} if committed, {@code false} if aborted
+         */
+        public void setCommitted(boolean committed) {
+            this.committed = committed;
+        }
     }
 
     /**
-     * Message to request the creation of a new remote interaction chain.
-     * Sent to initialize a remote simulation of interactions.
+     * Heartbeat sent to the other client to measure the round trip time.
+     * Answered right away with a {@link PongMessage} under the same correlation id.
+     *
+     * @see RttEstimator
      */
-    public static class CreateRemoteInteractionChainMessage extends Message {
-
+    public static class PingMessage extends Message {
         /**
-         * Constructs an empty {@code CreateRemoteInteractionChainMessage}.
+         * Constructs a {@code PingMessage}.
          */
-        public CreateRemoteInteractionChainMessage() {
+        public PingMessage() {
         }
+    }
 
+    /**
+     * Response message for a {@link PingMessage}.
+     */
+    public static class PongMessage extends Message {
         /**
-         * Constructs a {@code CreateRemoteInteractionChainMessage} with the specified remote game controller instance identifier.
-         *
-         * @param remoteGameControllerInstanceId the identifier of the remote game controller instance
+         * Constructs a {@code PongMessage}.
          */
-        public CreateRemoteInteractionChainMessage(String remoteGameControllerInstanceId) {
-            this.setRemoteGameControllerInstanceId(remoteGameControllerInstanceId);
+        public PongMessage() {
         }
     }
 
     /**
-     * Response message for a create remote interaction chain request.
-     * Contains the identifier of the newly created remote interaction chain.
+     * Request sent by a client that has reconnected to the lobby, so both clients can bring their transcendent states
+     * back in line without reloading the level.
+     * <p>
+     * The other client answers with a {@link ResumeSessionResponseMessage}. The sender's
+     * {@code remoteGameControllerInstanceId} holds the id of its {@link tech.underoaks.coldcase.game.GameController},
+     * which decides which client yields if both resume at the same time.
+     * </p>
      */
-    public static class CreateRemoteInteractionChainResponseMessage extends Message {
-        private String remoteInteractionChainId;
+    public static class ResumeSessionMessage extends Message {
+        int levelIndex;
+        String stateHash;
+        String[] stateHistory;
+
+        /**
+         * Constructs a {@code ResumeSessionMessage}.
+         *
+         * @param gameControllerId the id of the sender's game controller
+         * @param levelIndex       the index of the level being played
+         * @param stateHash        the hexadecimal transcendent state hash of the sender
+         * @param stateHistory     the hexadecimal transcendent state hashes the sender can undo to, most recent first
+         */
+        public ResumeSessionMessage(String gameControllerId, int levelIndex, String stateHash, String[] stateHistory) {
+            this.setRemoteGameControllerInstanceId(gameControllerId);
+            this.levelIndex = levelIndex;
+            this.stateHash = stateHash;
+            this.stateHistory = stateHistory;
+        }
 
         /**
-         * Constructs an empty {@code CreateRemoteInteractionChainResponseMessage}.
+         * Constructs an empty {@code ResumeSessionMessage}.
          */
-        public CreateRemoteInteractionChainResponseMessage() {
+        public ResumeSessionMessage() {
         }
 
         /**
-         * Constructs a {@code CreateRemoteInteractionChainResponseMessage} with the specified remote game controller instance identifier
-         * and remote interaction chain identifier.
+         * Returns the index of the level being played.
          *
-         * @param remoteGameControllerInstanceId the identifier of the remote game controller instance
-         * @param remoteInteractionChainId       the identifier of the created remote interaction chain
+         * @return the level index
          */
-        public CreateRemoteInteractionChainResponseMessage(String remoteGameControllerInstanceId, String remoteInteractionChainId) {
-            this.setRemoteGameControllerInstanceId(remoteGameControllerInstanceId);
-            this.remoteInteractionChainId = remoteInteractionChainId;
+        public int getLevelIndex() {
+            return levelIndex;
         }
 
         /**
-         * Returns the identifier of the remote interaction chain.
+         * Sets the index of the level being played.
          *
-         * @return the remote interaction chain identifier
+         * @param levelIndex the level index
          */
-        public String getRemoteInteractionChainId() {
-            return remoteInteractionChainId;
+        public void setLevelIndex(int levelIndex) {
+            this.levelIndex = levelIndex;
         }
 
         /**
-         * Sets the identifier for the remote interaction chain.
+         * Returns the transcendent state hash of the sender.
          *
-         * @param remoteInteractionChainId the remote interaction chain identifier to set
+         * @return the hexadecimal state hash
          */
-        public void setRemoteInteractionChainId(String remoteInteractionChainId) {
-            this.remoteInteractionChainId = remoteInteractionChainId;
+        public String getStateHash() {
+            return stateHash;
         }
-    }
 
-    /**
-     * Message used to trigger the application of remote Game State Updates (GSUs).
-     * This message instructs the remote game controller to process and apply queued GSUs.
-     */
-    public static class ApplyRemoteGSUsMessage extends Message {
+        /**
+         * Sets the transcendent state hash of the sender.
+         *
+         * @param stateHash the hexadecimal state hash
+         */
+        public void setStateHash(String stateHash) {
+            this.stateHash = stateHash;
+        }
 
         /**
-         * Constructs an empty {@code ApplyRemoteGSUsMessage}.
+         * Returns the transcendent state hashes the sender can undo to.
+         *
+         * @return the hexadecimal state hashes, most recent first
          */
-        public ApplyRemoteGSUsMessage() {
+        public String[] getStateHistory() {
+            return stateHistory;
         }
 
         /**
-         * Constructs an {@code ApplyRemoteGSUsMessage} with the specified remote game controller instance identifier.
+         * Sets the transcendent state hashes the sender can undo to.
          *
-         * @param remoteGameControllerInstanceId the identifier of the remote game controller instance
+         * @param stateHistory the hexadecimal state hashes, most recent first
          */
-        public ApplyRemoteGSUsMessage(String remoteGameControllerInstanceId) {
-            this.setRemoteGameControllerInstanceId(remoteGameControllerInstanceId);
+        public void setStateHistory(String[] stateHistory) {
+            this.stateHistory = stateHistory;
         }
     }
 
     /**
-     * Message indicating that the application should abort any pending remote Game State Updates (GSUs).
-     * This message is sent to instruct the remote game controller to cancel any in-progress remote updates.
+     * Response message for a {@link ResumeSessionMessage}.
+     * <p>
+     * Carries the transcendent state hash the resuming client has to reach. If it can't undo its way back to it, the
+     * compact {@link tech.underoaks.coldcase.state.Map#getTranscendentState() transcendent state} is attached as well.
+     * </p>
      */
-    public static class AbortRemoteGSUsMessage extends Message {
+    public static class ResumeSessionResponseMessage extends Message {
+        int levelIndex;
+        String stateHash;
+        int[] transcendentState;
+
+        /**
+         * Constructs a {@code ResumeSessionResponseMessage}.
+         *
+         * @param levelIndex        the index of the level being played
+         * @param stateHash         the hexadecimal transcendent state hash to reach
+         * @param transcendentState the transcendent state to adopt, or {@code null} if the hash can be reached by
+         *                          undoing steps
+         */
+        public ResumeSessionResponseMessage(int levelIndex, String stateHash, int[] transcendentState) {
+            this.levelIndex = levelIndex;
+            this.stateHash = stateHash;
+            this.transcendentState = transcendentState;
+        }
 
         /**
-         * Constructs an empty {@code AbortRemoteGSUsMessage}.
+         * Constructs an empty {@code ResumeSessionResponseMessage}.
          */
-        public AbortRemoteGSUsMessage() {
+        public ResumeSessionResponseMessage() {
         }
 
         /**
-         * Constructs an {@code AbortRemoteGSUsMessage} with the specified remote game controller instance identifier.
+         * Returns the index of the level being played.
          *
-         * @param remoteGameControllerInstanceId the identifier of the remote game controller instance
+         * @return the level index
          */
-        public AbortRemoteGSUsMessage(String remoteGameControllerInstanceId) {
-            this.setRemoteGameControllerInstanceId(remoteGameControllerInstanceId);
+        public int getLevelIndex() {
+            return levelIndex;
+        }
+
+        /**
+         * Sets the index of the level being played.
+         *
+         * @param levelIndex the level index
+         */
+        public void setLevelIndex(int levelIndex) {
+            this.levelIndex = levelIndex;
+        }
+
+        /**
+         * Returns the transcendent state hash to reach.
+         *
+         * @return the hexadecimal state hash
+         */
+        public String getStateHash() {
+            return stateHash;
+        }
+
+        /**
+         * Sets the transcendent state hash to reach.
+         *
+         * @param stateHash the hexadecimal state hash
+         */
+        public void setStateHash(String stateHash) {
+            this.stateHash = stateHash;
+        }
+
+        /**
+         * Returns the transcendent state to adopt.
+         *
+         * @return the transcendent contents as {@code (row, column, layer, id, flags, texture)} tuples, or {@code null}
+         */
+        public int[] getTranscendentState() {
+            return transcendentState;
+        }
+
+        /**
+         * Sets the transcendent state to adopt.
+         *
+         * @param transcendentState the transcendent contents as {@code (row, column, layer, id, flags, texture)} tuples,
+         *                          or {@code null}
+         */
+        public void setTranscendentState(int[] transcendentState) {
+            this.transcendentState = transcendentState;
         }
     }
 
@@ -322,4 +512,86 @@ public class Messages {
         public exitToMainMenuMessage() {
         }
     }
+
+    /**
+     * Message instructing the other client to undo its steps until its transcendent state matches the given hash.
+     * Sent whenever a step that changed the shared state has been undone locally.
+     */
+    public static class undoMessage {
+        String stateHash;
+
+        /**
+         * Constructs an {@code undoMessage} with the transcendent state hash to undo to.
+         *
+         * @param stateHash the hexadecimal transcendent state hash
+         */
+        public undoMessage(String stateHash) {
+            this.stateHash = stateHash;
+        }
+
+        /**
+         * Constructs an empty {@code undoMessage}.
+         */
+        public undoMessage() {
+        }
+
+        /**
+         * Returns the transcendent state hash to undo to.
+         *
+         * @return the hexadecimal state hash
+         */
+        public String getStateHash() {
+            return stateHash;
+        }
+
+        /**
+         * Sets the transcendent state hash to undo to.
+         *
+         * @param stateHash the hexadecimal state hash
+         */
+        public void setStateHash(String stateHash) {
+            this.stateHash = stateHash;
+        }
+    }
+
+    /**
+     * Message instructing the other client to redo its steps until its transcendent state matches the given hash.
+     * Sent whenever a step that changed the shared state has been redone locally.
+     */
+    public static class redoMessage {
+        String stateHash;
+
+        /**
+         * Constructs an {@code redoMessage} with the transcendent state hash to redo to.
+         *
+         * @param stateHash the hexadecimal transcendent state hash
+         */
+        public redoMessage(String stateHash) {
+            this.stateHash = stateHash;
+        }
+
+        /**
+         * Constructs an empty {@code redoMessage}.
+         */
+        public redoMessage() {
+        }
+
+        /**
+         * Returns the transcendent state hash to redo to.
+         *
+         * @return the hexadecimal state hash
+         */
+        public String getStateHash() {
+            return stateHash;
+        }
+
+        /**
+         * Sets the transcendent state hash to redo to.
+         *
+         * @param stateHash the hexadecimal state hash
+         */
+        public void setStateHash(String stateHash) {
+            this.stateHash = stateHash;
+        }
+    }
 }
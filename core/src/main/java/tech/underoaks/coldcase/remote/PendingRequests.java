@@ -0,0 +1,125 @@
+package tech.underoaks.coldcase.remote;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table of the requests sent to the other client that are still waiting for their response.
+ * <p>
+ * Every request gets its own correlation id, which the other client copies into its response. Any number of
+ * requests can therefore be in flight over the same session at the same time. Each request has a deadline; once it
+ * passes, the request's future is completed with a {@link TimeoutException}. Entries are removed as soon as their
+ * future completes for any reason, including a timeout or a cancellation by the caller, so late responses can't
+ * complete a stale future.
+ * </p>
+ * <p>
+ * Every answered request is a round trip time sample for the {@link RttEstimator}, which also provides the default
+ * deadline.
+ * </p>
+ */
+public class PendingRequests {
+    /**
+     * Pending requests by correlation id
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> requests = new ConcurrentHashMap<>();
+
+    /**
+     * Last correlation id handed out
+     */
+    private final AtomicLong lastCorrelationId = new AtomicLong();
+
+    /**
+     * Round trip time estimation of the answered requests
+     */
+    private final RttEstimator rttEstimator = new RttEstimator();
+
+    /**
+     * Registers a request with a deadline derived from the estimated round trip time and assigns a new correlation
+     * id to it.
+     *
+     * @param request The request that is about to be sent.
+     * @return A future completed with the response, or completed exceptionally with a {@link TimeoutException} if
+     * the deadline passes first.
+     * @see RttEstimator#getTimeoutNanos()
+     */
+    public CompletableFuture<Object> register(Message request) {
+        return register(request, rttEstimator.getTimeoutNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers a request and assigns a new correlation id to it.
+     *
+     * @param request The request that is about to be sent.
+     * @param timeout Time to wait for the response.
+     * @param unit    Unit of {@code timeout}.
+     * @return A future completed with the response, or completed exceptionally with a {@link TimeoutException} if
+     * the deadline passes first.
+     */
+    public CompletableFuture<Object> register(Message request, long timeout, TimeUnit unit) {
+        String correlationId = Long.toString(lastCorrelationId.incrementAndGet());
+        request.setCorrelationId(correlationId);
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        long sentNanos = System.nanoTime();
+        requests.put(correlationId, future);
+        future.orTimeout(timeout, unit).whenComplete((response, e) -> {
+            requests.remove(correlationId, future);
+            if (e == null) {
+                rttEstimator.addSample(System.nanoTime() - sentNanos);
+            } else if (e instanceof TimeoutException) {
+                rttEstimator.onTimeout();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Completes the pending request the given response belongs to.
+     *
+     * @param response The received response.
+     * @return True if a pending request has been completed, false if the response belongs to no pending request,
+     * e.g. because it has already timed out.
+     */
+    public boolean complete(Message response) {
+        if (response.getCorrelationId() == null) {
+            return false;
+        }
+        CompletableFuture<Object> future = requests.remove(response.getCorrelationId());
+        return future != null && future.complete(response);
+    }
+
+    /**
+     * Fails every pending request, e.g. because the connection has been closed.
+     *
+     * @param cause The reason the requests won't be answered.
+     */
+    public void cancelAll(Throwable cause) {
+        for (String correlationId : requests.keySet()) {
+            CompletableFuture<Object> future = requests.remove(correlationId);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Gets the round trip time estimation of the answered requests.
+     *
+     * @return The estimator.
+     */
+    public RttEstimator getRttEstimator() {
+        return rttEstimator;
+    }
+
+    /**
+     * Gets the number of requests that are still waiting for their response.
+     *
+     * @return The number of pending requests.
+     */
+    public int size() {
+        return requests.size();
+    }
+}
@@ -0,0 +1,195 @@
+package tech.underoaks.coldcase.remote;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Reconnects to the lobby after the connection has been lost, waiting exponentially longer between the attempts.
+ * <p>
+ * The n-th attempt waits {@code initialDelay * 2^n}, capped at the maximum delay. Up to half of every delay is
+ * randomized, so both clients don't retry in lockstep after the relay server has dropped them at the same time.
+ * Once the maximum number of attempts has failed, the reconnector gives up.
+ * </p>
+ * <p>
+ * Attempts are made on a dedicated daemon thread, since connecting blocks until the server has answered.
+ * </p>
+ */
+public class Reconnector {
+    /**
+     * Default delay before the first attempt
+     */
+    public static final long DEFAULT_INITIAL_DELAY_MILLIS = 250;
+
+    /**
+     * Default upper bound of the delay between two attempts
+     */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 8000;
+
+    /**
+     * Default number of attempts before giving up
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final int maxAttempts;
+
+    /**
+     * Makes a single attempt and returns whether the connection has been established
+     */
+    private final BooleanSupplier connect;
+
+    /**
+     * Called once every attempt has failed
+     */
+    private final Runnable onGiveUp;
+
+    /**
+     * Runs the attempts, {@code null} until the first reconnect
+     */
+    private ScheduledExecutorService executor = null;
+
+    /**
+     * The next attempt, {@code null} while not reconnecting
+     */
+    private ScheduledFuture<?> nextAttempt = null;
+
+    /**
+     * Number of attempts made since the connection has been lost
+     */
+    private int attempts = 0;
+
+    /**
+     * Constructor using the default delays and number of attempts
+     *
+     * @param connect  Makes a single attempt and returns whether the connection has been established.
+     * @param onGiveUp Called once every attempt has failed.
+     */
+    public Reconnector(BooleanSupplier connect, Runnable onGiveUp) {
+        this(DEFAULT_INITIAL_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS, DEFAULT_MAX_ATTEMPTS, connect, onGiveUp);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param initialDelayMillis Delay before the first attempt in milliseconds.
+     * @param maxDelayMillis     Upper bound of the delay between two attempts in milliseconds.
+     * @param maxAttempts        Number of attempts before giving up.
+     * @param connect            Makes a single attempt and returns whether the connection has been established.
+     * @param onGiveUp           Called once every attempt has failed.
+     */
+    public Reconnector(long initialDelayMillis, long maxDelayMillis, int maxAttempts, BooleanSupplier connect, Runnable onGiveUp) {
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxAttempts = maxAttempts;
+        this.connect = connect;
+        this.onGiveUp = onGiveUp;
+    }
+
+    /**
+     * Starts reconnecting unless it is already in progress.
+     *
+     * @return True if reconnecting has been started, false if it was already in progress.
+     */
+    public synchronized boolean start() {
+        if (nextAttempt != null) {
+            return false;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "WebSocket-Reconnect");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        attempts = 0;
+        scheduleNextAttempt();
+        return true;
+    }
+
+    /**
+     * Stops reconnecting, e.g. because the session has been closed on purpose.
+     */
+    public synchronized void cancel() {
+        if (nextAttempt != null) {
+            nextAttempt.cancel(false);
+            nextAttempt = null;
+        }
+    }
+
+    /**
+     * Checks whether the connection is currently being re-established.
+     * <p>
+     * Stays true while the successful attempt is still connecting, so the callbacks of the new connection can tell
+     * a resumed session from a new one.
+     * </p>
+     *
+     * @return True if reconnecting is in progress.
+     */
+    public synchronized boolean isReconnecting() {
+        return nextAttempt != null;
+    }
+
+    /**
+     * Gets the number of attempts made since the connection has been lost.
+     *
+     * @return The number of attempts.
+     */
+    public synchronized int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Gets the delay before an attempt without its random part.
+     *
+     * @param attempt The number of attempts made before, starting at {@code 0}.
+     * @return The delay in milliseconds.
+     */
+    public long getBackoffMillis(int attempt) {
+        return Math.min(maxDelayMillis, initialDelayMillis << Math.min(attempt, 30));
+    }
+
+    private synchronized void scheduleNextAttempt() {
+        long backoff = getBackoffMillis(attempts);
+        long delay = backoff - ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        nextAttempt = executor.schedule(this::attempt, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void attempt() {
+        synchronized (this) {
+            if (nextAttempt == null) {
+                return;
+            }
+            attempts++;
+        }
+
+        boolean connected;
+        try {
+            connected = connect.getAsBoolean();
+        } catch (RuntimeException e) {
+            System.err.println("Reconnect attempt failed: " + e.getMessage());
+            connected = false;
+        }
+
+        synchronized (this) {
+            if (nextAttempt == null) {
+                return;
+            }
+            if (connected) {
+                nextAttempt = null;
+                return;
+            }
+            if (attempts < maxAttempts) {
+                scheduleNextAttempt();
+                return;
+            }
+            nextAttempt = null;
+        }
+        System.err.println("Giving up reconnecting after " + maxAttempts + " attempts");
+        onGiveUp.run();
+    }
+}
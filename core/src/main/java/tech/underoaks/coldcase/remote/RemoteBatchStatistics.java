@@ -0,0 +1,145 @@
+package tech.underoaks.coldcase.remote;
+
+/**
+ * Statistics about the batches of remote actions sent to the other client.
+ * <p>
+ * Every batch is executed as a single remote transaction, so its latency is one round trip.
+ * Batches may complete on the network thread, therefore all methods are synchronized.
+ * </p>
+ */
+public class RemoteBatchStatistics {
+    /**
+     * Number of batches that have been sent
+     */
+    private long batchCount;
+
+    /**
+     * Number of remote actions over all batches
+     */
+    private long actionCount;
+
+    /**
+     * Number of remote actions of the largest batch
+     */
+    private int maxBatchSize;
+
+    /**
+     * Number of remote actions of the most recent batch
+     */
+    private int lastBatchSize;
+
+    /**
+     * Round trip time of all batches in nanoseconds
+     */
+    private long totalLatencyNanos;
+
+    /**
+     * Round trip time of the slowest batch in nanoseconds
+     */
+    private long maxLatencyNanos;
+
+    /**
+     * Round trip time of the most recent batch in nanoseconds
+     */
+    private long lastLatencyNanos;
+
+    /**
+     * Records a completed batch.
+     *
+     * @param size         Number of remote actions in the batch.
+     * @param latencyNanos Time between sending the batch and receiving its response in nanoseconds.
+     */
+    public synchronized void record(int size, long latencyNanos) {
+        batchCount++;
+        actionCount += size;
+        maxBatchSize = Math.max(maxBatchSize, size);
+        lastBatchSize = size;
+        totalLatencyNanos += latencyNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+        lastLatencyNanos = latencyNanos;
+    }
+
+    /**
+     * Resets all statistics.
+     */
+    public synchronized void reset() {
+        batchCount = 0;
+        actionCount = 0;
+        maxBatchSize = 0;
+        lastBatchSize = 0;
+        totalLatencyNanos = 0;
+        maxLatencyNanos = 0;
+        lastLatencyNanos = 0;
+    }
+
+    /**
+     * Gets the number of batches that have been sent.
+     * @return The number of batches.
+     */
+    public synchronized long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Gets the number of remote actions over all batches.
+     * @return The number of remote actions.
+     */
+    public synchronized long getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * Gets the average number of remote actions per batch.
+     * @return The average batch size, or {@code 0} if no batch has been sent.
+     */
+    public synchronized double getAverageBatchSize() {
+        return batchCount == 0 ? 0 : (double) actionCount / batchCount;
+    }
+
+    /**
+     * Gets the number of remote actions of the largest batch.
+     * @return The maximum batch size.
+     */
+    public synchronized int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Gets the number of remote actions of the most recent batch.
+     * @return The last batch size.
+     */
+    public synchronized int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Gets the average round trip time of a batch.
+     * @return The average latency in nanoseconds, or {@code 0} if no batch has been sent.
+     */
+    public synchronized long getAverageLatencyNanos() {
+        return batchCount == 0 ? 0 : totalLatencyNanos / batchCount;
+    }
+
+    /**
+     * Gets the round trip time of the slowest batch.
+     * @return The maximum latency in nanoseconds.
+     */
+    public synchronized long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * Gets the round trip time of the most recent batch.
+     * @return The last latency in nanoseconds.
+     */
+    public synchronized long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RemoteBatchStatistics{batches=" + batchCount + ", actions=" + actionCount
+            + ", maxBatchSize=" + maxBatchSize + ", averageLatencyMs=" + getAverageLatencyNanos() / 1_000_000
+            + ", maxLatencyMs=" + maxLatencyNanos / 1_000_000 + "}";
+    }
+}
@@ -2,119 +2,58 @@ package tech.underoaks.coldcase.remote;
 
 import tech.underoaks.coldcase.game.Interaction;
 
-import java.util.Arrays;
 import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a remote game controller responsible for managing remote interactions
  * and game state updates through WebSocket communication.
  * <p>
- * This class handles the creation and management of interaction chains and provides
- * functionality to trigger actions remotely and apply or abort updates to the game state.
+ * Interactions are triggered on the other client as remote transactions, which create an interaction chain, trigger
+ * the interactions and apply or abort the resulting updates in a single round trip. Nothing waits for the response;
+ * it completes a future instead.
  * </p>
  */
-public class RemoteGameController implements AutoCloseable {
+public class RemoteGameController {
 
     /**
-     * Unique identifier for the remote game controller instance. needed for callbacks
+     * Statistics about the batches of remote actions sent as remote transactions
      */
-    private static String remoteGameControllerInstanceId = null;
+    private static final RemoteBatchStatistics batchStatistics = new RemoteBatchStatistics();
 
     /**
-     * Unique identifier for the remote interaction chain associated with this controller. not used ATM
-     */
-    private final String remoteInteractionChainId;
-
-    /**
-     * Initializes a new remote game controller, establishing a remote interaction chain
-     * and retrieving its unique identifier.
+     * Executes a complete remote transaction on the other client in a single round trip.
      * <p>
-     * blocks until timeout or responseMessage completes the futureObj.
+     * The other client creates a remote interaction chain, triggers every interaction and commits the resulting
+     * updates.
      * </p>
-     * @throws TimeoutException if no response is being returned
-     */
-    public RemoteGameController() throws TimeoutException {
-
-        CompletableFuture<Object> future = new CompletableFuture<>();
-        remoteGameControllerInstanceId = UUID.randomUUID().toString(); // Automatically generate a unique ID
-        WebSocketMessagesManager.getInstance().createRemoteInteractionChain(remoteGameControllerInstanceId, future);
-        String tmpRemoteInteractionChainId = null;
-
-        try {
-            Object returnObj = future.get(5, TimeUnit.SECONDS);// Blocks until the response is provided
-            if (returnObj instanceof Messages.CreateRemoteInteractionChainResponseMessage messageObj) {
-                tmpRemoteInteractionChainId = messageObj.getRemoteInteractionChainId();
-            }
-        } catch (ExecutionException | InterruptedException e) {
-            System.err.println(Arrays.toString(e.getStackTrace()));
-        }
-
-
-        this.remoteInteractionChainId = tmpRemoteInteractionChainId;
-
-        //System.out.println("GOT remote Interaction Chain Id:" + remoteInteractionChainId);
-    }
-
-    /**
-     * Triggers a remote action at the specified position and direction.
      *
-     * @param interaction The interaction to trigger.
-     * @return a queue of interactions representing the result of the triggered action,
-     * or {@code null} if the action times out, an error occurs or no Action took place.
-     */
-    public Queue<Interaction> triggerAction(Interaction interaction) {
-        return triggerAction(interaction, false);
-    }
-
-    /**
-     * Triggers a remote action at the specified position and direction with an option to suppress follow-up actions.
-     *
-     * <p>
-     * needed to not create an endless loop of creating remote interaction chains.
-     * </p>
-     *
-     * @param interaction                  The interaction to trigger.
+     * @param interactions                 The interactions to trigger in order.
      * @param suppressTranscendentFollowUp whether to suppress follow-up actions.
-     * @return a queue of interactions representing the result of the triggered action,
-     * or {@code null} if the action times out or an error occurs.
+     * @param expectedStateHash            Transcendent state hash the other client is expected to reach, or
+     *                                     {@code null} if the interactions have not been simulated locally.
+     * @return a future completed with the response once the other client has committed the transaction, with
+     * {@code null} if it has been aborted, or completed exceptionally with a
+     * {@link java.util.concurrent.TimeoutException} if the other client doesn't respond in time.
+     * @see Messages.ExecuteRemoteTransactionMessage
      */
-    public Queue<Interaction> triggerAction(Interaction interaction, boolean suppressTranscendentFollowUp) {
-
-        CompletableFuture<Object> future = new CompletableFuture<>(); //used for synchronisation
-
-        WebSocketMessagesManager.getInstance().appendRemoteInteraction(remoteGameControllerInstanceId, future, interaction, suppressTranscendentFollowUp);
-
-
-        try {
-            Object returnObj = future.get(3, TimeUnit.SECONDS);// Block until the response is provided
-            if (returnObj instanceof Messages.AppendRemoteInteractionResponseMessage messageObj) {
-                return messageObj.getInteractions();
+    public static CompletableFuture<Messages.ExecuteRemoteTransactionResponseMessage> executeTransactionAsync(Queue<Interaction> interactions, boolean suppressTranscendentFollowUp, Long expectedStateHash) {
+        String instanceId = UUID.randomUUID().toString();
+        return WebSocketMessagesManager.getInstance().executeRemoteTransaction(instanceId, interactions, suppressTranscendentFollowUp, expectedStateHash).thenApply(returnObj -> {
+            if (returnObj instanceof Messages.ExecuteRemoteTransactionResponseMessage messageObj && messageObj.getCommitted()) {
+                return messageObj;
             }
-        } catch (ExecutionException | InterruptedException e) {
-            System.err.println(Arrays.toString(e.getStackTrace()));
-        } catch (TimeoutException e) {
-            System.err.println("TIMEOUT in triggerAction");
-            return null; // return in case of timeout
-        }
-
-        return null;//return in case server times out or responded with wrong data
+            return null;
+        });
     }
 
     /**
-     * Applies all pending updates in the game state update (GSU) queue for the remote interaction chain on the other
-     * client.
-     */
-    public void applyGSUQueue() {
-        WebSocketMessagesManager.getInstance().applyRemoteGSUs(remoteInteractionChainId);
-    }
-
-    /**
-     * Closes the remote game controller and aborts any pending updates in the GSU queue.
+     * Gets the statistics about the batches of remote actions sent to the other client.
+     *
+     * @return the batch statistics
      */
-    @Override
-    public void close() {
-        WebSocketMessagesManager.getInstance().abortRemoteGSU(remoteInteractionChainId);
+    public static RemoteBatchStatistics getBatchStatistics() {
+        return batchStatistics;
     }
 }
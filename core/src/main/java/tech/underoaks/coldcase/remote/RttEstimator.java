@@ -0,0 +1,175 @@
+package tech.underoaks.coldcase.remote;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the round trip time to the other client and derives the deadline of remote requests from it.
+ * <p>
+ * The timeout is computed like the retransmission timeout of TCP (RFC 6298): a smoothed round trip time plus four
+ * times its variance. Until the first sample has been taken, {@link #INITIAL_TIMEOUT_NANOS} is used. Every request
+ * that times out doubles the timeout until the next sample arrives. The most recent samples are kept to report
+ * percentiles.
+ * </p>
+ * <p>
+ * Samples are taken by the network threads and read by the game thread, therefore all methods are synchronized.
+ * </p>
+ */
+public class RttEstimator {
+    /**
+     * Timeout until the first sample has been taken
+     */
+    public static final long INITIAL_TIMEOUT_NANOS = 3_000_000_000L;
+
+    /**
+     * Lower bound of the timeout, so a single fast sample doesn't make every request fail
+     */
+    public static final long MIN_TIMEOUT_NANOS = 250_000_000L;
+
+    /**
+     * Upper bound of the timeout
+     */
+    public static final long MAX_TIMEOUT_NANOS = 10_000_000_000L;
+
+    /**
+     * Granularity of the clock, added to the variance term as in RFC 6298
+     */
+    private static final long CLOCK_GRANULARITY_NANOS = 10_000_000L;
+
+    /**
+     * Number of recent samples kept for the percentiles
+     */
+    private static final int HISTORY_SIZE = 256;
+
+    private long smoothedRttNanos;
+    private long rttVarianceNanos;
+    private long lastRttNanos;
+    private int backoff = 0;
+    private long sampleCount = 0;
+    private long timeoutCount = 0;
+
+    private final long[] history = new long[HISTORY_SIZE];
+
+    /**
+     * Records the round trip time of a request that has been answered.
+     *
+     * @param rttNanos Time between sending the request and receiving its response in nanoseconds.
+     */
+    public synchronized void addSample(long rttNanos) {
+        if (sampleCount == 0) {
+            smoothedRttNanos = rttNanos;
+            rttVarianceNanos = rttNanos / 2;
+        } else {
+            rttVarianceNanos += (Math.abs(smoothedRttNanos - rttNanos) - rttVarianceNanos) / 4;
+            smoothedRttNanos += (rttNanos - smoothedRttNanos) / 8;
+        }
+        history[(int) (sampleCount % HISTORY_SIZE)] = rttNanos;
+        lastRttNanos = rttNanos;
+        sampleCount++;
+        backoff = 0;
+    }
+
+    /**
+     * Records a request that hasn't been answered in time and backs the timeout off.
+     */
+    public synchronized void onTimeout() {
+        timeoutCount++;
+        if (getTimeoutNanos() < MAX_TIMEOUT_NANOS) {
+            backoff++;
+        }
+    }
+
+    /**
+     * Gets the time to wait for the response to a request.
+     *
+     * @return The timeout in nanoseconds.
+     */
+    public synchronized long getTimeoutNanos() {
+        long timeout = sampleCount == 0
+            ? INITIAL_TIMEOUT_NANOS
+            : smoothedRttNanos + Math.max(CLOCK_GRANULARITY_NANOS, 4 * rttVarianceNanos);
+        timeout = Math.max(MIN_TIMEOUT_NANOS, timeout) << Math.min(backoff, 16);
+        return Math.min(MAX_TIMEOUT_NANOS, timeout);
+    }
+
+    /**
+     * Gets the smoothed round trip time.
+     *
+     * @return The smoothed round trip time in nanoseconds, or {@code 0} if no sample has been taken.
+     */
+    public synchronized long getSmoothedRttNanos() {
+        return smoothedRttNanos;
+    }
+
+    /**
+     * Gets the variance of the round trip time.
+     *
+     * @return The mean deviation of the round trip time in nanoseconds, or {@code 0} if no sample has been taken.
+     */
+    public synchronized long getRttVarianceNanos() {
+        return rttVarianceNanos;
+    }
+
+    /**
+     * Gets the round trip time of the most recent sample.
+     *
+     * @return The last round trip time in nanoseconds, or {@code 0} if no sample has been taken.
+     */
+    public synchronized long getLastRttNanos() {
+        return lastRttNanos;
+    }
+
+    /**
+     * Gets the number of samples that have been taken.
+     *
+     * @return The number of samples.
+     */
+    public synchronized long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Gets the number of requests that haven't been answered in time.
+     *
+     * @return The number of timeouts.
+     */
+    public synchronized long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    /**
+     * Gets a percentile of the most recent round trip times.
+     *
+     * @param percentile The percentile between {@code 0} and {@code 100}.
+     * @return The round trip time in nanoseconds, or {@code 0} if no sample has been taken.
+     */
+    public synchronized long getPercentileNanos(double percentile) {
+        int count = (int) Math.min(sampleCount, HISTORY_SIZE);
+        if (count == 0) {
+            return 0;
+        }
+        long[] samples = Arrays.copyOf(history, count);
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return samples[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * Discards every sample, e.g. when connecting to another client.
+     */
+    public synchronized void reset() {
+        smoothedRttNanos = 0;
+        rttVarianceNanos = 0;
+        lastRttNanos = 0;
+        backoff = 0;
+        sampleCount = 0;
+        timeoutCount = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RttEstimator{samples=" + sampleCount + ", timeouts=" + timeoutCount
+            + ", srttMs=" + smoothedRttNanos / 1_000_000 + ", rttvarMs=" + rttVarianceNanos / 1_000_000
+            + ", p50Ms=" + getPercentileNanos(50) / 1_000_000 + ", p90Ms=" + getPercentileNanos(90) / 1_000_000
+            + ", p99Ms=" + getPercentileNanos(99) / 1_000_000 + ", timeoutMs=" + getTimeoutNanos() / 1_000_000 + "}";
+    }
+}
@@ -0,0 +1,241 @@
+package tech.underoaks.coldcase.remote;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounded queue of outgoing messages, written by a dedicated sender thread.
+ * <p>
+ * Queueing a message never blocks the caller. The sender thread writes one frame at a time and waits for it to be
+ * written before it writes the next one. Binary messages that have been queued within {@link #COALESCE_WINDOW_NANOS}
+ * of each other, or while the previous frame was being written, are coalesced into a single
+ * {@link MessageCodec#encodeBatch(List) batch frame}. Text messages are always written on their own.
+ * </p>
+ * <p>
+ * Once the queue is {@link #isBackpressured() filled} beyond its high watermark, the game should stop producing new
+ * messages until the link has caught up. Messages queued while the queue is full are rejected.
+ * </p>
+ */
+public class SendQueue {
+    /**
+     * Default number of messages the queue can hold
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Time to wait for further messages to coalesce with the first one
+     */
+    private static final long COALESCE_WINDOW_NANOS = 2_000_000L;
+
+    /**
+     * Maximum number of messages coalesced into one frame
+     */
+    private static final int MAX_COALESCED_MESSAGES = 64;
+
+    /**
+     * Seconds to wait for a frame to be written
+     */
+    private static final long SEND_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Writes frames to the connection.
+     */
+    public interface Sink {
+        /**
+         * Starts writing a text frame.
+         *
+         * @param text The text to write.
+         * @return A future completed once the frame has been written.
+         */
+        Future<Void> sendText(String text);
+
+        /**
+         * Starts writing a binary frame.
+         *
+         * @param data The data to write.
+         * @return A future completed once the frame has been written.
+         */
+        Future<Void> sendBinary(ByteBuffer data);
+    }
+
+    private final LinkedBlockingQueue<Outbound> queue;
+    private final int highWatermark;
+    private final Sink sink;
+    private final SendStatistics statistics = new SendStatistics();
+
+    /**
+     * The sender thread, {@code null} until the first message has been queued
+     */
+    private Thread sender = null;
+
+    /**
+     * Message taken from the queue that couldn't be coalesced into the previous frame
+     */
+    private Outbound carried = null;
+
+    /**
+     * Constructor
+     *
+     * @param capacity Number of messages the queue can hold.
+     * @param sink     Writes the frames to the connection.
+     */
+    public SendQueue(int capacity, Sink sink) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.highWatermark = Math.max(1, capacity * 3 / 4);
+        this.sink = sink;
+    }
+
+    /**
+     * Queues a text message.
+     *
+     * @param text The message to send.
+     * @return True if the message has been queued, false if the queue is full.
+     */
+    public boolean offer(String text) {
+        return offer(new Outbound(text, null));
+    }
+
+    /**
+     * Queues a binary message.
+     *
+     * @param frame The message encoded by the {@link MessageCodec}.
+     * @return True if the message has been queued, false if the queue is full.
+     */
+    public boolean offer(byte[] frame) {
+        return offer(new Outbound(null, frame));
+    }
+
+    private boolean offer(Outbound outbound) {
+        startSender();
+        if (!queue.offer(outbound)) {
+            statistics.recordDropped(1);
+            System.err.println("Send queue full, dropping message");
+            return false;
+        }
+        statistics.recordQueueDepth(queue.size());
+        return true;
+    }
+
+    /**
+     * Discards every queued message, e.g. because the connection has been closed.
+     */
+    public void clear() {
+        List<Outbound> discarded = new ArrayList<>();
+        queue.drainTo(discarded);
+        statistics.recordDropped(discarded.size());
+    }
+
+    /**
+     * Gets the number of messages waiting to be sent.
+     *
+     * @return The queue depth.
+     */
+    public int getDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Checks whether the queue is filled beyond its high watermark.
+     *
+     * @return True if no new messages should be produced until the queue has been drained.
+     */
+    public boolean isBackpressured() {
+        return queue.size() >= highWatermark;
+    }
+
+    /**
+     * Gets the statistics about the written frames.
+     *
+     * @return The statistics.
+     */
+    public SendStatistics getStatistics() {
+        return statistics;
+    }
+
+    private synchronized void startSender() {
+        if (sender != null) {
+            return;
+        }
+        sender = new Thread(this::run, "WebSocket-Sender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                writeNextFrame();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the next message, coalesces it with the ones following it and writes them as one frame.
+     *
+     * @throws InterruptedException If the sender thread has been interrupted.
+     */
+    private void writeNextFrame() throws InterruptedException {
+        Outbound first = carried != null ? carried : queue.take();
+        carried = null;
+
+        List<Outbound> batch = new ArrayList<>();
+        batch.add(first);
+        if (first.frame != null) {
+            long deadline = first.queuedNanos + COALESCE_WINDOW_NANOS;
+            while (batch.size() < MAX_COALESCED_MESSAGES) {
+                long remaining = deadline - System.nanoTime();
+                Outbound next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                if (next == null) {
+                    break;
+                }
+                if (next.frame == null) {
+                    carried = next;
+                    break;
+                }
+                batch.add(next);
+            }
+        }
+
+        try {
+            Future<Void> written;
+            if (first.frame == null) {
+                written = sink.sendText(first.text);
+            } else if (batch.size() == 1) {
+                written = sink.sendBinary(ByteBuffer.wrap(first.frame));
+            } else {
+                List<byte[]> frames = new ArrayList<>(batch.size());
+                for (Outbound outbound : batch) {
+                    frames.add(outbound.frame);
+                }
+                written = sink.sendBinary(ByteBuffer.wrap(MessageCodec.encodeBatch(frames)));
+            }
+            written.get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            statistics.recordFrame(batch.size(), System.nanoTime() - first.queuedNanos);
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            statistics.recordFailed();
+            System.err.println("Failed to send message: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A queued message
+     */
+    private static class Outbound {
+        private final String text;
+        private final byte[] frame;
+        private final long queuedNanos = System.nanoTime();
+
+        private Outbound(String text, byte[] frame) {
+            this.text = text;
+            this.frame = frame;
+        }
+    }
+}
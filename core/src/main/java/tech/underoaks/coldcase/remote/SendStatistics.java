@@ -0,0 +1,182 @@
+package tech.underoaks.coldcase.remote;
+
+/**
+ * Statistics about the frames written by the {@link SendQueue}.
+ * <p>
+ * The latency of a frame is the time between queueing its oldest message and the frame having been written.
+ * Messages are queued by the game thread and sent by the sender thread, therefore all methods are synchronized.
+ * </p>
+ */
+public class SendStatistics {
+    /**
+     * Number of frames that have been written
+     */
+    private long frameCount;
+
+    /**
+     * Number of messages over all written frames
+     */
+    private long messageCount;
+
+    /**
+     * Number of messages that have been rejected because the queue was full or that have been discarded
+     */
+    private long droppedCount;
+
+    /**
+     * Number of frames that couldn't be written
+     */
+    private long failedCount;
+
+    /**
+     * Largest number of messages waiting in the queue
+     */
+    private int maxQueueDepth;
+
+    /**
+     * Latency of all written frames in nanoseconds
+     */
+    private long totalLatencyNanos;
+
+    /**
+     * Latency of the slowest frame in nanoseconds
+     */
+    private long maxLatencyNanos;
+
+    /**
+     * Latency of the most recent frame in nanoseconds
+     */
+    private long lastLatencyNanos;
+
+    /**
+     * Records a written frame.
+     *
+     * @param messages     Number of messages coalesced into the frame.
+     * @param latencyNanos Time between queueing the oldest message of the frame and writing it in nanoseconds.
+     */
+    public synchronized void recordFrame(int messages, long latencyNanos) {
+        frameCount++;
+        messageCount += messages;
+        totalLatencyNanos += latencyNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+        lastLatencyNanos = latencyNanos;
+    }
+
+    /**
+     * Records a frame that couldn't be written.
+     */
+    public synchronized void recordFailed() {
+        failedCount++;
+    }
+
+    /**
+     * Records messages that have been rejected or discarded.
+     *
+     * @param messages Number of dropped messages.
+     */
+    public synchronized void recordDropped(int messages) {
+        droppedCount += messages;
+    }
+
+    /**
+     * Records the number of messages waiting in the queue.
+     *
+     * @param depth Current queue depth.
+     */
+    public synchronized void recordQueueDepth(int depth) {
+        maxQueueDepth = Math.max(maxQueueDepth, depth);
+    }
+
+    /**
+     * Resets all statistics.
+     */
+    public synchronized void reset() {
+        frameCount = 0;
+        messageCount = 0;
+        droppedCount = 0;
+        failedCount = 0;
+        maxQueueDepth = 0;
+        totalLatencyNanos = 0;
+        maxLatencyNanos = 0;
+        lastLatencyNanos = 0;
+    }
+
+    /**
+     * Gets the number of frames that have been written.
+     * @return The number of frames.
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Gets the number of messages over all written frames.
+     * @return The number of messages.
+     */
+    public synchronized long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Gets the average number of messages coalesced into one frame.
+     * @return The average number of messages per frame, or {@code 0} if no frame has been written.
+     */
+    public synchronized double getAverageMessagesPerFrame() {
+        return frameCount == 0 ? 0 : (double) messageCount / frameCount;
+    }
+
+    /**
+     * Gets the number of messages that have been rejected or discarded.
+     * @return The number of dropped messages.
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Gets the number of frames that couldn't be written.
+     * @return The number of failed frames.
+     */
+    public synchronized long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Gets the largest number of messages that have been waiting in the queue.
+     * @return The maximum queue depth.
+     */
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * Gets the average latency of a frame.
+     * @return The average latency in nanoseconds, or {@code 0} if no frame has been written.
+     */
+    public synchronized long getAverageLatencyNanos() {
+        return frameCount == 0 ? 0 : totalLatencyNanos / frameCount;
+    }
+
+    /**
+     * Gets the latency of the slowest frame.
+     * @return The maximum latency in nanoseconds.
+     */
+    public synchronized long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * Gets the latency of the most recent frame.
+     * @return The last latency in nanoseconds.
+     */
+    public synchronized long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SendStatistics{frames=" + frameCount + ", messages=" + messageCount + ", dropped=" + droppedCount
+            + ", failed=" + failedCount + ", maxQueueDepth=" + maxQueueDepth
+            + ", averageLatencyMs=" + getAverageLatencyNanos() / 1_000_000 + ", maxLatencyMs=" + maxLatencyNanos / 1_000_000 + "}";
+    }
+}
@@ -0,0 +1,23 @@
+package tech.underoaks.coldcase.remote;
+
+/**
+ * Connection to the other client that frames are written to.
+ * <p>
+ * Implemented by the {@link WebSocketTransport} connecting through the relay server and the in-memory
+ * {@link LoopbackTransport} connecting two game instances inside the same process. Received frames are handed to
+ * the {@link WebSocketClient} by the transport itself.
+ * </p>
+ */
+public interface Transport extends SendQueue.Sink {
+    /**
+     * Checks whether frames can currently be written.
+     *
+     * @return True if the connection is open.
+     */
+    boolean isOpen();
+
+    /**
+     * Closes the connection on purpose.
+     */
+    void close();
+}
@@ -5,24 +5,57 @@ import jakarta.websocket.*;
 import tech.underoaks.coldcase.stages.StageManager;
 import tech.underoaks.coldcase.stages.Stages;
 import tech.underoaks.coldcase.stages.AbstractStage;
-import java.io.IOException;
+import tech.underoaks.coldcase.stages.GameStage;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Future;
 
 /**
  * A WebSocket client for communicating with the remote game server.
  * <p>
  * This singleton class establishes and manages a WebSocket connection to the server,
  * providing methods for sending and receiving messages.
+ * Frames are written to a {@link Transport}, which can also be an in-memory {@link LoopbackTransport}
+ * to another game instance in the same process.
  * </p>
  */
 @ClientEndpoint
 public class WebSocketClient {
     private static final Json json = new Json();
-    private static Session session;
+    private static Transport transport;
     private static WebSocketClient instance = null;
     private static String lobbyID = null;
 
+    /**
+     * URL of the WebSocket server the client has last connected to
+     */
+    private static String websocketUrl = null;
+
+    /**
+     * Re-establishes the connection to the same lobby after it has been lost
+     */
+    private static final Reconnector reconnector = new Reconnector(() -> {
+        getInstance().connect(websocketUrl, lobbyID);
+        return getInstance().isConnectionOpen();
+    }, () -> StageManager.getInstance().setNextStage(Stages.MAIN_MENU));
+
+    /**
+     * Outgoing messages, written to the current transport
+     */
+    private static final SendQueue sendQueue = new SendQueue(SendQueue.DEFAULT_CAPACITY, new SendQueue.Sink() {
+        @Override
+        public Future<Void> sendText(String text) {
+            return getTransport().sendText(text);
+        }
+
+        @Override
+        public Future<Void> sendBinary(ByteBuffer data) {
+            return getTransport().sendBinary(data);
+        }
+    });
+
 
     /**
      * Connects to the WebSocket server using the specified WebSocket URL and session ID.
@@ -39,13 +72,14 @@ public class WebSocketClient {
         if(!Objects.equals(session_id, "new")){
             lobbyID = session_id;
         }
+        websocketUrl = websocket_url;
 
 
         try {
             WebSocketContainer container = ContainerProvider.getWebSocketContainer();
             URI uri = new URI("ws://" + websocket_url + "/?session=" + session_id);
             System.out.println("Connecting to Server " + uri);
-            session = container.connectToServer(WebSocketClient.class, uri); // Initialize the session
+            container.connectToServer(WebSocketClient.class, uri); // Initialize the session, see onOpen
             System.out.println("Connected to WebSocket server on:"+websocket_url);
         } catch (Exception e) {
             System.err.println("Error during WebSocket connection: " + e.getMessage());
@@ -54,6 +88,32 @@ public class WebSocketClient {
         }
     }
 
+    /**
+     * Connects to another game instance in the same process through an in-memory transport instead of the server.
+     * <p>
+     * The transport has to be {@link LoopbackTransport#connect(LoopbackTransport, LoopbackTransport) connected} to
+     * the other side already.
+     * </p>
+     *
+     * @param loopback the transport to the other game instance.
+     */
+    public void connect(LoopbackTransport loopback) {
+        if (this.isConnectionOpen()) {
+            return;
+        }
+        loopback.setReceiver(frame -> {
+            if (frame == null) {
+                closed(true, "Loopback closed");
+            } else if (frame instanceof String text) {
+                getInstance().onMessage(text);
+            } else {
+                getInstance().onMessage((ByteBuffer) frame);
+            }
+        });
+        transport = loopback;
+        opened();
+    }
+
     /**
      * Connects to the WebSocket server using the specified WebSocket URL.
      * The session ID is automatically set to "new" to create a new session.
@@ -96,15 +156,30 @@ public class WebSocketClient {
     /**
      * This method is invoked when a WebSocket connection is established.
      * It triggers the corresponding action in the current game stage.
+     * If the connection has been re-established during a game, the session is resumed with the other client.
      * !it doesn´t has access to the fields of this class
      *
      * @param session the WebSocket session.
      */
     @OnOpen
     public void onOpen(Session session) {
+        transport = new WebSocketTransport(session);
+        opened();
+    }
+
+    /**
+     * Starts the session once a transport has been connected.
+     */
+    private static void opened() {
         System.out.println("Connected to server");
-        AbstractStage stage = StageManager.getInstance().getCurrentStage();
-        stage.onConnected();
+        WebSocketMessagesManager.getInstance().startHeartbeat();
+        AbstractStage stage = getCurrentStage();
+        if (reconnector.isReconnecting() && stage instanceof GameStage) {
+            WebSocketMessagesManager.getInstance().resumeSession();
+        }
+        if (stage != null) {
+            stage.onConnected();
+        }
     }
 
     /**
@@ -115,7 +190,35 @@ public class WebSocketClient {
      */
     @OnMessage
     public void onMessage(String message) {
-        Object deserializedObject = json.fromJson(Object.class, message);
+        dispatch(json.fromJson(Object.class, message));
+    }
+
+    /**
+     * this message gets invoked when a binary message is received from the server.
+     * it !it doesn´t has access to the fields of this class
+     *
+     * @param message the received message encoded by the {@link MessageCodec}.
+     */
+    @OnMessage
+    public void onMessage(ByteBuffer message) {
+        List<Object> deserializedObjects;
+        try {
+            deserializedObjects = MessageCodec.decodeAll(message);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Failed to decode message: " + e.getMessage());
+            return;
+        }
+        for (Object deserializedObject : deserializedObjects) {
+            dispatch(deserializedObject);
+        }
+    }
+
+    /**
+     * Handles a received message regardless of its wire format.
+     *
+     * @param deserializedObject the deserialized message.
+     */
+    private static void dispatch(Object deserializedObject) {
         if (deserializedObject instanceof Messages.lobbyIdMessage) {
             lobbyID = ((Messages.lobbyIdMessage) deserializedObject).getLobbyId();
             System.out.println("Received Lobby ID: " + lobbyID);
@@ -127,6 +230,7 @@ public class WebSocketClient {
     /**
      * This method is invoked when the WebSocket connection is closed.
      * It triggers the corresponding action in the current game stage.
+     * If the connection to a lobby has been lost, it is re-established with an exponential backoff first.
      *  it !it doesn´t has access to the fields of this class
      *
      * @param session the WebSocket session.
@@ -134,46 +238,131 @@ public class WebSocketClient {
      */
     @OnClose
     public void onClose(Session session, CloseReason closeReason) {
-        System.out.println("Connection closed: " + closeReason);
-        if(closeReason.getCloseCode().equals(CloseReason.CloseCodes.NORMAL_CLOSURE)){
-            StageManager.getInstance().getCurrentStage().onDisconnected();
+        closed(closeReason.getCloseCode().equals(CloseReason.CloseCodes.NORMAL_CLOSURE), closeReason.toString());
+    }
+
+    /**
+     * Ends the session once the transport has been closed.
+     *
+     * @param normalClosure whether the connection has been closed on purpose.
+     * @param reason        the reason for the connection closure.
+     */
+    private static void closed(boolean normalClosure, String reason) {
+        System.out.println("Connection closed: " + reason);
+        WebSocketMessagesManager.getInstance().stopHeartbeat();
+        WebSocketMessagesManager.getInstance().cancelPendingRequests();
+        sendQueue.clear();
+        AbstractStage stage = getCurrentStage();
+        if(normalClosure){
+            if (stage != null) {
+                stage.onDisconnected();
+            }
+        }else if (lobbyID != null && websocketUrl != null && reconnector.start()) {
+            System.out.println("Connection lost, reconnecting to lobby " + lobbyID);
         }else {
             StageManager.getInstance().setNextStage(Stages.MAIN_MENU);
         }
-
     }
 
     /**
-     * Sends a message to the WebSocket server.
+     * Gets the current stage, if the stages are managed at all.
      *
-     * @param message the message to send as a {@link String}.
+     * @return the current stage, or {@code null} e.g. for a headless game instance connected by a loopback.
      */
-    public void send(String message) {
+    private static AbstractStage getCurrentStage() {
         try {
-            session.getBasicRemote().sendText(message);
-        } catch (IOException e) {
-            System.err.println("Failed to send message: " + e.getMessage());
+            return StageManager.getInstance().getCurrentStage();
+        } catch (IllegalStateException e) {
+            return null;
         }
     }
 
+    /**
+     * Gets the transport frames are currently written to.
+     *
+     * @return the transport.
+     * @throws IllegalStateException if no transport has been connected.
+     */
+    private static Transport getTransport() {
+        Transport current = transport;
+        if (current == null) {
+            throw new IllegalStateException("Not connected");
+        }
+        return current;
+    }
+
+    /**
+     * Queues a message to be sent to the WebSocket server without blocking the caller.
+     *
+     * @param message the message to send as a {@link String}.
+     * @return {@code true} if the message has been queued, {@code false} if the send queue is full.
+     * @see SendQueue
+     */
+    public boolean send(String message) {
+        return sendQueue.offer(message);
+    }
+
+    /**
+     * Queues a binary message to be sent to the WebSocket server without blocking the caller.
+     * <p>
+     * Binary messages queued shortly after each other are coalesced into one frame.
+     * </p>
+     *
+     * @param message the message encoded by the {@link MessageCodec}.
+     * @return {@code true} if the message has been queued, {@code false} if the send queue is full.
+     * @see SendQueue
+     */
+    public boolean send(byte[] message) {
+        return sendQueue.offer(message);
+    }
+
+    /**
+     * Checks whether the send queue is filled beyond its high watermark, e.g. because of a slow link.
+     * No new interactions should be started until it has been drained.
+     *
+     * @return {@code true} if the send queue is backpressured, {@code false} otherwise.
+     */
+    public boolean isBackpressured() {
+        return sendQueue.isBackpressured();
+    }
+
+    /**
+     * Gets the number of messages waiting to be sent.
+     *
+     * @return the depth of the send queue.
+     */
+    public int getSendQueueDepth() {
+        return sendQueue.getDepth();
+    }
+
+    /**
+     * Gets the statistics about the frames written to the WebSocket server.
+     *
+     * @return the send statistics.
+     */
+    public SendStatistics getSendStatistics() {
+        return sendQueue.getStatistics();
+    }
+
     /**
      * Closes the current WebSocket session gracefully.
      * <p>
      * This method checks if the WebSocket session is open and attempts to close it.
      * If the session is already closed or not initialized, it simply returns true.
-     * In case of an IOException during the closing process, it logs the error and returns false.
+     * In case of an error during the closing process, it logs the error and returns false.
      * </p>
      *
      * @return {@code true} if the session was closed successfully or was already closed,
      *         {@code false} if an error occurred while attempting to close the session.
      */
     public boolean closeSession(){
-        if (session != null && session.isOpen()) {
+        reconnector.cancel();
+        if (transport != null && transport.isOpen()) {
             try {
-                session.close(new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE,""));
+                transport.close();
                 lobbyID = null;
                 System.out.println("WebSocket session closed successfully.");
-            } catch (IOException e) {
+            } catch (RuntimeException e) {
                 System.err.println("Error while closing WebSocket session: " + e.getMessage());
                 return false;
             }
@@ -181,13 +370,22 @@ public class WebSocketClient {
         return true;
     }
 
+    /**
+     * Checks whether the connection to the lobby is currently being re-established.
+     *
+     * @return {@code true} if reconnecting is in progress, {@code false} otherwise.
+     */
+    public boolean isReconnecting() {
+        return reconnector.isReconnecting();
+    }
+
     /**
      * Checks if the WebSocket connection is open.
      *
      * @return {@code true} if the WebSocket session is open, {@code false} otherwise.
      */
     public boolean isConnectionOpen() {
-        if(session == null)return false;
-        return session.isOpen();
+        if(transport == null)return false;
+        return transport.isOpen();
     }
 }
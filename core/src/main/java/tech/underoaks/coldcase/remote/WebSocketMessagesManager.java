@@ -1,5 +1,6 @@
 package tech.underoaks.coldcase.remote;
 
+import tech.underoaks.coldcase.Main;
 import tech.underoaks.coldcase.game.GameController;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.game.LevelManager;
@@ -7,10 +8,13 @@ import tech.underoaks.coldcase.game.Levels;
 import tech.underoaks.coldcase.stages.StageManager;
 import tech.underoaks.coldcase.stages.Stages;
 
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static com.badlogic.gdx.net.HttpRequestBuilder.json;
 
@@ -18,10 +22,10 @@ import static com.badlogic.gdx.net.HttpRequestBuilder.json;
  * The {@code WebSocketMessagesManager} class is responsible for managing the sending and receiving of messages
  * over the WebSocket connection in the game.
  * <p>
- * It handles asynchronous communication by maintaining a thread-safe map of pending callbacks for message responses.
- * This class provides methods for sending various types of remote messages, such as creating remote interaction chains,
- * appending interactions, applying or aborting remote game state updates, and controlling game state transitions like
- * starting a game or exiting to the main menu.
+ * It handles asynchronous communication by maintaining a table of {@link PendingRequests} keyed by a correlation id,
+ * so that any number of requests can be in flight at the same time.
+ * This class provides methods for sending various types of remote messages, such as executing remote transactions,
+ * resuming the session, and controlling game state transitions like starting a game or exiting to the main menu.
  * </p>
  * <p>
  * The class follows the singleton design pattern to ensure only one instance exists during the application's lifecycle.
@@ -37,9 +41,35 @@ public class WebSocketMessagesManager {
     private static WebSocketMessagesManager instance;
 
     /**
-     * A thread-safe map to store pending callbacks for asynchronous message responses.
+     * Requests that are still waiting for their response
      */
-    private final ConcurrentHashMap<String, CompletableFuture<Object>> pendingCallbacks = new ConcurrentHashMap<>();
+    private final PendingRequests pendingRequests = new PendingRequests();
+
+    /**
+     * Whether messages are sent as binary frames encoded by the {@link MessageCodec}; {@code null} until it has been
+     * read from the {@code wire_format} property.
+     */
+    private static Boolean binaryWireFormat = null;
+
+    /**
+     * Milliseconds between two heartbeats
+     */
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Sends the heartbeats, {@code null} while not connected
+     */
+    private ScheduledExecutorService heartbeat = null;
+
+    /**
+     * The most recent heartbeat
+     */
+    private CompletableFuture<Object> lastPing = null;
+
+    /**
+     * Whether this client is waiting for the response to its {@link Messages.ResumeSessionMessage}
+     */
+    private volatile boolean resuming = false;
 
     /**
      * Retrieves the singleton instance of the WebSocketMessagesManager.
@@ -57,133 +87,332 @@ public class WebSocketMessagesManager {
     }
 
     /**
-     * Sends a request to create a remote interaction chain and registers a callback to handle the response.
+     * Checks whether messages are sent as binary frames.
+     * <p>
+     * Defaults to the {@code wire_format} property; set it to {@code json} to send readable JSON text frames for
+     * debugging. Both formats are always accepted when receiving.
+     * </p>
      *
-     * @param remoteGameControllerInstanceId the ID of the remote game controller instance.
-     * @param future                         the {@link CompletableFuture} to complete when the response is received.
+     * @return {@code true} if messages are encoded by the {@link MessageCodec}, {@code false} if they are sent as JSON.
+     */
+    public static boolean isBinaryWireFormat() {
+        if (binaryWireFormat == null) {
+            binaryWireFormat = !"json".equalsIgnoreCase(Main.getProperties().getProperty("wire_format", "binary"));
+        }
+        return binaryWireFormat;
+    }
+
+    /**
+     * Sets whether messages are sent as binary frames.
+     *
+     * @param binary {@code true} to encode messages by the {@link MessageCodec}, {@code false} to send them as JSON.
+     */
+    public static void setBinaryWireFormat(boolean binary) {
+        binaryWireFormat = binary;
+    }
+
+    /**
+     * Sends a message in the configured wire format.
+     * <p>
+     * Messages the {@link MessageCodec} can't encode are sent as JSON.
+     * </p>
+     *
+     * @param message the message to send.
+     * @return {@code true} if the message has been queued, {@code false} if the send queue is full.
      */
-    public void createRemoteInteractionChain(String remoteGameControllerInstanceId, CompletableFuture<Object> future) {
-        pendingCallbacks.put(remoteGameControllerInstanceId, future); //register callback
-        String message = json.toJson(new Messages.CreateRemoteInteractionChainMessage(remoteGameControllerInstanceId), Object.class);
-        WebSocketClient.getInstance().send(message);
+    private static boolean send(Object message) {
+        if (isBinaryWireFormat()) {
+            byte[] frame = null;
+            try {
+                frame = MessageCodec.encode(message);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Sending message as JSON: " + e.getMessage());
+            }
+            if (frame != null) {
+                return WebSocketClient.getInstance().send(frame);
+            }
+        }
+        return WebSocketClient.getInstance().send(json.toJson(message, Object.class));
     }
 
     /**
-     * Sends a request to append a remote interaction and registers a callback to handle the response.
+     * Sends a request to execute a complete remote transaction.
      *
      * @param remoteGameControllerInstanceId the ID of the remote game controller instance.
-     * @param future                         the {@link CompletableFuture} to complete when the response is received.
-     * @param interaction                    The interaction to trigger.
+     * @param interactions                   the interactions to trigger in order.
      * @param suppressTranscendentFollowUp   whether to suppress follow-up interactions.
+     * @param stateHash                      the expected transcendent state hash, or {@code null} if unknown.
+     * @return a future completed with the response, or completed exceptionally once the deadline has passed.
+     * @see Messages.ExecuteRemoteTransactionMessage
      */
-    public void appendRemoteInteraction(String remoteGameControllerInstanceId, CompletableFuture<Object> future, Interaction interaction, boolean suppressTranscendentFollowUp) {
+    public CompletableFuture<Object> executeRemoteTransaction(String remoteGameControllerInstanceId, Queue<Interaction> interactions, boolean suppressTranscendentFollowUp, Long stateHash) {
+        String encodedHash = stateHash == null ? null : Long.toHexString(stateHash);
+        return request(new Messages.ExecuteRemoteTransactionMessage(remoteGameControllerInstanceId, interactions, suppressTranscendentFollowUp, true, encodedHash));
+    }
 
-        pendingCallbacks.put(remoteGameControllerInstanceId, future); //register callback
-        String message = json.toJson(new Messages.AppendRemoteInteractionMessage(remoteGameControllerInstanceId, interaction, suppressTranscendentFollowUp), Object.class);
+    /**
+     * Sends a request under a new correlation id. Its deadline is derived from the estimated round trip time.
+     *
+     * @param message the request to send.
+     * @return a future completed with the response, or completed exceptionally once the deadline has passed or if the
+     * request couldn't be sent.
+     * @see #getRttEstimator()
+     */
+    private CompletableFuture<Object> request(Message message) {
+        return send(message, pendingRequests.register(message));
+    }
 
-        WebSocketClient.getInstance().send(message);
+    /**
+     * Sends a registered request.
+     *
+     * @param message the request to send.
+     * @param future  the future of the registered request.
+     * @return the given future, completed exceptionally if the request couldn't be sent.
+     */
+    private static CompletableFuture<Object> send(Message message, CompletableFuture<Object> future) {
+        try {
+            if (!send(message)) {
+                future.completeExceptionally(new IllegalStateException("Send queue is full"));
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
     }
 
     /**
-     * Sends a request to apply remote game state updates (GSUs).
+     * Sends the response to a request under the correlation id of the request.
      *
-     * @param remoteGameControllerInstanceId the ID of the remote game controller instance.
+     * @param request  the received request.
+     * @param response the response to send.
      */
-    public void applyRemoteGSUs(String remoteGameControllerInstanceId) {
-        WebSocketClient.getInstance().send(json.toJson(new Messages.ApplyRemoteGSUsMessage(remoteGameControllerInstanceId), Object.class));
+    private static void respond(Message request, Message response) {
+        response.setCorrelationId(request.getCorrelationId());
+        send(response);
     }
 
     /**
-     * Sends a request to abort remote game state updates (GSUs).
+     * Gets the round trip time estimation of the requests sent to the other client.
      *
-     * @param remoteGameControllerInstanceId the ID of the remote game controller instance.
+     * @return the estimator, providing the deadline of every request and round trip time percentiles.
+     */
+    public RttEstimator getRttEstimator() {
+        return pendingRequests.getRttEstimator();
+    }
+
+    /**
+     * Starts sending a {@link Messages.PingMessage} to the other client every second, so the round trip time estimation
+     * stays up to date while no other requests are sent. Previous samples are discarded.
      */
-    public void abortRemoteGSU(String remoteGameControllerInstanceId) {
-        WebSocketClient.getInstance().send(json.toJson(new Messages.ApplyRemoteGSUsMessage(remoteGameControllerInstanceId), Object.class));
+    public synchronized void startHeartbeat() {
+        if (heartbeat != null) {
+            return;
+        }
+        getRttEstimator().reset();
+        heartbeat = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "WebSocket-Heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::ping, HEARTBEAT_INTERVAL_MILLIS, HEARTBEAT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sending heartbeats, e.g. because the connection has been closed.
+     */
+    public synchronized void stopHeartbeat() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+            heartbeat = null;
+        }
+    }
+
+    /**
+     * Sends a heartbeat unless the previous one is still unanswered or the send queue is backpressured.
+     * Late responses are still taken as samples, therefore the heartbeat waits as long as the estimator allows.
+     */
+    private void ping() {
+        if ((lastPing != null && !lastPing.isDone()) || WebSocketClient.getInstance().isBackpressured()) {
+            return;
+        }
+        Messages.PingMessage ping = new Messages.PingMessage();
+        lastPing = send(ping, pendingRequests.register(ping, RttEstimator.MAX_TIMEOUT_NANOS, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Fails every request that is still waiting for its response, e.g. because the connection has been closed.
+     */
+    public void cancelPendingRequests() {
+        pendingRequests.cancelAll(new IllegalStateException("Connection closed"));
     }
 
     /**
      * Sends a message via the WebSocket connection to start the game at the specified level.
      * <p>
      * This method constructs a {@link Messages.startGameMessage} with the provided level index,
-     * serializes it to JSON, and sends it using the {@link WebSocketClient}. The level index should correspond
+     * serializes it in the configured wire format, and sends it using the {@link WebSocketClient}. The level index should correspond
      * to an entry in the {@link Levels} enum, indicating which level to load.
      * </p>
      *
      * @param levelIndex the index of the level to start
      */
     public static void startGame(int levelIndex) {
-        WebSocketClient.getInstance().send(json.toJson(new Messages.startGameMessage(levelIndex), Object.class));
+        send(new Messages.startGameMessage(levelIndex));
     }
 
     /**
      * Sends a message via the WebSocket connection to instruct the remote game controller to exit to the main menu.
      * <p>
-     * This method constructs a {@link Messages.exitToMainMenuMessage}, serializes it to JSON,
+     * This method constructs a {@link Messages.exitToMainMenuMessage}, serializes it in the configured wire format,
      * and sends it using the {@link WebSocketClient}. When processed, this message should trigger a transition
      * back to the main menu on the remote system.
      * </p>
      */
     public static void exitToMainMenuMessage() {
-        WebSocketClient.getInstance().send(json.toJson(new Messages.exitToMainMenuMessage(), Object.class));
+        send(new Messages.exitToMainMenuMessage());
     }
 
     /**
-     * Completes the future associated with a given message.
+     * Resumes the session with the other client after the connection has been re-established.
+     * <p>
+     * Sends the current transcendent state hash together with the ones this client can undo to. The other client
+     * answers with the state hash to reach and, only if it can't be reached by undoing steps, the compact transcendent
+     * state to adopt. The amount of work therefore depends on how far both clients have diverged, not on how long the
+     * level has been played. The level is reloaded on both clients if they are playing different levels.
+     * </p>
+     *
+     * @see GameController#handleResumeSession(String, String[])
+     */
+    public void resumeSession() {
+        GameController.postToGameThread(() -> {
+            List<Long> hashes = GameController.getInstance().getTranscendentHashHistory();
+            String[] stateHistory = new String[hashes.size() - 1];
+            for (int i = 0; i < stateHistory.length; i++) {
+                stateHistory[i] = Long.toHexString(hashes.get(i + 1));
+            }
+            Messages.ResumeSessionMessage message = new Messages.ResumeSessionMessage(GameController.getInstance().uuid.toString(),
+                LevelManager.getInstance().currentLevelIndex, Long.toHexString(hashes.get(0)), stateHistory);
+
+            resuming = true;
+            request(message).whenComplete((response, e) -> GameController.postToGameThread(() -> {
+                resuming = false;
+                if (e != null) {
+                    System.err.println("Couldn't resume session: " + e.getMessage());
+                    return;
+                }
+                Messages.ResumeSessionResponseMessage responseObj = (Messages.ResumeSessionResponseMessage) response;
+                if (responseObj.getLevelIndex() != LevelManager.getInstance().currentLevelIndex) {
+                    // The other client reloads the level on both clients
+                    return;
+                }
+                GameController.getInstance().handleResumeSessionResponse(responseObj.getStateHash(), responseObj.getTranscendentState());
+            }));
+        });
+    }
+
+    /**
+     * Answers the request of the other client to resume the session.
+     * <p>
+     * If both clients resume at the same time, the one with the greater game controller id yields: it answers with
+     * the other client's own state, so only its own request leads to a change.
+     * </p>
+     *
+     * @param messageObj the request of the other client.
+     * @return the response to send.
+     */
+    private Messages.ResumeSessionResponseMessage handleResumeSession(Messages.ResumeSessionMessage messageObj) {
+        int levelIndex = LevelManager.getInstance().currentLevelIndex;
+        if (messageObj.getLevelIndex() != levelIndex) {
+            LevelManager.getInstance().resyncLevel();
+            return new Messages.ResumeSessionResponseMessage(levelIndex, null, null);
+        }
+        if (resuming && GameController.getInstance().uuid.toString().compareTo(messageObj.getRemoteGameControllerInstanceId()) > 0) {
+            return new Messages.ResumeSessionResponseMessage(levelIndex, messageObj.getStateHash(), null);
+        }
+
+        int[] transcendentState = GameController.getInstance().handleResumeSession(messageObj.getStateHash(), messageObj.getStateHistory());
+        String stateHash = Long.toHexString(GameController.getInstance().getCurrentMap().getTranscendentHash());
+        return new Messages.ResumeSessionResponseMessage(levelIndex, stateHash, transcendentState);
+    }
+
+    /**
+     * Sends a message via the WebSocket connection to undo the steps of the other client until its transcendent
+     * state matches the given hash.
+     *
+     * @param stateHash the transcendent state hash the other client should return to
+     * @see GameController#handleUndoMessage(String)
+     */
+    public static void undoStep(long stateHash) {
+        send(new Messages.undoMessage(Long.toHexString(stateHash)));
+    }
+
+    /**
+     * Sends a message via the WebSocket connection to redo the steps of the other client until its transcendent
+     * state matches the given hash.
+     *
+     * @param stateHash the transcendent state hash the other client should advance to
+     * @see GameController#handleRedoMessage(String)
+     */
+    public static void redoStep(long stateHash) {
+        send(new Messages.redoMessage(Long.toHexString(stateHash)));
+    }
+
+    /**
+     * Completes the pending request the given response belongs to.
      *
      * @param messageObj the {@link Message} object to use for completing the future.
      */
     public void callback(Message messageObj) {
-        CompletableFuture<Object> future = pendingCallbacks.get(messageObj.getRemoteGameControllerInstanceId());
-        if (future == null) {
+        if (!pendingRequests.complete(messageObj)) {
             System.out.println("no completable future pending for this" + messageObj.getClass());
-            return;
         }
-        future.complete(messageObj);
     }
 
     /**
      * Handles incoming messages from the WebSocket connection.
      * <p>
-     * This method runs asynchronously and dispatches messages based on their type.
+     * Responses complete their pending request right away, so the round trip time of a request doesn't depend on the
+     * frame rate, and heartbeats are answered right away so they measure the link only. Continuations that touch the
+     * game state post themselves to the game thread. Every other message is posted to the game thread and processed in
+     * the order it has been received.
      * </p>
      *
      * @param deserializedObject the deserialized message.
+     * @see GameController#postToGameThread(Runnable)
      */
     public static void handleIncomingMessages(Object deserializedObject) {
-        // Run asynchronously with CompletableFuture
-        CompletableFuture.runAsync(() -> {
-            try {
-                //Object deserializedObject = json.fromJson(Object.class, message);
+        if (deserializedObject instanceof Messages.ExecuteRemoteTransactionResponseMessage
+            || deserializedObject instanceof Messages.PongMessage
+            || deserializedObject instanceof Messages.ResumeSessionResponseMessage) {
+            WebSocketMessagesManager.getInstance().callback((Message) deserializedObject);
+            return;
+        }
+        if (deserializedObject instanceof Messages.PingMessage ping) {
+            respond(ping, new Messages.PongMessage());
+            return;
+        }
 
+        GameController.postToGameThread(() -> {
+            try {
                 switch (deserializedObject) {
-                    case Messages.CreateRemoteInteractionChainMessage messageObj -> {
-                        String remoteInteractionChainId = "TEST" + UUID.randomUUID().toString(); // not needed for now
-                        GameController.getInstance().handleCreateRemoteInteractionChain();
-                        WebSocketClient.getInstance().send(json.toJson(new Messages.CreateRemoteInteractionChainResponseMessage(messageObj.getRemoteGameControllerInstanceId(), remoteInteractionChainId), Object.class));
+                    case Messages.ExecuteRemoteTransactionMessage messageObj -> {
+                        Queue<Interaction> transcendentInteractions = new LinkedList<>();
+                        Queue<Interaction> interactions = GameController.getInstance().handleExecuteRemoteTransaction(messageObj.getInteractions(), messageObj.getSuppressTranscendentFollowUp(), messageObj.getCommit(), messageObj.getStateHash(), transcendentInteractions);
+                        boolean committed = interactions != null && messageObj.getCommit();
+                        respond(messageObj, new Messages.ExecuteRemoteTransactionResponseMessage(messageObj.getRemoteGameControllerInstanceId(), interactions, transcendentInteractions, committed));
                     }
-                    case Messages.AppendRemoteInteractionMessage messageObj -> {
-                        Queue<Interaction> interactions = GameController.getInstance().handleTriggerRemoteInteraction(messageObj.getInteraction(), messageObj.getSuppressTranscendentFollowUp());
-
-                        WebSocketClient.getInstance().send(json.toJson(new Messages.AppendRemoteInteractionResponseMessage(messageObj.getRemoteGameControllerInstanceId(), interactions), Object.class));
-                    }
-                    case Messages.ApplyRemoteGSUsMessage messageObj -> {
-                        GameController.getInstance().handleApplyRemoteGSUsMessage();
-                        //System.out.println("ApplyRemoteGSUs called but function is missing for now");
-                    }
-                    case Messages.AbortRemoteGSUsMessage messageObj -> {
-                        GameController.getInstance().handleAbortRemoteGSUsMessage();
-                        //System.out.println("AbortRemoteGSUsMessage called but function is missing for now");
-                    }
-                    case Messages.AppendRemoteInteractionResponseMessage messageObj -> {
-                        WebSocketMessagesManager.getInstance().callback(messageObj);
-                    }
-                    case Messages.CreateRemoteInteractionChainResponseMessage messageObj -> {   //not needed for now
-                        WebSocketMessagesManager.getInstance().callback(messageObj);
+                    case Messages.ResumeSessionMessage messageObj -> {
+                        respond(messageObj, WebSocketMessagesManager.getInstance().handleResumeSession(messageObj));
                     }
                     case Messages.startGameMessage messageObj -> {
                         LevelManager.getInstance().loadLevel(Levels.values()[messageObj.levelIndex]);
                     }
+                    case Messages.undoMessage messageObj -> {
+                        GameController.getInstance().handleUndoMessage(messageObj.getStateHash());
+                    }
+                    case Messages.redoMessage messageObj -> {
+                        GameController.getInstance().handleRedoMessage(messageObj.getStateHash());
+                    }
                     case Messages.exitToMainMenuMessage messageObj -> {
                         StageManager.getInstance().setNextStage(Stages.MAIN_MENU);
                         LevelManager.getInstance().currentLevelIndex = 0;
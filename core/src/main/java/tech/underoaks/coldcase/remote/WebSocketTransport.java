@@ -0,0 +1,56 @@
+package tech.underoaks.coldcase.remote;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Session;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Future;
+
+/**
+ * {@link Transport} writing to a WebSocket session connected to the relay server.
+ * <p>
+ * Frames are received through the annotated callbacks of the {@link WebSocketClient}.
+ * </p>
+ */
+public class WebSocketTransport implements Transport {
+    private final Session session;
+
+    /**
+     * Constructor
+     *
+     * @param session The open WebSocket session.
+     */
+    public WebSocketTransport(Session session) {
+        this.session = session;
+    }
+
+    @Override
+    public Future<Void> sendText(String text) {
+        return session.getAsyncRemote().sendText(text);
+    }
+
+    @Override
+    public Future<Void> sendBinary(ByteBuffer data) {
+        return session.getAsyncRemote().sendBinary(data);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session.isOpen();
+    }
+
+    /**
+     * Closes the session with {@link CloseReason.CloseCodes#NORMAL_CLOSURE}.
+     *
+     * @throws RuntimeException If the session couldn't be closed.
+     */
+    @Override
+    public void close() {
+        try {
+            session.close(new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, ""));
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't close WebSocket session", e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import tech.underoaks.coldcase.Main;
 import tech.underoaks.coldcase.game.GameController;
 import tech.underoaks.coldcase.game.Levels;
 import tech.underoaks.coldcase.game.PlayerController;
@@ -61,6 +62,10 @@ public class GameStage extends AbstractStage {
         super.render(delta);
 
         fixedUpdate(delta);
+        if (GameController.getInstance().speculate()) {
+            // The remaining candidates are speculated in the following frames, even while the player is idle
+            Main.requestRendering();
+        }
 
         getBatch().begin();
         //renderFPS(getBatch());
@@ -97,6 +102,14 @@ public class GameStage extends AbstractStage {
         return handled;
     }
 
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (mapActor != null) {
+            mapActor.dispose();
+        }
+    }
+
     /**
      * Renders the current FPS in the top left corner
      *
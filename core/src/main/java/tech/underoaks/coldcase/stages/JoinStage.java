@@ -125,9 +125,11 @@ public class JoinStage extends AbstractStage {
      */
     @Override
     public void onDisconnected() {
-        connectionStatusLabel.setText("Not Connected");
-        connectionStatusLabel.setColor(Color.RED);
-        connectButton.setDisabled(false);
-        connectButton.setTouchable(Touchable.enabled);
+        Gdx.app.postRunnable(() -> {
+            connectionStatusLabel.setText("Not Connected");
+            connectionStatusLabel.setColor(Color.RED);
+            connectButton.setDisabled(false);
+            connectButton.setTouchable(Touchable.enabled);
+        });
     }
 }
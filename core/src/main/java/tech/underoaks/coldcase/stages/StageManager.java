@@ -3,6 +3,7 @@ package tech.underoaks.coldcase.stages;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputMultiplexer;
+import tech.underoaks.coldcase.Main;
 
 /**
  * Manages the different screens (stages) of the game.
@@ -89,6 +90,7 @@ public class StageManager {
             currentStage.dispose();
         }
         currentStage = newStage;
+        Main.requestRendering();
     }
 
     /**
@@ -103,6 +105,17 @@ public class StageManager {
     public void setNextStage(Stages nextStage, Object... params) {
         this.nextStage = nextStage;
         this.nextStageParams = params;
+        // May be called by the network threads, so the game has to be woken up to apply it
+        Main.requestRendering();
+    }
+
+    /**
+     * Checks whether a next stage has been set that hasn't been shown yet.
+     *
+     * @return {@code true} if {@code update()} will transition to another stage, {@code false} otherwise
+     */
+    public boolean isStageChangePending() {
+        return nextStage != null;
     }
 
     /**
@@ -1,9 +1,10 @@
 package tech.underoaks.coldcase.stages.actors;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import tech.underoaks.coldcase.game.PlayerController;
+import tech.underoaks.coldcase.game.TextureController;
 import tech.underoaks.coldcase.state.tileContent.ItemObject;
 
 /**
@@ -12,13 +13,13 @@ import tech.underoaks.coldcase.state.tileContent.ItemObject;
 public class InventoryActor extends Actor {
     @Override
     public void draw(Batch batch, float parentAlpha) {
-        batch.draw(new Texture("./isometric tileset/separated images/TEST_INVENTORY.png"), getX(), getY(), getWidth(), getHeight());
+        TextureController.draw(batch, TextureController.getInstance().getInventoryTexture(), getX(), getY(), getWidth(), getHeight());
 
         if (PlayerController.getInstance().getInventory() != null) {
             ItemObject item = (ItemObject) PlayerController.getInstance().getInventory();
-            Texture uiTexture = item.getInventoryTexture();
+            TextureRegion uiTexture = item.getInventoryTexture();
             if (uiTexture != null) {
-                batch.draw(uiTexture, getX(), getY(), getWidth(), getHeight());
+                TextureController.draw(batch, uiTexture, getX(), getY(), getWidth(), getHeight());
             }
         }
     }
@@ -1,6 +1,9 @@
 package tech.underoaks.coldcase.stages.actors;
 
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import tech.underoaks.coldcase.MapGenerator;
 import tech.underoaks.coldcase.game.GameController;
@@ -19,6 +22,11 @@ public class MapActor extends Actor {
 
     private Map map;
 
+    /**
+     * Area of the stage visible to its camera, updated every frame
+     */
+    private final Rectangle visibleArea = new Rectangle();
+
     /**
      * Default-Constructor
      * @param path The path that points to the map-file
@@ -29,7 +37,30 @@ public class MapActor extends Actor {
 
     @Override
     public void draw(Batch batch, float parentAlpha) {
-        map.render(batch, getOriginX(), getOriginY());
+        map.render(batch, getOriginX(), getOriginY(), getVisibleArea());
+    }
+
+    /**
+     * Gets the area of the stage that is visible to the camera of the stage.
+     *
+     * @return The visible area, or {@code null} if the actor isn't part of a stage.
+     */
+    private Rectangle getVisibleArea() {
+        if (getStage() == null) {
+            return null;
+        }
+        Camera camera = getStage().getCamera();
+        float zoom = camera instanceof OrthographicCamera ? ((OrthographicCamera) camera).zoom : 1;
+        float width = camera.viewportWidth * zoom;
+        float height = camera.viewportHeight * zoom;
+        return visibleArea.set(camera.position.x - width / 2, camera.position.y - height / 2, width, height);
+    }
+
+    /**
+     * Releases the cached ground layer of the map once the actor isn't drawn anymore.
+     */
+    public void dispose() {
+        map.disposeGroundLayer();
     }
 
     /**
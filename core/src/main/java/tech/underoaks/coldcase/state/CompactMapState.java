@@ -0,0 +1,346 @@
+package tech.underoaks.coldcase.state;
+
+import tech.underoaks.coldcase.state.tileContent.TileContent;
+import tech.underoaks.coldcase.state.tileContent.TileContents;
+import tech.underoaks.coldcase.state.tileContent.VisibilityStates;
+import tech.underoaks.coldcase.state.tiles.Tile;
+import tech.underoaks.coldcase.state.tiles.Tiles;
+
+import java.util.Arrays;
+
+/**
+ * Compact encoding of the logical state of a {@link Map} using flat primitive arrays.
+ * <p>
+ * Every cell stores the identifier of its {@link Tile} ({@link Tiles}) and a fixed number of layers. Each layer
+ * holds the identifier of a {@link TileContent} ({@link TileContents}, 0 if the layer is empty) and its flag bits
+ * (passability and visibility). Layers are stored bottom to top, matching the content stack of a {@link Tile}.
+ * </p>
+ * <p>
+ * Textures, sprites and contents without an identifier (e.g. decorative
+ * {@link tech.underoaks.coldcase.state.tileContent.UIContentTileContent}s) are not part of the encoded state.
+ * </p>
+ */
+public class CompactMapState {
+    /**
+     * Flag that is set if a {@link TileContent} is passable by the player
+     */
+    public static final int FLAG_PLAYER_PASSABLE = 1;
+
+    /**
+     * Flag that is set if a {@link TileContent} is passable by objects
+     */
+    public static final int FLAG_OBJECT_PASSABLE = 1 << 1;
+
+    /**
+     * Offset of the {@link VisibilityStates} ordinal inside the flag bits
+     */
+    private static final int VISIBILITY_SHIFT = 2;
+
+    /**
+     * Mask of the {@link VisibilityStates} ordinal inside the flag bits
+     */
+    private static final int VISIBILITY_MASK = 0b11 << VISIBILITY_SHIFT;
+
+    private final int rows;
+    private final int columns;
+    private final int layers;
+
+    /**
+     * Tile identifier of each cell in row-major order; -1 if the cell has no tile
+     */
+    private final short[] tileIds;
+
+    /**
+     * Content identifier of each layer; indexed by {@code (row * columns + column) * layers + layer}
+     */
+    private final short[] contentIds;
+
+    /**
+     * Flag bits of each layer; indexed like {@link #contentIds}
+     */
+    private final byte[] contentFlags;
+
+    /**
+     * Creates an empty state of the given size.
+     *
+     * @param rows    Number of rows.
+     * @param columns Number of columns.
+     * @param layers  Number of content layers per cell.
+     */
+    public CompactMapState(int rows, int columns, int layers) {
+        this.rows = rows;
+        this.columns = columns;
+        this.layers = layers;
+        this.tileIds = new short[rows * columns];
+        this.contentIds = new short[rows * columns * layers];
+        this.contentFlags = new byte[rows * columns * layers];
+    }
+
+    /**
+     * Encodes the logical state of the given {@link Map}.
+     *
+     * @param map The map to encode.
+     * @return The encoded state.
+     */
+    public static CompactMapState encode(Map map) {
+        int rows = map.getTileArrayHeight();
+        int columns = map.getTileArrayWidth();
+
+        int layers = 1;
+        for (Tile[] row : map.tileArray) {
+            for (Tile tile : row) {
+                if (tile != null) {
+                    layers = Math.max(layers, tile.getTileContentCount());
+                }
+            }
+        }
+
+        CompactMapState state = new CompactMapState(rows, columns, layers);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                Tile tile = map.tileArray[i][j];
+                int cell = i * columns + j;
+                if (tile == null) {
+                    state.tileIds[cell] = -1;
+                    continue;
+                }
+                state.tileIds[cell] = (short) Tiles.getIndexByClass(tile.getClass());
+
+                int layer = 0;
+                for (int k = 0; k < tile.getTileContentCount(); k++) {
+                    TileContent content = tile.getTileContent(k);
+                    int id = TileContents.getIndexByClass(content.getClass());
+                    if (id == -1) {
+                        continue;
+                    }
+                    state.contentIds[cell * layers + layer] = (short) id;
+                    state.contentFlags[cell * layers + layer] = encodeFlags(content);
+                    layer++;
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Creates a new {@link Map} containing the encoded state.
+     * <p>
+     * Tiles and contents are created with their default textures.
+     * </p>
+     *
+     * @return The decoded map.
+     */
+    public Map decode() {
+        Tile[][] tileArray = new Tile[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                int cell = i * columns + j;
+                if (tileIds[cell] == -1) {
+                    continue;
+                }
+                Tile tile = Tiles.getNewTileClassByIndex(tileIds[cell]);
+                for (int layer = 0; layer < layers && contentIds[cell * layers + layer] != 0; layer++) {
+                    TileContent content = TileContents.getNewTileClassByIndex(contentIds[cell * layers + layer]);
+                    decodeFlags(content, contentFlags[cell * layers + layer]);
+                    tile.pushTileContent(content);
+                }
+                tileArray[i][j] = tile;
+            }
+        }
+        return new Map(tileArray);
+    }
+
+    /**
+     * Creates a copy of this state.
+     *
+     * @return The copied state.
+     */
+    public CompactMapState copy() {
+        CompactMapState copy = new CompactMapState(rows, columns, layers);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrites this state with the given one, reusing the existing arrays.
+     *
+     * @param other The state to copy.
+     * @throws IllegalArgumentException If both states don't share the same dimensions.
+     */
+    public void copyFrom(CompactMapState other) {
+        if (other.rows != rows || other.columns != columns || other.layers != layers) {
+            throw new IllegalArgumentException("Dimensions of both states have to match");
+        }
+        System.arraycopy(other.tileIds, 0, tileIds, 0, tileIds.length);
+        System.arraycopy(other.contentIds, 0, contentIds, 0, contentIds.length);
+        System.arraycopy(other.contentFlags, 0, contentFlags, 0, contentFlags.length);
+    }
+
+    /**
+     * Computes a 64-bit hash of this state in a single pass.
+     *
+     * @return The hash of this state.
+     */
+    public long hash() {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ rows) * 0x100000001b3L;
+        hash = (hash ^ columns) * 0x100000001b3L;
+        hash = (hash ^ layers) * 0x100000001b3L;
+        for (int cell = 0; cell < tileIds.length; cell++) {
+            hash = (hash ^ tileIds[cell]) * 0x100000001b3L;
+            for (int index = cell * layers; index < (cell + 1) * layers; index++) {
+                hash = (hash ^ (contentIds[index] << 8 | (contentFlags[index] & 0xff))) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the number of rows.
+     * @return Number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns.
+     * @return Number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of content layers per cell.
+     * @return Number of layers.
+     */
+    public int getLayers() {
+        return layers;
+    }
+
+    /**
+     * Gets the tile identifier of a cell.
+     *
+     * @param row    The row index.
+     * @param column The column index.
+     * @return The identifier of the {@link Tiles}; -1 if the cell has no tile.
+     */
+    public int getTileId(int row, int column) {
+        return tileIds[row * columns + column];
+    }
+
+    /**
+     * Gets the content identifier of a layer.
+     *
+     * @param row    The row index.
+     * @param column The column index.
+     * @param layer  The layer (0 for the bottom-most content).
+     * @return The identifier of the {@link TileContents}; 0 if the layer is empty.
+     */
+    public int getContentId(int row, int column, int layer) {
+        return contentIds[(row * columns + column) * layers + layer];
+    }
+
+    /**
+     * Gets the flag bits of a layer.
+     *
+     * @param row    The row index.
+     * @param column The column index.
+     * @param layer  The layer (0 for the bottom-most content).
+     * @return The flag bits of the layer.
+     * @see #FLAG_PLAYER_PASSABLE
+     * @see #FLAG_OBJECT_PASSABLE
+     */
+    public int getContentFlags(int row, int column, int layer) {
+        return contentFlags[(row * columns + column) * layers + layer];
+    }
+
+    /**
+     * Gets the number of occupied layers of a cell.
+     *
+     * @param row    The row index.
+     * @param column The column index.
+     * @return Number of contents placed on the cell.
+     */
+    public int getContentCount(int row, int column) {
+        int cell = row * columns + column;
+        int count = 0;
+        while (count < layers && contentIds[cell * layers + count] != 0) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the player may enter a cell, i.e. its top content is passable by the player.
+     *
+     * @param row    The row index.
+     * @param column The column index.
+     * @return True if the cell is empty or its top content is passable by the player.
+     */
+    public boolean isPlayerPassable(int row, int column) {
+        int count = getContentCount(row, column);
+        return count == 0 || (getContentFlags(row, column, count - 1) & FLAG_PLAYER_PASSABLE) != 0;
+    }
+
+    /**
+     * Checks whether an object may be moved onto a cell, i.e. its top content is passable by objects.
+     *
+     * @param row    The row index.
+     * @param column The column index.
+     * @return True if the cell is empty or its top content is passable by objects.
+     */
+    public boolean isObjectPassable(int row, int column) {
+        int count = getContentCount(row, column);
+        return count == 0 || (getContentFlags(row, column, count - 1) & FLAG_OBJECT_PASSABLE) != 0;
+    }
+
+    /**
+     * Encodes the flag bits of a {@link TileContent}.
+     *
+     * @param content The content to encode.
+     * @return The flag bits.
+     */
+    private static byte encodeFlags(TileContent content) {
+        int flags = 0;
+        if (content.isPlayerPassable()) {
+            flags |= FLAG_PLAYER_PASSABLE;
+        }
+        if (content.isObjectPassable()) {
+            flags |= FLAG_OBJECT_PASSABLE;
+        }
+        flags |= content.getVisibilityState().ordinal() << VISIBILITY_SHIFT;
+        return (byte) flags;
+    }
+
+    /**
+     * Applies encoded flag bits to a {@link TileContent}.
+     *
+     * @param content The content to update.
+     * @param flags   The flag bits.
+     */
+    private static void decodeFlags(TileContent content, int flags) {
+        content.setPlayerPassable((flags & FLAG_PLAYER_PASSABLE) != 0);
+        content.setObjectPassable((flags & FLAG_OBJECT_PASSABLE) != 0);
+        content.setVisibilityState(VisibilityStates.values()[(flags & VISIBILITY_MASK) >>> VISIBILITY_SHIFT]);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        CompactMapState other = (CompactMapState) obj;
+        return rows == other.rows && columns == other.columns && layers == other.layers
+            && Arrays.equals(tileIds, other.tileIds)
+            && Arrays.equals(contentIds, other.contentIds)
+            && Arrays.equals(contentFlags, other.contentFlags);
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = hash();
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
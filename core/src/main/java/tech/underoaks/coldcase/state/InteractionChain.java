@@ -1,20 +1,36 @@
 package tech.underoaks.coldcase.state;
 
+import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.state.updates.GameStateUpdate;
 import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 /**
  * Represents a sequence of interactions resulting from a player's action.
+ * <p>
+ * Every {@link GameStateUpdate} with consequences is applied to the snapshot right away. Its inverse is recorded
+ * in an undo journal, so that failed interactions can be reverted via {@link #rollbackTo(int)} at the cost of the
+ * updates they applied instead of discarding the whole snapshot.
+ * </p>
  */
 public class InteractionChain {
     /**
      * Queue of GameStateUpdates associated with this interaction chain.
      */
-    private final Queue<GameStateUpdate> gsuQueue;
+    private final Deque<GameStateUpdate> gsuQueue;
+
+    /**
+     * Inverses of the updates applied to the snapshot, most recent last
+     */
+    private final Deque<JournalEntry> undoJournal;
 
     /**
      * {@link Queue} that stores actions that need to be executed by the {@link tech.underoaks.coldcase.game.GameController}
@@ -26,20 +42,52 @@ public class InteractionChain {
      */
     private final Queue<Interaction> pendingRemoteActions;
 
+    /**
+     * Positions of the tiles that have been modified by {@link GameStateUpdate}s and not yet been re-evaluated
+     */
+    private final List<Vector2> dirtyPositions;
+
     /**
      * Snapshot that will act as the testing environment
      */
     private final Snapshot snapshot;
 
+    /**
+     * Whether {@link GameStateUpdate}s are only recorded without being applied
+     */
+    private final boolean deferred;
+
     /**
      * Default-Constructor
      * @param snapshot Deep-Clone of a {@link Map} that will be the Basis of this Simulation.
      */
     public InteractionChain(Snapshot snapshot) {
+        this(snapshot, false);
+    }
+
+    private InteractionChain(Snapshot snapshot, boolean deferred) {
         this.snapshot = snapshot;
+        this.deferred = deferred;
         this.gsuQueue = new LinkedList<>();
         this.pendingActions = new LinkedList<>();
         this.pendingRemoteActions = new LinkedList<>();
+        this.dirtyPositions = new ArrayList<>();
+        this.undoJournal = new ArrayDeque<>();
+    }
+
+    /**
+     * Creates a chain that only records the {@link GameStateUpdate}s added to it without applying them.
+     * <p>
+     * It is used to find out what a {@link tech.underoaks.coldcase.state.tileContent.TileContent} would do without
+     * modifying the snapshot. Multiple deferred chains may therefore be filled concurrently while sharing the same
+     * snapshot, as long as the snapshot is only read.
+     * </p>
+     *
+     * @param snapshot The snapshot the recorded updates refer to.
+     * @return A new deferred InteractionChain.
+     */
+    public static InteractionChain createDeferred(Snapshot snapshot) {
+        return new InteractionChain(snapshot, true);
     }
 
     /**
@@ -75,14 +123,82 @@ public class InteractionChain {
      * @throws GameStateUpdateException If the update has failed.
      */
     public void addGameStateUpdate(GameStateUpdate gsu) throws GameStateUpdateException {
+        if (deferred) {
+            gsuQueue.add(gsu);
+            return;
+        }
         try {
             if (gsu.UPDATE_TYPE.hasConsequences()) {
-                gsu.apply(snapshot.getSnapshotMap());
+                Map map = snapshot.getSnapshotMap();
+                GameStateUpdate inverse = gsu.createInverse(map);
+                gsu.apply(map);
+                if (inverse != null) {
+                    undoJournal.addLast(new JournalEntry(gsuQueue.size(), inverse));
+                }
             }
         } catch (Exception e) {
             throw new GameStateUpdateException("Error updating the game state", e);
         }
         gsuQueue.add(gsu);
+        dirtyPositions.addAll(gsu.getAffectedPositions());
+    }
+
+    /**
+     * Creates a savepoint that the chain can later be rolled back to.
+     *
+     * @return The savepoint; only valid for this chain.
+     * @see #rollbackTo(int)
+     */
+    public int savepoint() {
+        return gsuQueue.size();
+    }
+
+    /**
+     * Reverts every {@link GameStateUpdate} that has been added since the given savepoint.
+     * <p>
+     * The recorded inverses are applied to the snapshot in reverse order and the updates are removed from the queue.
+     * </p>
+     *
+     * @param savepoint A savepoint previously returned by {@link #savepoint()}.
+     */
+    public void rollbackTo(int savepoint) {
+        Map map = snapshot.getSnapshotMap();
+        while (!undoJournal.isEmpty() && undoJournal.peekLast().queueSize >= savepoint) {
+            undoJournal.removeLast().inverse.apply(map);
+        }
+        while (gsuQueue.size() > savepoint) {
+            gsuQueue.removeLast();
+        }
+    }
+
+    /**
+     * Reverts every {@link GameStateUpdate} of this chain.
+     */
+    public void rollback() {
+        rollbackTo(0);
+    }
+
+    /**
+     * Gets and clears the positions of every tile that has been modified since the last call.
+     * @return The positions of the modified tiles (may contain duplicates).
+     * @see GameStateUpdate#getAffectedPositions()
+     */
+    public List<Vector2> pollDirtyPositions() {
+        if (dirtyPositions.isEmpty()) {
+            return List.of();
+        }
+        List<Vector2> positions = new ArrayList<>(dirtyPositions);
+        dirtyPositions.clear();
+        return positions;
+    }
+
+    /**
+     * Gets the positions of every tile that has been modified since the last call of {@link #pollDirtyPositions()}
+     * without clearing them.
+     * @return The positions of the modified tiles, in the order they have been modified (may contain duplicates).
+     */
+    List<Vector2> peekDirtyPositions() {
+        return Collections.unmodifiableList(dirtyPositions);
     }
 
     /**
@@ -108,4 +224,24 @@ public class InteractionChain {
     public Queue<Interaction> getPendingRemoteActions() {
         return pendingRemoteActions;
     }
+
+    /**
+     * Inverse of an applied {@link GameStateUpdate}
+     */
+    private static class JournalEntry {
+        /**
+         * Size of the GSU queue before the update was added
+         */
+        private final int queueSize;
+
+        /**
+         * The update reverting it
+         */
+        private final GameStateUpdate inverse;
+
+        private JournalEntry(int queueSize, GameStateUpdate inverse) {
+            this.queueSize = queueSize;
+            this.inverse = inverse;
+        }
+    }
 }
@@ -1,30 +1,197 @@
 package tech.underoaks.coldcase.state;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.MapGenerator;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.game.PlayerController;
+import tech.underoaks.coldcase.game.TextureController;
 import tech.underoaks.coldcase.state.tileContent.UpdateTileContentException;
 import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
 import tech.underoaks.coldcase.state.tileContent.TileContent;
+import tech.underoaks.coldcase.state.tileContent.TileContents;
+import tech.underoaks.coldcase.state.tileContent.VisibilityStates;
 import tech.underoaks.coldcase.state.tiles.Tile;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Represents the game map, which is a 2D array of {@link Tile} objects.
  * Provides methods for accessing and modifying the map, rendering, and updating the map state.
+ * <p>
+ * Maps created by {@link #snapshot()} share their rows with the map they were taken from. A row is only copied
+ * once one of its tiles is retrieved for modification through {@link #getWritableTile(int, int)}, so a snapshot
+ * only pays for the rows its {@link tech.underoaks.coldcase.state.updates.GameStateUpdate}s actually modify.
+ * Reading a tile through {@link #getTile(int, int)} never copies anything.
+ * </p>
  */
 public class Map {
     /**
      * Tiles that store the State of this Map
+     * <p>
+     * Rows may be shared with snapshots of this map and must therefore only be read directly.
+     * Tiles that are about to be modified have to be retrieved via {@link #getWritableTile(int, int)}.
+     * </p>
      */
     public Tile[][] tileArray;
 
     private boolean isSnapshotMap = false;
 
+    /**
+     * Maximum distance (in tiles) between a {@link TileContent} and the tiles it may react to.
+     *
+     * @see TileContent#reactsTo(Vector2, Vector2)
+     */
+    public static final int OBSERVATION_RANGE = 1;
+
+    /**
+     * Default value of {@link #getParallelUpdateThreshold()}
+     */
+    public static final int DEFAULT_PARALLEL_UPDATE_THRESHOLD = 4096;
+
+    /**
+     * Minimum amount of tiles evaluated in a single update pass before the pass is split across the common
+     * {@link ForkJoinPool}; smaller passes are evaluated serially.
+     */
+    private static int parallelUpdateThreshold = DEFAULT_PARALLEL_UPDATE_THRESHOLD;
+
+    /**
+     * Snapshots taken from this map that may still share rows with it
+     */
+    private final transient List<WeakReference<Map>> snapshots = new ArrayList<>();
+
+    /**
+     * Map this snapshot has been taken from, {@code null} if this map isn't a snapshot or has been released
+     */
+    private transient Map source;
+
+    /**
+     * Whether the outer {@link #tileArray} may still be referenced by another map
+     */
+    private transient boolean sharesRowArray = false;
+
+    /**
+     * Epoch in which each row has last been claimed by this map. A row may only be modified in place
+     * while its entry matches {@link #ownershipEpoch}.
+     */
+    private transient int[] rowOwnership;
+
+    /**
+     * Current ownership epoch; advanced whenever a snapshot starts sharing the rows of this map
+     */
+    private transient int ownershipEpoch = 1;
+
+    /**
+     * Positions of every {@link TileContent} on this map grouped by their type, stored as row-major keys.
+     * <p>
+     * Built on first use and kept up to date by the {@link Tile}s placed on this map. The index is shared with
+     * snapshots of this map; the outer map and each position set are only copied once they are modified.
+     * </p>
+     */
+    private transient HashMap<Class<? extends TileContent>, SortedSet<Integer>> contentIndex;
+
+    /**
+     * Whether {@link #contentIndex} may still be referenced by another map
+     */
+    private transient boolean sharesContentIndex = false;
+
+    /**
+     * Types whose position set inside {@link #contentIndex} is exclusively owned by this map
+     */
+    private transient Set<Class<? extends TileContent>> ownedIndexTypes = new HashSet<>();
+
+    /**
+     * Zobrist hash over every {@link VisibilityStates#TRANSCENDENT} {@link TileContent} of this map.
+     * <p>
+     * Computed on first use and afterwards updated by the {@link Tile}s placed on this map, so that every
+     * added or removed content only costs a single XOR.
+     * </p>
+     */
+    private transient long transcendentHash;
+
+    /**
+     * Whether {@link #transcendentHash} has been computed and is being kept up to date
+     */
+    private transient boolean hasTranscendentHash = false;
+
+    /**
+     * Half the width of a tile in isometric coordinates, see {@link #twoDToIso45(int, int)}
+     */
+    public static final float ISO_HALF_TILE_WIDTH = 450;
+
+    /**
+     * Half the height of a tile in isometric coordinates, see {@link #twoDToIso45(int, int)}
+     */
+    public static final float ISO_HALF_TILE_HEIGHT = 320;
+
+    /**
+     * Half the width of a tile sprite; the middle of a tile, not its bottom left corner, should be in the origin
+     */
+    private static final float HALF_TILE_SPRITE_WIDTH = 540;
+
+    /**
+     * Height above the bottom of a tile that its sprites may reach; contents are drawn up to 540 above the tile
+     * and are 1080 high
+     */
+    private static final float MAX_SPRITE_HEIGHT = 1620;
+
+    /**
+     * Additional margin around the visible area in which tiles are still rendered, e.g. for text labels that are
+     * shifted away from their tile
+     */
+    private static final float CULLING_MARGIN = 320;
+
+    /**
+     * Visible columns of every row computed by {@link #cullTiles(Rectangle, float, float, float)}; the columns
+     * {@code [visibleColumns[2 * row], visibleColumns[2 * row + 1])} are visible
+     */
+    private transient int[] visibleColumns;
+
+    /**
+     * Draw commands of the {@link TileContent}s on the visible tiles, sorted by their isometric depth
+     */
+    private transient RenderList renderList;
+
+    /**
+     * Whether {@link #renderList} can be submitted again; cleared whenever a content or its texture changes
+     */
+    private transient boolean renderListValid = false;
+
+    /**
+     * Vertical offset that moves the middle of the map into the origin, computed once per map by
+     * {@link #getRenderOffsetY()}
+     */
+    private transient float renderOffsetY = Float.NaN;
+
+    /**
+     * The {@link Tile}s themselves never change during a level, so they are baked once into this cache instead of
+     * being drawn every frame. Created on first render; {@code null} if there is no OpenGL context.
+     */
+    private transient SpriteCache groundLayer;
+
+    /**
+     * Id of the cached ground layer inside {@link #groundLayer}, {@code -1} if it has to be rebuilt
+     */
+    private transient int groundLayerId = -1;
+
+    private final transient Matrix4 groundLayerTransform = new Matrix4();
+
     /**
      * Default constructor for Map needed for deserialization in {@link MapGenerator}
      */
@@ -38,10 +205,21 @@ public class Map {
      */
     public Map(Tile[][] tileArray) {
         this.tileArray = tileArray;
+        for (int i = 0; i < tileArray.length; i++) {
+            for (int j = 0; j < tileArray[i].length; j++) {
+                if (tileArray[i][j] != null) {
+                    tileArray[i][j].setLocation(this, i, j);
+                }
+            }
+        }
     }
 
     /**
-     * Retrieves the tile at the specified coordinates.
+     * Retrieves the tile at the specified coordinates for reading.
+     * <p>
+     * The returned tile may still be shared with snapshots of this map and must not be modified; use
+     * {@link #getWritableTile(int, int)} instead.
+     * </p>
      *
      * @param x the x-coordinate (column index) of the tile
      * @param y the y-coordinate (row index) of the tile
@@ -52,7 +230,7 @@ public class Map {
     }
 
     /**
-     * Retrieves the tile at the given position.
+     * Retrieves the tile at the given position for reading.
      * <p>
      * Note that the y-coordinate of the provided position is used as the x-index
      * and the x-coordinate as the y-index when accessing the tile array.
@@ -60,13 +238,44 @@ public class Map {
      *
      * @param position the position of the tile as a {@link Vector2}
      * @return the {@link Tile} at the specified position
+     * @see #getTile(int, int)
      */
     public Tile getTile(Vector2 position) {
         return this.getTile((int) position.y, (int) position.x);
     }
 
+    /**
+     * Retrieves the tile at the specified coordinates so that it, or one of its contents, can be modified.
+     * <p>
+     * If its row is still shared with another map, the row is copied first: a snapshot copies the row for itself,
+     * any other map hands a frozen copy to the snapshots sharing it and keeps its own instances.
+     * </p>
+     *
+     * @param x the x-coordinate (column index) of the tile
+     * @param y the y-coordinate (row index) of the tile
+     * @return the {@link Tile} located at {@code tileArray[y][x]}, owned by this map
+     */
+    public Tile getWritableTile(int x, int y) {
+        claimRow(y);
+        return tileArray[y][x];
+    }
+
+    /**
+     * Retrieves the tile at the given position so that it, or one of its contents, can be modified.
+     *
+     * @param position the position of the tile as a {@link Vector2}
+     * @return the {@link Tile} at the specified position, owned by this map
+     * @see #getWritableTile(int, int)
+     */
+    public Tile getWritableTile(Vector2 position) {
+        return this.getWritableTile((int) position.y, (int) position.x);
+    }
+
     /**
      * Searches the map for a tile containing a {@link TileContent} of the specified type.
+     * <p>
+     * Every layer of a tile is taken into account. If multiple tiles match, the first one in row-major order is returned.
+     * </p>
      *
      * @param type the class type of the {@link TileContent} to locate
      * @return a {@link Vector2} representing the position of the tile with the specified {@code TileContent},
@@ -80,14 +289,84 @@ public class Map {
         if (tileArray == null || tileArray.length == 0) {
             return null;
         }
-        for (int i = 0; i < tileArray.length; i++) {
-            for (int j = 0; j < tileArray[i].length; j++) {
-                if (type.isInstance(tileArray[i][j].getTileContent())) {
-                    return new Vector2(i, j);
+
+        int first = -1;
+        for (java.util.Map.Entry<Class<? extends TileContent>, SortedSet<Integer>> entry : getContentIndex().entrySet()) {
+            if (!type.isAssignableFrom(entry.getKey()) || entry.getValue().isEmpty()) {
+                continue;
+            }
+            int key = entry.getValue().first();
+            if (first == -1 || key < first) {
+                first = key;
+            }
+        }
+        return first == -1 ? null : new Vector2(first / getTileArrayWidth(), first % getTileArrayWidth());
+    }
+
+    /**
+     * Retrieves the position of every tile containing a {@link TileContent} of the specified type.
+     *
+     * @param type the class type of the {@link TileContent} to locate
+     * @return the positions of the matching tiles in row-major order; empty if no such tile is found
+     * @throws IllegalArgumentException if the provided type is {@code null}
+     */
+    public List<Vector2> getTileContentsByType(Class<? extends TileContent> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type cannot be null");
+        }
+        if (tileArray == null || tileArray.length == 0) {
+            return List.of();
+        }
+
+        SortedSet<Integer> keys = new TreeSet<>();
+        for (java.util.Map.Entry<Class<? extends TileContent>, SortedSet<Integer>> entry : getContentIndex().entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                keys.addAll(entry.getValue());
+            }
+        }
+
+        List<Vector2> positions = new ArrayList<>(keys.size());
+        for (int key : keys) {
+            positions.add(new Vector2(key / getTileArrayWidth(), key % getTileArrayWidth()));
+        }
+        return positions;
+    }
+
+    /**
+     * Checks whether a {@link TileContent} of the specified type is placed on a tile adjacent to the given position.
+     * Tiles are considered adjacent in any of the four cardinal directions or diagonally.
+     *
+     * @param position the position of the tile to check
+     * @param type     the class type of the {@link TileContent} to look for
+     * @return true if an adjacent tile contains a {@code TileContent} of the specified type, false otherwise
+     * @throws IllegalArgumentException if the provided type is {@code null}
+     */
+    public boolean isTileContentNextTo(Vector2 position, Class<? extends TileContent> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type cannot be null");
+        }
+        if (tileArray == null || tileArray.length == 0) {
+            return false;
+        }
+
+        int i = (int) position.x;
+        int j = (int) position.y;
+        for (java.util.Map.Entry<Class<? extends TileContent>, SortedSet<Integer>> entry : getContentIndex().entrySet()) {
+            if (!type.isAssignableFrom(entry.getKey()) || entry.getValue().isEmpty()) {
+                continue;
+            }
+            for (int k = i - 1; k <= i + 1; k++) {
+                for (int l = j - 1; l <= j + 1; l++) {
+                    if ((k == i && l == j) || k < 0 || l < 0 || k >= tileArray.length || l >= tileArray[k].length) {
+                        continue;
+                    }
+                    if (entry.getValue().contains(toKey(k, l))) {
+                        return true;
+                    }
                 }
             }
         }
-        return null;
+        return false;
     }
 
     /**
@@ -98,7 +377,24 @@ public class Map {
      * @param tile the {@link Tile} to set at the specified position
      */
     public void setTile(int x, int y, Tile tile) {
+        claimRow(y);
+        Tile previousTile = tileArray[y][x];
+        if (previousTile != null) {
+            previousTile.setLocation(null, 0, 0);
+        }
+
         tileArray[y][x] = tile;
+        invalidateGroundLayer();
+        invalidateRenderList();
+        for (int i = 0; previousTile != null && i < previousTile.getTileContentCount(); i++) {
+            onTileContentRemoved(y, x, previousTile.getTileContent(i));
+        }
+        if (tile != null) {
+            tile.setLocation(this, y, x);
+            for (int i = 0; i < tile.getTileContentCount(); i++) {
+                onTileContentAdded(y, x, tile.getTileContent(i));
+            }
+        }
     }
 
     /**
@@ -127,7 +423,7 @@ public class Map {
      * @return the child index corresponding to the provided {@code TileContent}
      */
     public int getChildIndex(Vector2 tile, TileContent tileContent) {
-        return tileArray[(int) tile.x][(int) tile.y].getTileContent().getChildIndex(tileContent);
+        return tileArray[(int) tile.x][(int) tile.y].indexOfTileContent(tileContent);
     }
 
     /**
@@ -136,20 +432,10 @@ public class Map {
      * @param position the position of the tile as a {@link Vector2}
      * @param index    the index of the child {@link TileContent} to retrieve
      * @return the child {@link TileContent} at the specified index
-     * @throws IllegalArgumentException if the index is -1 or if the tile does not contain any {@link TileContent}
+     * @throws IllegalArgumentException if the tile does not contain a {@link TileContent} at the given index
      */
     public TileContent getTileContentByIndex(Vector2 position, int index) {
-        if (index == -1) {
-            throw new IllegalArgumentException("Index out of bounds");
-        }
-
-        TileContent tileContent = this.getTile(position).getTileContent();
-
-        if (tileContent == null) {
-            throw new IllegalArgumentException("TileContent not found");
-        }
-
-        return tileContent.getTileContentByIndex(index);
+        return this.getTile(position).getTileContent(index);
     }
 
     /**
@@ -163,33 +449,255 @@ public class Map {
     }
 
     /**
-     * Calls the render method of each tile of the map in the correct order and with the correct position in isometric coordinates.
-     * <br><br>
-     * This calls twoDToIso() to convert the 2D coordinates to isometric coordinates
+     * Renders the whole map with every tile at the correct position in isometric coordinates.
      *
      * @param batch   SpriteBatch to render the map
      * @param originX X-Coordinate on Screen-Space
      * @param originY Y-Coordinate on Screen-Space
+     * @see #render(Batch, float, float, Rectangle)
      */
     public void render(Batch batch, float originX, float originY) {
+        render(batch, originX, originY, null);
+    }
+
+    /**
+     * Renders the map with every tile at the correct position in isometric coordinates.
+     * <p>
+     * The tiles themselves form a static ground layer that is drawn from a {@link SpriteCache} built on the first
+     * call; only the {@link TileContent}s are drawn every frame, on top of the ground layer.
+     * Without an OpenGL context the ground layer is drawn with the batch instead.
+     * </p>
+     * <p>
+     * The contents are emitted into a {@link RenderList}, sorted by their isometric depth and then submitted to the
+     * batch. The list is reused by the following frames until a content or the visible tiles change.
+     * </p>
+     * <p>
+     * Only the tiles whose sprites may overlap the visible area are submitted to the batch, so the cost of a frame
+     * depends on the size of the screen rather than on the size of the map. The visible area is converted into a
+     * range of tiles with {@link #iso45ToTwoD(float, float)}. The positions are the ones of
+     * {@link #twoDToIso45(int, int)}.
+     * </p>
+     *
+     * @param batch       SpriteBatch to render the map
+     * @param originX     X-Coordinate on Screen-Space
+     * @param originY     Y-Coordinate on Screen-Space
+     * @param visibleArea Area of the Screen-Space visible to the camera; {@code null} to render the whole map
+     */
+    public void render(Batch batch, float originX, float originY, Rectangle visibleArea) {
+        float offsetY = getRenderOffsetY();
+        boolean visibleTilesChanged = cullTiles(visibleArea, originX, originY, offsetY);
+
+        renderGroundLayer(batch, originX, originY, offsetY);
+
+        if (!renderListValid || visibleTilesChanged) {
+            buildRenderList(offsetY);
+        }
+        renderList.submit(batch, originX, originY);
+    }
+
+    /**
+     * Emits the draw commands of every {@link TileContent} on the visible tiles into {@link #renderList} and sorts
+     * them by their isometric depth: tiles further back, i.e. with a lower sum of their coordinates, are drawn first.
+     *
+     * @param offsetY see {@link #getRenderOffsetY()}
+     */
+    private void buildRenderList(float offsetY) {
+        if (renderList == null) {
+            renderList = new RenderList();
+        }
+        renderList.clear();
         for (int y = 0; y < tileArray.length; y++) {
-            for (int x = 0; x < tileArray[y].length; x++) {
-                Vector2 position = twoDToIso45(x, y);
+            for (int x = visibleColumns[2 * y]; x < visibleColumns[2 * y + 1]; x++) {
+                tileArray[y][x].emitContents(renderList,
+                    (x - y) * ISO_HALF_TILE_WIDTH - HALF_TILE_SPRITE_WIDTH,
+                    -(x + y) * ISO_HALF_TILE_HEIGHT + offsetY,
+                    (x + y) * tileArray.length + y);
+            }
+        }
+        renderList.sort();
+        renderListValid = true;
+    }
+
+    /**
+     * Gets the draw commands of the most recent call of {@link #render(Batch, float, float, Rectangle)}.
+     *
+     * @return The sorted draw commands, or {@code null} if the map hasn't been rendered yet.
+     */
+    public RenderList getRenderList() {
+        return renderList;
+    }
+
+    /**
+     * Discards the draw commands of the contents, so that they are emitted again on the next render.
+     * Called whenever a content is added or removed and whenever a content changes its texture.
+     */
+    public void invalidateRenderList() {
+        renderListValid = false;
+    }
+
+    /**
+     * Computes the tiles whose sprites may overlap the visible area and stores them in {@link #visibleColumns}.
+     *
+     * @param visibleArea Area of the Screen-Space visible to the camera; {@code null} if every tile is visible
+     * @param originX     X-Coordinate on Screen-Space
+     * @param originY     Y-Coordinate on Screen-Space
+     * @param offsetY     see {@link #getRenderOffsetY()}
+     * @return Whether the visible tiles differ from the previous call.
+     */
+    private boolean cullTiles(Rectangle visibleArea, float originX, float originY, float offsetY) {
+        boolean changed = false;
+        if (visibleColumns == null || visibleColumns.length != 2 * tileArray.length) {
+            visibleColumns = new int[2 * tileArray.length];
+            changed = true;
+        }
+        if (visibleArea == null) {
+            for (int y = 0; y < tileArray.length; y++) {
+                changed |= setVisibleColumns(y, 0, tileArray[y].length);
+            }
+            return changed;
+        }
+
+        // Bounds of the isometric position of every tile whose sprites may reach into the visible area
+        float left = visibleArea.x - originX - HALF_TILE_SPRITE_WIDTH - CULLING_MARGIN;
+        float right = visibleArea.x + visibleArea.width - originX + HALF_TILE_SPRITE_WIDTH + CULLING_MARGIN;
+        float bottom = visibleArea.y - originY - offsetY - MAX_SPRITE_HEIGHT - CULLING_MARGIN;
+        float top = visibleArea.y + visibleArea.height - originY - offsetY + CULLING_MARGIN;
 
-                // calculate offset to origin for rendering -> middle of the map should be in the origin
-                // Pythagoras to calculate the diagonal of the map
-                float offsetY = (float) Math.sqrt(Math.pow((double) getTileArrayHeight() / 2, 2) + Math.pow((double) getTileArrayWidth() / 2, 2));
-                // to account for size of the tile sprites
-                offsetY = offsetY * 320;
-                // to account for the height of the tiles -> the middle of the top side of the tile should be in the origin
-                offsetY = offsetY - 660;
-                // to account for the width of the tiles -> the middle of the tile should be in the origin, not the bottom left corner
-                float halfTileSpriteWidth = 540;
+        // The bounds form a diamond in 2D coordinates, spanned by two of its corners
+        Vector2 topLeft = iso45ToTwoD(left, top);
+        Vector2 bottomRight = iso45ToTwoD(right, bottom);
 
-                tileArray[y][x].render(batch, originX + position.x - halfTileSpriteWidth, originY + position.y + offsetY);
+        for (int y = 0; y < tileArray.length; y++) {
+            // Along a row the left and right bounds are crossed at a fixed offset to the row index, the top and
+            // bottom bounds at a fixed offset against it
+            float from = Math.max(topLeft.x - topLeft.y + y, topLeft.x + topLeft.y - y);
+            float to = Math.min(bottomRight.x - bottomRight.y + y, bottomRight.x + bottomRight.y - y);
+            if (from > to) {
+                changed |= setVisibleColumns(y, 0, 0);
+                continue;
+            }
+            int first = Math.max((int) Math.ceil(from), 0);
+            changed |= setVisibleColumns(y, first, Math.max(Math.min((int) Math.floor(to) + 1, tileArray[y].length), first));
+        }
+        return changed;
+    }
+
+    /**
+     * Sets the visible columns of a row.
+     *
+     * @return Whether they have changed.
+     */
+    private boolean setVisibleColumns(int row, int from, int to) {
+        if (visibleColumns[2 * row] == from && visibleColumns[2 * row + 1] == to) {
+            return false;
+        }
+        visibleColumns[2 * row] = from;
+        visibleColumns[2 * row + 1] = to;
+        return true;
+    }
+
+    /**
+     * Draws the tiles themselves, rebuilding the cached ground layer first if necessary.
+     * <p>
+     * The cached ground layer is a single static mesh drawn with one call, so it isn't culled; the GPU clips the
+     * tiles outside the screen. Without an OpenGL context only the visible tiles are drawn.
+     * </p>
+     *
+     * @param batch   SpriteBatch to render the map; it is drawing before and after this call
+     * @param originX X-Coordinate on Screen-Space
+     * @param originY Y-Coordinate on Screen-Space
+     * @param offsetY see {@link #getRenderOffsetY()}
+     */
+    private void renderGroundLayer(Batch batch, float originX, float originY, float offsetY) {
+        if (Gdx.gl == null) {
+            for (int y = 0; y < tileArray.length; y++) {
+                for (int x = visibleColumns[2 * y]; x < visibleColumns[2 * y + 1]; x++) {
+                    tileArray[y][x].renderGround(batch,
+                        originX + (x - y) * ISO_HALF_TILE_WIDTH - HALF_TILE_SPRITE_WIDTH,
+                        originY - (x + y) * ISO_HALF_TILE_HEIGHT + offsetY);
+                }
+            }
+            return;
+        }
+
+        if (groundLayerId == -1) {
+            buildGroundLayer(offsetY);
+        }
+
+        // The cache is drawn relative to the origin, so moving the map doesn't require a rebuild
+        batch.end();
+        groundLayerTransform.set(batch.getTransformMatrix()).translate(originX, originY, 0);
+        groundLayer.setProjectionMatrix(batch.getProjectionMatrix());
+        groundLayer.setTransformMatrix(groundLayerTransform);
+        // SpriteCache does not manage blending itself
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(batch.getBlendSrcFunc(), batch.getBlendDstFunc());
+        groundLayer.begin();
+        groundLayer.draw(groundLayerId);
+        groundLayer.end();
+        batch.begin();
+    }
+
+    /**
+     * Bakes every tile into {@link #groundLayer} in render order, relative to the origin of the map.
+     *
+     * @param offsetY see {@link #getRenderOffsetY()}
+     */
+    private void buildGroundLayer(float offsetY) {
+        int tileCount = 0;
+        for (Tile[] row : tileArray) {
+            tileCount += row.length;
+        }
+        if (groundLayer == null) {
+            groundLayer = new SpriteCache(Math.max(tileCount, 1), false);
+        }
 
+        groundLayer.clear();
+        groundLayer.beginCache();
+        for (int y = 0; y < tileArray.length; y++) {
+            for (int x = 0; x < tileArray[y].length; x++) {
+                tileArray[y][x].cacheGround(groundLayer,
+                    (x - y) * ISO_HALF_TILE_WIDTH - HALF_TILE_SPRITE_WIDTH,
+                    -(x + y) * ISO_HALF_TILE_HEIGHT + offsetY);
             }
         }
+        groundLayerId = groundLayer.endCache();
+    }
+
+    /**
+     * Gets the vertical offset that moves the middle of the map into the origin when rendering.
+     * It only depends on the size of the map and is therefore computed once.
+     *
+     * @return The offset in Screen-Space.
+     */
+    private float getRenderOffsetY() {
+        if (Float.isNaN(renderOffsetY)) {
+            // Pythagoras to calculate the diagonal of the map
+            float offsetY = (float) Math.sqrt(Math.pow((double) getTileArrayHeight() / 2, 2) + Math.pow((double) getTileArrayWidth() / 2, 2));
+            // to account for size of the tile sprites
+            offsetY = offsetY * 320;
+            // to account for the height of the tiles -> the middle of the top side of the tile should be in the origin
+            renderOffsetY = offsetY - 660;
+        }
+        return renderOffsetY;
+    }
+
+    /**
+     * Discards the cached ground layer, so that it is rebuilt on the next call of {@link #render(Batch, float, float)}.
+     */
+    public void invalidateGroundLayer() {
+        groundLayerId = -1;
+    }
+
+    /**
+     * Releases the cached ground layer of this map. The textures of the tiles are not disposed.
+     */
+    public void disposeGroundLayer() {
+        if (groundLayer != null) {
+            groundLayer.dispose();
+            groundLayer = null;
+        }
+        groundLayerId = -1;
     }
 
     /**
@@ -231,43 +739,157 @@ public class Map {
 
         Vector2 rotatedPt = new Vector2(0, 0);
 
-        rotatedPt.y = ((((float) ex - (float) why) * 320) + ((float) why * 320 * 2)) * -1;
-        rotatedPt.x = ((((float) why - (float) ex) * 450)) * -1;
+        rotatedPt.y = ((((float) ex - (float) why) * ISO_HALF_TILE_HEIGHT) + ((float) why * ISO_HALF_TILE_HEIGHT * 2)) * -1;
+        rotatedPt.x = ((((float) why - (float) ex) * ISO_HALF_TILE_WIDTH)) * -1;
 
         return rotatedPt;
     }
 
+    /**
+     * Converts isometric coordinates back to 2D coordinates; the inverse of {@link #twoDToIso45(int, int)}.
+     *
+     * @param isoX the x-coordinate in isometric space
+     * @param isoY the y-coordinate in isometric space
+     * @return a {@link Vector2} representing the corresponding, possibly fractional 2D coordinates
+     */
+    public static Vector2 iso45ToTwoD(float isoX, float isoY) {
+        float difference = isoX / ISO_HALF_TILE_WIDTH;
+        float sum = -isoY / ISO_HALF_TILE_HEIGHT;
+        return new Vector2((sum + difference) / 2, (sum - difference) / 2);
+    }
+
     /**
      * Continuously updates the map until no further updates are possible.
      *
-     * <p>Keeps trying to update the map with the given {@code InteractionChain} until no more changes occur.</p>
+     * <p>Instead of rescanning the whole map on every pass, only the tiles that may be affected are re-evaluated:
+     * <ul>
+     *     <li>The first pass evaluates the tile targeted by the {@code Interaction}, the tile in its direction and
+     *     every tile modified by the {@link tech.underoaks.coldcase.state.updates.GameStateUpdate}s of the chain.
+     *     If the interaction doesn't provide a target, the whole map is evaluated.</li>
+     *     <li>Every following pass evaluates the tiles modified during the previous pass as well as the tiles
+     *     whose {@code TileContent} has reported an update.</li>
+     * </ul>
+     * A tile is evaluated if any of its {@code TileContent}s {@link TileContent#reactsTo reacts to} a modified tile
+     * within {@link #OBSERVATION_RANGE}. Tiles are evaluated in row-major order, just like {@link #updateMap}.</p>
      *
      * @param chain       the {@code InteractionChain} used to manage interactions and snapshots during updates
      * @param interaction Interaction that has caused the update
      * @param handler     Handler that has accepted the interaction
+     * @return {@link UpdateStatistics} containing the number of iterations and evaluated tiles
      * @throws IllegalStateException      if the maximum iteration limit is exceeded, suggesting a potential cyclic dependency in {@code TileContent}.
      * @throws GameStateUpdateException   If a GameStateUpdate has failed
      * @throws UpdateTileContentException If a TileContent couldn't be updated (due to a failing validation)
      * @implNote This method has a limit on the number of iterations to prevent endless loops. If one {@code TileContent}
      * triggers another in a cyclic manner, the loop may otherwise never terminate.
      */
-    public void updateUntilStable(InteractionChain chain, Interaction interaction, TileContent handler) throws GameStateUpdateException, UpdateTileContentException {
+    public UpdateStatistics updateUntilStable(InteractionChain chain, Interaction interaction, TileContent handler) throws GameStateUpdateException, UpdateTileContentException {
         int maxIteration = 25;
         int iteration = 0;
-        while (!this.updateMap(chain, interaction, handler).isEmpty()) {
-            // Keep updating until no further updates occur
-            iteration++;
-            if (iteration > maxIteration) {
-                throw new IllegalStateException("Loop terminated due to excessive iterations; check for cyclic dependencies in TileContent.");
+        int tileVisits = 0;
+        int passes = 0;
+
+        SortedSet<Integer> worklist = new TreeSet<>();
+        Vector2 target = interaction != null ? interaction.getTargetPos() : null;
+        if (target == null) {
+            for (int i = 0; i < tileArray.length; i++) {
+                for (int j = 0; j < tileArray[i].length; j++) {
+                    worklist.add(toKey(i, j));
+                }
+            }
+        } else {
+            markDirty(worklist, target);
+            if (interaction.getActionDirection() != null) {
+                markDirty(worklist, target.cpy().add(interaction.getActionDirection().getVector()));
             }
         }
-    }
+        for (Vector2 position : chain.pollDirtyPositions()) {
+            markDirty(worklist, position);
+        }
 
-    /**
-     * Updates the map by attempting to perform an update on each {@code Tile} in {@code tileArray}.
-     *
-     * <p>For each Tile with non-null {@code TileContent}, the {@code handleUpdate} method
-     * is invoked with the given {@code InteractionChain}.
+        while (!worklist.isEmpty()) {
+            SortedSet<Integer> dirty = worklist;
+            worklist = new TreeSet<>();
+            passes++;
+
+            int[] keys = collectReactingTiles(dirty).stream().mapToInt(Integer::intValue).toArray();
+            // Tiles that have changed themselves need to be re-evaluated
+            tileVisits += updateTiles(keys, chain, interaction, handler, new ArrayList<>(), worklist);
+            for (Vector2 position : chain.pollDirtyPositions()) {
+                markDirty(worklist, position);
+            }
+
+            // Keep updating until no further updates occur
+            if (!worklist.isEmpty()) {
+                iteration++;
+                if (iteration > maxIteration) {
+                    throw new IllegalStateException("Loop terminated due to excessive iterations; check for cyclic dependencies in TileContent.");
+                }
+            }
+        }
+
+        return new UpdateStatistics(iteration, tileVisits, passes * getTileArrayWidth() * getTileArrayHeight());
+    }
+
+    /**
+     * Collects every tile containing a {@code TileContent} that reacts to one of the given dirty tiles.
+     *
+     * @param dirty keys of the modified tiles
+     * @return keys of the tiles that need to be evaluated, in row-major order
+     * @see TileContent#reactsTo(Vector2, Vector2)
+     */
+    private SortedSet<Integer> collectReactingTiles(SortedSet<Integer> dirty) {
+        SortedSet<Integer> reacting = new TreeSet<>();
+        for (int key : dirty) {
+            int i = key / getTileArrayWidth();
+            int j = key % getTileArrayWidth();
+            Vector2 changedPosition = new Vector2(i, j);
+
+            for (int k = Math.max(0, i - OBSERVATION_RANGE); k <= Math.min(tileArray.length - 1, i + OBSERVATION_RANGE); k++) {
+                for (int l = Math.max(0, j - OBSERVATION_RANGE); l <= Math.min(tileArray[k].length - 1, j + OBSERVATION_RANGE); l++) {
+                    Vector2 tilePosition = new Vector2(k, l);
+                    for (int m = 0; m < tileArray[k][l].getTileContentCount(); m++) {
+                        if (tileArray[k][l].getTileContent(m).reactsTo(tilePosition, changedPosition)) {
+                            reacting.add(toKey(k, l));
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return reacting;
+    }
+
+    /**
+     * Adds the given position to the worklist if it is part of the map.
+     *
+     * @param worklist the worklist of dirty tiles
+     * @param position the position of the modified tile
+     */
+    private void markDirty(SortedSet<Integer> worklist, Vector2 position) {
+        int i = (int) position.x;
+        int j = (int) position.y;
+        if (i < 0 || i >= tileArray.length || j < 0 || j >= tileArray[i].length) {
+            return;
+        }
+        worklist.add(toKey(i, j));
+    }
+
+    /**
+     * Converts the given tile indices into a key that sorts in row-major order.
+     *
+     * @param i the row index
+     * @param j the column index
+     * @return the key of the tile
+     */
+    private int toKey(int i, int j) {
+        return i * getTileArrayWidth() + j;
+    }
+
+    /**
+     * Updates the map by attempting to perform an update on each {@code Tile} in {@code tileArray}.
+     *
+     * <p>For each Tile with non-null {@code TileContent}, the {@code handleUpdate} method
+     * is invoked with the given {@code InteractionChain}.
      *
      * @param chain       the {@code InteractionChain} managing interactions and snapshots for updates
      * @param interaction Interaction that has caused the update
@@ -275,19 +897,686 @@ public class Map {
      * @return List of {@code TileContents} that handled the update
      * @throws GameStateUpdateException   If a GameStateUpdate has failed
      * @throws UpdateTileContentException If a TileContent couldn't be updated (due to a failing validation)
-     * @see TileContent#handleUpdate(InteractionChain, Vector2, Interaction, TileContent)
+     * @see Tile#handleUpdate(InteractionChain, Vector2, Interaction, TileContent)
      */
     public List<TileContent> updateMap(InteractionChain chain, Interaction interaction, TileContent handler) throws GameStateUpdateException, UpdateTileContentException {
+        int[] keys = new int[getTileArrayWidth() * getTileArrayHeight()];
+        for (int key = 0; key < keys.length; key++) {
+            keys[key] = key;
+        }
+
         List<TileContent> updated = new ArrayList<>();
+        updateTiles(keys, chain, interaction, handler, updated, new TreeSet<>());
+        return updated;
+    }
+
+    /**
+     * Evaluates the given tiles by invoking {@link Tile#handleUpdate} on each tile that contains {@code TileContent}.
+     * <p>
+     * The result is the same as evaluating the tiles one after another in row-major order, with every tile seeing
+     * the {@link tech.underoaks.coldcase.state.updates.GameStateUpdate}s of the tiles before it:
+     * <ol>
+     *     <li>Every tile is evaluated on the state at the start of the pass with a
+     *     {@link InteractionChain#createDeferred deferred chain}, which only records the updates of the tile. As the
+     *     map is only read, passes of at least {@link #getParallelUpdateThreshold()} tiles are evaluated in bands of
+     *     rows on the common {@link ForkJoinPool}.</li>
+     *     <li>Afterwards the tiles are evaluated again in row-major order with {@code chain}, which applies their
+     *     updates. Only tiles that have issued an update, an action or an exception during the first evaluation are
+     *     evaluated again, as well as tiles within {@link #OBSERVATION_RANGE} of a tile modified earlier in this
+     *     pass. Every other tile would behave just like during the first evaluation.</li>
+     * </ol>
+     * </p>
+     *
+     * @param keys        keys of the tiles to evaluate, in row-major order
+     * @param chain       the {@code InteractionChain} receiving the updates
+     * @param interaction Interaction that has caused the update
+     * @param handler     Handler that has accepted the interaction
+     * @param handlers    receives every {@code TileContent} that handled the update
+     * @param changed     receives the keys of the tiles whose {@code TileContent} handled the update
+     * @return the number of evaluated tiles
+     * @throws GameStateUpdateException   If a GameStateUpdate has failed
+     * @throws UpdateTileContentException If a TileContent couldn't be updated (due to a failing validation)
+     */
+    private int updateTiles(int[] keys, InteractionChain chain, Interaction interaction, TileContent handler, List<TileContent> handlers, SortedSet<Integer> changed) throws GameStateUpdateException, UpdateTileContentException {
+        boolean[] acting = new boolean[keys.length];
+        if (keys.length < parallelUpdateThreshold) {
+            evaluateBand(keys, 0, keys.length, chain.getSnapshot(), interaction, handler, acting);
+        } else {
+            evaluateConcurrently(keys, chain.getSnapshot(), interaction, handler, acting);
+        }
+
+        int visits = 0;
+        Set<Integer> modified = new HashSet<>();
+        for (int k = 0; k < keys.length; k++) {
+            int i = keys[k] / getTileArrayWidth();
+            int j = keys[k] % getTileArrayWidth();
+            if (tileArray[i][j].getTileContent() == null) {
+                continue;
+            }
+
+            visits++;
+            if (!acting[k] && !isModifiedAround(modified, i, j)) {
+                continue;
+            }
+
+            // Contents look themselves up by identity, so their row must not be copied while they are updating
+            int dirty = chain.peekDirtyPositions().size();
+            List<TileContent> updated = getWritableTile(j, i).handleUpdate(chain, new Vector2(i, j), interaction, handler);
+            if (!updated.isEmpty()) {
+                handlers.addAll(updated);
+                changed.add(keys[k]);
+            }
+
+            List<Vector2> positions = chain.peekDirtyPositions();
+            for (int d = dirty; d < positions.size(); d++) {
+                Vector2 position = positions.get(d);
+                if (!isOutOfBounds(position)) {
+                    modified.add(toKey((int) position.x, (int) position.y));
+                }
+            }
+        }
+        return visits;
+    }
+
+    /**
+     * Evaluates the given tiles without modifying the map, split into bands of rows that are evaluated on the
+     * common {@link ForkJoinPool}.
+     *
+     * @see #evaluateBand(int[], int, int, Snapshot, Interaction, TileContent, boolean[])
+     */
+    private void evaluateConcurrently(int[] keys, Snapshot snapshot, Interaction interaction, TileContent handler, boolean[] acting) {
+        // Reading the snapshot must not build the index while the bands are running
+        prepareConcurrentReads();
+        snapshot.getSnapshotMap().prepareConcurrentReads();
+
+        int rowsPerBand = Math.max(1, getTileArrayHeight() / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        List<Callable<Void>> bands = new ArrayList<>();
+        for (int start = 0, end; start < keys.length; start = end) {
+            int bandEnd = (keys[start] / getTileArrayWidth() / rowsPerBand + 1) * rowsPerBand;
+            end = start;
+            while (end < keys.length && keys[end] / getTileArrayWidth() < bandEnd) {
+                end++;
+            }
+
+            int from = start;
+            int to = end;
+            bands.add(() -> {
+                evaluateBand(keys, from, to, snapshot, interaction, handler, acting);
+                return null;
+            });
+        }
+
+        for (Future<Void> band : ForkJoinPool.commonPool().invokeAll(bands)) {
+            awaitBand(band);
+        }
+    }
+
+    /**
+     * Evaluates a contiguous range of the given tiles without modifying the map and records which of them act.
+     * <p>
+     * A tile acts if one of its {@code TileContent}s handles the update, issues a
+     * {@link tech.underoaks.coldcase.state.updates.GameStateUpdate} or an action, or throws an exception.
+     * </p>
+     *
+     * @param acting receives whether the tile at the same index of {@code keys} acts
+     * @see #updateTiles(int[], InteractionChain, Interaction, TileContent, List, SortedSet)
+     */
+    private void evaluateBand(int[] keys, int from, int to, Snapshot snapshot, Interaction interaction, TileContent handler, boolean[] acting) {
+        InteractionChain recorder = InteractionChain.createDeferred(snapshot);
+        for (int k = from; k < to; k++) {
+            int i = keys[k] / getTileArrayWidth();
+            int j = keys[k] % getTileArrayWidth();
+            if (tileArray[i][j].getTileContent() == null) {
+                continue;
+            }
+
+            int recorded = countRecorded(recorder);
+            try {
+                acting[k] = !tileArray[i][j].handleUpdate(recorder, new Vector2(i, j), interaction, handler).isEmpty()
+                    || countRecorded(recorder) != recorded;
+            } catch (Exception e) {
+                // The exception is thrown again once the tile is evaluated in order
+                acting[k] = true;
+            }
+        }
+    }
+
+    /**
+     * Counts everything a chain has recorded so far.
+     *
+     * @param chain the chain
+     * @return the number of recorded updates and actions
+     */
+    private static int countRecorded(InteractionChain chain) {
+        return chain.getGSUQueue().size() + chain.getPendingActions().size() + chain.getPendingRemoteActions().size();
+    }
+
+    /**
+     * Checks whether a tile within {@link #OBSERVATION_RANGE} of the given tile has been modified.
+     *
+     * @param modified keys of the modified tiles
+     * @param i        the row index of the tile
+     * @param j        the column index of the tile
+     * @return True if a tile in range has been modified; False otherwise
+     */
+    private boolean isModifiedAround(Set<Integer> modified, int i, int j) {
+        if (modified.isEmpty()) {
+            return false;
+        }
+        for (int k = Math.max(0, i - OBSERVATION_RANGE); k <= Math.min(tileArray.length - 1, i + OBSERVATION_RANGE); k++) {
+            for (int l = Math.max(0, j - OBSERVATION_RANGE); l <= Math.min(tileArray[k].length - 1, j + OBSERVATION_RANGE); l++) {
+                if (modified.contains(toKey(k, l))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits for a band of a concurrent evaluation and rethrows its failure.
+     *
+     * @param band the running band
+     */
+    private static void awaitBand(Future<Void> band) {
+        try {
+            band.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while updating the map", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Updating the map failed", cause);
+        }
+    }
+
+    /**
+     * Builds the content index, so that this map can afterwards be read from multiple threads.
+     */
+    private void prepareConcurrentReads() {
+        getContentIndex();
+    }
+
+    /**
+     * Gets the minimum amount of tiles evaluated in a single update pass before the pass is evaluated in parallel.
+     *
+     * @return the current threshold
+     */
+    public static int getParallelUpdateThreshold() {
+        return parallelUpdateThreshold;
+    }
+
+    /**
+     * Sets the minimum amount of tiles evaluated in a single update pass before the pass is evaluated in parallel.
+     * <p>
+     * The threshold only affects performance; a pass produces the same updates in the same order either way.
+     * </p>
+     *
+     * @param threshold the new threshold; {@link Integer#MAX_VALUE} disables parallel updates
+     */
+    public static void setParallelUpdateThreshold(int threshold) {
+        parallelUpdateThreshold = threshold;
+    }
+
+    /**
+     * Creates a copy-on-write snapshot of this {@code Map}.
+     * <p>
+     * The snapshot initially shares every row with this map, so creating it does not clone any {@link Tile}.
+     * Rows are copied lazily:
+     * <ul>
+     *     <li>A snapshot copies a row the first time it retrieves one of its tiles via
+     *     {@link #getWritableTile(int, int)}.</li>
+     *     <li>A map that is not a snapshot keeps modifying its own tiles in place. Before doing so it hands a
+     *     frozen copy of the affected row to every snapshot that still shares it.</li>
+     * </ul>
+     * </p>
+     *
+     * @return A new snapshot {@code Map} sharing its state with this one.
+     */
+    public Map snapshot() {
+        // The tiles stay placed on this map until the snapshot copies their row
+        Map snapshot = new Map();
+        snapshot.tileArray = tileArray;
+        snapshot.source = this;
+        snapshot.sharesRowArray = true;
+        snapshot.isSnapshotMap = true;
+        snapshot.contentIndex = getContentIndex();
+        snapshot.sharesContentIndex = true;
+        snapshot.transcendentHash = getTranscendentHash();
+        snapshot.hasTranscendentHash = true;
+
+        // Every row and the content index are shared from now on
+        sharesRowArray = true;
+        sharesContentIndex = true;
+        ownershipEpoch++;
+
+        synchronized (snapshots) {
+            snapshots.removeIf(reference -> reference.get() == null);
+            snapshots.add(new WeakReference<>(snapshot));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Stops handing frozen copies of modified rows to this snapshot, once it isn't needed anymore.
+     * <p>
+     * Snapshots are only held weakly by their source, but until they are collected every row the source modifies
+     * would still be copied into them. A released snapshot must not be used anymore. Snapshots taken from it are
+     * handed over to its source.
+     * </p>
+     */
+    public void release() {
+        if (source == null) {
+            return;
+        }
+        synchronized (source.snapshots) {
+            source.snapshots.removeIf(reference -> reference.get() == null || reference.get() == this);
+            synchronized (snapshots) {
+                // Nested snapshots may still share rows of the source through this snapshot
+                for (WeakReference<Map> reference : snapshots) {
+                    if (reference.get() != null) {
+                        source.snapshots.add(reference);
+                    }
+                }
+                snapshots.clear();
+            }
+        }
+        source = null;
+    }
+
+    /**
+     * Called by a {@link Tile} of this map before its content changes; ensures that the tile isn't shared with
+     * another map.
+     *
+     * @param row the row index of the tile
+     * @throws IllegalStateException if the row may still be shared, i.e. the tile hasn't been retrieved via
+     *                               {@link #getWritableTile(int, int)}
+     */
+    public void checkRowWritable(int row) {
+        boolean owned = rowOwnership != null && rowOwnership.length == tileArray.length
+            && rowOwnership[row] == ownershipEpoch;
+        if (!owned && (isSnapshotMap || sharesRowArray)) {
+            throw new IllegalStateException("Row " + row + " may be shared with a snapshot; retrieve the tile via getWritableTile before modifying it");
+        }
+    }
+
+    /**
+     * Ensures that the given row is owned by this map so that its tiles can safely be modified.
+     *
+     * @param row the row index
+     */
+    private void claimRow(int row) {
+        if (rowOwnership == null || rowOwnership.length != tileArray.length) {
+            rowOwnership = new int[tileArray.length];
+        }
+        if (rowOwnership[row] == ownershipEpoch) {
+            return;
+        }
+
+        if (isSnapshotMap) {
+            ensureOwnRowArray();
+            tileArray[row] = cloneRow(tileArray[row]);
+        } else {
+            detachSnapshots(row, tileArray[row], null);
+        }
+        for (int column = 0; column < tileArray[row].length; column++) {
+            if (tileArray[row][column] != null) {
+                tileArray[row][column].setLocation(this, row, column);
+            }
+        }
+        rowOwnership[row] = ownershipEpoch;
+    }
+
+    /**
+     * Replaces the given shared row in every snapshot taken from this map (and their snapshots) with a frozen copy.
+     *
+     * @param row    the row index
+     * @param shared the row that is about to be modified
+     * @param frozen the copy that has already been handed out, or {@code null} if none has been created yet
+     * @return the frozen copy, or {@code null} if no snapshot shared the row
+     */
+    private Tile[] detachSnapshots(int row, Tile[] shared, Tile[] frozen) {
+        synchronized (snapshots) {
+            for (WeakReference<Map> reference : snapshots) {
+                Map snapshot = reference.get();
+                if (snapshot == null) {
+                    continue;
+                }
+                if (snapshot.tileArray[row] == shared) {
+                    if (frozen == null) {
+                        frozen = cloneRow(shared);
+                    }
+                    snapshot.ensureOwnRowArray();
+                    snapshot.tileArray[row] = frozen;
+                }
+                // Nested snapshots may still share the row even if this snapshot doesn't anymore
+                frozen = snapshot.detachSnapshots(row, shared, frozen);
+            }
+        }
+        return frozen;
+    }
+
+    /**
+     * Stops sharing the outer row array with other maps before one of its rows gets replaced.
+     */
+    private void ensureOwnRowArray() {
+        if (sharesRowArray) {
+            tileArray = tileArray.clone();
+            sharesRowArray = false;
+        }
+    }
+
+    /**
+     * Creates a copy of a single row by cloning each of its tiles.
+     *
+     * @param row the row to copy
+     * @return the copied row
+     */
+    private static Tile[] cloneRow(Tile[] row) {
+        Tile[] clonedRow = new Tile[row.length];
+        for (int i = 0; i < row.length; i++) {
+            clonedRow[i] = row[i] == null ? null : row[i].clone();
+        }
+        return clonedRow;
+    }
+
+    /**
+     * Called by a {@link Tile} of this map whenever {@link TileContent} has been placed on it.
+     *
+     * @param row         the row index of the tile
+     * @param column      the column index of the tile
+     * @param tileContent the added {@code TileContent}
+     */
+    public void onTileContentAdded(int row, int column, TileContent tileContent) {
+        renderListValid = false;
+        long key = zobristKey(row, column, tileContent);
+        tileContent.setTranscendentKey(key);
+        if (hasTranscendentHash) {
+            transcendentHash ^= key;
+        }
+        if (contentIndex == null) {
+            return;
+        }
+        getWritableIndexEntry(tileContent.getClass()).add(toKey(row, column));
+    }
+
+    /**
+     * Called by a {@link Tile} of this map whenever {@link TileContent} has been removed from it.
+     *
+     * @param row         the row index of the tile
+     * @param column      the column index of the tile
+     * @param tileContent the removed {@code TileContent}
+     */
+    public void onTileContentRemoved(int row, int column, TileContent tileContent) {
+        renderListValid = false;
+        if (hasTranscendentHash) {
+            transcendentHash ^= tileContent.getTranscendentKey();
+        }
+        if (contentIndex == null) {
+            return;
+        }
+
+        // Another content of the same type may still be placed on the tile
+        Tile tile = tileArray[row][column];
+        for (int i = 0; tile != null && i < tile.getTileContentCount(); i++) {
+            if (tile.getTileContent(i).getClass() == tileContent.getClass()) {
+                return;
+            }
+        }
+        getWritableIndexEntry(tileContent.getClass()).remove(toKey(row, column));
+    }
+
+    /**
+     * Called whenever the state of {@link TileContent} placed on this map has been modified, e.g. its texture or
+     * its passability.
+     *
+     * @param row         the row index of the tile
+     * @param column      the column index of the tile
+     * @param tileContent the modified {@code TileContent}
+     * @see TileContent#getStateKey()
+     */
+    public void onTileContentChanged(int row, int column, TileContent tileContent) {
+        renderListValid = false;
+        long key = zobristKey(row, column, tileContent);
+        if (hasTranscendentHash) {
+            transcendentHash ^= tileContent.getTranscendentKey() ^ key;
+        }
+        tileContent.setTranscendentKey(key);
+    }
+
+    /**
+     * Retrieves the content index of this map, building it on first use.
+     *
+     * @return the content index
+     */
+    private HashMap<Class<? extends TileContent>, SortedSet<Integer>> getContentIndex() {
+        if (contentIndex == null) {
+            contentIndex = new HashMap<>();
+            ownedIndexTypes = new HashSet<>();
+            sharesContentIndex = false;
+            for (int i = 0; i < tileArray.length; i++) {
+                for (int j = 0; j < tileArray[i].length; j++) {
+                    for (int k = 0; tileArray[i][j] != null && k < tileArray[i][j].getTileContentCount(); k++) {
+                        getWritableIndexEntry(tileArray[i][j].getTileContent(k).getClass()).add(toKey(i, j));
+                    }
+                }
+            }
+        }
+        return contentIndex;
+    }
+
+    /**
+     * Retrieves the Zobrist hash over the transcendent state of this map.
+     * <p>
+     * Only {@link TileContent} with {@link VisibilityStates#TRANSCENDENT} is taken into account, as it is the only
+     * state both clients share. Two maps holding the same transcendent contents in the same state
+     * ({@link TileContent#getStateKey()}) at the same positions produce the same hash, regardless of their other
+     * contents or the order of their layers.
+     * </p>
+     * <p>
+     * The hash is computed once by scanning the map and is maintained incrementally afterwards. Every content
+     * remembers the key it has contributed, so that it is removed from the hash with the same key even if its
+     * visibility has changed in the meantime. Modifications of the state of a content have to be reported by
+     * {@link #onTileContentChanged(int, int, TileContent)}.
+     * </p>
+     *
+     * @return the 64-bit transcendent state hash
+     */
+    public long getTranscendentHash() {
+        if (!hasTranscendentHash) {
+            transcendentHash = 0;
+            for (int i = 0; i < tileArray.length; i++) {
+                for (int j = 0; j < tileArray[i].length; j++) {
+                    for (int k = 0; tileArray[i][j] != null && k < tileArray[i][j].getTileContentCount(); k++) {
+                        TileContent content = tileArray[i][j].getTileContent(k);
+                        long key = zobristKey(i, j, content);
+                        content.setTranscendentKey(key);
+                        transcendentHash ^= key;
+                    }
+                }
+            }
+            hasTranscendentHash = true;
+        }
+        return transcendentHash;
+    }
+
+    /**
+     * Number of values every {@link TileContent} takes up in the {@link #getTranscendentState() transcendent state}
+     */
+    private static final int TRANSCENDENT_STATE_STRIDE = 6;
+
+    /**
+     * Retrieves the transcendent state of this map in a compact form that can be sent to the other client.
+     * <p>
+     * Every {@link TileContent} with {@link VisibilityStates#TRANSCENDENT} is written as six consecutive values:
+     * its row, its column, its layer, its {@link TileContents} id, its passability flags (1 if the player can pass,
+     * 2 if objects can pass) and the {@link TextureController#getTextureId(com.badlogic.gdx.graphics.g2d.TextureRegion)
+     * id of its texture}. The contents of a tile are written from the bottom up. The size of the result only depends
+     * on the number of transcendent contents, not on the size of the map.
+     * </p>
+     *
+     * @return the transcendent contents as {@code (row, column, layer, id, flags, texture)} tuples
+     * @see #setTranscendentState(int[])
+     */
+    public int[] getTranscendentState() {
+        List<Integer> state = new ArrayList<>();
         for (int i = 0; i < tileArray.length; i++) {
             for (int j = 0; j < tileArray[i].length; j++) {
-                if (tileArray[i][j].getTileContent() == null) {
-                    continue;
+                for (int k = 0; tileArray[i][j] != null && k < tileArray[i][j].getTileContentCount(); k++) {
+                    TileContent content = tileArray[i][j].getTileContent(k);
+                    if (content.getVisibilityState() == VisibilityStates.TRANSCENDENT) {
+                        state.add(i);
+                        state.add(j);
+                        state.add(k);
+                        state.add(TileContents.getIndexByClass(content.getClass()));
+                        state.add((content.isPlayerPassable() ? 1 : 0) | (content.isObjectPassable() ? 2 : 0));
+                        state.add(TextureController.getTextureId(content.getTexture()));
+                    }
                 }
-                updated.addAll(tileArray[i][j].getTileContent().handleUpdate(chain, new Vector2(i, j), interaction, handler));
             }
         }
-        return updated;
+        return state.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Replaces the transcendent contents of this map with the given ones, leaving every other content untouched.
+     * <p>
+     * Contents are inserted at their layer and get their passability and texture back. The state is checked before
+     * the map is modified; a state that doesn't fit onto this map means that both clients have diverged beyond
+     * their transcendent contents.
+     * </p>
+     *
+     * @param state the transcendent contents as {@code (row, column, layer, id, flags, texture)} tuples
+     * @throws IllegalArgumentException if the state is malformed, contains an unknown id or texture, or refers to a
+     *                                  tile or layer that doesn't exist on this map
+     * @see #getTranscendentState()
+     */
+    public void setTranscendentState(int[] state) {
+        if (state.length % TRANSCENDENT_STATE_STRIDE != 0) {
+            throw new IllegalArgumentException("Transcendent state has to consist of (row, column, layer, id, flags, texture) tuples");
+        }
+
+        // Every layer has to fit onto the contents of its tile below it
+        HashMap<Long, Integer> contentCounts = new HashMap<>();
+        for (int i = 0; i < state.length; i += TRANSCENDENT_STATE_STRIDE) {
+            int row = state[i];
+            int column = state[i + 1];
+            if (row < 0 || row >= tileArray.length || column < 0 || column >= tileArray[row].length
+                || tileArray[row][column] == null) {
+                throw new IllegalArgumentException("Transcendent content outside of the map at " + row + ", " + column);
+            }
+            long key = (long) row << 32 | column;
+            int count = contentCounts.computeIfAbsent(key, ignored -> countLocalContents(tileArray[row][column]));
+            if (state[i + 2] < 0 || state[i + 2] > count) {
+                throw new IllegalArgumentException("Transcendent content at " + row + ", " + column + " can't be inserted at layer " + state[i + 2]);
+            }
+            contentCounts.put(key, count + 1);
+            if (TileContents.getNewTileClassByIndex(state[i + 3]) == null) {
+                throw new IllegalArgumentException("Unknown transcendent content id: " + state[i + 3]);
+            }
+            if (state[i + 5] >= 0 && TextureController.getTextureById(state[i + 5]) == null) {
+                throw new IllegalArgumentException("Unknown transcendent content texture: " + state[i + 5]);
+            }
+        }
+
+        for (int i = 0; i < tileArray.length; i++) {
+            for (int j = 0; j < tileArray[i].length; j++) {
+                for (int k = tileArray[i][j] == null ? -1 : tileArray[i][j].getTileContentCount() - 1; k >= 0; k--) {
+                    if (tileArray[i][j].getTileContent(k).getVisibilityState() == VisibilityStates.TRANSCENDENT) {
+                        getWritableTile(j, i).removeTileContent(k);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < state.length; i += TRANSCENDENT_STATE_STRIDE) {
+            TileContent content = TileContents.getNewTileClassByIndex(state[i + 3]);
+            content.setVisibilityState(VisibilityStates.TRANSCENDENT);
+            content.setPlayerPassable((state[i + 4] & 1) != 0);
+            content.setObjectPassable((state[i + 4] & 2) != 0);
+            if (state[i + 5] >= 0) {
+                content.setTexture(TextureController.getTextureById(state[i + 5]));
+            }
+            getWritableTile(state[i + 1], state[i]).insertTileContent(state[i + 2], content);
+        }
+    }
+
+    /**
+     * Counts the contents of a tile that aren't {@link VisibilityStates#TRANSCENDENT}.
+     *
+     * @param tile the tile
+     * @return the number of contents that remain when the transcendent state is replaced
+     */
+    private static int countLocalContents(Tile tile) {
+        int count = 0;
+        for (int k = 0; k < tile.getTileContentCount(); k++) {
+            if (tile.getTileContent(k).getVisibilityState() != VisibilityStates.TRANSCENDENT) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Derives the Zobrist key of a {@link TileContent} at the given position.
+     * <p>
+     * Keys are generated from the position, the content id and the state key of the content instead of a random
+     * table, so that every client derives the same keys without exchanging them.
+     * </p>
+     *
+     * @param row         the row index of the tile
+     * @param column      the column index of the tile
+     * @param tileContent the {@code TileContent}
+     * @return the key, or {@code 0} if the content does not contribute to the transcendent state
+     */
+    private static long zobristKey(int row, int column, TileContent tileContent) {
+        if (tileContent.getVisibilityState() != VisibilityStates.TRANSCENDENT) {
+            return 0;
+        }
+
+        long key = mix((long) TileContents.getIndexByClass(tileContent.getClass()) << 40 | (long) row << 20 | column);
+        return mix(key + tileContent.getStateKey());
+    }
+
+    /**
+     * Scrambles the bits of a value using the SplitMix64 finalizer.
+     *
+     * @param value the value
+     * @return the scrambled value
+     */
+    private static long mix(long value) {
+        long key = value + 0x9e3779b97f4a7c15L;
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+
+    /**
+     * Retrieves the position set of the given type so that it can be modified, copying it first if it is shared.
+     *
+     * @param type the type of {@link TileContent}
+     * @return the modifiable position set
+     */
+    private SortedSet<Integer> getWritableIndexEntry(Class<? extends TileContent> type) {
+        if (sharesContentIndex) {
+            contentIndex = new HashMap<>(contentIndex);
+            ownedIndexTypes = new HashSet<>();
+            sharesContentIndex = false;
+        }
+
+        SortedSet<Integer> positions = contentIndex.get(type);
+        if (!ownedIndexTypes.contains(type)) {
+            positions = positions == null ? new TreeSet<>() : new TreeSet<>(positions);
+            contentIndex.put(type, positions);
+            ownedIndexTypes.add(type);
+        }
+        return positions;
     }
 
     /**
@@ -311,10 +1600,12 @@ public class Map {
     /**
      * Disposes of resources held by all tiles in the map.
      * <p>
-     * Iterates over the tile array and calls {@code dispose()} on each tile.
+     * Iterates over the tile array and calls {@code dispose()} on each tile. The cached ground layer is
+     * released as well.
      * </p>
      */
     public void dispose() {
+        disposeGroundLayer();
         for (Tile[] tiles : tileArray) {
             for (Tile tile : tiles) {
                 tile.dispose();
@@ -361,14 +1652,9 @@ public class Map {
      */
     public static boolean isPlayerNextToTile(Vector2 tilePosition) {
         Vector2 playerPosition = PlayerController.getInstance().getPlayerPosition();
-        return playerPosition.equals(tilePosition.cpy().add(1, 0)) ||  // Right
-            playerPosition.equals(tilePosition.cpy().add(0, 1)) ||  // Above
-            playerPosition.equals(tilePosition.cpy().sub(1, 0)) ||  // Left
-            playerPosition.equals(tilePosition.cpy().sub(0, 1)) ||  // Below
-            playerPosition.equals(tilePosition.cpy().add(1, 1)) ||  // Top-right diagonal
-            playerPosition.equals(tilePosition.cpy().add(1, -1)) || // Bottom-right diagonal
-            playerPosition.equals(tilePosition.cpy().add(-1, 1)) || // Top-left diagonal
-            playerPosition.equals(tilePosition.cpy().add(-1, -1));  // Bottom-left diagonal
+        float dx = Math.abs(playerPosition.x - tilePosition.x);
+        float dy = Math.abs(playerPosition.y - tilePosition.y);
+        return (dx == 0 || dx == 1) && (dy == 0 || dy == 1) && dx + dy > 0;
     }
 
 }
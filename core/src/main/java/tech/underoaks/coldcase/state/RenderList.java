@@ -0,0 +1,280 @@
+package tech.underoaks.coldcase.state;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import tech.underoaks.coldcase.game.TextureController;
+import tech.underoaks.coldcase.state.tileContent.TileContent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * List of draw commands emitted by a {@link Map}, sorted by their isometric depth and then submitted to a
+ * {@link Batch}.
+ * <p>
+ * A command consists of a region id, a position relative to the origin of the map and a depth key. The commands are
+ * stored in primitive arrays that are reused across frames; the regions are registered once and afterwards only
+ * referenced by their id. Commands with equal depth keys keep the order they have been added in.
+ * </p>
+ * <p>
+ * Nothing but {@link #submit(Batch, float, float)} requires a {@link Batch}, so the commands can be inspected
+ * without an OpenGL context.
+ * </p>
+ */
+public class RenderList {
+    /**
+     * Region id of commands that are rendered by their {@link TileContent} itself, e.g. text labels
+     */
+    public static final int CUSTOM = -1;
+
+    /**
+     * Number of bits of a depth key holding the layer of a content on its tile
+     */
+    public static final int LAYER_BITS = 8;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * Number of bits sorted by a single pass of the radix sort
+     */
+    private static final int RADIX_BITS = 8;
+
+    private final ArrayList<TextureRegion> regions = new ArrayList<>();
+    private final IdentityHashMap<TextureRegion, Integer> regionIds = new IdentityHashMap<>();
+
+    private int size = 0;
+    private int[] regionIdBuffer = new int[INITIAL_CAPACITY];
+    private float[] positionBuffer = new float[2 * INITIAL_CAPACITY];
+    private int[] depthBuffer = new int[INITIAL_CAPACITY];
+
+    /**
+     * Contents of the {@link #CUSTOM} commands, {@code null} for every other command
+     */
+    private TileContent[] customBuffer = new TileContent[INITIAL_CAPACITY];
+
+    /**
+     * Indices of the commands in the order they are submitted
+     */
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int[] sortBuffer = new int[INITIAL_CAPACITY];
+    private final int[] digitCounts = new int[1 << RADIX_BITS];
+
+    /**
+     * Builds the depth key of a content.
+     *
+     * @param tileOrder Position of the tile in drawing order, must not be negative.
+     * @param layer     Index of the content on its tile; contents above the highest layer share it.
+     * @return The depth key.
+     */
+    public static int depthKey(int tileOrder, int layer) {
+        return (tileOrder << LAYER_BITS) | Math.min(layer, (1 << LAYER_BITS) - 1);
+    }
+
+    /**
+     * Removes every command. The registered regions and the buffers are kept.
+     */
+    public void clear() {
+        Arrays.fill(customBuffer, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Adds a command drawing a region.
+     *
+     * @param region Region to draw; if it is an {@link com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion},
+     *               its stripped whitespace is taken into account.
+     * @param x      X-Coordinate of the bottom left corner relative to the origin of the map.
+     * @param y      Y-Coordinate of the bottom left corner relative to the origin of the map.
+     * @param depth  Depth key, see {@link #depthKey(int, int)}; commands with lower keys are drawn first.
+     */
+    public void add(TextureRegion region, float x, float y, int depth) {
+        Integer regionId = regionIds.get(region);
+        if (regionId == null) {
+            regionId = regions.size();
+            regions.add(region);
+            regionIds.put(region, regionId);
+        }
+        add(regionId, null, x, y, depth);
+    }
+
+    /**
+     * Adds a {@link #CUSTOM} command that calls {@link TileContent#render(Batch, float, float)} when submitted.
+     *
+     * @param content Content rendering itself.
+     * @param x       X-Coordinate of its tile relative to the origin of the map.
+     * @param y       Y-Coordinate of its tile relative to the origin of the map.
+     * @param depth   Depth key, see {@link #depthKey(int, int)}; commands with lower keys are drawn first.
+     */
+    public void addCustom(TileContent content, float x, float y, int depth) {
+        add(CUSTOM, content, x, y, depth);
+    }
+
+    private void add(int regionId, TileContent content, float x, float y, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth key must not be negative");
+        }
+        if (size == regionIdBuffer.length) {
+            int capacity = 2 * size;
+            regionIdBuffer = Arrays.copyOf(regionIdBuffer, capacity);
+            positionBuffer = Arrays.copyOf(positionBuffer, 2 * capacity);
+            depthBuffer = Arrays.copyOf(depthBuffer, capacity);
+            customBuffer = Arrays.copyOf(customBuffer, capacity);
+            order = Arrays.copyOf(order, capacity);
+            sortBuffer = new int[capacity];
+        }
+        regionIdBuffer[size] = regionId;
+        positionBuffer[2 * size] = x;
+        positionBuffer[2 * size + 1] = y;
+        depthBuffer[size] = depth;
+        customBuffer[size] = content;
+        order[size] = size;
+        size++;
+    }
+
+    /**
+     * Sorts the commands by their depth key with a stable LSD radix sort. Only as many passes as the highest depth
+     * key requires are made.
+     */
+    public void sort() {
+        int[] source = order;
+        int[] target = sortBuffer;
+        for (int i = 0; i < size; i++) {
+            source[i] = i;
+        }
+
+        int keyBits = 0;
+        for (int i = 0; i < size; i++) {
+            keyBits |= depthBuffer[i];
+        }
+
+        for (int shift = 0; shift < Integer.SIZE && (keyBits >>> shift) != 0; shift += RADIX_BITS) {
+            Arrays.fill(digitCounts, 0);
+            for (int i = 0; i < size; i++) {
+                digitCounts[(depthBuffer[source[i]] >>> shift) & (digitCounts.length - 1)]++;
+            }
+            for (int digit = 0, start = 0; digit < digitCounts.length; digit++) {
+                int count = digitCounts[digit];
+                digitCounts[digit] = start;
+                start += count;
+            }
+            for (int i = 0; i < size; i++) {
+                target[digitCounts[(depthBuffer[source[i]] >>> shift) & (digitCounts.length - 1)]++] = source[i];
+            }
+
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        order = source;
+        sortBuffer = target;
+    }
+
+    /**
+     * Draws every command in sorted order.
+     *
+     * @param batch   Batch that is drawing.
+     * @param originX X-Coordinate of the origin of the map on Screen-Space.
+     * @param originY Y-Coordinate of the origin of the map on Screen-Space.
+     */
+    public void submit(Batch batch, float originX, float originY) {
+        for (int i = 0; i < size; i++) {
+            int command = order[i];
+            float x = originX + positionBuffer[2 * command];
+            float y = originY + positionBuffer[2 * command + 1];
+            if (regionIdBuffer[command] == CUSTOM) {
+                customBuffer[command].render(batch, x, y);
+            } else {
+                TextureController.draw(batch, regions.get(regionIdBuffer[command]), x, y);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of commands.
+     *
+     * @return The number of commands.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the region id of a command.
+     *
+     * @param index Index of the command in sorted order.
+     * @return The region id, or {@link #CUSTOM}.
+     */
+    public int getRegionId(int index) {
+        return regionIdBuffer[order[checkIndex(index)]];
+    }
+
+    /**
+     * Gets the region drawn by a command.
+     *
+     * @param index Index of the command in sorted order.
+     * @return The region, or {@code null} for a {@link #CUSTOM} command.
+     */
+    public TextureRegion getRegion(int index) {
+        int regionId = getRegionId(index);
+        return regionId == CUSTOM ? null : regions.get(regionId);
+    }
+
+    /**
+     * Gets the x-coordinate of a command relative to the origin of the map.
+     *
+     * @param index Index of the command in sorted order.
+     * @return The x-coordinate.
+     */
+    public float getX(int index) {
+        return positionBuffer[2 * order[checkIndex(index)]];
+    }
+
+    /**
+     * Gets the y-coordinate of a command relative to the origin of the map.
+     *
+     * @param index Index of the command in sorted order.
+     * @return The y-coordinate.
+     */
+    public float getY(int index) {
+        return positionBuffer[2 * order[checkIndex(index)] + 1];
+    }
+
+    /**
+     * Gets the depth key of a command.
+     *
+     * @param index Index of the command in sorted order.
+     * @return The depth key.
+     */
+    public int getDepth(int index) {
+        return depthBuffer[order[checkIndex(index)]];
+    }
+
+    /**
+     * Gets the number of times the texture changes between consecutive commands. Every change, and every
+     * {@link #CUSTOM} command, flushes the batch and therefore costs a draw call.
+     *
+     * @return The number of texture changes.
+     */
+    public int getTextureSwitchCount() {
+        int switches = 0;
+        Texture previous = null;
+        for (int i = 0; i < size; i++) {
+            int regionId = regionIdBuffer[order[i]];
+            Texture texture = regionId == CUSTOM ? null : regions.get(regionId).getTexture();
+            if (texture == null || texture != previous) {
+                switches++;
+            }
+            previous = texture;
+        }
+        return switches;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Render command " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+}
@@ -2,6 +2,11 @@ package tech.underoaks.coldcase.state;
 
 /**
  * Represents a snapshot of the game state at a specific point in time.
+ * <p>
+ * The snapshot shares its rows with the original {@link Map} and only copies the rows that are being modified,
+ * see {@link Map#snapshot()}. Tiles that are about to be modified have to be retrieved via
+ * {@link Map#getWritableTile(int, int)}.
+ * </p>
  */
 public class Snapshot {
     /**
@@ -15,8 +20,7 @@ public class Snapshot {
      * @param originalMap The map to snapshot.
      */
     public Snapshot(Map originalMap) {
-        this.snapshotMap = deepCopyMap(originalMap);
-        this.snapshotMap.setIsSnapshotMap(true);
+        this.snapshotMap = originalMap.snapshot();
     }
 
     /**
@@ -28,12 +32,12 @@ public class Snapshot {
     }
 
     /**
-     * Creates a deep copy of the given Map.
+     * Releases this snapshot once its simulation has ended, so that the original map stops copying the rows it
+     * modifies into it. The snapshot must not be used afterwards.
      *
-     * @param originalMap The original Map to copy.
-     * @return A deep copy of the original Map.
+     * @see Map#release()
      */
-    private static Map deepCopyMap(Map originalMap) {
-        return originalMap.deepClone();
+    public void release() {
+        snapshotMap.release();
     }
 }
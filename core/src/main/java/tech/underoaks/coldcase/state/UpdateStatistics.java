@@ -0,0 +1,64 @@
+package tech.underoaks.coldcase.state;
+
+/**
+ * Statistics about a single run of {@link Map#updateUntilStable}.
+ */
+public class UpdateStatistics {
+    /**
+     * Number of passes over the dirty tiles that have caused further updates
+     */
+    private final int iterations;
+
+    /**
+     * Number of tile stacks that have been evaluated over all passes
+     */
+    private final int tileVisits;
+
+    /**
+     * Number of tile stacks a full rescan of the map would have evaluated instead
+     */
+    private final int fullScanTileVisits;
+
+    /**
+     * Default-Constructor
+     *
+     * @param iterations         Number of passes that have caused further updates.
+     * @param tileVisits         Number of evaluated tile stacks.
+     * @param fullScanTileVisits Number of tile stacks a full rescan would have evaluated.
+     */
+    public UpdateStatistics(int iterations, int tileVisits, int fullScanTileVisits) {
+        this.iterations = iterations;
+        this.tileVisits = tileVisits;
+        this.fullScanTileVisits = fullScanTileVisits;
+    }
+
+    /**
+     * Gets the number of passes that have caused further updates.
+     * @return The number of iterations.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Gets the number of tile stacks that have been evaluated.
+     * @return The number of tile visits.
+     */
+    public int getTileVisits() {
+        return tileVisits;
+    }
+
+    /**
+     * Gets the number of tile stacks that would have been evaluated by rescanning the whole map on every pass.
+     * @return The number of tile visits of a full rescan.
+     */
+    public int getFullScanTileVisits() {
+        return fullScanTileVisits;
+    }
+
+    @Override
+    public String toString() {
+        return "UpdateStatistics{iterations=" + iterations + ", tileVisits=" + tileVisits
+            + ", fullScanTileVisits=" + fullScanTileVisits + "}";
+    }
+}
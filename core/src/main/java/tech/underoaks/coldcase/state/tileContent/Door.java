@@ -1,6 +1,6 @@
 package tech.underoaks.coldcase.state.tileContent;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.game.TextureController;
@@ -19,8 +19,8 @@ import java.util.Objects;
  */
 public class Door extends TileContent {
 
-    private static final Texture texture_closed = TextureController.getInstance().getDoorTexture_closed();
-    private static final Texture texture_open = TextureController.getInstance().getDoorTexture_open();
+    private static final TextureRegion texture_closed = TextureController.getInstance().getDoorTexture_closed();
+    private static final TextureRegion texture_open = TextureController.getInstance().getDoorTexture_open();
 
     /**
      * Default-Constructor
@@ -1,6 +1,6 @@
 package tech.underoaks.coldcase.state.tileContent;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.game.GameController;
 import tech.underoaks.coldcase.game.Interaction;
@@ -18,9 +18,8 @@ import java.util.Objects;
  */
 public class Door_Trigger extends TileContent{
 
-    private final Texture trigger_closed = TextureController.getInstance().getTrigger_closed();
-    private final Texture trigger_opened = TextureController.getInstance().getTrigger_opened();
-    private static boolean isOpen = false;
+    private final TextureRegion trigger_closed = TextureController.getInstance().getTrigger_closed();
+    private final TextureRegion trigger_opened = TextureController.getInstance().getTrigger_opened();
 
     /**
      * Default-Constructor
@@ -45,12 +44,11 @@ public class Door_Trigger extends TileContent{
 
             int childIndex = chain.getSnapshot().getSnapshotMap().getChildIndex(interaction.getTargetPos(), this);
 
-            if (!isOpen) {
+            // The texture reflects the state so that it is restored by undoing its update
+            if (getTexture() != trigger_opened) {
                 chain.addGameStateUpdate(new ChangeTextureUpdate(trigger_opened, interaction.getTargetPos(), childIndex));
-                isOpen = true;
             } else {
                 chain.addGameStateUpdate(new ChangeTextureUpdate(trigger_closed, interaction.getTargetPos(), childIndex));
-                isOpen = false;
             }
 
             chain.addRemoteAction(new Interaction(interaction.getTargetPos(), interaction.getActionDirection(), this.getClass()));
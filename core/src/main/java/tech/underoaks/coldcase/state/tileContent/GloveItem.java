@@ -1,7 +1,5 @@
 package tech.underoaks.coldcase.state.tileContent;
 
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.game.PlayerController;
 import tech.underoaks.coldcase.game.TextureController;
@@ -15,27 +13,16 @@ import tech.underoaks.coldcase.state.updates.RemoveTileContentUpdate;
  */
 public class GloveItem extends ItemObject {
 
-    private final Sprite sprite;
-
     /**
      * Default-Constructor
      */
     public GloveItem() {
         super(TextureController.getInstance().getGloveTexture());
-        sprite = new Sprite(TextureController.getInstance().getGloveTexture());
     }
 
     @Override
-    public void render(Batch batch, float x, float y) {
-
-        if (sprite != null) {
-            sprite.setPosition(x, y);
-            batch.draw(sprite, x, y + 480, sprite.getWidth(), sprite.getHeight());
-        }
-
-        if (tileContent != null) {
-            tileContent.render(batch, x, y);
-        }
+    protected float getSpriteOffsetY() {
+        return 480;
     }
 
     @Override
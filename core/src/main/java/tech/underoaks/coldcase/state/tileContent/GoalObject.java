@@ -1,7 +1,5 @@
 package tech.underoaks.coldcase.state.tileContent;
 
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.game.*;
 import tech.underoaks.coldcase.state.InteractionChain;
@@ -16,8 +14,6 @@ import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
  */
 public class GoalObject extends TileContent {
 
-    private final Sprite sprite = new Sprite( TextureController.getInstance().getGoalObjectTexture());
-
     /**
      * Default-Constructor
      */
@@ -27,16 +23,8 @@ public class GoalObject extends TileContent {
     }
 
     @Override
-    public void render(Batch batch, float x, float y) {
-
-        if (sprite != null) {
-            sprite.setPosition(x, y);
-            batch.draw(sprite, x, y + 480, sprite.getWidth(), sprite.getHeight());
-        }
-
-        if (tileContent != null) {
-            tileContent.render(batch, x, y);
-        }
+    protected float getSpriteOffsetY() {
+        return 480;
     }
 
     @Override
@@ -1,8 +1,6 @@
 package tech.underoaks.coldcase.state.tileContent;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.game.TextureController;
@@ -18,8 +16,7 @@ import tech.underoaks.coldcase.state.updates.RemoveTileContentUpdate;
  */
 public class Hole extends TileContent{
 
-    private static final Texture texture = TextureController.getInstance().holeTexture();
-    private static final Sprite sprite = new Sprite(texture);
+    private static final TextureRegion texture = TextureController.getInstance().holeTexture();
 
     /**
      * Default-Constructor
@@ -29,16 +26,8 @@ public class Hole extends TileContent{
     }
 
     @Override
-    public void render(Batch batch, float x, float y) {
-
-        if (sprite != null) {
-            sprite.setPosition(x, y);
-            batch.draw(sprite, x, y , sprite.getWidth(), sprite.getHeight());
-        }
-
-        if (tileContent != null) {
-            tileContent.render(batch, x, y);
-        }
+    protected float getSpriteOffsetY() {
+        return 0;
     }
 
     @Override
@@ -46,6 +35,14 @@ public class Hole extends TileContent{
         return false;
     }
 
+    /**
+     * A hole only reacts to {@link MovableBlock}s that have been moved onto its own tile.
+     */
+    @Override
+    public boolean reactsTo(Vector2 tilePosition, Vector2 changedPosition) {
+        return tilePosition.equals(changedPosition);
+    }
+
     @Override
     public boolean update(InteractionChain chain, Vector2 tilePosition, Interaction interaction, TileContent handler) throws GameStateUpdateException, UpdateTileContentException {
         Vector2 pos = interaction.getTargetPos();
@@ -1,5 +1,6 @@
 package tech.underoaks.coldcase.state.tileContent;
 
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.state.InteractionChain;
@@ -14,7 +15,7 @@ public class InvisibleWall extends TileContent {
      * Default-Constructor
      */
     public InvisibleWall() {
-        super(null, false, false);
+        super((TextureRegion) null, false, false);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package tech.underoaks.coldcase.state.tileContent;
 
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.game.PlayerController;
@@ -14,22 +15,30 @@ import tech.underoaks.coldcase.state.updates.RemoveTileContentUpdate;
  */
 public class ItemObject extends TileContent{
 
-    private Texture inventoryTexture;
+    private TextureRegion inventoryTexture;
 
     /**
      * Default-Constructor
-     * @param texture The {@link Texture} that is representing the Item
+     * @param texture The {@link TextureRegion} that is representing the Item
      */
-    public ItemObject(Texture texture) {
+    public ItemObject(TextureRegion texture) {
         super(texture, true, true);
         inventoryTexture = texture;
     }
 
+    /**
+     * Constructor
+     * @param texture The {@link Texture} that is representing the Item
+     */
+    public ItemObject(Texture texture) {
+        this(new TextureRegion(texture));
+    }
+
     /**
      * Gets the Texture that can be used to show the Item inside the Inventory
      * @return The specified Texture
      */
-    public Texture getInventoryTexture() {
+    public TextureRegion getInventoryTexture() {
         return inventoryTexture;
     }
 
@@ -37,7 +46,7 @@ public class ItemObject extends TileContent{
      * Sets the Texture that can be used to show the Item inside the Inventory
      * @param inventoryTexture  The specified Texture
      */
-    public void setInventoryTexture(Texture inventoryTexture) {
+    public void setInventoryTexture(TextureRegion inventoryTexture) {
         this.inventoryTexture = inventoryTexture;
     }
 
@@ -1,9 +1,8 @@
 package tech.underoaks.coldcase.state.tileContent;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
+import tech.underoaks.coldcase.game.GameController;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.game.PlayerController;
 import tech.underoaks.coldcase.game.TextureController;
@@ -22,7 +21,7 @@ import tech.underoaks.coldcase.game.Direction;
 public class Player extends TileContent {
 
     /** The texture that the player is currently using. This texture indicates the facing direction */
-    public static Texture currentTexture;
+    public static TextureRegion currentTexture;
 
     /**
      * Default Constructor
@@ -68,27 +67,18 @@ public class Player extends TileContent {
     }
 
     /**
-     * Renders the object at the specified coordinates using the {@link SpriteBatch}.
-     * If a texture is currently set, it draws the object with the texture; otherwise,
-     * it invokes the superclass's rendering method.
+     * Returns the texture the player is currently facing with; otherwise the default texture.
      *
-     * @param batch The {@link SpriteBatch} used to draw the texture.
-     * @param x     The x-coordinate where the texture should be drawn.
-     * @param y     The y-coordinate where the texture should be drawn. The y-coordinate is
-     *              adjusted by adding 8 units for positioning purposes.
+     * @return the region the player is drawn with
      */
     @Override
-    public void render(Batch batch, float x, float y) {
-
-        if (currentTexture != null) {
-            batch.draw(currentTexture, x, y + 540);
-        }else {
-            super.render(batch, x, y);
-        }
+    protected TextureRegion getRenderRegion() {
+        return currentTexture != null ? currentTexture : super.getRenderRegion();
+    }
 
-        if (tileContent != null) {
-            tileContent.render(batch, x, y);
-        }
+    @Override
+    protected float getSpriteOffsetY() {
+        return currentTexture != null ? 540 : super.getSpriteOffsetY();
     }
 
     @Override
@@ -105,7 +95,7 @@ public class Player extends TileContent {
      */
     public static void updateTexture(Direction lookDirection) {
 
-        Texture newTexture = switch (lookDirection) {
+        TextureRegion newTexture = switch (lookDirection) {
             case NORTH -> TextureController.getInstance().getPlayerTextureNorth();
             case SOUTH -> TextureController.getInstance().getPlayerTextureSouth();
             case EAST -> TextureController.getInstance().getPlayerTextureEast();
@@ -116,6 +106,11 @@ public class Player extends TileContent {
 
             currentTexture = newTexture;
 
+            // The render list of the map still refers to the previous texture
+            Map map = GameController.getInstance().getCurrentMap();
+            if (map != null) {
+                map.invalidateRenderList();
+            }
         }
     }
 
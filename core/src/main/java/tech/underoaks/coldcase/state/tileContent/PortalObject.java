@@ -1,8 +1,6 @@
 package tech.underoaks.coldcase.state.tileContent;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.game.PlayerController;
@@ -22,9 +20,7 @@ import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
  */
 public class PortalObject extends TileContent{
 
-    static final Texture texture = TextureController.getInstance().getPortalObjectTexture();
-
-    static final Sprite sprite = new Sprite(texture);
+    static final TextureRegion texture = TextureController.getInstance().getPortalObjectTexture();
 
     /**
      * Default-Constructor
@@ -34,17 +30,8 @@ public class PortalObject extends TileContent{
     }
 
     @Override
-    public void render(Batch batch, float x, float y) {
-
-        if (sprite != null) {
-            sprite.setPosition(x, y);
-            batch.draw(sprite, x, y + 480, sprite.getWidth(), sprite.getHeight());
-        }
-
-        if (tileContent != null) {
-            tileContent.render(batch, x, y);
-        }
-
+    protected float getSpriteOffsetY() {
+        return 480;
     }
 
     @Override
@@ -65,10 +52,10 @@ public class PortalObject extends TileContent{
         if ( interaction.getParameters().length == 0 ) {
 
             // Wenn etwas auf dem Portal liegt
-            if (tileContent != null) return false;
+            if (chain.getSnapshot().getSnapshotMap().getTile(interaction.getTargetPos()).topTileContent() != this) return false;
 
             // Wenn nichts auf dem Portal liegt
-            else { // tileContent == null
+            else { // topTileContent() == this
 
                 // Spieler hat kein Item
                 if (PlayerController.getInstance().getInventory() == null) return false;
@@ -2,17 +2,18 @@ package tech.underoaks.coldcase.state.tileContent;
 
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
 import tech.underoaks.coldcase.game.Interaction;
+import tech.underoaks.coldcase.game.TextureController;
 import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
 import tech.underoaks.coldcase.state.InteractionChain;
+import tech.underoaks.coldcase.state.RenderList;
 import tech.underoaks.coldcase.state.tiles.Tile;
 
 import com.badlogic.gdx.graphics.Texture;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -29,22 +30,22 @@ import java.util.Objects;
  * @see Tile
  */
 public abstract class TileContent implements Cloneable {
-    /**
-     * Reference to the next TileContent in the stack
-     */
-    public TileContent tileContent;
-
     /**
      * The visibility state of this TileContent
      */
     protected VisibilityStates visibilityState;
 
-    private Texture texture;
+    private TextureRegion texture;
     private Sprite sprite;
 
     private boolean isPlayerPassable;
     private boolean isObjectPassable;
 
+    /**
+     * Key this TileContent has contributed to the transcendent hash of the map it is placed on
+     */
+    private transient long transcendentKey;
+
     /**
      * Constructs a new {@code TileContent} with the specified texture and passability properties.
      * <p>
@@ -52,15 +53,16 @@ public abstract class TileContent implements Cloneable {
      * The content's visibility is set to {@link VisibilityStates#PLAYER_ONE_ONLY} by default.
      * </p>
      *
-     * @param texture          the {@link Texture} used for rendering the TileContent; may be {@code null}
+     * @param texture          the {@link TextureRegion} used for rendering the TileContent; may be {@code null}
      * @param isPlayerPassable {@code true} if the content can be passed by the player, {@code false} otherwise
      * @param isObjectPassable {@code true} if the content can be passed by objects, {@code false} otherwise
+     * @see TextureController#createSprite(TextureRegion)
      */
-    public TileContent(Texture texture, boolean isPlayerPassable, boolean isObjectPassable) {
+    public TileContent(TextureRegion texture, boolean isPlayerPassable, boolean isObjectPassable) {
         this.texture = texture;
 
         if (texture != null) {
-            this.sprite = new Sprite(texture);
+            this.sprite = TextureController.createSprite(texture);
             this.sprite.setOriginCenter();
         }
 
@@ -69,55 +71,67 @@ public abstract class TileContent implements Cloneable {
         this.visibilityState = VisibilityStates.PLAYER_ONE_ONLY; // FIXME als Parameter callen
     }
 
+    /**
+     * Constructs a new {@code TileContent} with the specified texture and passability properties.
+     *
+     * @param texture          the {@link Texture} used for rendering the TileContent; may be {@code null}
+     * @param isPlayerPassable {@code true} if the content can be passed by the player, {@code false} otherwise
+     * @param isObjectPassable {@code true} if the content can be passed by objects, {@code false} otherwise
+     */
+    public TileContent(Texture texture, boolean isPlayerPassable, boolean isObjectPassable) {
+        this(texture == null ? null : new TextureRegion(texture), isPlayerPassable, isObjectPassable);
+    }
+
     /**
      * Renders the tileContent at the specified coordinates using the given {@code SpriteBatch}.
      * If the tile has no texture, this method renders nothing.
      *
-     * <p>If the tileContent has a {@code TileContent}, the render method of the content is called.
+     * <p>Contents stacked on top of this one are rendered by the {@link Tile} itself.
      *
      * @param batch the {@code SpriteBatch} used to render the tileContent
      * @param x     the x-coordinate for rendering the tile
      * @param y     the y-coordinate for rendering the tile
+     * @see #getSpriteOffsetY()
      */
     public void render(Batch batch, float x, float y) {
-        if (sprite != null) {
-            batch.draw(sprite, x, y + 410);
-        }
-
-        if (tileContent != null) {
-            tileContent.render(batch, x, y);
+        TextureRegion region = getRenderRegion();
+        if (region != null) {
+            TextureController.draw(batch, region, x, y + getSpriteOffsetY());
         }
     }
 
     /**
-     * FIXME JavaDoc
-     * Tries to perform the action associated with this TileContent when interacted with.
-     *
-     * <p>{@code handleAction(...)} is a recursive function that traverses a stack of {@code TileContent}s in post order.
-     * This means that the top most content gets the first chance to handle a triggered action.
-     * If a content handles the action no more contents will be able to accept it.
+     * Adds the draw commands of this tileContent to a {@link RenderList}.
+     * If the tile has no texture, nothing is added.
      *
-     * @param chain       InteractionChain managing the snapshot.
-     * @param interaction The interaction to trigger.
-     * @return True if the action has been taken care of; False otherwise
-     * @throws GameStateUpdateException If a GameStateUpdate has failed
+     * @param list  the {@code RenderList} of the map
+     * @param x     the x-coordinate of the tile relative to the origin of the map
+     * @param y     the y-coordinate of the tile relative to the origin of the map
+     * @param depth the depth key of this tileContent, see {@link RenderList#depthKey(int, int)}
      */
-    public TileContent handleAction(InteractionChain chain, Interaction interaction) throws GameStateUpdateException {
-        TileContent handler;
-        if (tileContent != null) {
-            handler = tileContent.handleAction(chain, interaction);
-            if (handler != null) {
-                return handler;
-            }
+    public void emit(RenderList list, float x, float y, int depth) {
+        TextureRegion region = getRenderRegion();
+        if (region != null) {
+            list.add(region, x, y + getSpriteOffsetY(), depth);
         }
+    }
 
-        // Wenn auf dem Player eine Interaktion durchführt wird, wird unabhängig von dessen Ergebnis der Command als 'behandelt' betrachtet.
-        if (this.getClass() == Player.class) {
-            action(chain, interaction);
-            return this;
-        }
+    /**
+     * Returns the region this tileContent is currently drawn with.
+     *
+     * @return the region, or {@code null} if nothing is drawn
+     */
+    protected TextureRegion getRenderRegion() {
+        return texture;
+    }
 
-        return action(chain, interaction) ? this : null;
+    /**
+     * Returns how far above the position of its tile the sprite of this tileContent is drawn.
+     *
+     * @return the vertical offset in Screen-Space
+     */
+    protected float getSpriteOffsetY() {
+        return 410;
     }
 
     /**
@@ -130,32 +144,6 @@ public abstract class TileContent implements Cloneable {
      */
     public abstract boolean action(InteractionChain chain, Interaction interaction) throws GameStateUpdateException;
 
-    /**
-     * FIXME JavaDoc
-     * Tries to perform an update associated with this TileContent when triggered.
-     *
-     * <p>{@code handleUpdate(...)} is a recursive function that traverses a stack of {@code TileContent}s in post order.
-     * This means that the top most content gets the first chance to handle a triggered update.
-     *
-     * @param chain        InteractionChain managing the snapshot.
-     * @param tilePosition The position of the currently selected tile.
-     * @param interaction  The interaction that needs to be handled.
-     * @param handler      The TileContent that has been handling the interaction so far.
-     * @return True if an update as been performed; False otherwise
-     * @throws GameStateUpdateException   If a GameStateUpdate has failed
-     * @throws UpdateTileContentException If a TileContent couldn't be updated (due to a failing validation)
-     * @see TileContent#update(InteractionChain, Vector2, Interaction, TileContent)
-     */
-    public List<TileContent> handleUpdate(InteractionChain chain, Vector2 tilePosition, Interaction interaction, TileContent handler) throws GameStateUpdateException, UpdateTileContentException {
-        List<TileContent> handlers = tileContent != null ? tileContent.handleUpdate(chain, tilePosition, interaction, handler) : new ArrayList<>();
-
-        if (update(chain, tilePosition, interaction, handler)) {
-            handlers.add(this);
-        }
-
-        return handlers;
-    }
-
     /**
      * Updates the state of this TileContent based on interactions.
      *
@@ -169,70 +157,27 @@ public abstract class TileContent implements Cloneable {
      * @implNote Ensure this method returns {@code true} only for meaningful changes to avoid unnecessary processing.
      * It should not always return {@code true} to prevent infinite loops in calling methods like
      * {@code updateUntilStable}. Avoid cyclic updates that could trigger endless interactions.
+     * <p>
+     * The map may evaluate this method more than once per pass and concurrently for other tiles, with a chain that
+     * only records the updates (see {@link InteractionChain#createDeferred}). The result may therefore only depend
+     * on the tiles within {@link tech.underoaks.coldcase.state.Map#OBSERVATION_RANGE} and the map may only be
+     * modified through the chain.
      */
     public abstract boolean update(InteractionChain chain, Vector2 tilePosition, Interaction interaction, TileContent handler) throws GameStateUpdateException, UpdateTileContentException;
 
     /**
-     * Sets the next {@code TileContent} in the stack.
-     *
-     * @param tileContent the {@code TileContent} to set as the next content in the stack
-     */
-    public void setNextContent(TileContent tileContent) {
-        this.tileContent = tileContent;
-    }
-
-    /**
-     * Returns the next {@code TileContent} in the stack.
-     *
-     * @return the next {@code TileContent}, or {@code null} if there is none
-     */
-    public TileContent getNextContent() {
-        return tileContent;
-    }
-
-    /**
-     * Adds a new content layer on top of the current stack of contents.
-     *
-     * @param tileContent The TileContent that is being injected into the Map
-     */
-    public void pushContent(TileContent tileContent) {
-        if (this.tileContent != null) {
-            this.tileContent.pushContent(tileContent);
-        } else {
-            this.tileContent = tileContent;
-        }
-    }
-
-    /**
-     * Removes the topmost content layer from the stack and returns it.
-     *
-     * @return The topmost {@link TileContent}
-     */
-    public TileContent popContent() {
-        if (this.tileContent == null) {
-            return null;
-        }
-        if (this.tileContent.tileContent == null) {
-            TileContent content = this.tileContent;
-            this.tileContent = null;
-            return content;
-        }
-        return this.tileContent.popContent();
-    }
-
-    /**
-     * Retrieves the topmost {@code TileContent} in the stack.
+     * Declares whether this TileContent reacts to changes of the tile at {@code changedPosition}.
      * <p>
-     * If there are nested contents, this method returns the topmost element. Otherwise, it returns this.
-     * </p>
+     * {@link tech.underoaks.coldcase.state.Map#updateUntilStable} only calls {@link #update} if one of the tiles
+     * this TileContent reacts to has been modified. By default a TileContent only reacts to its own tile.
+     * Positions further away than {@link tech.underoaks.coldcase.state.Map#OBSERVATION_RANGE} are never reported.
      *
-     * @return the topmost {@code TileContent} in the stack
+     * @param tilePosition    The position of the tile this TileContent is placed on.
+     * @param changedPosition The position of the tile that has been modified.
+     * @return True if this TileContent needs to be updated; False otherwise
      */
-    public TileContent topContent() {
-        if (this.tileContent == null) {
-            return this;
-        }
-        return this.tileContent.topContent();
+    public boolean reactsTo(Vector2 tilePosition, Vector2 changedPosition) {
+        return tilePosition.equals(changedPosition);
     }
 
     /**
@@ -292,93 +237,77 @@ public abstract class TileContent implements Cloneable {
     /**
      * Disposes of the resources used by this TileContent.
      * <p>
-     * Releases the underlying texture and disposes any nested {@code TileContent} if present.
+     * Releases the underlying texture.
      * </p>
      */
     public void dispose() {
         if (texture != null) {
-            texture.dispose();
-        }
-        if (tileContent != null) {
-            tileContent.dispose();
+            texture.getTexture().dispose();
         }
     }
 
     @Override
     public TileContent clone() throws CloneNotSupportedException {
         try {
-            TileContent cloned = (TileContent) super.clone();
-            if (this.tileContent != null) {
-                cloned.tileContent = this.tileContent.clone();
-            }
-            return cloned;
+            return (TileContent) super.clone();
         } catch (CloneNotSupportedException e) {
             throw new AssertionError(e);
         }
     }
 
     /**
-     * Returns the index of the specified {@code TileContent} in the content stack.
-     * <p>
-     * The current {@code TileContent} is considered to have index 0. If the specified content is not found,
-     * {@code -1} is returned.
-     * </p>
+     * Returns the {@link TextureRegion} associated with this {@code TileContent}.
      *
-     * @param tileContent the {@code TileContent} whose index is to be determined
-     * @return the index of the specified {@code TileContent}, or {@code -1} if not found
+     * @return the texture used for rendering, or {@code null} if none is set
      */
-    public int getChildIndex(TileContent tileContent) {
-        if (this == tileContent) {
-            return 0;
-        }
-        if (this.tileContent == null) {
-            return -1;
-        }
-        int index = this.tileContent.getChildIndex(tileContent);
-        if (index == -1) {
-            return -1;
-        }
-        return index + 1;
+    public TextureRegion getTexture() {
+        return texture;
     }
 
     /**
-     * Retrieves a {@code TileContent} from the content stack by its index.
+     * Sets the texture for this {@code TileContent} and updates its sprite.
+     *
+     * @param texture the new {@link TextureRegion} to be used for rendering
+     */
+    public void setTexture(TextureRegion texture) {
+        this.texture = texture;
+        this.sprite = TextureController.createSprite(texture);
+    }
+
+    /**
+     * Returns a key describing the state of this {@code TileContent}, derived the same way on both clients.
      * <p>
-     * An index of 0 returns this {@code TileContent}. For higher indices, the method traverses the nested content.
-     * If the specified index is not found, an {@code IllegalArgumentException} is thrown.
+     * The key covers the passability and the name of the texture, as the texture reflects states like an opened
+     * door. Subclasses holding further state that is shared between the clients should fold it into the key.
      * </p>
      *
-     * @param i the index of the desired {@code TileContent} (0 for this, 1 for the next, etc.)
-     * @return the {@code TileContent} at the specified index
-     * @throws IllegalArgumentException if no {@code TileContent} exists at the given index
+     * @return the state key
+     * @see tech.underoaks.coldcase.state.Map#getTranscendentHash()
      */
-    public TileContent getTileContentByIndex(int i) {
-        if (i == 0) {
-            return this;
-        }
-        if (tileContent == null) {
-            throw new IllegalArgumentException("TileContent not found");
-        }
-        return tileContent.getTileContentByIndex(i - 1);
+    public int getStateKey() {
+        int key = Objects.hashCode(TextureController.getTextureName(texture));
+        key = 31 * key + (isPlayerPassable ? 1 : 0);
+        return 31 * key + (isObjectPassable ? 1 : 0);
     }
 
     /**
-     * Returns the {@link Texture} associated with this {@code TileContent}.
+     * Returns the key this {@code TileContent} has contributed to the transcendent hash of its map.
      *
-     * @return the texture used for rendering, or {@code null} if none is set
+     * @return the key, or {@code 0} if it doesn't contribute to the hash
+     * @see tech.underoaks.coldcase.state.Map#getTranscendentHash()
      */
-    public Texture getTexture() {
-        return texture;
+    public long getTranscendentKey() {
+        return transcendentKey;
     }
 
     /**
-     * Sets the texture for this {@code TileContent} and updates its sprite.
+     * Records the key this {@code TileContent} contributes to the transcendent hash of its map.
+     * Only to be called by the {@link tech.underoaks.coldcase.state.Map} it is placed on.
      *
-     * @param texture the new {@link Texture} to be used for rendering
+     * @param transcendentKey the key
      */
-    public void setTexture(Texture texture) {
-        this.texture = texture;
-        this.sprite = new Sprite(texture);
+    public void setTranscendentKey(long transcendentKey) {
+        this.transcendentKey = transcendentKey;
     }
 
     @Override
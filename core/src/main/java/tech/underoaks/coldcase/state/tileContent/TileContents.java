@@ -54,6 +54,14 @@ public enum TileContents {
         return index;
     }
 
+    /**
+     * Gets the class of this TileContent
+     * @return {@link Class} extending {@link TileContent}
+     */
+    public Class<? extends TileContent> getTileClass() {
+        return tileClass;
+    }
+
     /**
      * Gets a {@link TileContent} by searching for its identifier
      * @param tileClass A {@link Class} extending {@link TileContent} that will be the search target
@@ -2,10 +2,12 @@ package tech.underoaks.coldcase.state.tileContent;
 
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.game.Interaction;
 import tech.underoaks.coldcase.game.UITextureController;
 import tech.underoaks.coldcase.state.InteractionChain;
+import tech.underoaks.coldcase.state.RenderList;
 import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
 
 /**
@@ -24,7 +26,7 @@ public class UIContentTileContent extends TileContent {
      * </p>
      */
     public UIContentTileContent() {
-        super(null, false, false);
+        super((TextureRegion) null, false, false);
         this.displayText = "";
         this.transformShift = UIContentTileContentShift.SHIFT_BLOCKSIDE_LEFT;
     }
@@ -36,7 +38,7 @@ public class UIContentTileContent extends TileContent {
      * @param shift the transform shift configuration to apply when rendering the text
      */
     public UIContentTileContent(String text, UIContentTileContentShift shift) {
-        super(null, false, false);
+        super((TextureRegion) null, false, false);
         this.displayText = text;
         this.transformShift = shift;
     }
@@ -63,6 +65,14 @@ public class UIContentTileContent extends TileContent {
         super.render(batch, x, y);
     }
 
+    /**
+     * Text can't be drawn from a region, so the label renders itself when its command is submitted.
+     */
+    @Override
+    public void emit(RenderList list, float x, float y, int depth) {
+        list.addCustom(this, x, y, depth);
+    }
+
     @Override
     public boolean action(InteractionChain chain, Interaction interaction) throws GameStateUpdateException {
         return false;
@@ -3,13 +3,30 @@ package tech.underoaks.coldcase.state.tiles;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+import tech.underoaks.coldcase.game.Interaction;
+import tech.underoaks.coldcase.game.TextureController;
+import tech.underoaks.coldcase.state.InteractionChain;
+import tech.underoaks.coldcase.state.Map;
+import tech.underoaks.coldcase.state.RenderList;
+import tech.underoaks.coldcase.state.tileContent.Player;
 import tech.underoaks.coldcase.state.tileContent.TileContent;
+import tech.underoaks.coldcase.state.tileContent.UpdateTileContentException;
+import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * The {@code Tile} class represents a single tile on the game board.
  * Each tile can hold a specific {@code TileContent}, which may be an item, a static object
  * like a wall, or any other entity that occupies a tile.
  *
+ * <p>The contents of a tile are stored as a stack, with index 0 being the bottom-most content.
+ *
  * <p>This class provides rendering functionality, allowing each tile to display its texture
  * on the screen. The texture and content of each tile can be configured and updated, enabling
  * dynamic changes on the game board.
@@ -21,14 +38,39 @@ import tech.underoaks.coldcase.state.tileContent.TileContent;
  */
 public abstract class Tile implements Cloneable {
     /**
-     * The content placed on this Tile
+     * Shared backing array of tiles without any content
      */
-    private TileContent tileContent;
+    private static final TileContent[] EMPTY_CONTENTS = new TileContent[0];
 
-    private Texture texture;
+    /**
+     * The contents placed on this Tile; index 0 is the bottom-most content
+     */
+    private TileContent[] tileContents = EMPTY_CONTENTS;
+
+    /**
+     * Number of contents placed on this Tile
+     */
+    private int tileContentCount;
+
+    private TextureRegion texture;
 
     private Sprite sprite;
 
+    /**
+     * The {@link Map} this tile is placed on; notified whenever the content of this tile changes
+     */
+    private transient Map map;
+
+    /**
+     * Row index of this tile inside {@link #map}
+     */
+    private transient int row;
+
+    /**
+     * Column index of this tile inside {@link #map}
+     */
+    private transient int column;
+
     /**
      * Constructs a new {@code Tile} with the specified texture.
      * <p>
@@ -36,42 +78,187 @@ public abstract class Tile implements Cloneable {
      * setting its origin to the center. The texture is used for rendering the tile.
      * </p>
      *
-     * @param texture the {@link Texture} to be used for this tile's appearance
+     * @param texture the {@link TextureRegion} to be used for this tile's appearance
+     * @see TextureController#createSprite(TextureRegion)
      */
-    public Tile(Texture texture) {
+    public Tile(TextureRegion texture) {
         this.texture = texture;
-        this.sprite = new Sprite(texture);
+        this.sprite = TextureController.createSprite(texture);
         this.sprite.setOriginCenter();
     }
 
+    /**
+     * Constructs a new {@code Tile} with the specified texture.
+     *
+     * @param texture the {@link Texture} to be used for this tile's appearance
+     */
+    public Tile(Texture texture) {
+        this(new TextureRegion(texture));
+    }
+
     /**
      * Renders the tile at the specified coordinates using the given {@code SpriteBatch}.
      * If the tile has no texture, this method renders nothing.
      *
-     * <p>If the tile has a {@code TileContent}, the render method of the content is called.
+     * <p>Afterwards every {@code TileContent} is rendered from bottom to top.
      *
      * @param batch the {@code SpriteBatch} used to render the tile
      * @param x     the x-coordinate for rendering the tile
      * @param y     the y-coordinate for rendering the tile
+     * @see #renderGround(Batch, float, float)
      */
     public void render(Batch batch, float x, float y) {
+        renderGround(batch, x, y);
+        for (int i = 0; i < tileContentCount; i++) {
+            tileContents[i].render(batch, x, y);
+        }
+    }
 
+    /**
+     * Renders only the texture of the tile itself, without its contents.
+     * If the tile has no texture, this method renders nothing.
+     *
+     * @param batch the {@code SpriteBatch} used to render the tile
+     * @param x     the x-coordinate for rendering the tile
+     * @param y     the y-coordinate for rendering the tile
+     */
+    public void renderGround(Batch batch, float x, float y) {
         if (texture != null) {
-            batch.draw(sprite, x, y);
+            sprite.setPosition(x, y);
+            sprite.draw(batch);
         }
+    }
 
-        if (tileContent != null) {
-            tileContent.render(batch, x, y);
+    /**
+     * Adds the draw commands of every {@code TileContent} to a {@link RenderList}, from bottom to top.
+     *
+     * @param list      the {@code RenderList} of the map
+     * @param x         the x-coordinate of the tile relative to the origin of the map
+     * @param y         the y-coordinate of the tile relative to the origin of the map
+     * @param tileOrder the position of this tile in drawing order, see {@link RenderList#depthKey(int, int)}
+     */
+    public void emitContents(RenderList list, float x, float y, int tileOrder) {
+        for (int i = 0; i < tileContentCount; i++) {
+            tileContents[i].emit(list, x, y, RenderList.depthKey(tileOrder, i));
+        }
+    }
+
+    /**
+     * Adds the texture of the tile itself to a {@link SpriteCache} that is being built.
+     * If the tile has no texture, nothing is added.
+     *
+     * @param cache the {@code SpriteCache} between {@code beginCache()} and {@code endCache()}
+     * @param x     the x-coordinate of the tile inside the cache
+     * @param y     the y-coordinate of the tile inside the cache
+     * @see Map#render(Batch, float, float)
+     */
+    public void cacheGround(SpriteCache cache, float x, float y) {
+        if (texture != null) {
+            sprite.setPosition(x, y);
+            cache.add(sprite);
+        }
+    }
+
+    /**
+     * Tries to perform the action associated with the contents of this tile.
+     *
+     * <p>The contents are traversed from top to bottom. This means that the top most content gets the first
+     * chance to handle a triggered action. If a content handles the action no more contents will be able to accept it.
+     *
+     * @param chain       InteractionChain managing the snapshot.
+     * @param interaction The interaction to trigger.
+     * @return The {@code TileContent} that has taken care of the action; {@code null} otherwise
+     * @throws GameStateUpdateException If a GameStateUpdate has failed
+     * @see TileContent#action(InteractionChain, Interaction)
+     */
+    public TileContent handleAction(InteractionChain chain, Interaction interaction) throws GameStateUpdateException {
+        for (int i = tileContentCount - 1; i >= 0; i = Math.min(i - 1, tileContentCount - 1)) {
+            TileContent content = tileContents[i];
+
+            // Wenn auf dem Player eine Interaktion durchführt wird, wird unabhängig von dessen Ergebnis der Command als 'behandelt' betrachtet.
+            if (content.getClass() == Player.class) {
+                content.action(chain, interaction);
+                return content;
+            }
+
+            if (content.action(chain, interaction)) {
+                return content;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tries to perform an update associated with the contents of this tile.
+     *
+     * <p>The contents are traversed from top to bottom, every content gets the chance to handle the update.
+     * Contents that are removed by an earlier update are skipped.
+     *
+     * @param chain        InteractionChain managing the snapshot.
+     * @param tilePosition The position of this tile.
+     * @param interaction  The interaction that needs to be handled.
+     * @param handler      The TileContent that has been handling the interaction so far.
+     * @return List of {@code TileContents} that handled the update
+     * @throws GameStateUpdateException   If a GameStateUpdate has failed
+     * @throws UpdateTileContentException If a TileContent couldn't be updated (due to a failing validation)
+     * @see TileContent#update(InteractionChain, Vector2, Interaction, TileContent)
+     */
+    public List<TileContent> handleUpdate(InteractionChain chain, Vector2 tilePosition, Interaction interaction, TileContent handler) throws GameStateUpdateException, UpdateTileContentException {
+        List<TileContent> handlers = new ArrayList<>();
+        for (int i = tileContentCount - 1; i >= 0; i = Math.min(i - 1, tileContentCount - 1)) {
+            TileContent content = tileContents[i];
+            if (content.update(chain, tilePosition, interaction, handler)) {
+                handlers.add(content);
+            }
         }
+        return handlers;
     }
 
     /**
-     * Retrieves the {@link TileContent} currently placed on this tile.
+     * Retrieves the bottom-most {@link TileContent} currently placed on this tile.
      *
-     * @return the current {@code TileContent} on the tile, or {@code null} if none is set
+     * @return the bottom-most {@code TileContent} on the tile, or {@code null} if none is set
      */
     public TileContent getTileContent() {
-        return tileContent;
+        return tileContentCount == 0 ? null : tileContents[0];
+    }
+
+    /**
+     * Retrieves the {@link TileContent} at the given index of this tile's content stack.
+     *
+     * @param index the index of the desired {@code TileContent} (0 for the bottom-most content)
+     * @return the {@code TileContent} at the specified index
+     * @throws IllegalArgumentException if no {@code TileContent} exists at the given index
+     */
+    public TileContent getTileContent(int index) {
+        if (index < 0 || index >= tileContentCount) {
+            throw new IllegalArgumentException("TileContent not found");
+        }
+        return tileContents[index];
+    }
+
+    /**
+     * Returns the number of {@link TileContent}s placed on this tile.
+     *
+     * @return the size of the content stack
+     */
+    public int getTileContentCount() {
+        return tileContentCount;
+    }
+
+    /**
+     * Returns the index of the specified {@link TileContent} in the content stack of this tile.
+     *
+     * @param tileContent the {@code TileContent} whose index is to be determined
+     * @return the index of the specified {@code TileContent}, or {@code -1} if not found
+     */
+    public int indexOfTileContent(TileContent tileContent) {
+        for (int i = 0; i < tileContentCount; i++) {
+            if (tileContents[i] == tileContent) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -80,75 +267,155 @@ public abstract class Tile implements Cloneable {
      * This method replaces any existing content on the tile with the specified {@code TileContent}.
      * </p>
      *
-     * @param tileContent the new {@code TileContent} to set on the tile
+     * @param tileContent the new {@code TileContent} to set on the tile; {@code null} removes every content
      */
     public void setTileContent(TileContent tileContent) {
-        this.tileContent = tileContent;
+        checkWritable();
+        TileContent[] previousContents = Arrays.copyOf(tileContents, tileContentCount);
+        Arrays.fill(tileContents, 0, tileContentCount, null);
+        tileContentCount = 0;
+        if (tileContent != null) {
+            ensureCapacity(1);
+            tileContents[tileContentCount++] = tileContent;
+        }
+
+        if (map != null) {
+            for (TileContent content : previousContents) {
+                map.onTileContentRemoved(row, column, content);
+            }
+            if (tileContent != null) {
+                map.onTileContentAdded(row, column, tileContent);
+            }
+        }
     }
 
     /**
-     * Adds the specified {@link TileContent} to this tile.
-     * <p>
-     * If the tile currently has no content, the provided {@code TileContent} is set directly.
-     * Otherwise, the new content is pushed onto the existing content stack.
-     * </p>
+     * Adds the specified {@link TileContent} on top of the content stack of this tile.
      *
      * @param tileContent the {@code TileContent} to add to the tile
      */
     public void pushTileContent(TileContent tileContent) {
-        if (this.tileContent == null) {
-            this.tileContent = tileContent;
-        } else {
-            this.tileContent.pushContent(tileContent);
+        if (tileContent == null) {
+            return;
+        }
+        checkWritable();
+        ensureCapacity(tileContentCount + 1);
+        tileContents[tileContentCount++] = tileContent;
+
+        if (map != null) {
+            map.onTileContentAdded(row, column, tileContent);
+        }
+    }
+
+    /**
+     * Inserts the specified {@link TileContent} at the given index of the content stack.
+     * Every content at or above that index moves up by one layer.
+     *
+     * @param index       the index the {@code TileContent} will be placed at (0 for the bottom-most content)
+     * @param tileContent the {@code TileContent} to insert
+     * @throws IllegalArgumentException if the index lies outside the content stack
+     */
+    public void insertTileContent(int index, TileContent tileContent) {
+        if (index < 0 || index > tileContentCount) {
+            throw new IllegalArgumentException("Invalid TileContent index");
+        }
+        checkWritable();
+        ensureCapacity(tileContentCount + 1);
+        System.arraycopy(tileContents, index, tileContents, index + 1, tileContentCount - index);
+        tileContents[index] = tileContent;
+        tileContentCount++;
+
+        if (map != null) {
+            map.onTileContentAdded(row, column, tileContent);
         }
     }
 
     /**
      * Removes and returns the top {@link TileContent} from this tile.
-     * <p>
-     * If the tile's content is a stack (i.e., contains nested {@code TileContent}),
-     * this method removes and returns the top element of that stack.
-     * If there is only one content element, it is removed and the tile's content is set to {@code null}.
      * If the tile has no content, {@code null} is returned.
-     * </p>
      *
      * @return the removed {@code TileContent}, or {@code null} if the tile was empty
      */
     public TileContent popTileContent() {
-        if (this.tileContent == null) {
+        if (tileContentCount == 0) {
             return null;
-        } else if (this.tileContent.getNextContent() == null) {
-            TileContent content = this.tileContent;
-            this.tileContent = null;
-            return content;
-        } else {
-            return this.tileContent.popContent();
         }
+        return removeTileContent(tileContentCount - 1);
+    }
+
+    /**
+     * Removes and returns the {@link TileContent} at the given index of the content stack.
+     * Every content above it moves down by one layer.
+     *
+     * @param index the index of the {@code TileContent} to remove (0 for the bottom-most content)
+     * @return the removed {@code TileContent}
+     * @throws IllegalArgumentException if no {@code TileContent} exists at the given index
+     */
+    public TileContent removeTileContent(int index) {
+        TileContent content = getTileContent(index);
+        checkWritable();
+        System.arraycopy(tileContents, index + 1, tileContents, index, tileContentCount - index - 1);
+        tileContents[--tileContentCount] = null;
+
+        if (map != null) {
+            map.onTileContentRemoved(row, column, content);
+        }
+        return content;
     }
 
     /**
      * Retrieves the top {@link TileContent} from this tile without removing it.
-     * <p>
-     * If the tile's content is a stack of {@code TileContent} objects, this method returns
-     * the top element of that stack. If the tile has no content, it returns {@code null}.
-     * </p>
+     * If the tile has no content, it returns {@code null}.
      *
      * @return the top {@code TileContent} on the tile, or {@code null} if the tile is empty
      */
     public TileContent topTileContent() {
-        if (this.tileContent == null) {
-            return null;
-        } else {
-            return this.tileContent.topContent();
+        return tileContentCount == 0 ? null : tileContents[tileContentCount - 1];
+    }
+
+    /**
+     * Grows the backing array of the content stack so that it can hold at least the given amount of contents.
+     *
+     * @param capacity the required capacity
+     */
+    private void ensureCapacity(int capacity) {
+        if (tileContents.length < capacity) {
+            tileContents = Arrays.copyOf(tileContents, Math.max(capacity, tileContents.length * 2));
+        }
+    }
+
+    /**
+     * Ensures that this tile may be modified, i.e. it isn't shared with a snapshot of its map.
+     *
+     * @throws IllegalStateException if the tile hasn't been retrieved via {@link Map#getWritableTile(int, int)}
+     */
+    private void checkWritable() {
+        if (map != null) {
+            map.checkRowWritable(row);
         }
     }
 
+    /**
+     * Places this tile on the given {@link Map}, which will be notified about every change of its content.
+     *
+     * @param map    the {@link Map} this tile is placed on, or {@code null} if it isn't placed on any map
+     * @param row    the row index of this tile
+     * @param column the column index of this tile
+     */
+    public void setLocation(Map map, int row, int column) {
+        this.map = map;
+        this.row = row;
+        this.column = column;
+    }
+
     @Override
     public Tile clone() {
         try {
             Tile cloned = (Tile) super.clone();
-            if (this.tileContent != null) {
-                cloned.tileContent = this.tileContent.clone();
+            cloned.map = null;
+            cloned.tileContents = tileContentCount == 0 ? EMPTY_CONTENTS : new TileContent[tileContents.length];
+            for (int i = 0; i < tileContentCount; i++) {
+                cloned.tileContents[i] = tileContents[i].clone();
             }
             return cloned;
         } catch (CloneNotSupportedException e) {
@@ -163,9 +430,14 @@ public abstract class Tile implements Cloneable {
 
         Tile other = (Tile) obj;
 
-        // Compare tileContent: both should be either equal or both should be null
-        if (tileContent != null ? !tileContent.equals(other.tileContent) : other.tileContent != null) {
-            return false;  // tileContent is not equal or one is null, return false
+        // Compare the content stacks layer by layer
+        if (tileContentCount != other.tileContentCount) {
+            return false;
+        }
+        for (int i = 0; i < tileContentCount; i++) {
+            if (!tileContents[i].equals(other.tileContents[i])) {
+                return false;
+            }
         }
 
         return true;
@@ -175,15 +447,15 @@ public abstract class Tile implements Cloneable {
      * Releases the resources used by this tile.
      * <p>
      * Disposes of the tile's texture if it is not {@code null}, and also calls {@code dispose()}
-     * on its {@link TileContent} if present.
+     * on every {@link TileContent} placed on it.
      * </p>
      */
     public void dispose() {
         if (texture != null) {
-            texture.dispose();
+            texture.getTexture().dispose();
         }
-        if (tileContent != null) {
-            tileContent.dispose();
+        for (int i = 0; i < tileContentCount; i++) {
+            tileContents[i].dispose();
         }
     }
 
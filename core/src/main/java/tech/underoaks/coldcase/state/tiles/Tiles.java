@@ -28,6 +28,20 @@ public enum Tiles {
         return index;
     }
 
+    /**
+     * Gets the identifier of a {@link Tile} class
+     * @param tileClass A {@link Class} extending {@link Tile} that will be the search target
+     * @return Index of the Class if found; -1 otherwise
+     */
+    public static int getIndexByClass(Class<? extends Tile> tileClass) {
+        for (Tiles tile : Tiles.values()) {
+            if (tile.tileClass.equals(tileClass)) {
+                return tile.getIndex();
+            }
+        }
+        return -1;
+    }
+
     /**
      * Creates a new instance of the tile.
      *
@@ -5,6 +5,8 @@ import tech.underoaks.coldcase.state.Map;
 import tech.underoaks.coldcase.state.tileContent.TileContent;
 import tech.underoaks.coldcase.state.tiles.Tile;
 
+import java.util.List;
+
 /**
  * The AddTileContentUpdate class represents a game state update that adds
  * specific tile content to a map.
@@ -13,6 +15,7 @@ import tech.underoaks.coldcase.state.tiles.Tile;
 public class AddTileContentUpdate extends GameStateUpdate {
     private final Vector2 targetPosition;
     private final TileContent targetTileContent;
+    private final int targetIndex;
 
     /**
      * Default-Constructor
@@ -20,16 +23,45 @@ public class AddTileContentUpdate extends GameStateUpdate {
      * @param targetTileContent The {@link TileContent} that needs to be added.
      */
     public AddTileContentUpdate(Vector2 targetPosition, TileContent targetTileContent) {
+        this(targetPosition, targetTileContent, -1);
+    }
+
+    /**
+     * Constructor placing the content at a specific layer instead of the top of the stack
+     * @param targetPosition The {@link Vector2} that is pointing to the desired Location.
+     * @param targetTileContent The {@link TileContent} that needs to be added.
+     * @param targetIndex The index (z-Axis) the content will be inserted at; -1 to place it on top.
+     */
+    public AddTileContentUpdate(Vector2 targetPosition, TileContent targetTileContent, int targetIndex) {
         super(UpdateTypes.MAP_MODIFICATION);
         this.targetPosition = targetPosition;
         this.targetTileContent = targetTileContent;
+        this.targetIndex = targetIndex;
     }
 
     @Override
     public void apply(Map map) {
-        Tile targetTile = map.getTile(targetPosition);
-        targetTile.pushTileContent(targetTileContent);
+        Tile targetTile = map.getWritableTile(targetPosition);
+        if (targetIndex < 0) {
+            targetTile.pushTileContent(targetTileContent);
+        } else {
+            targetTile.insertTileContent(targetIndex, targetTileContent);
+        }
 
         System.out.println(targetTile.topTileContent());
     }
+
+    @Override
+    public GameStateUpdate createInverse(Map map) {
+        if (targetTileContent == null) {
+            return null;
+        }
+        int index = targetIndex < 0 ? map.getTile(targetPosition).getTileContentCount() : targetIndex;
+        return new RemoveTileContentUpdate(targetPosition, index);
+    }
+
+    @Override
+    public List<Vector2> getAffectedPositions() {
+        return List.of(targetPosition);
+    }
 }
@@ -1,15 +1,18 @@
 package tech.underoaks.coldcase.state.updates;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.state.Map;
+import tech.underoaks.coldcase.state.tileContent.TileContent;
+
+import java.util.List;
 
 /**
  * A {@link GameStateUpdate} that changes the Texture of a specified {@link tech.underoaks.coldcase.state.tileContent.TileContent}
  */
 public class ChangeTextureUpdate extends GameStateUpdate {
 
-    private final Texture newTexture;
+    private final TextureRegion newTexture;
     private final Vector2 targetPosition;
     private final int sourceIndex;
 
@@ -19,7 +22,7 @@ public class ChangeTextureUpdate extends GameStateUpdate {
      * @param targetPosition The {@link Vector2} that is pointing to the desired Location.
      * @param sourceIndex The vertical (z) position of the TileContent that is being requested.s
      */
-    public ChangeTextureUpdate(Texture newTexture, Vector2 targetPosition, int sourceIndex) {
+    public ChangeTextureUpdate(TextureRegion newTexture, Vector2 targetPosition, int sourceIndex) {
         super(UpdateTypes.VISUAL_EFFECT);
         this.newTexture = newTexture;
         this.targetPosition = targetPosition;
@@ -28,6 +31,19 @@ public class ChangeTextureUpdate extends GameStateUpdate {
 
     @Override
     public void apply(Map map) {
-        map.getTileContentByIndex(targetPosition, sourceIndex).setTexture(newTexture);
+        TileContent content = map.getWritableTile(targetPosition).getTileContent(sourceIndex);
+        content.setTexture(newTexture);
+        map.onTileContentChanged((int) targetPosition.y, (int) targetPosition.x, content);
+    }
+
+    @Override
+    public GameStateUpdate createInverse(Map map) {
+        TextureRegion previous = map.getTileContentByIndex(targetPosition, sourceIndex).getTexture();
+        return new ChangeTextureUpdate(previous, targetPosition, sourceIndex);
+    }
+
+    @Override
+    public List<Vector2> getAffectedPositions() {
+        return List.of(targetPosition);
     }
 }
@@ -1,7 +1,10 @@
 package tech.underoaks.coldcase.state.updates;
 
+import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.state.Map;
 
+import java.util.List;
+
 /**
  * Abstract class representing an atomic change to the game state.
  */
@@ -25,4 +28,33 @@ public abstract class GameStateUpdate {
      * @param map the map that will receive changes.
      */
     public abstract void apply(Map map);
+
+    /**
+     * Gets the position of every tile that is modified when applying this update.
+     * <p>
+     * These tiles are marked as dirty so that {@link Map#updateUntilStable} only has to re-evaluate
+     * the {@link tech.underoaks.coldcase.state.tileContent.TileContent}s that may react to this update.
+     * </p>
+     *
+     * @return The affected positions; empty if no tile is modified.
+     */
+    public List<Vector2> getAffectedPositions() {
+        return List.of();
+    }
+
+    /**
+     * Creates the {@link GameStateUpdate} that reverts this update.
+     * <p>
+     * Has to be called right before this update is applied to the given map, as the inverse captures the state
+     * that is about to be overwritten. Applying the inverse afterwards restores the map to that state.
+     * Updates that modify the map must override this method.
+     * </p>
+     *
+     * @param map the map this update is about to be applied to.
+     * @return The inverse update, or {@code null} if applying this update does not modify the map.
+     * @see tech.underoaks.coldcase.state.InteractionChain#rollbackTo(int)
+     */
+    public GameStateUpdate createInverse(Map map) {
+        return null;
+    }
 }
@@ -7,7 +7,7 @@ import tech.underoaks.coldcase.state.tileContent.TileContent;
 import tech.underoaks.coldcase.state.tiles.Tile;
 import tech.underoaks.coldcase.state.tileContent.Player;
 
-import java.util.Stack;
+import java.util.List;
 
 /**
  * A {@link GameStateUpdate} that moves a TileContent from one location to another.
@@ -17,6 +17,7 @@ public class MoveUpdate extends GameStateUpdate {
     private final int sourceIndex;
     private final Vector2 sourcePosition;
     private final Vector2 targetPosition;
+    private final int targetIndex;
 
     /**
      * Default-Constructor
@@ -26,35 +27,42 @@ public class MoveUpdate extends GameStateUpdate {
      * @param targetPosition The target position of the TileContent
      */
     public MoveUpdate(Vector2 sourcePosition, int sourceIndex, Vector2 targetPosition) {
+        this(sourcePosition, sourceIndex, targetPosition, -1);
+    }
+
+    /**
+     * Constructor placing the content at a specific layer of the target tile instead of the top of its stack.
+     * <p>
+     * Used to restore a previous position, which is why these moves don't rotate the player.
+     * </p>
+     *
+     * @param sourcePosition The origin position of the TileContent
+     * @param sourceIndex    The {@link Vector2}-Position of the Content that will be updated.
+     * @param targetPosition The target position of the TileContent
+     * @param targetIndex    The index (z-Axis) the content will be inserted at; -1 to place it on top.
+     */
+    public MoveUpdate(Vector2 sourcePosition, int sourceIndex, Vector2 targetPosition, int targetIndex) {
         super(UpdateTypes.MAP_MODIFICATION);
         this.sourcePosition = sourcePosition;
         this.sourceIndex = sourceIndex;
         this.targetPosition = targetPosition;
+        this.targetIndex = targetIndex;
     }
 
     @Override
     public void apply(Map map) {
-        TileContent sourceContent = map.getTileContentByIndex(sourcePosition, sourceIndex);
-
-        Stack<TileContent> tileContents = new Stack<>();
-
-        Tile sourceTile = map.getTile(sourcePosition);
-        Tile targetTile = map.getTile(targetPosition);
-
-        TileContent poppedContent = sourceTile.popTileContent();
+        Tile sourceTile = map.getWritableTile(sourcePosition);
+        Tile targetTile = map.getWritableTile(targetPosition);
 
-        while (poppedContent != null && poppedContent != sourceContent) {
-            tileContents.push(poppedContent);
-            poppedContent = sourceTile.popTileContent();
+        TileContent sourceContent = sourceTile.removeTileContent(sourceIndex);
+        if (targetIndex >= 0) {
+            targetTile.insertTileContent(targetIndex, sourceContent);
+            return;
         }
-
         targetTile.pushTileContent(sourceContent);
 
-        while (!tileContents.isEmpty()) {
-            sourceTile.pushTileContent(tileContents.pop());
-        }
-
-        if (sourceContent.getClass() == Player.class) {
+        // Simulated moves must not rotate the player that is shown
+        if (sourceContent.getClass() == Player.class && !map.isSnapshotMap()) {
 
             Vector2 directionVector = targetPosition.cpy().sub(sourcePosition);
 
@@ -70,6 +78,23 @@ public class MoveUpdate extends GameStateUpdate {
         }
     }
 
+    @Override
+    public GameStateUpdate createInverse(Map map) {
+        int index = targetIndex;
+        if (index < 0) {
+            index = map.getTile(targetPosition).getTileContentCount();
+            if (targetPosition.equals(sourcePosition)) {
+                index--;
+            }
+        }
+        return new MoveUpdate(targetPosition, index, sourcePosition, sourceIndex);
+    }
+
+    @Override
+    public List<Vector2> getAffectedPositions() {
+        return List.of(sourcePosition, targetPosition);
+    }
+
     /**
      * Sets the direction the player is looking towards.
      *
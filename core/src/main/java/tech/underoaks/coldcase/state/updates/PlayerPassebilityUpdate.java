@@ -2,6 +2,9 @@ package tech.underoaks.coldcase.state.updates;
 
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.state.Map;
+import tech.underoaks.coldcase.state.tileContent.TileContent;
+
+import java.util.List;
 
 /**
  * A {@link GameStateUpdate} that changes the player-passability-parameter of a TileContent
@@ -27,6 +30,19 @@ public class PlayerPassebilityUpdate extends GameStateUpdate{
 
     @Override
     public void apply(Map map) {
-        map.getTileContentByIndex(targetPosition, sourceIndex).setPlayerPassable(passible);
+        TileContent content = map.getWritableTile(targetPosition).getTileContent(sourceIndex);
+        content.setPlayerPassable(passible);
+        map.onTileContentChanged((int) targetPosition.y, (int) targetPosition.x, content);
+    }
+
+    @Override
+    public GameStateUpdate createInverse(Map map) {
+        boolean previous = map.getTileContentByIndex(targetPosition, sourceIndex).isPlayerPassable();
+        return new PlayerPassebilityUpdate(previous, targetPosition, sourceIndex);
+    }
+
+    @Override
+    public List<Vector2> getAffectedPositions() {
+        return List.of(targetPosition);
     }
 }
@@ -2,10 +2,8 @@ package tech.underoaks.coldcase.state.updates;
 
 import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.state.Map;
-import tech.underoaks.coldcase.state.tileContent.TileContent;
-import tech.underoaks.coldcase.state.tiles.Tile;
 
-import java.util.Stack;
+import java.util.List;
 
 /**
  * The RemoveTileContentUpdate class represents a game state update that removes
@@ -30,23 +28,16 @@ public class RemoveTileContentUpdate extends GameStateUpdate {
 
     @Override
     public void apply(Map map) {
-        TileContent sourceContent = map.getTileContentByIndex(sourcePosition, sourceIndex);
-
-        Stack<TileContent> tileContents = new Stack<>();
-
-        Tile sourceTile = map.getTile(sourcePosition);
-        TileContent poppedContent = sourceTile.popTileContent();
-
+        map.getWritableTile(sourcePosition).removeTileContent(sourceIndex);
+    }
 
-        while (poppedContent != null ) {
-            if(poppedContent != sourceContent){
-                tileContents.push(poppedContent);
-            }
-            poppedContent = sourceTile.popTileContent();
-        }
+    @Override
+    public GameStateUpdate createInverse(Map map) {
+        return new AddTileContentUpdate(sourcePosition, map.getTile(sourcePosition).getTileContent(sourceIndex), sourceIndex);
+    }
 
-        while (!tileContents.isEmpty()) {
-            sourceTile.pushTileContent(tileContents.pop());
-        }
+    @Override
+    public List<Vector2> getAffectedPositions() {
+        return List.of(sourcePosition);
     }
 }
@@ -4,6 +4,8 @@ import com.badlogic.gdx.math.Vector2;
 import tech.underoaks.coldcase.state.Map;
 import tech.underoaks.coldcase.state.tileContent.TestContent;
 
+import java.util.List;
+
 /**
  * A test implementation of GameStateUpdate for adding TestContent to a tile.
  */
@@ -23,6 +25,16 @@ public class TestUpdate extends GameStateUpdate {
     @Override
     public void apply(Map map) {
         TestContent testContent = new TestContent();
-        map.getTile(pos).pushTileContent(testContent);
+        map.getWritableTile(pos).pushTileContent(testContent);
+    }
+
+    @Override
+    public GameStateUpdate createInverse(Map map) {
+        return new RemoveTileContentUpdate(pos, map.getTile(pos).getTileContentCount());
+    }
+
+    @Override
+    public List<Vector2> getAffectedPositions() {
+        return List.of(pos);
     }
 }
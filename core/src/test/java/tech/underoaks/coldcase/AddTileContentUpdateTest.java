@@ -1,6 +1,7 @@
 package tech.underoaks.coldcase;
 
 import com.badlogic.gdx.math.Vector2;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -8,6 +9,8 @@ import tech.underoaks.coldcase.state.Map;
 import tech.underoaks.coldcase.state.tileContent.TileContent;
 import tech.underoaks.coldcase.state.tiles.Tile;
 import tech.underoaks.coldcase.state.updates.AddTileContentUpdate;
+import tech.underoaks.coldcase.state.updates.GameStateUpdate;
+import tech.underoaks.coldcase.state.updates.RemoveTileContentUpdate;
 
 import static org.mockito.Mockito.*;
 
@@ -28,6 +31,7 @@ class AddTileContentUpdateTest {
 
         // Setup behavior
         when(mockMap.getTile(mockPosition)).thenReturn(mockTile);
+        when(mockMap.getWritableTile(mockPosition)).thenReturn(mockTile);
 
         // Create instance of AddTileContentUpdate with mocked values
         addTileContentUpdate = new AddTileContentUpdate(mockPosition, mockTileContent);
@@ -39,7 +43,21 @@ class AddTileContentUpdateTest {
         addTileContentUpdate.apply(mockMap);
 
         // Assert
-        verify(mockMap).getTile(mockPosition); // Verify the tile is retrieved from the map
+        verify(mockMap).getWritableTile(mockPosition); // Verify the tile is retrieved from the map for writing
         verify(mockTile).pushTileContent(mockTileContent); // Verify the tile content is pushed to the tile
     }
+
+    @Test
+    void createInverse_shouldRemoveTheAddedContent() {
+        // Arrange
+        when(mockTile.getTileContentCount()).thenReturn(2);
+
+        // Act
+        GameStateUpdate inverse = addTileContentUpdate.createInverse(mockMap);
+        inverse.apply(mockMap);
+
+        // Assert
+        Assertions.assertEquals(RemoveTileContentUpdate.class, inverse.getClass());
+        verify(mockTile).removeTileContent(2); // The content pushed on top of two others is removed again
+    }
 }
@@ -0,0 +1,139 @@
+package tech.underoaks.coldcase;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.game.TextureController;
+import tech.underoaks.coldcase.game.TextureFactory;
+import tech.underoaks.coldcase.state.CompactMapState;
+import tech.underoaks.coldcase.state.Map;
+import tech.underoaks.coldcase.state.tileContent.MovableBlockTranscendent;
+import tech.underoaks.coldcase.state.tileContent.VisibilityStates;
+import tech.underoaks.coldcase.state.tileContent.Wall;
+import tech.underoaks.coldcase.state.tiles.Tile;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CompactMapStateTest {
+
+    private Map map;
+
+    @BeforeAll
+    public static void beforeAll() {
+        TextureFactory mockTextureFactory = mock(TextureFactory.class);
+        when(mockTextureFactory.create(anyString())).thenReturn(mock(Texture.class));
+        TextureController.create(mockTextureFactory);
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        TextureController.destroy();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws URISyntaxException {
+        map = MapGenerator.serializeContentToMap(Path.of(
+            Objects.requireNonNull(getClass().getClassLoader().getResource("Map_Test")).toURI()
+        ), false);
+    }
+
+    @Test
+    public void encodeDecodeTest() {
+        CompactMapState state = CompactMapState.encode(map);
+
+        Map decoded = state.decode();
+        CompactMapState reencoded = CompactMapState.encode(decoded);
+
+        Assertions.assertEquals(map.getTileArrayHeight(), decoded.getTileArrayHeight());
+        Assertions.assertEquals(map.getTileArrayWidth(), decoded.getTileArrayWidth());
+        Assertions.assertEquals(state, reencoded);
+        Assertions.assertEquals(state.hash(), reencoded.hash());
+    }
+
+    @Test
+    public void copyTest() {
+        CompactMapState state = CompactMapState.encode(map);
+
+        CompactMapState copy = state.copy();
+
+        Assertions.assertNotSame(state, copy);
+        Assertions.assertEquals(state, copy);
+        Assertions.assertEquals(state.hash(), copy.hash());
+    }
+
+    @Test
+    public void stateChangeTest() {
+        CompactMapState state = CompactMapState.encode(map);
+        Vector2 position = new Vector2(0, 0);
+
+        map.getTile(position).pushTileContent(new Wall());
+        CompactMapState changed = CompactMapState.encode(map);
+
+        Assertions.assertNotEquals(state, changed);
+        Assertions.assertNotEquals(state.hash(), changed.hash());
+        Assertions.assertFalse(changed.isPlayerPassable(0, 0));
+    }
+
+    @Test
+    public void transcendentStateTest() {
+        Map other = map.deepClone();
+        Wall transcendentWall = new Wall();
+        transcendentWall.setVisibilityState(VisibilityStates.TRANSCENDENT);
+        map.getTile(new Vector2(0, 0)).pushTileContent(transcendentWall);
+        other.getTile(new Vector2(2, 2)).pushTileContent(new MovableBlockTranscendent());
+        int wallCount = other.getTile(new Vector2(0, 0)).getTileContentCount();
+        Map snapshot = other.snapshot();
+        long snapshotHash = snapshot.getTranscendentHash();
+
+        int[] state = map.getTranscendentState();
+        other.setTranscendentState(state);
+
+        Assertions.assertEquals(6, state.length);
+        Assertions.assertEquals(map.getTranscendentHash(), other.getTranscendentHash());
+        Assertions.assertEquals(map.deepClone().getTranscendentHash(), other.deepClone().getTranscendentHash());
+        Assertions.assertEquals(wallCount + 1, other.getTile(new Vector2(0, 0)).getTileContentCount());
+        Assertions.assertEquals(snapshotHash, snapshot.getTranscendentHash());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> other.setTranscendentState(new int[]{0, 0}));
+    }
+
+    @Test
+    public void transcendentStateTest_layersAndState() {
+        Map other = map.deepClone();
+        MovableBlockTranscendent bottom = new MovableBlockTranscendent();
+        bottom.setPlayerPassable(true);
+        bottom.setTexture(TextureController.getInstance().getGloveTexture());
+        int count = map.getTile(new Vector2(2, 2)).getTileContentCount();
+        map.getTile(new Vector2(2, 2)).insertTileContent(0, bottom);
+        map.getTile(new Vector2(2, 2)).pushTileContent(new MovableBlockTranscendent());
+
+        other.setTranscendentState(map.getTranscendentState());
+
+        Tile tile = other.getTile(new Vector2(2, 2));
+        Assertions.assertEquals(count + 2, tile.getTileContentCount());
+        Assertions.assertTrue(tile.getTileContent(0) instanceof MovableBlockTranscendent);
+        Assertions.assertTrue(tile.getTileContent(0).isPlayerPassable());
+        Assertions.assertSame(bottom.getTexture(), tile.getTileContent(0).getTexture());
+        Assertions.assertTrue(tile.topTileContent() instanceof MovableBlockTranscendent);
+        Assertions.assertFalse(tile.topTileContent().isPlayerPassable());
+        Assertions.assertEquals(map.getTranscendentHash(), other.getTranscendentHash());
+    }
+
+    @Test
+    public void transcendentStateTest_desync() {
+        Map other = map.deepClone();
+        other.getTile(new Vector2(2, 2)).pushTileContent(new MovableBlockTranscendent());
+        long hash = other.getTranscendentHash();
+        int id = other.getTranscendentState()[3];
+
+        // Layers beyond the contents of the tile and tiles outside of the map can't be restored
+        Assertions.assertThrows(IllegalArgumentException.class, () -> other.setTranscendentState(new int[]{2, 2, 99, id, 0, -1}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> other.setTranscendentState(new int[]{-1, 2, 0, id, 0, -1}));
+        Assertions.assertEquals(hash, other.getTranscendentHash());
+    }
+}
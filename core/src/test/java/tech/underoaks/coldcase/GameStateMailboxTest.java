@@ -0,0 +1,98 @@
+package tech.underoaks.coldcase;
+
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.game.GameStateMailbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateMailboxTest {
+
+    private GameStateMailbox mailbox;
+
+    @BeforeEach
+    public void beforeEach() {
+        mailbox = new GameStateMailbox();
+    }
+
+    @Test
+    public void orderTest() throws InterruptedException {
+        int producers = 4;
+        int commandsPerProducer = 1000;
+        List<Integer>[] executed = new List[producers];
+        Thread[] threads = new Thread[producers];
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            List<Integer> commands = new ArrayList<>();
+            executed[p] = commands;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < commandsPerProducer; i++) {
+                    int command = i;
+                    mailbox.post(() -> commands.add(command));
+                }
+            });
+            threads[p].start();
+        }
+
+        start.countDown();
+        int drained = 0;
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (Thread thread : threads) {
+                running |= thread.isAlive();
+            }
+            drained += mailbox.drain();
+        }
+        drained += mailbox.drain();
+
+        assertEquals(producers * commandsPerProducer, drained);
+        assertTrue(mailbox.isEmpty());
+        for (List<Integer> commands : executed) {
+            assertEquals(commandsPerProducer, commands.size());
+            for (int i = 0; i < commandsPerProducer; i++) {
+                assertEquals(i, (int) commands.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void failingCommandTest() {
+        List<String> executed = new ArrayList<>();
+        mailbox.post(() -> executed.add("first"));
+        mailbox.post(() -> {
+            throw new RuntimeException("failing command");
+        });
+        mailbox.post(() -> executed.add("third"));
+
+        assertEquals(3, mailbox.drain());
+        assertEquals(List.of("first", "third"), executed);
+    }
+
+    @Test
+    public void singleConsumerTest() throws InterruptedException {
+        mailbox.drain();
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            try {
+                mailbox.drain();
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        other.start();
+        other.join();
+
+        assertTrue(error.get() instanceof IllegalStateException);
+    }
+}
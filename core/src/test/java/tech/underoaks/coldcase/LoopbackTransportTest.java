@@ -0,0 +1,102 @@
+package tech.underoaks.coldcase;
+
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.remote.LoopbackTransport;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoopbackTransportTest {
+
+    private static final Object CLOSED = new Object();
+
+    private final LinkedBlockingQueue<Object> received = new LinkedBlockingQueue<>();
+
+    private LoopbackTransport connect(LoopbackTransport sender) {
+        LoopbackTransport receiver = new LoopbackTransport();
+        receiver.setReceiver(frame -> received.add(frame == null ? CLOSED : frame));
+        LoopbackTransport.connect(sender, receiver);
+        return receiver;
+    }
+
+    private Object nextFrame() throws InterruptedException {
+        return received.poll(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void deliveryTest() throws InterruptedException {
+        LoopbackTransport sender = new LoopbackTransport();
+        connect(sender);
+
+        sender.sendText("text");
+        ByteBuffer data = ByteBuffer.wrap(new byte[]{1, 2, 3});
+        sender.sendBinary(data);
+        data.put(0, (byte) 9);
+
+        assertEquals("text", nextFrame());
+        assertEquals(ByteBuffer.wrap(new byte[]{1, 2, 3}), nextFrame());
+    }
+
+    @Test
+    public void latencyTest() throws InterruptedException {
+        LoopbackTransport sender = new LoopbackTransport(50, 0, 0, 0);
+        connect(sender);
+
+        long start = System.nanoTime();
+        sender.sendText("delayed");
+
+        assertEquals("delayed", nextFrame());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void orderTest() throws InterruptedException {
+        LoopbackTransport sender = new LoopbackTransport(1, 20, 0, 7);
+        connect(sender);
+
+        for (int i = 0; i < 50; i++) {
+            sender.sendText(Integer.toString(i));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.toString(i), nextFrame());
+        }
+    }
+
+    @Test
+    public void lossTest() throws InterruptedException {
+        LoopbackTransport first = new LoopbackTransport(0, 0, 0.3, 42);
+        LoopbackTransport second = new LoopbackTransport(0, 0, 0.3, 42);
+        connect(first);
+        connect(second);
+
+        for (int i = 0; i < 200; i++) {
+            first.sendText("first");
+            second.sendText("second");
+        }
+
+        assertEquals(200, first.getSentCount());
+        assertTrue(first.getLostCount() > 0 && first.getLostCount() < 200);
+        assertEquals(first.getLostCount(), second.getLostCount());
+    }
+
+    @Test
+    public void closeTest() throws InterruptedException {
+        LoopbackTransport sender = new LoopbackTransport(20, 0, 0, 0);
+        LoopbackTransport receiver = connect(sender);
+        assertTrue(sender.isOpen());
+        assertTrue(receiver.isOpen());
+
+        sender.sendText("last");
+        sender.close();
+
+        assertFalse(sender.isOpen());
+        assertEquals("last", nextFrame());
+        assertSame(CLOSED, nextFrame());
+        assertFalse(receiver.isOpen());
+        assertThrows(Exception.class, () -> sender.sendText("too late").get());
+    }
+}
@@ -3,17 +3,25 @@ package tech.underoaks.coldcase;
 import com.badlogic.gdx.ApplicationListener;
 
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import tech.underoaks.coldcase.game.*;
 import tech.underoaks.coldcase.state.InteractionChain;
+import tech.underoaks.coldcase.state.RenderList;
 import tech.underoaks.coldcase.state.Snapshot;
 import tech.underoaks.coldcase.state.tileContent.TileContent;
+import tech.underoaks.coldcase.state.tileContent.VisibilityStates;
 import tech.underoaks.coldcase.state.tileContent.Wall;
 import tech.underoaks.coldcase.state.tiles.Tile;
 import tech.underoaks.coldcase.state.Map;
+import tech.underoaks.coldcase.state.updates.AddTileContentUpdate;
+import tech.underoaks.coldcase.state.updates.PlayerPassebilityUpdate;
+import tech.underoaks.coldcase.state.updates.RemoveTileContentUpdate;
 import tech.underoaks.coldcase.state.updates.UpdateTypes;
 import tech.underoaks.coldcase.state.updates.GameStateUpdate;
 import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
@@ -24,6 +32,9 @@ import java.util.List;
 import java.util.Objects;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.floatThat;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -49,7 +60,7 @@ class MapTest{
         @Override
         public void apply(Map map) {
 
-            map.getTile(0,0).pushTileContent( new BrokenTileContent() );
+            map.getWritableTile(0,0).pushTileContent( new BrokenTileContent() );
 
         }
     }
@@ -155,6 +166,104 @@ class MapTest{
         Assertions.assertNull( mockMap.getTileContentByType( Wall.class ));
     }
 
+    @Test
+    public void ContentIndexTest(){
+
+        Map snapshot = mockMap.snapshot();
+
+        // Index follows modifications of the snapshot without affecting the original
+        snapshot.getWritableTile(0,0).pushTileContent( new BrokenTileContent() );
+        Assertions.assertEquals( List.of(new Vector2(0,0)), snapshot.getTileContentsByType( BrokenTileContent.class ));
+        Assertions.assertNull( mockMap.getTileContentByType( BrokenTileContent.class ));
+
+        snapshot.getWritableTile(0,0).popTileContent();
+        Assertions.assertNull( snapshot.getTileContentByType( BrokenTileContent.class ));
+        Assertions.assertEquals( new Vector2(0,0), snapshot.getTileContentByType( TestTileContent.class ));
+
+    }
+
+    @Test
+    public void TranscendentHashTest(){
+
+        long initialHash = mockMap.getTranscendentHash();
+        Vector2 position = new Vector2(0,0);
+
+        // Content that is not transcendent does not change the hash
+        mockMap.getTile(position).pushTileContent( new BrokenTileContent() );
+        Assertions.assertEquals( initialHash, mockMap.getTranscendentHash() );
+
+        // Transcendent content is tracked incrementally and matches a full recomputation
+        TileContent transcendent = new BrokenTileContent();
+        transcendent.setVisibilityState( VisibilityStates.TRANSCENDENT );
+        mockMap.getTile(position).pushTileContent( transcendent );
+        Assertions.assertNotEquals( initialHash, mockMap.getTranscendentHash() );
+        Assertions.assertEquals( mockMap.deepClone().getTranscendentHash(), mockMap.getTranscendentHash() );
+
+        // Snapshots start with the hash of their map and diverge independently
+        Map snapshot = mockMap.snapshot();
+        Assertions.assertEquals( mockMap.getTranscendentHash(), snapshot.getTranscendentHash() );
+        snapshot.getWritableTile(position).popTileContent();
+        Assertions.assertEquals( initialHash, snapshot.getTranscendentHash() );
+        Assertions.assertNotEquals( initialHash, mockMap.getTranscendentHash() );
+
+    }
+
+    @Test
+    public void TranscendentHashStateTest() throws GameStateUpdateException {
+
+        Vector2 position = new Vector2(0,0);
+        TileContent transcendent = new BrokenTileContent();
+        transcendent.setVisibilityState( VisibilityStates.TRANSCENDENT );
+        mockMap.getTile(position).pushTileContent( transcendent );
+        long initialHash = mockMap.getTranscendentHash();
+
+        // Modifying the state of transcendent content is tracked incrementally and matches a full recomputation
+        InteractionChain chain = new InteractionChain(new Snapshot(mockMap));
+        Map snapshot = chain.getSnapshot().getSnapshotMap();
+        chain.addGameStateUpdate( new PlayerPassebilityUpdate(true, position, 1) );
+        Assertions.assertNotEquals( initialHash, snapshot.getTranscendentHash() );
+        Assertions.assertEquals( snapshot.deepClone().getTranscendentHash(), snapshot.getTranscendentHash() );
+        Assertions.assertEquals( initialHash, mockMap.getTranscendentHash() );
+
+        chain.rollback();
+        Assertions.assertEquals( initialHash, snapshot.getTranscendentHash() );
+
+        // Content is removed with the key it has been added with, even if its visibility has changed in the meantime
+        TileContent content = new BrokenTileContent();
+        mockMap.getWritableTile(position).pushTileContent( content );
+        content.setVisibilityState( VisibilityStates.TRANSCENDENT );
+        mockMap.getWritableTile(position).popTileContent();
+        Assertions.assertEquals( initialHash, mockMap.getTranscendentHash() );
+
+    }
+
+    @Test
+    public void InteractionChainRollbackTest() throws GameStateUpdateException {
+
+        InteractionChain chain = new InteractionChain(new Snapshot(mockMap));
+        Map snapshot = chain.getSnapshot().getSnapshotMap();
+        Vector2 position = new Vector2(0,0);
+        TileContent addedContent = new BrokenTileContent();
+
+        chain.addGameStateUpdate( new AddTileContentUpdate(position, addedContent) );
+        int savepoint = chain.savepoint();
+        chain.addGameStateUpdate( new RemoveTileContentUpdate(position, 0) );
+        chain.addGameStateUpdate( new AddTileContentUpdate(position, new BrokenTileContent()) );
+
+        // Only the updates after the savepoint are reverted
+        chain.rollbackTo(savepoint);
+        Assertions.assertEquals( 1, chain.getGSUQueue().size() );
+        Assertions.assertEquals( 2, snapshot.getTile(position).getTileContentCount() );
+        Assertions.assertEquals( TestTileContent.class, snapshot.getTile(position).getTileContent().getClass() );
+        Assertions.assertSame( addedContent, snapshot.getTile(position).topTileContent() );
+
+        chain.rollback();
+        Assertions.assertTrue( chain.getGSUQueue().isEmpty() );
+        Assertions.assertEquals( 1, snapshot.getTile(position).getTileContentCount() );
+        Assertions.assertSame( mockTileContent, mockMap.getTile(position).topTileContent() );
+
+    }
+
     @Test
     public void GetMatrixWidthAndHeightTest(){
 
@@ -299,6 +408,51 @@ class MapTest{
 
     }
 
+    @Test
+    public void SnapshotCopyOnWriteTest() {
+
+        Map snapshot = mockMap.snapshot();
+        Vector2 position = new Vector2(0,0);
+
+        // Rows are shared until they are modified
+        Assertions.assertSame(mockMap.tileArray[0], snapshot.tileArray[0]);
+
+        // Modifying the snapshot copies the row and leaves the original untouched
+        snapshot.getWritableTile(position).pushTileContent(new BrokenTileContent());
+        Assertions.assertNotSame(mockMap.tileArray[0], snapshot.tileArray[0]);
+        Assertions.assertSame(mockTileContent, mockMap.getTile(position).topTileContent());
+
+        // Modifying the original keeps its instances and leaves the snapshot untouched
+        Map secondSnapshot = mockMap.snapshot();
+        mockMap.getWritableTile(position).pushTileContent(new BrokenTileContent());
+        Assertions.assertSame(mockTile, mockMap.getTile(position));
+        Assertions.assertEquals(TestTileContent.class, secondSnapshot.getTile(position).topTileContent().getClass());
+
+    }
+
+    @Test
+    public void SnapshotReadTest() {
+
+        Map snapshot = mockMap.snapshot();
+        Vector2 position = new Vector2(0,0);
+
+        // Reading doesn't copy any row, neither on the snapshot nor on the original
+        Assertions.assertSame(mockTile, snapshot.getTile(position));
+        Assertions.assertSame(mockTile, mockMap.getTile(position));
+        Assertions.assertSame(mockMap.tileArray[0], snapshot.tileArray[0]);
+
+        // Tiles that may still be shared can't be modified without retrieving them for writing
+        Assertions.assertThrows(IllegalStateException.class, () -> snapshot.getTile(position).pushTileContent(new BrokenTileContent()));
+        Assertions.assertThrows(IllegalStateException.class, () -> mockMap.getTile(position).popTileContent());
+        Assertions.assertSame(mockTileContent, mockMap.getTile(position).topTileContent());
+
+        // A released snapshot doesn't receive a frozen copy of the modified row anymore
+        snapshot.release();
+        mockMap.getWritableTile(position).pushTileContent(new BrokenTileContent());
+        Assertions.assertSame(mockMap.tileArray[0], snapshot.tileArray[0]);
+
+    }
+
     @Test
     public void UpdateMapTest() {
 
@@ -354,7 +508,7 @@ class MapTest{
 
         }
 
-        mockMap.getTile(0,0).pushTileContent( new BrokenTileContent() );
+        mockMap.getWritableTile(0,0).pushTileContent( new BrokenTileContent() );
 
         snapshot = new Snapshot(mockMap);
 
@@ -450,4 +604,141 @@ class MapTest{
         Assertions.assertEquals(450.0f, result.x, 0.001f);
         Assertions.assertEquals(960.0f, result.y, 0.001f);
     }
+
+    /**
+     * Without an OpenGL context the ground layer is drawn with the batch: first every tile, then the contents are
+     * emitted into the render list, each at the position of {@code twoDToIso45}.
+     */
+    @Test
+    public void renderTest() {
+        Tile[][] tiles = new Tile[2][3];
+        for (Tile[] row : tiles) {
+            for (int x = 0; x < row.length; x++) {
+                row[x] = mock(Tile.class);
+            }
+        }
+        Map map = new Map(tiles);
+        Batch batch = mock(Batch.class);
+
+        map.render(batch, 100, 50);
+
+        // diagonal of the 2x3 map, see Map#render
+        float offsetY = (float) Math.sqrt(1 + 1.5 * 1.5) * 320 - 660;
+        InOrder inOrder = inOrder((Object[]) new Tile[]{tiles[0][0], tiles[0][1], tiles[0][2], tiles[1][0], tiles[1][1], tiles[1][2]});
+        for (int y = 0; y < tiles.length; y++) {
+            for (int x = 0; x < tiles[y].length; x++) {
+                Vector2 position = Map.twoDToIso45(x, y);
+                inOrder.verify(tiles[y][x]).renderGround(eq(batch), eq(100 + position.x - 540), floatThat(value -> Math.abs(value - (50 + position.y + offsetY)) < 0.01f));
+            }
+        }
+        for (int y = 0; y < tiles.length; y++) {
+            for (int x = 0; x < tiles[y].length; x++) {
+                Vector2 position = Map.twoDToIso45(x, y);
+                inOrder.verify(tiles[y][x]).emitContents(eq(map.getRenderList()), eq(position.x - 540), floatThat(value -> Math.abs(value - (position.y + offsetY)) < 0.01f), eq((x + y) * 2 + y));
+            }
+        }
+    }
+
+    /**
+     * Inverse of {@code TwoDToIso45Test_MixedInput}
+     */
+    @Test
+    public void Iso45ToTwoDTest() {
+        Vector2 result = Map.iso45ToTwoD(450, -960);
+        Assertions.assertEquals(2.0f, result.x, 0.001f);
+        Assertions.assertEquals(1.0f, result.y, 0.001f);
+    }
+
+    /**
+     * Only the tiles whose sprites overlap the visible area are rendered.
+     */
+    @Test
+    public void cullingTest() {
+        RenderedTile[][] tiles = new RenderedTile[30][30];
+        for (RenderedTile[] row : tiles) {
+            for (int x = 0; x < row.length; x++) {
+                row[x] = new RenderedTile();
+            }
+        }
+        Map map = new Map(tiles);
+        Rectangle visibleArea = new Rectangle(-3000, -2000, 6000, 4000);
+
+        map.render(mock(Batch.class), 0, 0, visibleArea);
+
+        float offsetY = (float) Math.sqrt(2 * 15 * 15) * 320 - 660;
+        int rendered = 0;
+        for (int y = 0; y < tiles.length; y++) {
+            for (int x = 0; x < tiles[y].length; x++) {
+                Vector2 position = Map.twoDToIso45(x, y);
+                // tile sprites are 1080 wide, contents reach up to 1620 above the tile
+                Rectangle sprites = new Rectangle(position.x - 540, position.y + offsetY, 1080, 1620);
+                if (sprites.overlaps(visibleArea)) {
+                    Assertions.assertTrue(tiles[y][x].rendered, "Tile " + x + "," + y + " is visible");
+                }
+                if (tiles[y][x].rendered) {
+                    rendered++;
+                }
+            }
+        }
+        Assertions.assertTrue(rendered > 0);
+        Assertions.assertTrue(rendered < 30 * 30 / 4);
+    }
+
+    /**
+     * A tile remembering whether its contents have been rendered
+     */
+    static class RenderedTile extends Tile {
+        boolean rendered = false;
+
+        public RenderedTile() {
+            super(mockTexture);
+        }
+
+        @Override
+        public void emitContents(RenderList list, float x, float y, int tileOrder) {
+            rendered = true;
+        }
+    }
+
+    /**
+     * The contents are drawn tile by tile from the back to the front, bottom to top on each tile. The render list
+     * is reused until a content changes.
+     */
+    @Test
+    public void renderListTest() {
+        Tile[][] tiles = new Tile[3][3];
+        for (Tile[] row : tiles) {
+            for (int x = 0; x < row.length; x++) {
+                row[x] = new TestTile();
+                row[x].pushTileContent(new TestTileContent());
+            }
+        }
+        tiles[1][1].pushTileContent(new TestTileContent());
+        Map map = new Map(tiles);
+        Batch batch = mock(Batch.class);
+
+        map.render(batch, 0, 0);
+
+        RenderList renderList = map.getRenderList();
+        Assertions.assertEquals(10, renderList.size());
+        Assertions.assertSame(tiles[0][0].getTileContent().getTexture(), renderList.getRegion(0));
+        Assertions.assertSame(tiles[2][2].getTileContent().getTexture(), renderList.getRegion(9));
+        for (int i = 1; i < renderList.size(); i++) {
+            Assertions.assertTrue(renderList.getDepth(i - 1) < renderList.getDepth(i));
+            // tiles further back are higher up on the screen
+            Assertions.assertTrue(renderList.getY(i - 1) >= renderList.getY(i));
+        }
+        int middle = 4;
+        Assertions.assertSame(tiles[1][1].getTileContent(0).getTexture(), renderList.getRegion(middle));
+        Assertions.assertSame(tiles[1][1].getTileContent(1).getTexture(), renderList.getRegion(middle + 1));
+
+        // Nothing has changed, so the render list isn't emitted again
+        tiles[0][0].getTileContent().setTexture(tiles[0][1].getTileContent().getTexture());
+        map.render(batch, 0, 0);
+        Assertions.assertNotSame(renderList.getRegion(1), renderList.getRegion(0));
+
+        map.getTile(0, 0).popTileContent();
+        map.render(batch, 0, 0);
+        Assertions.assertEquals(9, renderList.size());
+    }
 }
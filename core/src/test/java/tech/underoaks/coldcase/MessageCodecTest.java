@@ -0,0 +1,153 @@
+package tech.underoaks.coldcase;
+
+import com.badlogic.gdx.math.Vector2;
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.game.Direction;
+import tech.underoaks.coldcase.game.Interaction;
+import tech.underoaks.coldcase.remote.MessageCodec;
+import tech.underoaks.coldcase.remote.Messages;
+import tech.underoaks.coldcase.state.tileContent.PortalObject;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageCodecTest {
+
+    private final String uuid = UUID.randomUUID().toString();
+
+    @Test
+    public void executeRemoteTransactionTest() {
+        Queue<Interaction> interactions = new LinkedList<>();
+        interactions.add(new Interaction(new Vector2(3, -2), Direction.SOUTH, PortalObject.class.getName(), uuid, new int[]{1, -5, 300000}));
+        interactions.add(new Interaction(new Vector2(100, 7), Direction.WEST, "some.other.Caller", "TEST" + uuid, new int[0]));
+        interactions.add(new Interaction(new Vector2(0, 0), null, null, null, null));
+        Messages.ExecuteRemoteTransactionMessage message = new Messages.ExecuteRemoteTransactionMessage(uuid, interactions, true, false, Long.toHexString(-1234567L));
+        message.setCorrelationId("17");
+
+        Object decoded = MessageCodec.decode(MessageCodec.encode(message));
+
+        assertTrue(decoded instanceof Messages.ExecuteRemoteTransactionMessage);
+        Messages.ExecuteRemoteTransactionMessage messageObj = (Messages.ExecuteRemoteTransactionMessage) decoded;
+        assertEquals(uuid, messageObj.getRemoteGameControllerInstanceId());
+        assertEquals("17", messageObj.getCorrelationId());
+        assertTrue(messageObj.getSuppressTranscendentFollowUp());
+        assertFalse(messageObj.getCommit());
+        assertEquals(Long.toHexString(-1234567L), messageObj.getStateHash());
+        assertEquals(interactions.size(), messageObj.getInteractions().size());
+        for (Interaction expected : interactions) {
+            assertSameInteraction(expected, messageObj.getInteractions().poll());
+        }
+    }
+
+    @Test
+    public void executeRemoteTransactionResponseTest() {
+        Queue<Interaction> transcendentInteractions = new LinkedList<>();
+        transcendentInteractions.add(new Interaction(new Vector2(6, 2), Direction.EAST, PortalObject.class.getName(), uuid, new int[0]));
+        Messages.ExecuteRemoteTransactionResponseMessage message = new Messages.ExecuteRemoteTransactionResponseMessage(uuid, new LinkedList<>(), transcendentInteractions, true);
+
+        Messages.ExecuteRemoteTransactionResponseMessage messageObj = (Messages.ExecuteRemoteTransactionResponseMessage) MessageCodec.decode(MessageCodec.encode(message));
+
+        assertTrue(messageObj.getCommitted());
+        assertTrue(messageObj.getInteractions().isEmpty());
+        assertEquals(1, messageObj.getTranscendentInteractions().size());
+        assertSameInteraction(transcendentInteractions.peek(), messageObj.getTranscendentInteractions().peek());
+        assertNull(((Messages.ExecuteRemoteTransactionResponseMessage) MessageCodec.decode(MessageCodec.encode(
+            new Messages.ExecuteRemoteTransactionResponseMessage(uuid, null, null, false)))).getTranscendentInteractions());
+    }
+
+    @Test
+    public void singleInteractionTransactionTest() {
+        Queue<Interaction> interactions = new LinkedList<>();
+        interactions.add(new Interaction(new Vector2(4, 7), Direction.NORTH, PortalObject.class.getName(), uuid, new int[]{2}));
+        Messages.ExecuteRemoteTransactionMessage message = new Messages.ExecuteRemoteTransactionMessage(uuid, interactions, false, true, null);
+
+        byte[] frame = MessageCodec.encode(message);
+        Messages.ExecuteRemoteTransactionMessage messageObj = (Messages.ExecuteRemoteTransactionMessage) MessageCodec.decode(frame);
+
+        assertSameInteraction(interactions.peek(), messageObj.getInteractions().peek());
+        assertFalse(messageObj.getSuppressTranscendentFollowUp());
+        assertNull(messageObj.getStateHash());
+        assertNull(messageObj.getCorrelationId());
+        assertTrue(frame.length < 64);
+    }
+
+    @Test
+    public void simpleMessagesTest() {
+        assertEquals("0", ((Messages.undoMessage) MessageCodec.decode(MessageCodec.encode(new Messages.undoMessage("0")))).getStateHash());
+        assertEquals("00ff", ((Messages.undoMessage) MessageCodec.decode(MessageCodec.encode(new Messages.undoMessage("00ff")))).getStateHash());
+        assertEquals("123", ((Messages.redoMessage) MessageCodec.decode(MessageCodec.encode(new Messages.redoMessage("123")))).getStateHash());
+        assertEquals(3, ((Messages.startGameMessage) MessageCodec.decode(MessageCodec.encode(new Messages.startGameMessage(3)))).getLevelIndex());
+        assertTrue(MessageCodec.decode(MessageCodec.encode(new Messages.exitToMainMenuMessage())) instanceof Messages.exitToMainMenuMessage);
+
+        Messages.PingMessage ping = new Messages.PingMessage();
+        ping.setCorrelationId("42");
+        assertEquals("42", ((Messages.PingMessage) MessageCodec.decode(MessageCodec.encode(ping))).getCorrelationId());
+        assertTrue(MessageCodec.decode(MessageCodec.encode(new Messages.PongMessage())) instanceof Messages.PongMessage);
+    }
+
+    @Test
+    public void resumeSessionTest() {
+        Messages.ResumeSessionMessage message = new Messages.ResumeSessionMessage(uuid, 2, Long.toHexString(-42L), new String[]{"1", "ff"});
+        message.setCorrelationId("5");
+
+        Messages.ResumeSessionMessage messageObj = (Messages.ResumeSessionMessage) MessageCodec.decode(MessageCodec.encode(message));
+
+        assertEquals(uuid, messageObj.getRemoteGameControllerInstanceId());
+        assertEquals("5", messageObj.getCorrelationId());
+        assertEquals(2, messageObj.getLevelIndex());
+        assertEquals(Long.toHexString(-42L), messageObj.getStateHash());
+        assertArrayEquals(new String[]{"1", "ff"}, messageObj.getStateHistory());
+
+        Messages.ResumeSessionResponseMessage response = (Messages.ResumeSessionResponseMessage) MessageCodec.decode(MessageCodec.encode(
+            new Messages.ResumeSessionResponseMessage(2, "abc", new int[]{3, 4, 1, 10, 3, -1})));
+        assertEquals("abc", response.getStateHash());
+        assertArrayEquals(new int[]{3, 4, 1, 10, 3, -1}, response.getTranscendentState());
+        assertNull(((Messages.ResumeSessionResponseMessage) MessageCodec.decode(MessageCodec.encode(
+            new Messages.ResumeSessionResponseMessage(2, "abc", null)))).getTranscendentState());
+    }
+
+    @Test
+    public void batchTest() {
+        byte[] batch = MessageCodec.encodeBatch(List.of(
+            MessageCodec.encode(new Messages.undoMessage("1")),
+            MessageCodec.encode(new Messages.startGameMessage(2)),
+            MessageCodec.encode(new Messages.exitToMainMenuMessage())
+        ));
+
+        List<Object> messages = MessageCodec.decodeAll(ByteBuffer.wrap(batch));
+
+        assertEquals(3, messages.size());
+        assertEquals("1", ((Messages.undoMessage) messages.get(0)).getStateHash());
+        assertEquals(2, ((Messages.startGameMessage) messages.get(1)).getLevelIndex());
+        assertTrue(messages.get(2) instanceof Messages.exitToMainMenuMessage);
+        assertEquals(1, MessageCodec.decodeAll(ByteBuffer.wrap(MessageCodec.encode(new Messages.undoMessage("1")))).size());
+        assertThrows(IllegalArgumentException.class, () -> MessageCodec.decodeAll(ByteBuffer.wrap(Arrays.copyOf(batch, batch.length - 1))));
+    }
+
+    @Test
+    public void rejectedMessagesTest() {
+        Interaction fractional = new Interaction(new Vector2(0.5f, 1), Direction.EAST, PortalObject.class.getName(), uuid, null);
+        assertThrows(IllegalArgumentException.class, () -> MessageCodec.encode(new Messages.ExecuteRemoteTransactionMessage(uuid, new LinkedList<>(List.of(fractional)), false, true, null)));
+        assertThrows(IllegalArgumentException.class, () -> MessageCodec.encode("not a message"));
+
+        byte[] frame = MessageCodec.encode(new Messages.ExecuteRemoteTransactionMessage(uuid, new LinkedList<>(), false, true, "abc"));
+        byte[] otherVersion = frame.clone();
+        otherVersion[0] = (byte) (MessageCodec.VERSION + 1);
+        assertThrows(IllegalArgumentException.class, () -> MessageCodec.decode(otherVersion));
+        assertThrows(IllegalArgumentException.class, () -> MessageCodec.decode(Arrays.copyOf(frame, frame.length - 1)));
+    }
+
+    private static void assertSameInteraction(Interaction expected, Interaction actual) {
+        assertEquals(expected.getTargetPos(), actual.getTargetPos());
+        assertEquals(expected.getActionDirection(), actual.getActionDirection());
+        assertEquals(expected.getCaller(), actual.getCaller());
+        assertEquals(expected.getUuid(), actual.getUuid());
+        assertArrayEquals(expected.getParameters(), actual.getParameters());
+    }
+}
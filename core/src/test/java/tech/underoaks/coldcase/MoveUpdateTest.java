@@ -70,7 +70,7 @@ public class MoveUpdateTest {
 
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction);
+        game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
 
         // Ist der Player nicht mehr an seiner alten Position?
@@ -93,7 +93,7 @@ public class MoveUpdateTest {
 
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction);
+        game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
 
         // Ist der Player nicht mehr an seiner alten Position?
@@ -114,7 +114,7 @@ public class MoveUpdateTest {
 
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(2, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction);
+        game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
 
         // Ist der Player nicht mehr an seiner alten Position?
@@ -134,7 +134,7 @@ public class MoveUpdateTest {
 
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction);
+        game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
 
         // Ist der Player nicht mehr an seiner alten Position?
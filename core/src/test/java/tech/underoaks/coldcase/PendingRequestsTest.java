@@ -0,0 +1,88 @@
+package tech.underoaks.coldcase;
+
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.remote.Messages;
+import tech.underoaks.coldcase.remote.PendingRequests;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PendingRequestsTest {
+
+    private PendingRequests pendingRequests;
+
+    @BeforeEach
+    public void beforeEach() {
+        pendingRequests = new PendingRequests();
+    }
+
+    @Test
+    public void concurrentRequestsTest() throws Exception {
+        Messages.PingMessage first = new Messages.PingMessage();
+        Messages.PingMessage second = new Messages.PingMessage();
+        CompletableFuture<Object> firstFuture = pendingRequests.register(first, 5, TimeUnit.SECONDS);
+        CompletableFuture<Object> secondFuture = pendingRequests.register(second, 5, TimeUnit.SECONDS);
+
+        assertNotEquals(first.getCorrelationId(), second.getCorrelationId());
+        assertEquals(2, pendingRequests.size());
+
+        // Responses arrive out of order
+        Messages.PongMessage secondResponse = new Messages.PongMessage();
+        secondResponse.setCorrelationId(second.getCorrelationId());
+        Messages.PongMessage firstResponse = new Messages.PongMessage();
+        firstResponse.setCorrelationId(first.getCorrelationId());
+
+        assertTrue(pendingRequests.complete(secondResponse));
+        assertFalse(firstFuture.isDone());
+        assertTrue(pendingRequests.complete(firstResponse));
+
+        assertSame(firstResponse, firstFuture.get());
+        assertSame(secondResponse, secondFuture.get());
+        assertEquals(0, pendingRequests.size());
+        assertEquals(2, pendingRequests.getRttEstimator().getSampleCount());
+
+        // Duplicate response
+        assertFalse(pendingRequests.complete(firstResponse));
+    }
+
+    @Test
+    public void timeoutTest() throws InterruptedException {
+        Messages.PingMessage request = new Messages.PingMessage();
+        CompletableFuture<Object> future = pendingRequests.register(request, 50, TimeUnit.MILLISECONDS);
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertEquals(0, pendingRequests.size());
+
+        // Late response
+        Messages.PongMessage response = new Messages.PongMessage();
+        response.setCorrelationId(request.getCorrelationId());
+        assertFalse(pendingRequests.complete(response));
+    }
+
+    @Test
+    public void cancelTest() {
+        Messages.PingMessage request = new Messages.PingMessage();
+        CompletableFuture<Object> future = pendingRequests.register(request, 5, TimeUnit.SECONDS);
+
+        future.cancel(true);
+        assertEquals(0, pendingRequests.size());
+    }
+
+    @Test
+    public void cancelAllTest() {
+        CompletableFuture<Object> first = pendingRequests.register(new Messages.PingMessage(), 5, TimeUnit.SECONDS);
+        CompletableFuture<Object> second = pendingRequests.register(new Messages.PingMessage(), 5, TimeUnit.SECONDS);
+
+        pendingRequests.cancelAll(new CancellationException("Connection closed"));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(0, pendingRequests.size());
+    }
+}
@@ -149,13 +149,13 @@ public class PlayerControllerTest {
     public void testMove_NOK_PendingGSU() {
         // ARRANGE
         PlayerController.getInstance().setInventory(new GloveItem());
-        GameController.getInstance().triggerAction(
+        GameController.getInstance().triggerActionAsync(
             new Interaction(
                 new Vector2(8,2),
                 Direction.EAST,
                 PlayerController.class
             )
-        );
+        ).join();
         Vector2 previousPos = PlayerController.getInstance().getPlayerPosition();
 
         // ACT
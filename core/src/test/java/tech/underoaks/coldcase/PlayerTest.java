@@ -62,7 +62,7 @@ public class PlayerTest {
 
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction);
+        game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
 
         // Ist der Player nicht mehr an seiner alten Position?
@@ -84,7 +84,7 @@ public class PlayerTest {
 
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction);
+        game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
 
         // Ist der Player nicht mehr an seiner alten Position?
@@ -105,7 +105,7 @@ public class PlayerTest {
 
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(2, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction);
+        game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
 
         // Ist der Player nicht mehr an seiner alten Position?
@@ -125,7 +125,7 @@ public class PlayerTest {
 
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction);
+        game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
 
         // Ist der Player nicht mehr an seiner alten Position?
@@ -145,7 +145,7 @@ public class PlayerTest {
         );
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction_arrange);
+        game.gameController.triggerActionAsync(interaction_arrange).join();
         game.gameController.applyNextPendingGSU();
 
         // ACT
@@ -154,7 +154,7 @@ public class PlayerTest {
                 Direction.WEST,   // Richtung
                 Player.class
         );
-        boolean result = game.gameController.triggerAction(interaction_act);
+        boolean result = game.gameController.triggerActionAsync(interaction_act).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -172,7 +172,7 @@ public class PlayerTest {
         );
         TileContent expectedPlayer = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
 
-        game.gameController.triggerAction(interaction_arrangeA);
+        game.gameController.triggerActionAsync(interaction_arrangeA).join();
         game.gameController.applyNextPendingGSU();
 
         Interaction interaction_arrangeB = new Interaction(
@@ -180,7 +180,7 @@ public class PlayerTest {
                 Direction.EAST, // Richtung
                 Player.class
         );
-        game.gameController.triggerAction(interaction_arrangeB);
+        game.gameController.triggerActionAsync(interaction_arrangeB).join();
         game.gameController.applyNextPendingGSU();
 
         //ACT
@@ -189,7 +189,7 @@ public class PlayerTest {
                 Direction.EAST, // Richtung
                 Player.class
         );
-        boolean result = game.gameController.triggerAction(interaction_arrangeC);
+        boolean result = game.gameController.triggerActionAsync(interaction_arrangeC).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -0,0 +1,77 @@
+package tech.underoaks.coldcase;
+
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.remote.Reconnector;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReconnectorTest {
+
+    @Test
+    public void backoffTest() {
+        Reconnector reconnector = new Reconnector(() -> true, () -> {});
+
+        assertEquals(Reconnector.DEFAULT_INITIAL_DELAY_MILLIS, reconnector.getBackoffMillis(0));
+        assertEquals(2 * Reconnector.DEFAULT_INITIAL_DELAY_MILLIS, reconnector.getBackoffMillis(1));
+        assertEquals(8 * Reconnector.DEFAULT_INITIAL_DELAY_MILLIS, reconnector.getBackoffMillis(3));
+        assertEquals(Reconnector.DEFAULT_MAX_DELAY_MILLIS, reconnector.getBackoffMillis(10));
+        assertEquals(Reconnector.DEFAULT_MAX_DELAY_MILLIS, reconnector.getBackoffMillis(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void reconnectTest() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(1);
+        Reconnector reconnector = new Reconnector(1, 4, 10, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                return false;
+            }
+            connected.countDown();
+            return true;
+        }, () -> fail("Gave up although the third attempt succeeds"));
+
+        assertTrue(reconnector.start());
+        assertFalse(reconnector.start());
+
+        assertTrue(connected.await(5, TimeUnit.SECONDS));
+        waitUntilDone(reconnector);
+        assertEquals(3, reconnector.getAttempts());
+    }
+
+    @Test
+    public void giveUpTest() throws InterruptedException {
+        CountDownLatch gaveUp = new CountDownLatch(1);
+        Reconnector reconnector = new Reconnector(1, 4, 4, () -> false, gaveUp::countDown);
+
+        reconnector.start();
+
+        assertTrue(gaveUp.await(5, TimeUnit.SECONDS));
+        assertFalse(reconnector.isReconnecting());
+        assertEquals(4, reconnector.getAttempts());
+    }
+
+    @Test
+    public void cancelTest() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        Reconnector reconnector = new Reconnector(200, 200, 10, () -> attempts.incrementAndGet() < 0, () -> {});
+
+        reconnector.start();
+        reconnector.cancel();
+        Thread.sleep(300);
+
+        assertFalse(reconnector.isReconnecting());
+        assertEquals(0, attempts.get());
+    }
+
+    private static void waitUntilDone(Reconnector reconnector) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (reconnector.isReconnecting() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertFalse(reconnector.isReconnecting());
+    }
+}
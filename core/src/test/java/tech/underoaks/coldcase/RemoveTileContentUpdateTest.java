@@ -29,8 +29,8 @@ public class RemoveTileContentUpdateTest {
         removeTileContentUpdate = new RemoveTileContentUpdate(mockPosition, 0);
 
         // Mock behaviors
-        when(mockMap.getTile(mockPosition)).thenReturn(mockTile);
-        when(mockMap.getTileContentByIndex(mockPosition, 0)).thenReturn(mockTargetContent);
+        when(mockMap.getWritableTile(mockPosition)).thenReturn(mockTile);
+        when(mockTile.removeTileContent(0)).thenReturn(mockTargetContent);
 
 
     }
@@ -39,37 +39,20 @@ public class RemoveTileContentUpdateTest {
     void apply_shouldRemoveTileContentFromTargetTile() {
         removeTileContentUpdate.apply(mockMap);
 
-        verify(mockMap).getTileContentByIndex(mockPosition, 0);
-        verify(mockMap).getTile(mockPosition);
-        verify(mockTile, atLeastOnce()).popTileContent();
+        verify(mockMap).getWritableTile(mockPosition);
+        verify(mockTile).removeTileContent(0);
     }
 
     @Test
     void apply_shouldNotDeleteOtherTileContent() {
-        // Mock the structure of TileContent (a chain of parent -> child)
-        TileContent otherContent1 = mock(TileContent.class);
-        TileContent otherContent2 = mock(TileContent.class);
-
-        // Simulate the stack-like behavior for popTileContent
-        when(mockTile.popTileContent())
-            .thenReturn(otherContent1)  // First pop returns otherContent1
-            .thenReturn(mockTargetContent)  // Second pop returns the target
-            .thenReturn(null);  // Third pop indicates the stack is empty
-
-        // Simulate pushing content back onto the tile
-        doNothing().when(mockTile).pushTileContent(any(TileContent.class));
-
         // Act
         removeTileContentUpdate.apply(mockMap);
 
         // Assert
-        // Verify the popTileContent behavior
-        verify(mockTile, times(3)).popTileContent();
-
-        // Ensure the correct order of pushTileContent
-        verify(mockTile).pushTileContent(otherContent1);
-        verify(mockTile, never()).pushTileContent(mockTargetContent);  // Target should not be re-added
-        verify(mockTile, never()).pushTileContent(otherContent2);  // Content not popped should not be re-added
+        // Only the target is removed, the remaining stack is left untouched
+        verify(mockTile, times(1)).removeTileContent(anyInt());
+        verify(mockTile, never()).popTileContent();
+        verify(mockTile, never()).pushTileContent(any(TileContent.class));
     }
 
 }
@@ -0,0 +1,130 @@
+package tech.underoaks.coldcase;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.junit.jupiter.api.*;
+import org.mockito.InOrder;
+import tech.underoaks.coldcase.state.RenderList;
+import tech.underoaks.coldcase.state.tileContent.TileContent;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RenderListTest {
+
+    private final Texture first = mock(Texture.class);
+    private final Texture second = mock(Texture.class);
+
+    private TextureRegion region(Texture texture) {
+        TextureRegion region = mock(TextureRegion.class);
+        when(region.getTexture()).thenReturn(texture);
+        return region;
+    }
+
+    @Test
+    public void sortTest() {
+        RenderList renderList = new RenderList();
+        TextureRegion region = region(first);
+        int[] depths = {5, 1, 5, 0x30000, 1, 0};
+        for (int i = 0; i < depths.length; i++) {
+            renderList.add(region, i, 0, depths[i]);
+        }
+
+        renderList.sort();
+
+        float[] expected = {5, 1, 4, 0, 2, 3};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], renderList.getX(i));
+        }
+        assertEquals(0x30000, renderList.getDepth(5));
+    }
+
+    @Test
+    public void randomSortTest() {
+        RenderList renderList = new RenderList();
+        TextureRegion region = region(first);
+        Random random = new Random(42);
+        Integer[] commands = new Integer[2000];
+        int[] depths = new int[commands.length];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = i;
+            depths[i] = random.nextInt(random.nextBoolean() ? 16 : Integer.MAX_VALUE);
+            renderList.add(region, i, 0, depths[i]);
+        }
+
+        renderList.sort();
+        Arrays.sort(commands, Comparator.comparingInt(i -> depths[i]));
+
+        assertEquals(commands.length, renderList.size());
+        for (int i = 0; i < commands.length; i++) {
+            assertEquals((float) commands[i], renderList.getX(i));
+        }
+    }
+
+    @Test
+    public void reuseTest() {
+        RenderList renderList = new RenderList();
+        TextureRegion region = region(first);
+        renderList.add(region, 0, 0, 2);
+        renderList.add(region, 1, 0, 1);
+        renderList.sort();
+
+        renderList.clear();
+        assertEquals(0, renderList.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> renderList.getX(0));
+
+        renderList.add(region, 2, 0, 1);
+        renderList.sort();
+        assertEquals(1, renderList.size());
+        assertEquals(2, renderList.getX(0));
+        assertEquals(0, renderList.getRegionId(0));
+    }
+
+    @Test
+    public void textureSwitchTest() {
+        RenderList renderList = new RenderList();
+        TextureRegion firstRegion = region(first);
+        renderList.add(firstRegion, 0, 0, 0);
+        renderList.add(region(first), 0, 0, 1);
+        renderList.add(region(second), 0, 0, 2);
+        renderList.addCustom(mock(TileContent.class), 0, 0, 3);
+        renderList.add(firstRegion, 0, 0, 4);
+        renderList.sort();
+
+        assertEquals(4, renderList.getTextureSwitchCount());
+        assertEquals(RenderList.CUSTOM, renderList.getRegionId(3));
+        assertNull(renderList.getRegion(3));
+        assertEquals(renderList.getRegionId(0), renderList.getRegionId(4));
+    }
+
+    @Test
+    public void submitTest() {
+        RenderList renderList = new RenderList();
+        TextureRegion region = new TextureRegion(first);
+        TileContent label = mock(TileContent.class);
+        renderList.add(region, 10, 20, RenderList.depthKey(1, 0));
+        renderList.addCustom(label, 30, 40, RenderList.depthKey(0, 1));
+        renderList.sort();
+        Batch batch = mock(Batch.class);
+
+        renderList.submit(batch, 100, 200);
+
+        InOrder inOrder = inOrder(label, batch);
+        inOrder.verify(label).render(batch, 130, 240);
+        inOrder.verify(batch).draw(region, 110, 220);
+    }
+
+    @Test
+    public void depthKeyTest() {
+        assertTrue(RenderList.depthKey(0, 300) < RenderList.depthKey(1, 0));
+        assertEquals(RenderList.depthKey(2, 1000), RenderList.depthKey(2, 255));
+        assertThrows(IllegalArgumentException.class, () -> new RenderList().add(mock(TextureRegion.class), 0, 0, -1));
+    }
+}
@@ -0,0 +1,31 @@
+package tech.underoaks.coldcase;
+
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.game.RenderStatistics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderStatisticsTest {
+
+    @Test
+    public void recordTest() {
+        RenderStatistics statistics = new RenderStatistics();
+        assertEquals(0, statistics.getAverageDrawCalls());
+
+        statistics.record(4, 2);
+        statistics.record(2, 1);
+        statistics.record(6, 3);
+
+        assertEquals(3, statistics.getFrameCount());
+        assertEquals(6, statistics.getLastDrawCalls());
+        assertEquals(3, statistics.getLastTextureBindings());
+        assertEquals(6, statistics.getMaxDrawCalls());
+        assertEquals(3, statistics.getMaxTextureBindings());
+        assertEquals(4, statistics.getAverageDrawCalls(), 1e-9);
+        assertEquals(2, statistics.getAverageTextureBindings(), 1e-9);
+
+        statistics.reset();
+        assertEquals(0, statistics.getFrameCount());
+        assertEquals(0, statistics.getMaxDrawCalls());
+    }
+}
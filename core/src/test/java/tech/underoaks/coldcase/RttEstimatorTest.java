@@ -0,0 +1,90 @@
+package tech.underoaks.coldcase;
+
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.remote.RttEstimator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RttEstimatorTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private RttEstimator estimator;
+
+    @BeforeEach
+    public void beforeEach() {
+        estimator = new RttEstimator();
+    }
+
+    @Test
+    public void initialTimeoutTest() {
+        assertEquals(RttEstimator.INITIAL_TIMEOUT_NANOS, estimator.getTimeoutNanos());
+        assertEquals(0, estimator.getPercentileNanos(50));
+    }
+
+    @Test
+    public void convergenceTest() {
+        for (int i = 0; i < 100; i++) {
+            estimator.addSample(100 * MILLIS);
+        }
+
+        assertEquals(100 * MILLIS, estimator.getSmoothedRttNanos(), MILLIS);
+        assertTrue(estimator.getRttVarianceNanos() < MILLIS);
+        // A steady round trip time shortens the timeout down to the lower bound
+        assertEquals(RttEstimator.MIN_TIMEOUT_NANOS, estimator.getTimeoutNanos());
+
+        for (int i = 0; i < 100; i++) {
+            estimator.addSample((i % 2 == 0 ? 200 : 600) * MILLIS);
+        }
+
+        assertEquals(400 * MILLIS, estimator.getSmoothedRttNanos(), 50 * MILLIS);
+        assertTrue(estimator.getTimeoutNanos() > 600 * MILLIS);
+        assertTrue(estimator.getTimeoutNanos() < RttEstimator.MAX_TIMEOUT_NANOS);
+    }
+
+    @Test
+    public void backoffTest() {
+        estimator.addSample(400 * MILLIS);
+        long timeout = estimator.getTimeoutNanos();
+
+        estimator.onTimeout();
+        assertEquals(2 * timeout, estimator.getTimeoutNanos());
+        estimator.onTimeout();
+        assertEquals(4 * timeout, estimator.getTimeoutNanos());
+        for (int i = 0; i < 100; i++) {
+            estimator.onTimeout();
+        }
+        assertEquals(RttEstimator.MAX_TIMEOUT_NANOS, estimator.getTimeoutNanos());
+        assertEquals(102, estimator.getTimeoutCount());
+
+        // The next answered request ends the backoff
+        estimator.addSample(400 * MILLIS);
+        assertTrue(estimator.getTimeoutNanos() <= timeout);
+    }
+
+    @Test
+    public void percentileTest() {
+        for (int i = 1; i <= 100; i++) {
+            estimator.addSample(i * MILLIS);
+        }
+
+        assertEquals(50 * MILLIS, estimator.getPercentileNanos(50));
+        assertEquals(90 * MILLIS, estimator.getPercentileNanos(90));
+        assertEquals(99 * MILLIS, estimator.getPercentileNanos(99));
+        assertEquals(100 * MILLIS, estimator.getPercentileNanos(100));
+        assertEquals(MILLIS, estimator.getPercentileNanos(0));
+        assertEquals(100 * MILLIS, estimator.getLastRttNanos());
+    }
+
+    @Test
+    public void resetTest() {
+        estimator.addSample(100 * MILLIS);
+        estimator.onTimeout();
+
+        estimator.reset();
+
+        assertEquals(0, estimator.getSampleCount());
+        assertEquals(0, estimator.getTimeoutCount());
+        assertEquals(RttEstimator.INITIAL_TIMEOUT_NANOS, estimator.getTimeoutNanos());
+    }
+}
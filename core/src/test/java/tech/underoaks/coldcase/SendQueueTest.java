@@ -0,0 +1,111 @@
+package tech.underoaks.coldcase;
+
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.remote.MessageCodec;
+import tech.underoaks.coldcase.remote.Messages;
+import tech.underoaks.coldcase.remote.SendQueue;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SendQueueTest {
+
+    /**
+     * Sink that records the written frames and completes them once released
+     */
+    private static class RecordingSink implements SendQueue.Sink {
+        private final LinkedBlockingQueue<Object> frames = new LinkedBlockingQueue<>();
+        private volatile CompletableFuture<Void> release = CompletableFuture.completedFuture(null);
+
+        @Override
+        public Future<Void> sendText(String text) {
+            frames.add(text);
+            return release;
+        }
+
+        @Override
+        public Future<Void> sendBinary(ByteBuffer data) {
+            frames.add(data);
+            return release;
+        }
+
+        private Object nextFrame() throws InterruptedException {
+            return frames.poll(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private RecordingSink sink;
+    private SendQueue sendQueue;
+
+    @BeforeEach
+    public void beforeEach() {
+        sink = new RecordingSink();
+        sendQueue = new SendQueue(8, sink);
+    }
+
+    @Test
+    public void coalesceTest() throws InterruptedException {
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        sink.release = release;
+
+        // The first frame is written right away, the following ones are queued while it is being written
+        sendQueue.offer(MessageCodec.encode(new Messages.undoMessage("1")));
+        Object first = sink.nextFrame();
+        sendQueue.offer(MessageCodec.encode(new Messages.undoMessage("2")));
+        sendQueue.offer(MessageCodec.encode(new Messages.redoMessage("3")));
+        sendQueue.offer("text");
+        release.complete(null);
+
+        assertEquals(1, MessageCodec.decodeAll((ByteBuffer) first).size());
+        List<Object> coalesced = MessageCodec.decodeAll((ByteBuffer) sink.nextFrame());
+        assertEquals(2, coalesced.size());
+        assertEquals("2", ((Messages.undoMessage) coalesced.get(0)).getStateHash());
+        assertEquals("3", ((Messages.redoMessage) coalesced.get(1)).getStateHash());
+        assertEquals("text", sink.nextFrame());
+    }
+
+    @Test
+    public void backpressureTest() throws InterruptedException {
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        sink.release = release;
+
+        sendQueue.offer("first");
+        assertEquals("first", sink.nextFrame());
+        for (int i = 0; i < 8; i++) {
+            assertTrue(sendQueue.offer("message " + i));
+        }
+
+        assertTrue(sendQueue.isBackpressured());
+        assertEquals(8, sendQueue.getDepth());
+        assertFalse(sendQueue.offer("rejected"));
+        assertEquals(1, sendQueue.getStatistics().getDroppedCount());
+
+        release.complete(null);
+        for (int i = 0; i < 8; i++) {
+            assertEquals("message " + i, sink.nextFrame());
+        }
+        assertFalse(sendQueue.isBackpressured());
+    }
+
+    @Test
+    public void clearTest() throws InterruptedException {
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        sink.release = release;
+
+        sendQueue.offer("first");
+        assertEquals("first", sink.nextFrame());
+        sendQueue.offer("second");
+        sendQueue.offer("third");
+
+        sendQueue.clear();
+
+        assertEquals(0, sendQueue.getDepth());
+        assertEquals(2, sendQueue.getStatistics().getDroppedCount());
+    }
+}
@@ -0,0 +1,98 @@
+package tech.underoaks.coldcase;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import org.junit.jupiter.api.*;
+import tech.underoaks.coldcase.game.TextureController;
+import tech.underoaks.coldcase.game.TextureFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.Mockito.*;
+
+public class TextureControllerTest {
+
+    @AfterEach
+    public void afterEach() {
+        TextureController.destroy();
+        TextureController.setIsDetective(true);
+    }
+
+    @Test
+    public void withoutAtlasTest() {
+        TextureFactory factory = mock(TextureFactory.class);
+        when(factory.create(anyString())).thenAnswer(invocation -> mock(Texture.class));
+
+        TextureController controller = TextureController.create(factory);
+
+        assertFalse(controller.isAtlasLoaded());
+        // Images requested more than once, even by different paths, are only loaded once
+        verify(factory, times(1)).create("./sprites/player_detective_right.png");
+        verify(factory, times(1)).create(endsWith("sprites/block_transcendent_2.png"));
+        assertSame(controller.getMovableBlockTranscendantTexture(), controller.getTranscendentTestBlockTexture());
+        assertSame(controller.getPlayerTexture(), controller.getPlayerTextureEast());
+        assertNotSame(controller.getPlayerTexture().getTexture(), controller.getPlayerTextureNorth().getTexture());
+    }
+
+    @Test
+    public void atlasImagesTest() {
+        String atlasImages = System.getProperty("coldcase.atlasImages");
+        Assumptions.assumeTrue(atlasImages != null, "The packed images are only known when running the Gradle build");
+        Set<String> packedImages = Set.of(atlasImages.split(";"));
+
+        List<String> loadedImages = new ArrayList<>();
+        TextureFactory factory = mock(TextureFactory.class);
+        when(factory.create(anyString())).thenAnswer(invocation -> {
+            loadedImages.add(invocation.getArgument(0));
+            return mock(Texture.class);
+        });
+
+        TextureController.create(factory);
+
+        // Every image that isn't packed would be drawn from its own texture, flushing the batch
+        assertFalse(loadedImages.isEmpty());
+        for (String path : loadedImages) {
+            String name = path.startsWith("./") ? path.substring(2) : path;
+            assertTrue(packedImages.contains(name), "Image is missing in atlasImages of build.gradle: " + name);
+        }
+    }
+
+    @Test
+    public void atlasTest() {
+        Texture page = mock(Texture.class);
+        when(page.getWidth()).thenReturn(4096);
+        when(page.getHeight()).thenReturn(4096);
+        TextureAtlas.AtlasRegion portal = new TextureAtlas.AtlasRegion(page, 0, 0, 100, 50);
+        portal.offsetX = 10;
+        portal.offsetY = 20;
+        portal.originalWidth = 200;
+        portal.originalHeight = 100;
+
+        TextureAtlas atlas = mock(TextureAtlas.class);
+        when(atlas.findRegion(anyString())).thenReturn(new TextureAtlas.AtlasRegion(page, 100, 0, 32, 32));
+        when(atlas.findRegion("sprites/portal")).thenReturn(portal);
+        TextureFactory factory = mock(TextureFactory.class);
+        when(factory.createAtlas(TextureController.ATLAS_PATH)).thenReturn(atlas);
+
+        TextureController controller = TextureController.create(factory);
+
+        assertTrue(controller.isAtlasLoaded());
+        assertSame(portal, controller.getPortalObjectTexture());
+        verify(atlas).findRegion("isometric tileset/separated images/tile_101");
+        verify(factory, never()).create(anyString());
+        assertTrue(TextureController.createSprite(portal) instanceof TextureAtlas.AtlasSprite);
+
+        // The whitespace stripped when packing is restored when drawing
+        Batch batch = mock(Batch.class);
+        TextureController.draw(batch, portal, 1, 2);
+        verify(batch).draw(portal, 11f, 22f, 100f, 50f);
+        TextureController.draw(batch, portal, 0, 0, 400, 200);
+        verify(batch).draw(portal, 20f, 40f, 200f, 100f);
+    }
+}
@@ -90,11 +90,13 @@ public class TileTest {
     }
 
     @Test
-    void pushTileContent_ShouldDelegateToExistingContent_WhenTileIsNotEmpty(){
+    void pushTileContent_ShouldStackOnExistingContent_WhenTileIsNotEmpty(){
         mockTile.setTileContent(mockTileContent);
 
         mockTile.pushTileContent(mockTileContentZwo);
-        assertEquals(mockTileContentZwo, mockTileContent.getNextContent());
+        assertEquals(mockTileContent, mockTile.getTileContent(0));
+        assertEquals(mockTileContentZwo, mockTile.getTileContent(1));
+        assertEquals(mockTileContentZwo, mockTile.topTileContent());
     }
 
     //Tests for popTileContent
@@ -111,11 +113,34 @@ public class TileTest {
     }
 
     @Test
-    void popTileContent_ShouldDelegateToChildTileContent_WhenChainContainsMultipleContents() {
+    void popTileContent_ShouldReturnTopTileContent_WhenStackContainsMultipleContents() {
         mockTile.setTileContent(mockTileContent);
-        mockTileContent.setNextContent(mockTileContentZwo);
+        mockTile.pushTileContent(mockTileContentZwo);
 
         assertEquals(mockTileContentZwo,mockTile.popTileContent());
+        assertEquals(mockTileContent,mockTile.topTileContent());
+    }
+
+    //Tests for removeTileContent
+    @Test
+    void removeTileContent_ShouldKeepOrderOfRemainingContents() {
+        TileContent mockTileContentDrei = new TestTileContent();
+        mockTile.setTileContent(mockTileContent);
+        mockTile.pushTileContent(mockTileContentZwo);
+        mockTile.pushTileContent(mockTileContentDrei);
+
+        assertEquals(mockTileContentZwo, mockTile.removeTileContent(1));
+        assertEquals(2, mockTile.getTileContentCount());
+        assertEquals(0, mockTile.indexOfTileContent(mockTileContent));
+        assertEquals(1, mockTile.indexOfTileContent(mockTileContentDrei));
+        assertEquals(-1, mockTile.indexOfTileContent(mockTileContentZwo));
+    }
+
+    @Test
+    void removeTileContent_ShouldThrow_WhenIndexDoesNotExist() {
+        mockTile.setTileContent(mockTileContent);
+
+        assertThrows(IllegalArgumentException.class, () -> mockTile.removeTileContent(1));
     }
 
     //Tests for topTileContent
@@ -0,0 +1,198 @@
+package tech.underoaks.coldcase.benchmark;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.math.Vector2;
+import tech.underoaks.coldcase.MapGenerator;
+import tech.underoaks.coldcase.game.Direction;
+import tech.underoaks.coldcase.game.GameController;
+import tech.underoaks.coldcase.game.Interaction;
+import tech.underoaks.coldcase.game.TextureController;
+import tech.underoaks.coldcase.game.TextureFactory;
+import tech.underoaks.coldcase.remote.LoopbackTransport;
+import tech.underoaks.coldcase.remote.RemoteGameController;
+import tech.underoaks.coldcase.remote.RttEstimator;
+import tech.underoaks.coldcase.remote.WebSocketClient;
+import tech.underoaks.coldcase.remote.WebSocketMessagesManager;
+import tech.underoaks.coldcase.state.tileContent.Player;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures remote transactions between a detective and a ghost instance running in the same process, connected by a
+ * {@link LoopbackTransport} instead of the relay server.
+ * <p>
+ * The game controllers and the WebSocket client are singletons, therefore every instance is loaded by its own class
+ * loader. The instances only exchange {@link Consumer}s, {@link String}s and {@link java.nio.ByteBuffer}s, which are
+ * shared by both class loaders. Every link profile is run with a fixed seed, so its jitter and losses are reproducible.
+ * </p>
+ * <p>
+ * Run with {@code ./gradlew core:loopbackProtocolBenchmark}.
+ * </p>
+ */
+public class LoopbackProtocolBenchmark {
+    private static final int REQUESTS = 400;
+    private static final int IN_FLIGHT = 8;
+    private static final long SEED = 42;
+
+    /**
+     * Link profiles as one-way latency and jitter in milliseconds and loss rate
+     */
+    private static final double[][] PROFILES = {
+        {0, 0, 0},
+        {5, 2, 0},
+        {20, 10, 0},
+        {40, 20, 0.01}
+    };
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-22s %8s %10s %8s %8s %8s %8s %s%n", "link", "requests", "req/s",
+            "p50 ms", "p90 ms", "p99 ms", "timeouts", "lost/sent frames");
+        for (double[] profile : PROFILES) {
+            Object detective = Role.start(loader(), (long) profile[0], (long) profile[1], profile[2], true);
+            Object ghost = Role.start(loader(), (long) profile[0], (long) profile[1], profile[2], false);
+            Role.connect(detective, ghost);
+
+            String result = (String) Role.invoke(detective, "run", new Class<?>[]{int.class, int.class}, REQUESTS, IN_FLIGHT);
+            long[] detectiveFrames = (long[]) Role.invoke(detective, "getFrames", new Class<?>[0]);
+            long[] ghostFrames = (long[]) Role.invoke(ghost, "getFrames", new Class<?>[0]);
+            System.out.printf("%-22s %s %4d/%-4d%n", String.format("%.0f+-%.0f ms, %.0f%% loss", profile[0], profile[1], profile[2] * 100),
+                result, detectiveFrames[1] + ghostFrames[1], detectiveFrames[0] + ghostFrames[0]);
+
+            Role.invoke(detective, "stop", new Class<?>[0]);
+            Role.invoke(ghost, "stop", new Class<?>[0]);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Creates a class loader that loads the game classes again, so they get their own singletons.
+     */
+    private static ClassLoader loader() throws MalformedURLException {
+        String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+        URL[] urls = new URL[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            urls[i] = Path.of(entries[i]).toUri().toURL();
+        }
+        return new URLClassLoader(urls, ClassLoader.getPlatformClassLoader());
+    }
+
+    /**
+     * One game instance, loaded by its own class loader and only accessed by reflection
+     */
+    public static class Role {
+        private static LoopbackTransport transport;
+        private static Interaction interaction;
+
+        /**
+         * Loads a game instance and opens its end of the link.
+         *
+         * @return the role class of the new instance
+         */
+        private static Class<?> start(ClassLoader loader, long latencyMillis, long jitterMillis, double lossRate, boolean detective) throws Exception {
+            Class<?> role = loader.loadClass(Role.class.getName());
+            invoke(role, "open", new Class<?>[]{long.class, long.class, double.class, long.class, boolean.class},
+                latencyMillis, jitterMillis, lossRate, detective ? SEED : SEED + 1, detective);
+            return role;
+        }
+
+        /**
+         * Connects the links of two game instances with each other.
+         */
+        @SuppressWarnings("unchecked")
+        private static void connect(Object first, Object second) throws Exception {
+            Consumer<Object> firstInbound = (Consumer<Object>) invoke(first, "getInbound", new Class<?>[0]);
+            Consumer<Object> secondInbound = (Consumer<Object>) invoke(second, "getInbound", new Class<?>[0]);
+            invoke(first, "link", new Class<?>[]{Consumer.class}, secondInbound);
+            invoke(second, "link", new Class<?>[]{Consumer.class}, firstInbound);
+            invoke(first, "connect", new Class<?>[0]);
+            invoke(second, "connect", new Class<?>[0]);
+        }
+
+        private static Object invoke(Object role, String name, Class<?>[] parameterTypes, Object... arguments) throws Exception {
+            Method method = ((Class<?>) role).getMethod(name, parameterTypes);
+            return method.invoke(null, arguments);
+        }
+
+        public static void open(long latencyMillis, long jitterMillis, double lossRate, long seed, boolean detective) throws Exception {
+            TextureFactory textureFactory = mock(TextureFactory.class);
+            when(textureFactory.create(anyString())).thenReturn(mock(Texture.class));
+            TextureController.create(textureFactory);
+            WebSocketMessagesManager.setBinaryWireFormat(true);
+            if (!detective) {
+                GameController.getInstance().setCurrentMap(MapGenerator.serializeContentToMap(Path.of(
+                    Objects.requireNonNull(Role.class.getClassLoader().getResource("Map_Test")).toURI()
+                ), true));
+            }
+            // An interaction without a handler, so every transaction is simulated and rolled back by the ghost
+            interaction = new Interaction(new Vector2(0, 0), Direction.EAST, Player.class);
+            transport = new LoopbackTransport(latencyMillis, jitterMillis, lossRate, seed);
+        }
+
+        public static Consumer<Object> getInbound() {
+            return transport.getInbound();
+        }
+
+        public static void link(Consumer<Object> peer) {
+            transport.connect(peer);
+        }
+
+        public static void connect() {
+            WebSocketClient.getInstance().connect(transport);
+        }
+
+        /**
+         * Sends remote transactions, keeping a fixed number of them in flight.
+         *
+         * @return the formatted results
+         */
+        public static String run(int requests, int inFlight) {
+            RttEstimator rttEstimator = WebSocketMessagesManager.getInstance().getRttEstimator();
+            rttEstimator.reset();
+
+            long start = System.nanoTime();
+            CompletableFuture<?>[] window = new CompletableFuture<?>[inFlight];
+            for (int i = 0; i < requests; i++) {
+                if (window[i % inFlight] != null) {
+                    window[i % inFlight].exceptionally(e -> null).join();
+                }
+                Queue<Interaction> interactions = new LinkedList<>();
+                interactions.add(interaction);
+                window[i % inFlight] = RemoteGameController.executeTransactionAsync(interactions, false, null);
+            }
+            CompletableFuture.allOf(window).exceptionally(e -> null).join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            return String.format("%8d %10.0f %8.2f %8.2f %8.2f %8d", requests, requests / seconds,
+                rttEstimator.getPercentileNanos(50) / 1e6, rttEstimator.getPercentileNanos(90) / 1e6,
+                rttEstimator.getPercentileNanos(99) / 1e6, rttEstimator.getTimeoutCount());
+        }
+
+        /**
+         * Gets the frames written by this instance; requests are coalesced, so there are fewer frames than messages.
+         *
+         * @return the number of sent and of lost frames
+         */
+        public static long[] getFrames() {
+            return new long[]{transport.getSentCount(), transport.getLostCount()};
+        }
+
+        public static void stop() {
+            WebSocketClient.getInstance().closeSession();
+            TextureController.destroy();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package tech.underoaks.coldcase.benchmark;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Json;
+import tech.underoaks.coldcase.game.Direction;
+import tech.underoaks.coldcase.game.Interaction;
+import tech.underoaks.coldcase.remote.Message;
+import tech.underoaks.coldcase.remote.MessageCodec;
+import tech.underoaks.coldcase.remote.Messages;
+import tech.underoaks.coldcase.state.tileContent.Door_Trigger;
+import tech.underoaks.coldcase.state.tileContent.Player;
+import tech.underoaks.coldcase.state.tileContent.PortalObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.UUID;
+
+/**
+ * Compares the size and the encode and decode times of the JSON and the binary wire format for typical messages.
+ * <p>
+ * Run with {@code ./gradlew core:messageCodecBenchmark}.
+ * </p>
+ */
+public class MessageCodecBenchmark {
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final long MEASURE_NANOS = 300_000_000L;
+
+    private static final Json json = new Json();
+    private static final String uuid = UUID.randomUUID().toString();
+
+    public static void main(String[] args) {
+        Object[] messages = {
+            request(new Messages.ExecuteRemoteTransactionMessage(UUID.randomUUID().toString(), single(interaction(Player.class.getName(), 4, 7)), false, true, null)),
+            response(new Messages.ExecuteRemoteTransactionResponseMessage(UUID.randomUUID().toString(), interactions(2), null, true)),
+            request(new Messages.ExecuteRemoteTransactionMessage(UUID.randomUUID().toString(), interactions(4), false, true, Long.toHexString(0x9E3779B97F4A7C15L))),
+            response(new Messages.ExecuteRemoteTransactionResponseMessage(UUID.randomUUID().toString(), interactions(3), interactions(1), true)),
+            request(new Messages.ResumeSessionMessage(UUID.randomUUID().toString(), 2, Long.toHexString(0x1234ABCDL), new String[]{Long.toHexString(0x5678EF01L)})),
+            new Messages.undoMessage(Long.toHexString(0xCAFEBABEL))
+        };
+
+        System.out.printf("%-40s %10s %10s %12s %12s %12s %12s%n", "message", "json [B]", "binary [B]",
+            "json enc", "binary enc", "json dec", "binary dec");
+        for (Object message : messages) {
+            String text = json.toJson(message, Object.class);
+            byte[] frame = MessageCodec.encode(message);
+            if (!json.toJson(MessageCodec.decode(frame), Object.class).equals(text)) {
+                throw new IllegalStateException("Binary round trip changed " + message.getClass().getSimpleName());
+            }
+
+            double jsonEncode = measure(() -> json.toJson(message, Object.class));
+            double binaryEncode = measure(() -> MessageCodec.encode(message));
+            double jsonDecode = measure(() -> json.fromJson(Object.class, text));
+            double binaryDecode = measure(() -> MessageCodec.decode(frame));
+            System.out.printf("%-40s %10d %10d %9.0f ns %9.0f ns %9.0f ns %9.0f ns%n", message.getClass().getSimpleName(),
+                text.getBytes(StandardCharsets.UTF_8).length, frame.length, jsonEncode, binaryEncode, jsonDecode, binaryDecode);
+        }
+    }
+
+    private static Interaction interaction(String caller, int x, int y, int... parameters) {
+        return new Interaction(new Vector2(x, y), Direction.values()[(x + y) % 4], caller, uuid, parameters);
+    }
+
+    private static Queue<Interaction> single(Interaction interaction) {
+        Queue<Interaction> interactions = new LinkedList<>();
+        interactions.add(interaction);
+        return interactions;
+    }
+
+    private static Queue<Interaction> interactions(int count) {
+        Queue<Interaction> interactions = new LinkedList<>();
+        for (int i = 0; i < count; i++) {
+            interactions.add(i % 2 == 0
+                ? interaction(PortalObject.class.getName(), i, 2 * i, i)
+                : interaction(Door_Trigger.class.getName(), 10 + i, i));
+        }
+        return interactions;
+    }
+
+    private static Message request(Message message) {
+        message.setCorrelationId("42");
+        return message;
+    }
+
+    private static Message response(Message message) {
+        message.setCorrelationId("41");
+        return message;
+    }
+
+    private static double measure(Runnable operation) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            operation.run();
+        }
+
+        int rounds = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            operation.run();
+            rounds++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        return (double) elapsed / rounds;
+    }
+}
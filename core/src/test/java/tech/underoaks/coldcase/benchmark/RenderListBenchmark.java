@@ -0,0 +1,99 @@
+package tech.underoaks.coldcase.benchmark;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Rectangle;
+import tech.underoaks.coldcase.game.TextureController;
+import tech.underoaks.coldcase.game.TextureFactory;
+import tech.underoaks.coldcase.state.Map;
+import tech.underoaks.coldcase.state.RenderList;
+import tech.underoaks.coldcase.state.tileContent.Hole;
+import tech.underoaks.coldcase.state.tileContent.MovableBlock;
+import tech.underoaks.coldcase.state.tileContent.Wall;
+import tech.underoaks.coldcase.state.tiles.GroundTile;
+import tech.underoaks.coldcase.state.tiles.Tile;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the frames of {@link Map#render(Batch, float, float, Rectangle)} on boards of increasing size without a
+ * GPU, once with a render list that has to be emitted and sorted again and once with a reused one.
+ * <p>
+ * Every image is loaded as its own texture, like without a texture atlas, so the texture switches show how often the
+ * depth order forces the batch to flush. The visible area is the size of the viewport of the stages.
+ * </p>
+ * <p>
+ * Run with {@code ./gradlew core:renderListBenchmark}.
+ * </p>
+ */
+public class RenderListBenchmark {
+    private static final int[] SIZES = {16, 32, 64, 128, 256};
+    private static final int WARMUP_ROUNDS = 200;
+    private static final long MEASURE_NANOS = 300_000_000L;
+    private static final Rectangle VISIBLE_AREA = new Rectangle(-9600, -5400, 19200, 10800);
+
+    public static void main(String[] args) {
+        TextureFactory textureFactory = mock(TextureFactory.class);
+        when(textureFactory.create(anyString())).thenAnswer(invocation -> mock(Texture.class));
+        TextureController.create(textureFactory);
+        // Doesn't record its invocations, which would otherwise pile up over the measured frames
+        Batch batch = mock(Batch.class, withSettings().stubOnly());
+
+        System.out.printf("%-10s %10s %10s %10s %16s %14s%n", "board", "tiles", "commands", "switches",
+            "rebuilt [us]", "reused [us]");
+        for (int size : SIZES) {
+            Map map = createBoard(size);
+            map.render(batch, 0, 0, VISIBLE_AREA);
+            RenderList renderList = map.getRenderList();
+
+            double rebuilt = measure(map, batch, true);
+            double reused = measure(map, batch, false);
+            System.out.printf("%-10s %10d %10d %10d %16.1f %14.1f%n", size + "x" + size, size * size,
+                renderList.size(), renderList.getTextureSwitchCount(), rebuilt / 1000, reused / 1000);
+        }
+        TextureController.destroy();
+    }
+
+    private static Map createBoard(int size) {
+        Tile[][] tiles = new Tile[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                tiles[i][j] = new GroundTile();
+                switch ((i * 7 + j * 3) % 5) {
+                    case 0 -> tiles[i][j].pushTileContent(new Wall());
+                    case 1 -> tiles[i][j].pushTileContent(new MovableBlock());
+                    case 2 -> tiles[i][j].pushTileContent(new Hole());
+                    default -> {
+                    }
+                }
+            }
+        }
+        return new Map(tiles);
+    }
+
+    private static double measure(Map map, Batch batch, boolean rebuild) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            renderFrame(map, batch, rebuild);
+        }
+
+        int rounds = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            renderFrame(map, batch, rebuild);
+            rounds++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        return (double) elapsed / rounds;
+    }
+
+    private static void renderFrame(Map map, Batch batch, boolean rebuild) {
+        if (rebuild) {
+            map.invalidateRenderList();
+        }
+        map.render(batch, 0, 0, VISIBLE_AREA);
+    }
+}
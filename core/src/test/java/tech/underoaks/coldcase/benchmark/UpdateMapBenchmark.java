@@ -0,0 +1,206 @@
+package tech.underoaks.coldcase.benchmark;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.math.Vector2;
+import tech.underoaks.coldcase.game.Direction;
+import tech.underoaks.coldcase.game.Interaction;
+import tech.underoaks.coldcase.game.TextureController;
+import tech.underoaks.coldcase.game.TextureFactory;
+import tech.underoaks.coldcase.state.InteractionChain;
+import tech.underoaks.coldcase.state.Map;
+import tech.underoaks.coldcase.state.Snapshot;
+import tech.underoaks.coldcase.state.tileContent.TileContent;
+import tech.underoaks.coldcase.state.tiles.GroundTile;
+import tech.underoaks.coldcase.state.tiles.Tile;
+import tech.underoaks.coldcase.state.updates.GameStateUpdate;
+import tech.underoaks.coldcase.state.updates.GameStateUpdateException;
+import tech.underoaks.coldcase.state.updates.PlayerPassebilityUpdate;
+import tech.underoaks.coldcase.state.updates.RemoveTileContentUpdate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares serial and parallel {@link Map#updateMap} passes on boards of increasing size and prints the board size
+ * from which on the parallel pass is faster.
+ * <p>
+ * Before measuring, both passes are checked to issue the same updates in the same order and to leave the same map
+ * behind, including contents that issue several updates depending on each other.
+ * </p>
+ * <p>
+ * Run with {@code ./gradlew core:updateMapBenchmark}. The result is the basis of
+ * {@link Map#DEFAULT_PARALLEL_UPDATE_THRESHOLD}.
+ * </p>
+ */
+public class UpdateMapBenchmark {
+    private static final int[] SIZES = {8, 16, 32, 48, 64, 96, 128, 192, 256};
+    private static final int WARMUP_ROUNDS = 20;
+    private static final long MEASURE_NANOS = 300_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        TextureFactory textureFactory = mock(TextureFactory.class);
+        when(textureFactory.create(anyString())).thenReturn(mock(Texture.class));
+        TextureController.create(textureFactory);
+
+        System.out.printf("%-10s %14s %14s %8s%n", "board", "serial [us]", "parallel [us]", "speedup");
+        Integer crossover = null;
+        for (int size : SIZES) {
+            Map map = createBoard(size);
+
+            InteractionChain serialPass = runPass(map, Integer.MAX_VALUE);
+            InteractionChain parallelPass = runPass(map, 0);
+            if (!sameUpdates(new ArrayList<>(serialPass.getGSUQueue()), new ArrayList<>(parallelPass.getGSUQueue()))) {
+                throw new IllegalStateException("Parallel pass produced a different update order on a " + size + "x" + size + " board");
+            }
+            if (!describe(serialPass.getSnapshot().getSnapshotMap()).equals(describe(parallelPass.getSnapshot().getSnapshotMap()))) {
+                throw new IllegalStateException("Parallel pass produced a different map on a " + size + "x" + size + " board");
+            }
+
+            double serial = measure(map, Integer.MAX_VALUE);
+            double parallel = measure(map, 0);
+            System.out.printf("%-10s %14.1f %14.1f %8.2f%n", size + "x" + size, serial / 1000, parallel / 1000, serial / parallel);
+            if (crossover == null && parallel < serial) {
+                crossover = size * size;
+            }
+        }
+
+        System.out.println(crossover == null
+            ? "The parallel pass was never faster"
+            : "The parallel pass is faster from " + crossover + " tiles on");
+        Map.setParallelUpdateThreshold(Map.DEFAULT_PARALLEL_UPDATE_THRESHOLD);
+        TextureController.destroy();
+    }
+
+    private static Map createBoard(int size) {
+        Tile[][] tiles = new Tile[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                tiles[i][j] = new GroundTile();
+                tiles[i][j].pushTileContent(new Sensor());
+                if ((i * 7 + j) % 5 == 0) {
+                    tiles[i][j].pushTileContent(new Pit());
+                }
+            }
+        }
+        return new Map(tiles);
+    }
+
+    private static InteractionChain runPass(Map map, int threshold) throws Exception {
+        Map.setParallelUpdateThreshold(threshold);
+        InteractionChain chain = new InteractionChain(new Snapshot(map));
+        chain.getSnapshot().getSnapshotMap().updateMap(chain, new Interaction(new Vector2(0, 0), Direction.EAST, UpdateMapBenchmark.class), null);
+        chain.getSnapshot().release();
+        return chain;
+    }
+
+    private static double measure(Map map, int threshold) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runPass(map, threshold);
+        }
+
+        int rounds = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            runPass(map, threshold);
+            rounds++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        return (double) elapsed / rounds;
+    }
+
+    private static boolean sameUpdates(List<GameStateUpdate> expected, List<GameStateUpdate> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!expected.get(i).getAffectedPositions().equals(actual.get(i).getAffectedPositions())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> describe(Map map) {
+        List<String> contents = new ArrayList<>();
+        for (int i = 0; i < map.getTileArrayHeight(); i++) {
+            for (int j = 0; j < map.getTileArrayWidth(); j++) {
+                Tile tile = map.getTile(j, i);
+                for (int k = 0; k < tile.getTileContentCount(); k++) {
+                    TileContent content = tile.getTileContent(k);
+                    contents.add(i + "," + j + "," + k + ":" + content.getClass().getSimpleName() + "," + content.isPlayerPassable());
+                }
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * Synthetic {@link TileContent} that inspects its surroundings on every update, similar to pressure plates and
+     * triggers, and changes its passability depending on them.
+     */
+    private static class Sensor extends TileContent {
+        private Sensor() {
+            super(mock(Texture.class), true, true);
+        }
+
+        @Override
+        public boolean action(InteractionChain chain, Interaction interaction) {
+            return false;
+        }
+
+        @Override
+        public boolean update(InteractionChain chain, Vector2 tilePosition, Interaction interaction, TileContent handler) throws GameStateUpdateException {
+            Map map = chain.getSnapshot().getSnapshotMap();
+            int neighbours = 0;
+            for (int i = -Map.OBSERVATION_RANGE; i <= Map.OBSERVATION_RANGE; i++) {
+                for (int j = -Map.OBSERVATION_RANGE; j <= Map.OBSERVATION_RANGE; j++) {
+                    Vector2 position = tilePosition.cpy().add(i, j);
+                    if (!map.isOutOfBounds(position) && map.getTile(position).topTileContent() instanceof Sensor) {
+                        neighbours++;
+                    }
+                }
+            }
+
+            if ((neighbours + (int) tilePosition.x * 31 + (int) tilePosition.y) % 7 != 0) {
+                return false;
+            }
+            int index = map.getChildIndex(tilePosition, this);
+            chain.addGameStateUpdate(new PlayerPassebilityUpdate(!isPlayerPassable(), tilePosition, index));
+            return true;
+        }
+    }
+
+    /**
+     * Synthetic {@link TileContent} that swallows the content below it and itself, like a {@code Hole} swallowing a
+     * block. The index of the second content is only valid once the first one has been removed.
+     */
+    private static class Pit extends TileContent {
+        private Pit() {
+            super(mock(Texture.class), false, true);
+        }
+
+        @Override
+        public boolean action(InteractionChain chain, Interaction interaction) {
+            return false;
+        }
+
+        @Override
+        public boolean update(InteractionChain chain, Vector2 tilePosition, Interaction interaction, TileContent handler) throws GameStateUpdateException {
+            Map map = chain.getSnapshot().getSnapshotMap();
+            int index = map.getChildIndex(tilePosition, this);
+            if (index < 1) {
+                return false;
+            }
+            TileContent below = map.getTileContentByIndex(tilePosition, index - 1);
+
+            chain.addGameStateUpdate(new RemoveTileContentUpdate(tilePosition, map.getChildIndex(tilePosition, this)));
+            chain.addGameStateUpdate(new RemoveTileContentUpdate(tilePosition, map.getChildIndex(tilePosition, below)));
+            return true;
+        }
+    }
+}
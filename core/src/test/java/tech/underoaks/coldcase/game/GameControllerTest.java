@@ -3,14 +3,16 @@ package tech.underoaks.coldcase.game;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.math.Vector2;
 import org.junit.jupiter.api.*;
-import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
 import tech.underoaks.coldcase.HeadlessApplicationListener;
 import tech.underoaks.coldcase.MapGenerator;
+import tech.underoaks.coldcase.remote.Messages;
 import tech.underoaks.coldcase.remote.RemoteGameController;
 import tech.underoaks.coldcase.state.InteractionChain;
 import tech.underoaks.coldcase.state.Map;
 import tech.underoaks.coldcase.state.Snapshot;
 import tech.underoaks.coldcase.state.tileContent.GloveItem;
+import tech.underoaks.coldcase.state.tileContent.MovableBlockTranscendent;
 import tech.underoaks.coldcase.state.tileContent.Player;
 import tech.underoaks.coldcase.state.tileContent.TileContent;
 import tech.underoaks.coldcase.state.tiles.Tile;
@@ -20,7 +22,7 @@ import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.Objects;
 import java.util.Queue;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -75,7 +77,7 @@ public class GameControllerTest {
         );
 
         Map expectedMap = game.gameController.getCurrentMap();
-        Assertions.assertFalse(game.gameController.triggerAction(interaction));
+        Assertions.assertFalse(game.gameController.triggerActionAsync(interaction).join());
         Assertions.assertEquals(expectedMap, game.gameController.getCurrentMap());
     }
 
@@ -88,7 +90,7 @@ public class GameControllerTest {
         );
 
         Map expectedMap = game.gameController.getCurrentMap();
-        Assertions.assertFalse(game.gameController.triggerAction(interaction));
+        Assertions.assertFalse(game.gameController.triggerActionAsync(interaction).join());
         Assertions.assertEquals(expectedMap, game.gameController.getCurrentMap());
     }
 
@@ -101,7 +103,7 @@ public class GameControllerTest {
         );
 
         Map expectedMap = game.gameController.getCurrentMap();
-        Assertions.assertFalse(game.gameController.triggerAction(interaction));
+        Assertions.assertFalse(game.gameController.triggerActionAsync(interaction).join());
         Assertions.assertEquals(expectedMap, game.gameController.getCurrentMap());
     }
 
@@ -150,7 +152,7 @@ public class GameControllerTest {
         );
 
         Map expectedMap = game.gameController.getCurrentMap();
-        Assertions.assertTrue(GameController.getInstance().triggerAction(interaction));
+        Assertions.assertTrue(GameController.getInstance().triggerActionAsync(interaction).join());
         Assertions.assertEquals(expectedMap, game.gameController.getCurrentMap());
     }
 
@@ -163,10 +165,11 @@ public class GameControllerTest {
             Player.class
         );
 
-        try(MockedConstruction<RemoteGameController> ignored =
-            mockConstruction(RemoteGameController.class, (mock, context) -> when(mock.triggerAction(any(Interaction.class), anyBoolean())).thenReturn(null))) {
+        try (MockedStatic<RemoteGameController> remoteGameController = mockStatic(RemoteGameController.class)) {
+            remoteGameController.when(() -> RemoteGameController.executeTransactionAsync(any(), anyBoolean(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
             Map expectedMap = game.gameController.getCurrentMap();
-            Assertions.assertFalse(GameController.getInstance().triggerAction(interaction));
+            Assertions.assertFalse(GameController.getInstance().triggerActionAsync(interaction).join());
             Assertions.assertEquals(expectedMap, game.gameController.getCurrentMap());
         }
     }
@@ -180,30 +183,95 @@ public class GameControllerTest {
             Player.class
         );
 
-        try(MockedConstruction<RemoteGameController> ignored =
-                mockConstruction(RemoteGameController.class, (mock, context) -> when(mock.triggerAction(any(Interaction.class), anyBoolean())).thenReturn(new LinkedList<>()))) {
+        try (MockedStatic<RemoteGameController> remoteGameController = mockStatic(RemoteGameController.class)) {
+            remoteGameController.when(() -> RemoteGameController.executeTransactionAsync(any(), anyBoolean(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response(new LinkedList<>(), null)));
             Map expectedMap = game.gameController.getCurrentMap();
-            Assertions.assertTrue(GameController.getInstance().triggerAction(interaction));
+            Assertions.assertTrue(GameController.getInstance().triggerActionAsync(interaction).join());
             Assertions.assertEquals(expectedMap, game.gameController.getCurrentMap());
         }
     }
 
     @Test
-    public void triggerActionTest_remote_suppressFollowUp() {
+    public void handleTriggerRemoteInteractionTest_transcendent() {
         PlayerController.getInstance().setInventory(new GloveItem());
         Interaction interaction = new Interaction(
             new Vector2(6, 2),
             Direction.EAST,
             Player.class
         );
+        Queue<Interaction> transcendentInteractions = new LinkedList<>();
+
+        // The other client is waiting for the response, so the interaction is handed back instead of triggered there
+        try (MockedStatic<RemoteGameController> remoteGameController = mockStatic(RemoteGameController.class)) {
+            GameController.getInstance().handleCreateRemoteInteractionChain();
+            Assertions.assertNotNull(
+                GameController.getInstance().handleTriggerRemoteInteraction(interaction, false, transcendentInteractions)
+            );
+            remoteGameController.verifyNoInteractions();
+        }
+        Assertions.assertEquals(1, transcendentInteractions.size());
+        Assertions.assertSame(interaction, transcendentInteractions.poll());
+    }
 
-        Map expectedMap = game.gameController.getCurrentMap();
-        Snapshot expectedSnapshot = new Snapshot(expectedMap);
-        InteractionChain expectedChain = new InteractionChain(expectedSnapshot);
+    @Test
+    public void handleTriggerRemoteInteractionTest_suppressFollowUp() {
+        PlayerController.getInstance().setInventory(new GloveItem());
+        Interaction interaction = new Interaction(
+            new Vector2(6, 2),
+            Direction.EAST,
+            Player.class
+        );
+        Queue<Interaction> transcendentInteractions = new LinkedList<>();
+
+        GameController.getInstance().handleCreateRemoteInteractionChain();
+        Assertions.assertNotNull(
+            GameController.getInstance().handleTriggerRemoteInteraction(interaction, true, transcendentInteractions)
+        );
+        Assertions.assertTrue(transcendentInteractions.isEmpty());
+    }
+
+    @Test
+    public void triggerActionAsyncTest_local() {
+        Interaction interaction = new Interaction(
+            new Vector2(3, 1),
+            Direction.EAST,
+            Player.class
+        );
+
+        CompletableFuture<Boolean> result = GameController.getInstance().triggerActionAsync(interaction);
+        Assertions.assertTrue(result.isDone());
+        Assertions.assertTrue(result.join());
+        Assertions.assertFalse(GameController.getInstance().isInteractionRunning());
+        Assertions.assertFalse(GameController.getInstance().isPendingGSUQueueEmpty());
+    }
 
-        try(MockedConstruction<RemoteGameController> ignored =
-                mockConstruction(RemoteGameController.class, (mock, context) -> when(mock.triggerAction(any(Interaction.class), anyBoolean())).thenReturn(null))) {
-            Assertions.assertTrue(GameController.triggerAction(expectedChain, interaction, true));
+    @Test
+    public void triggerActionAsyncTest_remote() {
+        PlayerController.getInstance().setInventory(new GloveItem());
+        Interaction interaction = new Interaction(
+            new Vector2(6, 2),
+            Direction.EAST,
+            Player.class
+        );
+
+        CompletableFuture<Messages.ExecuteRemoteTransactionResponseMessage> transaction = new CompletableFuture<>();
+
+        try (MockedStatic<RemoteGameController> remoteGameController = mockStatic(RemoteGameController.class)) {
+            remoteGameController.when(() -> RemoteGameController.executeTransactionAsync(any(), anyBoolean(), any())).thenReturn(transaction);
+            CompletableFuture<Boolean> result = GameController.getInstance().triggerActionAsync(interaction);
+
+            // Waiting for the remote client must not block
+            Assertions.assertFalse(result.isDone());
+            Assertions.assertTrue(GameController.getInstance().isInteractionRunning());
+            Assertions.assertTrue(GameController.getInstance().isPendingGSUQueueEmpty());
+            Assertions.assertFalse(GameController.getInstance().triggerActionAsync(interaction).join());
+
+            transaction.complete(response(new LinkedList<>(), null));
+            Assertions.assertTrue(result.join());
+            Assertions.assertFalse(GameController.getInstance().isInteractionRunning());
+            Assertions.assertFalse(GameController.getInstance().isPendingGSUQueueEmpty());
+            remoteGameController.verify(() -> RemoteGameController.executeTransactionAsync(any(), eq(true), any()));
         }
     }
 
@@ -220,21 +288,46 @@ public class GameControllerTest {
             Player.class
         );
 
-        try(MockedConstruction<RemoteGameController> ignored =
-                mockConstruction(RemoteGameController.class, (mock, context) -> {
-                    Queue<Interaction> queue = new LinkedList<>();
-                    queue.add(interactionB);
-                    when(mock.triggerAction(any(Interaction.class))).thenReturn(queue);
-                })) {
-            GameController.triggerRemoteAction(expectedChain, interactionA);
+        Queue<Interaction> actions = new LinkedList<>();
+        actions.add(interactionA);
+        Queue<Interaction> followUps = new LinkedList<>();
+        followUps.add(interactionB);
+
+        try (MockedStatic<RemoteGameController> remoteGameController = mockStatic(RemoteGameController.class, CALLS_REAL_METHODS)) {
+            remoteGameController.when(() -> RemoteGameController.executeTransactionAsync(any(), anyBoolean(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response(followUps, null)));
+            GameController.triggerRemoteActionsAsync(expectedChain, actions).join();
             Assertions.assertNotNull(expectedChain.getPendingRemoteActions());
             Assertions.assertEquals(1, expectedChain.getPendingRemoteActions().size());
             Assertions.assertEquals(interactionB, expectedChain.getPendingRemoteActions().poll());
-        } catch (TimeoutException e) {
-            throw new RuntimeException(e);
         }
     }
 
+    @Test
+    public void triggerRemoteActionsTest_batch() {
+        Map expectedMap = game.gameController.getCurrentMap();
+        InteractionChain expectedChain = new InteractionChain(new Snapshot(expectedMap));
+
+        Queue<Interaction> actions = new LinkedList<>();
+        actions.add(new Interaction());
+        actions.add(new Interaction());
+        Queue<Interaction> followUps = new LinkedList<>();
+        followUps.add(new Interaction());
+
+        RemoteGameController.getBatchStatistics().reset();
+        try (MockedStatic<RemoteGameController> remoteGameController = mockStatic(RemoteGameController.class, CALLS_REAL_METHODS)) {
+            remoteGameController.when(() -> RemoteGameController.executeTransactionAsync(any(), anyBoolean(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response(followUps, null)));
+
+            GameController.triggerRemoteActionsAsync(expectedChain, actions).join();
+
+            remoteGameController.verify(() -> RemoteGameController.executeTransactionAsync(same(actions), eq(false), isNull()));
+        }
+        Assertions.assertEquals(1, expectedChain.getPendingRemoteActions().size());
+        Assertions.assertEquals(1, RemoteGameController.getBatchStatistics().getBatchCount());
+        Assertions.assertEquals(2, RemoteGameController.getBatchStatistics().getLastBatchSize());
+    }
+
     @Test
     public void triggerRemoteActionTest_noFollowUp() {
         Map expectedMap = game.gameController.getCurrentMap();
@@ -243,16 +336,43 @@ public class GameControllerTest {
 
         Interaction interactionA = new Interaction();
 
-        try(MockedConstruction<RemoteGameController> ignored =
-                mockConstruction(RemoteGameController.class, (mock, context) -> when(mock.triggerAction(any(Interaction.class))).thenReturn(null))) {
-            GameController.triggerRemoteAction(expectedChain, interactionA);
+        Queue<Interaction> actions = new LinkedList<>();
+        actions.add(interactionA);
+
+        try (MockedStatic<RemoteGameController> remoteGameController = mockStatic(RemoteGameController.class, CALLS_REAL_METHODS)) {
+            remoteGameController.when(() -> RemoteGameController.executeTransactionAsync(any(), anyBoolean(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+            GameController.triggerRemoteActionsAsync(expectedChain, actions).join();
             Assertions.assertNotNull(expectedChain.getPendingRemoteActions());
             Assertions.assertEquals(0, expectedChain.getPendingRemoteActions().size());
-        } catch (TimeoutException e) {
-            throw new RuntimeException(e);
         }
     }
 
+    @Test
+    public void triggerRemoteActionsTest_transcendent() {
+        PlayerController.getInstance().setInventory(new GloveItem());
+        Map expectedMap = game.gameController.getCurrentMap();
+        InteractionChain expectedChain = new InteractionChain(new Snapshot(expectedMap));
+
+        Queue<Interaction> actions = new LinkedList<>();
+        actions.add(new Interaction());
+        Queue<Interaction> transcendentInteractions = new LinkedList<>();
+        transcendentInteractions.add(new Interaction(
+            new Vector2(6, 2),
+            Direction.EAST,
+            Player.class
+        ));
+
+        // Interactions handed back by the other client are triggered locally without asking it again
+        try (MockedStatic<RemoteGameController> remoteGameController = mockStatic(RemoteGameController.class, CALLS_REAL_METHODS)) {
+            remoteGameController.when(() -> RemoteGameController.executeTransactionAsync(any(), anyBoolean(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response(new LinkedList<>(), transcendentInteractions)));
+            GameController.triggerRemoteActionsAsync(expectedChain, actions).join();
+            remoteGameController.verify(() -> RemoteGameController.executeTransactionAsync(any(), anyBoolean(), any()));
+        }
+        Assertions.assertFalse(expectedChain.getGSUQueue().isEmpty());
+    }
+
     @Test
     public void isPendingGSUQueueEmptyTest_Empty() {
         Assertions.assertTrue(GameController.getInstance().isPendingGSUQueueEmpty());
@@ -267,10 +387,39 @@ public class GameControllerTest {
             Player.class
         );
 
-        Assertions.assertTrue(GameController.getInstance().triggerAction(interaction));
+        Assertions.assertTrue(GameController.getInstance().triggerActionAsync(interaction).join());
+        Assertions.assertFalse(GameController.getInstance().isPendingGSUQueueEmpty());
+    }
+
+    @Test
+    public void handleExecuteRemoteTransactionTest() {
+        PlayerController.getInstance().setInventory(new GloveItem());
+        Queue<Interaction> remoteInteractions = new LinkedList<>();
+        remoteInteractions.add(new Interaction(
+            new Vector2(8, 2),
+            Direction.EAST,
+            Player.class
+        ));
+
+        Assertions.assertNotNull(GameController.getInstance().handleExecuteRemoteTransaction(remoteInteractions, true, true, null, new LinkedList<>()));
+        Assertions.assertFalse(GameController.getInstance().isInteractionRunning());
         Assertions.assertFalse(GameController.getInstance().isPendingGSUQueueEmpty());
     }
 
+    @Test
+    public void handleExecuteRemoteTransactionTest_Aborted() {
+        Queue<Interaction> remoteInteractions = new LinkedList<>();
+        remoteInteractions.add(new Interaction(
+            new Vector2(-1, -1),
+            Direction.EAST,
+            Player.class
+        ));
+
+        Assertions.assertNull(GameController.getInstance().handleExecuteRemoteTransaction(remoteInteractions, true, true, null, new LinkedList<>()));
+        Assertions.assertFalse(GameController.getInstance().isInteractionRunning());
+        Assertions.assertTrue(GameController.getInstance().isPendingGSUQueueEmpty());
+    }
+
     @Test
     public void handleCreateRemoteInteractionTest() {
         Assertions.assertThrows(RuntimeException.class, () -> GameController.getInstance().handleApplyRemoteGSUsMessage());
@@ -301,7 +450,7 @@ public class GameControllerTest {
 
         GameController.getInstance().handleCreateRemoteInteractionChain();
         Assertions.assertNull(
-            GameController.getInstance().handleTriggerRemoteInteraction(interaction, false)
+            GameController.getInstance().handleTriggerRemoteInteraction(interaction, false, new LinkedList<>())
         );
     }
 
@@ -316,13 +465,90 @@ public class GameControllerTest {
 
         GameController.getInstance().handleCreateRemoteInteractionChain();
         Assertions.assertNotNull(
-            GameController.getInstance().handleTriggerRemoteInteraction(interaction, false)
+            GameController.getInstance().handleTriggerRemoteInteraction(interaction, false, new LinkedList<>())
         );
 
         GameController.getInstance().handleApplyRemoteGSUsMessage();
         Assertions.assertFalse(GameController.getInstance().isPendingGSUQueueEmpty());
     }
 
+    @Test
+    public void undoRedoTest() {
+        Interaction interaction = new Interaction(
+            new Vector2(3, 1),
+            Direction.EAST,
+            Player.class
+        );
+        TileContent player = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
+
+        Assertions.assertFalse(GameController.getInstance().undo());
+        Assertions.assertTrue(GameController.getInstance().triggerActionAsync(interaction).join());
+        Assertions.assertFalse(GameController.getInstance().undo()); // Updates are still pending
+        GameController.getInstance().applyNextPendingGSU();
+
+        Assertions.assertTrue(GameController.getInstance().undo());
+        Assertions.assertSame(player, game.gameController.getCurrentMap().getTile(1, 3).topTileContent());
+        Assertions.assertNull(game.gameController.getCurrentMap().getTile(2, 3).topTileContent());
+        Assertions.assertEquals(new Vector2(3, 1), PlayerController.getInstance().getPlayerPosition());
+
+        Assertions.assertTrue(GameController.getInstance().redo());
+        Assertions.assertSame(player, game.gameController.getCurrentMap().getTile(2, 3).topTileContent());
+        Assertions.assertEquals(new Vector2(3, 2), PlayerController.getInstance().getPlayerPosition());
+        Assertions.assertFalse(GameController.getInstance().redo());
+    }
+
+    @Test
+    public void resumeSessionTest() {
+        Map map = game.gameController.getCurrentMap();
+        String stateHash = Long.toHexString(map.getTranscendentHash());
+        Map otherMap = map.deepClone();
+        otherMap.getTile(2, 2).pushTileContent(new MovableBlockTranscendent());
+
+        // Both states match, or the other client can undo its way back
+        Assertions.assertNull(game.gameController.handleResumeSession(stateHash, new String[0]));
+        Assertions.assertNull(game.gameController.handleResumeSession("1", new String[]{"2", stateHash}));
+
+        // Otherwise the transcendent state is handed over and adopted
+        int[] transcendentState = game.gameController.handleResumeSession("1", new String[]{"2"});
+        Assertions.assertNotNull(transcendentState);
+        Assertions.assertEquals(map.getTranscendentState().length, transcendentState.length);
+
+        game.gameController.setCurrentMap(otherMap);
+        game.gameController.handleResumeSessionResponse(stateHash, transcendentState);
+        Assertions.assertEquals(stateHash, Long.toHexString(otherMap.getTranscendentHash()));
+        Assertions.assertEquals(1, game.gameController.getTranscendentHashHistory().size());
+    }
+
+    @Test
+    public void speculateTest() {
+        Interaction interaction = new Interaction(
+            new Vector2(3, 1),
+            Direction.EAST,
+            Player.class
+        );
+        TileContent player = game.gameController.getCurrentMap().getTile(1, 3).topTileContent();
+        PlayerController playerController = PlayerController.getInstance();
+
+        // Every frame speculates one candidate until the moves and interactions in each direction are done
+        int candidates = 2 * Direction.values().length;
+        for (int i = 1; i <= candidates; i++) {
+            Assertions.assertEquals(i < candidates, GameController.getInstance().speculate());
+        }
+        Assertions.assertFalse(GameController.getInstance().speculate());
+        Assertions.assertSame(playerController, PlayerController.getInstance());
+        Assertions.assertEquals(new Vector2(3, 1), PlayerController.getInstance().getPlayerPosition());
+        Assertions.assertEquals(Direction.EAST, PlayerController.getInstance().getPlayerDirection());
+        Assertions.assertSame(player, game.gameController.getCurrentMap().getTile(1, 3).topTileContent());
+
+        Assertions.assertTrue(GameController.getInstance().triggerActionAsync(interaction).join());
+        Assertions.assertFalse(GameController.getInstance().isPendingGSUQueueEmpty());
+        GameController.getInstance().applyNextPendingGSU();
+
+        Assertions.assertSame(player, game.gameController.getCurrentMap().getTile(2, 3).topTileContent());
+        Assertions.assertEquals(new Vector2(3, 2), PlayerController.getInstance().getPlayerPosition());
+        Assertions.assertTrue(GameController.getInstance().undo());
+    }
+
     @Test
     public void applyNextPendingGSUTest_Empty() {
         Map expectedMap = game.gameController.getCurrentMap();
@@ -341,7 +567,7 @@ public class GameControllerTest {
             Player.class
         );
 
-        Assertions.assertTrue(GameController.getInstance().triggerAction(interaction));
+        Assertions.assertTrue(GameController.getInstance().triggerActionAsync(interaction).join());
         Assertions.assertFalse(GameController.getInstance().isPendingGSUQueueEmpty());
 
         GameController.getInstance().applyNextPendingGSU();
@@ -371,4 +597,8 @@ public class GameControllerTest {
             }
         }
     }
+
+    private static Messages.ExecuteRemoteTransactionResponseMessage response(Queue<Interaction> followUps, Queue<Interaction> transcendentInteractions) {
+        return new Messages.ExecuteRemoteTransactionResponseMessage("instance", followUps, transcendentInteractions, true);
+    }
 }
@@ -61,7 +61,7 @@ public class GloveItemTest {
         TileContent glove = game.gameController.getCurrentMap().getTile(1, 4).topTileContent();
 
         // ACT
-        boolean action = game.gameController.triggerAction(interaction);
+        boolean action = game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -83,7 +83,7 @@ public class GloveItemTest {
         PlayerController.getInstance().setInventory(testItem);
 
         // ACT
-        boolean action = game.gameController.triggerAction(interaction);
+        boolean action = game.gameController.triggerActionAsync(interaction).join();
         game.gameController.applyNextPendingGSU();
         game.gameController.applyNextPendingGSU();
 
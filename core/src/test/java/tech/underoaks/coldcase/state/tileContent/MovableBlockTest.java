@@ -63,7 +63,7 @@ public class MovableBlockTest {
         PlayerController.getInstance().setInventory(new GloveItem());
 
         // ACT
-        boolean res = game.gameController.triggerAction(interaction_arrange);
+        boolean res = game.gameController.triggerActionAsync(interaction_arrange).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -83,7 +83,7 @@ public class MovableBlockTest {
         TileContent expectedBlock = game.gameController.getCurrentMap().getTile(2, 8).topTileContent();
 
         // ACT
-        boolean res = game.gameController.triggerAction(interaction_arrange);
+        boolean res = game.gameController.triggerActionAsync(interaction_arrange).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -104,7 +104,7 @@ public class MovableBlockTest {
         PlayerController.getInstance().setInventory(new TestItem());
 
         // ACT
-        boolean res = game.gameController.triggerAction(interaction_arrange);
+        boolean res = game.gameController.triggerActionAsync(interaction_arrange).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -129,7 +129,7 @@ public class MovableBlockTest {
         TileContent expectedBlock = game.gameController.getCurrentMap().getTile(2, 8).topTileContent();
 
         // ACT
-        boolean res = game.gameController.triggerAction(interaction_arrange);
+        boolean res = game.gameController.triggerActionAsync(interaction_arrange).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -160,11 +160,11 @@ public class MovableBlockTest {
         PlayerController.getInstance().setInventory(new GloveItem());
 
         // ACT
-        boolean resA = game.gameController.triggerAction(interaction_arrangeA);
+        boolean resA = game.gameController.triggerActionAsync(interaction_arrangeA).join();
         game.gameController.applyNextPendingGSU();
-        boolean resB = game.gameController.triggerAction(interaction_arrangeB);
+        boolean resB = game.gameController.triggerActionAsync(interaction_arrangeB).join();
         game.gameController.applyNextPendingGSU();
-        boolean resC = game.gameController.triggerAction(interaction_arrangeC);
+        boolean resC = game.gameController.triggerActionAsync(interaction_arrangeC).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -188,7 +188,7 @@ public class MovableBlockTest {
         PlayerController.getInstance().setInventory(new GloveItem());
 
         // ACT
-        boolean res = game.gameController.triggerAction(interaction_arrange);
+        boolean res = game.gameController.triggerActionAsync(interaction_arrange).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -209,7 +209,7 @@ public class MovableBlockTest {
         PlayerController.getInstance().setInventory(new GloveItem());
 
         // ACT
-        boolean res = game.gameController.triggerAction(interaction_arrange);
+        boolean res = game.gameController.triggerActionAsync(interaction_arrange).join();
         game.gameController.applyNextPendingGSU();
 
         // ASSERT
@@ -38,6 +38,9 @@ public class Lwjgl3Launcher {
         //// If you remove the above line and set Vsync to false, you can get unlimited FPS, which can be
         //// useful for testing performance, but can also be very stressful to some hardware.
         //// You may also need to configure GPU drivers to fully disable Vsync; this can cause screen tearing.
+        //// Without continuous rendering, input is polled at this rate while no frames are rendered. Matching the
+        //// refresh rate keeps the input latency at a single frame, polling alone barely uses any CPU.
+        configuration.setIdleFPS(Lwjgl3ApplicationConfiguration.getDisplayMode().refreshRate + 1);
         //configuration.setWindowedMode(1920, 1080);
         configuration.setFullscreenMode(Lwjgl3ApplicationConfiguration.getDisplayMode());
         configuration.setWindowSizeLimits(800, 480, -1, -1);